@@ -0,0 +1,77 @@
+package com.tradeshow.pulse24x7.mcp.bench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.tradeshow.pulse24x7.mcp.model.Tool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic MCP tools/list payloads shaped like the ones real servers return.
+ */
+public final class ToolFixtures {
+    private ToolFixtures() {
+    }
+
+    public static JsonObject toolsListResponse(int count) {
+        JsonArray tools = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            JsonObject tool = new JsonObject();
+            tool.addProperty("name", "tool_" + i);
+            tool.addProperty("description", "Performs operation " + i + " against the remote workspace and returns the result set.");
+            tool.add("inputSchema", inputSchema(i));
+            if (i % 3 == 0) {
+                JsonObject output = new JsonObject();
+                output.addProperty("type", "object");
+                tool.add("outputSchema", output);
+            }
+            tools.add(tool);
+        }
+        JsonObject result = new JsonObject();
+        result.add("tools", tools);
+        JsonObject response = new JsonObject();
+        response.addProperty("jsonrpc", "2.0");
+        response.addProperty("id", 1);
+        response.add("result", result);
+        return response;
+    }
+
+    public static List<Tool> tools(int count, int serverId) {
+        List<Tool> tools = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Tool tool = new Tool();
+            tool.setToolId(i + 1);
+            tool.setServerId(serverId);
+            tool.setToolName("tool_" + i);
+            tool.setToolDescription("Performs operation " + i + " against the remote workspace and returns the result set.");
+            tool.setToolType("ACTION");
+            tool.setInputSchema(inputSchema(i).toString());
+            tool.setOutputSchema(i % 3 == 0 ? "{\"type\":\"object\"}" : null);
+            tool.setIsAvailability(true);
+            tool.setTotalRequests(100 + i);
+            tool.setSuccessRequests(95 + i);
+            tool.setLastStatusCode(200);
+            tool.setLastLatencyMs(40L + i % 200);
+            tools.add(tool);
+        }
+        return tools;
+    }
+
+    private static JsonObject inputSchema(int i) {
+        JsonObject properties = new JsonObject();
+        for (int p = 0; p < 4 + i % 5; p++) {
+            JsonObject property = new JsonObject();
+            property.addProperty("type", p % 2 == 0 ? "string" : "integer");
+            property.addProperty("description", "Parameter " + p + " of tool " + i);
+            properties.add("param_" + p, property);
+        }
+        JsonArray required = new JsonArray();
+        required.add("param_0");
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        schema.add("properties", properties);
+        schema.add("required", required);
+        return schema;
+    }
+}
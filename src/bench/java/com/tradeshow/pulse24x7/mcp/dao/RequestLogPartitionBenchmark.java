@@ -0,0 +1,191 @@
+package com.tradeshow.pulse24x7.mcp.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares request_logs query latency on an unpartitioned table against a monthly RANGE-partitioned copy.
+ * Not a unit test; run manually against a scratch schema:
+ * <pre>
+ * mvn -q -P benchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.tradeshow.pulse24x7.mcp.dao.RequestLogPartitionBenchmark
+ * </pre>
+ * Configure with MCP_BENCH_DB_URL / MCP_DB_USER / MCP_DB_PASSWORD, MCP_BENCH_MONTHS and MCP_BENCH_ROWS_PER_DAY.
+ */
+public class RequestLogPartitionBenchmark {
+    private static final String FLAT = "bench_request_logs_flat";
+    private static final String PARTITIONED = "bench_request_logs_part";
+    private static final String[] TOOLS = {"search", "create_record", "update_record", "list_files", "send_mail",
+            "get_user", "query_report", "sync_calendar"};
+    private static final int SERVERS = 20;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 30;
+
+    public static void main(String[] args) throws Exception {
+        String url = env("MCP_BENCH_DB_URL", "jdbc:mysql://localhost:3306/pulse24x7_bench?rewriteBatchedStatements=true");
+        String user = env("MCP_DB_USER", "root");
+        String password = env("MCP_DB_PASSWORD", "");
+        int months = Integer.parseInt(env("MCP_BENCH_MONTHS", "6"));
+        int rowsPerDay = Integer.parseInt(env("MCP_BENCH_ROWS_PER_DAY", "5000"));
+
+        try (Connection con = DriverManager.getConnection(url, user, password)) {
+            createTables(con, months);
+            long loadStart = System.nanoTime();
+            load(con, months, rowsPerDay);
+            System.out.printf("Loaded %d months x %d rows/day into both tables in %.1f s%n",
+                    months, rowsPerDay, (System.nanoTime() - loadStart) / 1e9);
+            try (Statement st = con.createStatement()) {
+                st.execute("ANALYZE TABLE " + FLAT + ", " + PARTITIONED);
+            }
+
+            System.out.printf("%-28s %12s %12s %12s %12s%n", "query", "flat p50", "flat p95", "part p50", "part p95");
+            runQuery(con, "stats 24h", "SELECT COUNT(*), SUM(CASE WHEN status_code >= 500 THEN 1 ELSE 0 END) " +
+                    "FROM %s WHERE server_id = ? AND created_at >= ?", 24);
+            runQuery(con, "throughput 24h", "SELECT DATE_FORMAT(created_at, '%%Y-%%m-%%d %%H:00:00') b, COUNT(*) " +
+                    "FROM %s WHERE server_id = ? AND created_at >= ? GROUP BY b ORDER BY b", 24);
+            runQuery(con, "logs page 24h", "SELECT id, tool_name, status_code, latency_ms, created_at " +
+                    "FROM %s WHERE server_id = ? AND created_at >= ? ORDER BY created_at DESC LIMIT 50", 24);
+            runQuery(con, "stats 7d", "SELECT COUNT(*), AVG(latency_ms) " +
+                    "FROM %s WHERE server_id = ? AND created_at >= ?", 24 * 7);
+            runQuery(con, "top tools 30d", "SELECT tool_name, COUNT(*) c, AVG(latency_ms) " +
+                    "FROM %s WHERE server_id = ? AND created_at >= ? GROUP BY tool_name ORDER BY c DESC LIMIT 5", 24 * 30);
+            runQuery(con, "all servers status 24h", "SELECT status_code, COUNT(*) " +
+                    "FROM %s WHERE created_at >= ? AND server_id > ? GROUP BY status_code", 24);
+
+            comparePurge(con, months);
+        }
+    }
+
+    private static void createTables(Connection con, int months) throws SQLException {
+        String columns = "id BIGINT NOT NULL AUTO_INCREMENT, server_id INT NOT NULL, tool_id INT NULL, " +
+                "tool_name VARCHAR(120) NOT NULL, method VARCHAR(10) NOT NULL DEFAULT 'POST', status_code INT NOT NULL, " +
+                "status_text VARCHAR(20) NOT NULL, latency_ms BIGINT NOT NULL DEFAULT 0, error_message TEXT NULL, " +
+                "response_size_bytes BIGINT NOT NULL DEFAULT 0, user_agent VARCHAR(255) NULL, " +
+                "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, ";
+        String indexes = "INDEX idx_server_created (server_id, created_at), INDEX idx_tool_created (tool_name, created_at), " +
+                "INDEX idx_status (status_code)";
+
+        StringBuilder partitions = new StringBuilder();
+        LocalDate month = LocalDate.now().withDayOfMonth(1).minusMonths(months);
+        for (int i = 0; i <= months + 1; i++) {
+            LocalDate next = month.plusMonths(1);
+            partitions.append(String.format("PARTITION p%s VALUES LESS THAN (UNIX_TIMESTAMP('%s 00:00:00')), ",
+                    month.toString().replace("-", ""), next));
+            month = next;
+        }
+        partitions.append("PARTITION pmax VALUES LESS THAN MAXVALUE");
+
+        try (Statement st = con.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + FLAT);
+            st.execute("DROP TABLE IF EXISTS " + PARTITIONED);
+            st.execute("CREATE TABLE " + FLAT + " (" + columns + "PRIMARY KEY (id), " + indexes + ")");
+            st.execute("CREATE TABLE " + PARTITIONED + " (" + columns + "PRIMARY KEY (id, created_at), " + indexes + ") " +
+                    "PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (" + partitions + ")");
+        }
+    }
+
+    private static void load(Connection con, int months, int rowsPerDay) throws SQLException {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDate.now().minusMonths(months).atStartOfDay();
+        LocalDateTime end = LocalDateTime.now();
+        long spanSeconds = java.time.Duration.between(start, end).getSeconds();
+        long totalRows = (spanSeconds / 86400L) * rowsPerDay;
+        double step = spanSeconds / (double) Math.max(1, totalRows);
+
+        con.setAutoCommit(false);
+        for (String table : List.of(FLAT, PARTITIONED)) {
+            random.setSeed(42);
+            try (PreparedStatement ps = con.prepareStatement("INSERT INTO " + table +
+                    " (server_id, tool_name, status_code, status_text, latency_ms, response_size_bytes, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (long i = 0; i < totalRows; i++) {
+                    int status = random.nextInt(100) < 92 ? 200 : (random.nextBoolean() ? 429 : 502);
+                    ps.setInt(1, 1 + random.nextInt(SERVERS));
+                    ps.setString(2, TOOLS[random.nextInt(TOOLS.length)]);
+                    ps.setInt(3, status);
+                    ps.setString(4, status == 200 ? "OK" : "ERR");
+                    ps.setLong(5, 20 + (long) Math.abs(random.nextGaussian() * 150));
+                    ps.setLong(6, 200 + random.nextInt(20_000));
+                    ps.setTimestamp(7, Timestamp.valueOf(start.plusSeconds((long) (i * step))));
+                    ps.addBatch();
+                    if (i % 5_000 == 4_999) {
+                        ps.executeBatch();
+                        con.commit();
+                    }
+                }
+                ps.executeBatch();
+                con.commit();
+            }
+        }
+        con.setAutoCommit(true);
+    }
+
+    private static void runQuery(Connection con, String label, String template, int hours) throws SQLException {
+        double[] flat = time(con, String.format(template, FLAT), hours);
+        double[] part = time(con, String.format(template, PARTITIONED), hours);
+        System.out.printf("%-28s %10.2fms %10.2fms %10.2fms %10.2fms%n", label, flat[0], flat[1], part[0], part[1]);
+    }
+
+    private static double[] time(Connection con, String sql, int hours) throws SQLException {
+        Random random = new Random(7);
+        List<Double> samples = new ArrayList<>();
+        boolean timeFirst = sql.indexOf("created_at >= ?") < sql.indexOf("server_id");
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusHours(hours));
+                int serverId = timeFirst ? 0 : 1 + random.nextInt(SERVERS);
+                if (timeFirst) {
+                    ps.setTimestamp(1, since);
+                    ps.setInt(2, serverId);
+                } else {
+                    ps.setInt(1, serverId);
+                    ps.setTimestamp(2, since);
+                }
+                long start = System.nanoTime();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getObject(1);
+                    }
+                }
+                if (i >= WARMUP) {
+                    samples.add((System.nanoTime() - start) / 1e6);
+                }
+            }
+        }
+        double[] sorted = samples.stream().mapToDouble(Double::doubleValue).toArray();
+        Arrays.sort(sorted);
+        return new double[]{sorted[sorted.length / 2], sorted[(int) Math.ceil(sorted.length * 0.95) - 1]};
+    }
+
+    private static void comparePurge(Connection con, int months) throws SQLException {
+        LocalDate oldest = LocalDate.now().withDayOfMonth(1).minusMonths(months);
+        String bound = oldest.plusMonths(1) + " 00:00:00";
+        try (Statement st = con.createStatement()) {
+            long start = System.nanoTime();
+            int deleted = st.executeUpdate("DELETE FROM " + FLAT + " WHERE created_at < '" + bound + "'");
+            double deleteMs = (System.nanoTime() - start) / 1e6;
+
+            start = System.nanoTime();
+            st.execute("ALTER TABLE " + PARTITIONED + " DROP PARTITION p" + oldest.toString().replace("-", ""));
+            double dropMs = (System.nanoTime() - start) / 1e6;
+            System.out.printf("purge oldest month: DELETE %d rows %.1f ms vs DROP PARTITION %.1f ms%n",
+                    deleted, deleteMs, dropMs);
+        }
+    }
+
+    private static String env(String key, String fallback) {
+        String value = System.getenv(key);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
@@ -0,0 +1,49 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.google.gson.JsonObject;
+import com.tradeshow.pulse24x7.mcp.bench.ToolFixtures;
+import com.tradeshow.pulse24x7.mcp.model.RequestLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestLogServiceBenchmark {
+    @Param({"10", "1000"})
+    private int responseTools;
+
+    private RequestLogService requestLogService;
+    private JsonObject requestPayload;
+    private JsonObject responseBody;
+
+    @Setup
+    public void setUp() {
+        requestLogService = new ServiceRegistry().getRequestLogService();
+        requestPayload = new JsonObject();
+        requestPayload.addProperty("jsonrpc", "2.0");
+        requestPayload.addProperty("id", 7);
+        requestPayload.addProperty("method", "tools/list");
+        responseBody = ToolFixtures.toolsListResponse(responseTools);
+    }
+
+    @Benchmark
+    public RequestLog buildRequestLog() {
+        return requestLogService.buildRequestLog(1, null, "tools/list", "POST", 200, "OK", 85L,
+                requestPayload, responseBody, null, "Pulse24x7-Monitor/1.0");
+    }
+}
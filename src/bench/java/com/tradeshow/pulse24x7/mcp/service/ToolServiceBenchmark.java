@@ -0,0 +1,65 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.google.gson.JsonObject;
+import com.tradeshow.pulse24x7.mcp.bench.ToolFixtures;
+import com.tradeshow.pulse24x7.mcp.model.Tool;
+import com.tradeshow.pulse24x7.mcp.utils.SchemaFingerprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolServiceBenchmark {
+    @Param({"50", "500", "5000"})
+    private int toolCount;
+
+    private ToolService toolService;
+    private JsonObject response;
+    private List<Tool> storedTools;
+    private List<Tool> fetchedTools;
+    private String schema;
+
+    @Setup
+    public void setUp() {
+        toolService = new ServiceRegistry().getToolService();
+        response = ToolFixtures.toolsListResponse(toolCount);
+        storedTools = ToolFixtures.tools(toolCount, 1);
+        fetchedTools = ToolFixtures.tools(toolCount, 1);
+        // one tool in ten changed its description between polls
+        for (int i = 0; i < fetchedTools.size(); i += 10) {
+            fetchedTools.get(i).setToolDescription("Updated description " + i);
+        }
+        schema = storedTools.get(0).getInputSchema();
+    }
+
+    @Benchmark
+    public List<Tool> parseToolsFromResponse() {
+        return toolService.parseToolsFromResponse(response, 1);
+    }
+
+    @Benchmark
+    public List<Tool> getChangedOrAddedTools() {
+        return toolService.getChangedOrAddedTools(storedTools, fetchedTools);
+    }
+
+    @Benchmark
+    public String schemaFingerprint() {
+        return SchemaFingerprint.ofStored(schema);
+    }
+}
@@ -0,0 +1,41 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpClientUtilBenchmark {
+    @Param({"message", "nested", "plain"})
+    private String shape;
+
+    @Benchmark
+    public String extractErrorMessage() {
+        return HttpClientUtil.extractErrorMessage(body(), 502);
+    }
+
+    private String body() {
+        switch (shape) {
+            case "message":
+                return "{\"message\":\"Upstream tool timed out\",\"code\":504}";
+            case "nested":
+                return "{\"status\":\"error\",\"data\":{\"error\":\"Rate limit exceeded\",\"retryAfter\":30}}";
+            default:
+                return "<html><body><h1>502 Bad Gateway</h1></body></html>";
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import com.google.gson.JsonObject;
+import com.tradeshow.pulse24x7.mcp.bench.ToolFixtures;
+import com.tradeshow.pulse24x7.mcp.model.Tool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonUtilBenchmark {
+    @Param({"50", "500", "5000"})
+    private int toolCount;
+
+    private List<Tool> tools;
+
+    @Setup
+    public void setUp() {
+        tools = ToolFixtures.tools(toolCount, 1);
+    }
+
+    @Benchmark
+    public JsonObject createSuccessResponse() {
+        return JsonUtil.createSuccessResponse(tools);
+    }
+
+    @Benchmark
+    public String createSuccessResponseSerialized() {
+        // what the servlets actually write to the response
+        return JsonUtil.createSuccessResponse(tools).toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = JwtUtil.generateToken(42L, "bench@pulse24x7.local", "USER", 3600);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken(42L, "bench@pulse24x7.local", "USER", 3600);
+    }
+
+    @Benchmark
+    public JsonObject verify() {
+        return JwtUtil.verify(token);
+    }
+}
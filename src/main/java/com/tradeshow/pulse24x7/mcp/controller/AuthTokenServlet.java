@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.model.AuthToken;
 import com.tradeshow.pulse24x7.mcp.service.AuthTokenService;
 import com.tradeshow.pulse24x7.mcp.service.ServerService;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
 import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
 import com.tradeshow.pulse24x7.mcp.utils.ServletUtil;
@@ -33,8 +34,9 @@ public class AuthTokenServlet extends HttpServlet {
     @Override
     public void init() throws ServletException {
         super.init();
-        authTokenService = new AuthTokenService();
-        serverService = new ServerService();
+        ServiceRegistry services = ServiceRegistry.from(getServletContext());
+        authTokenService = services.getAuthTokenService();
+        serverService = services.getServerService();
         logger.info("AuthTokenServlet initialized");
     }
 
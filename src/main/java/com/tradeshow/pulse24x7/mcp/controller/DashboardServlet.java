@@ -1,6 +1,7 @@
 package com.tradeshow.pulse24x7.mcp.controller;
 
 import com.google.gson.JsonObject;
+import com.tradeshow.pulse24x7.mcp.dao.RequestLogDAO;
 import com.tradeshow.pulse24x7.mcp.db.DBConnection;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
 import jakarta.servlet.ServletException;
@@ -125,7 +126,7 @@ public class DashboardServlet extends HttpServlet {
     }
 
     private int getTotalServersCount(Long userId) {
-        String sql = "SELECT COUNT(*) as count FROM servers WHERE user_id = ?";
+        String sql = "SELECT COUNT(*) as count FROM servers WHERE user_id = ? AND deleted_at IS NULL";
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setLong(1, userId);
@@ -143,7 +144,7 @@ public class DashboardServlet extends HttpServlet {
     private int getActiveServersCount(Long userId) {
         String sql = "SELECT COUNT(DISTINCT sh.server_id) as count FROM server_history sh " +
                 "INNER JOIN servers s ON s.server_id = sh.server_id " +
-                "WHERE s.user_id = ? AND sh.checked_at >= NOW() - INTERVAL 1 HOUR AND sh.server_up = 1";
+                "WHERE s.user_id = ? AND s.deleted_at IS NULL AND sh.checked_at >= NOW() - INTERVAL 1 HOUR AND sh.server_up = 1";
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setLong(1, userId);
@@ -160,7 +161,7 @@ public class DashboardServlet extends HttpServlet {
 
     private int getTotalToolsCount(Long userId, Integer serverId) {
         String sql = "SELECT COUNT(*) as count FROM tools t INNER JOIN servers s ON s.server_id = t.server_id " +
-                "WHERE s.user_id = ? " + (serverId != null ? "AND t.server_id = ?" : "");
+                "WHERE s.user_id = ? AND s.deleted_at IS NULL " + (serverId != null ? "AND t.server_id = ?" : "");
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setLong(1, userId);
@@ -182,7 +183,7 @@ public class DashboardServlet extends HttpServlet {
         String sql = "SELECT COUNT(DISTINCT th.tool_id) as count FROM tools_history th " +
                 "INNER JOIN tools t ON t.tool_id = th.tool_id " +
                 "INNER JOIN servers s ON s.server_id = t.server_id " +
-                "WHERE s.user_id = ? AND th.checked_at >= NOW() - INTERVAL 1 HOUR AND th.is_available = 1 " +
+                "WHERE s.user_id = ? AND s.deleted_at IS NULL AND th.checked_at >= NOW() - INTERVAL 1 HOUR AND th.is_available = 1 " +
                 (serverId != null ? "AND t.server_id = ?" : "");
 
         try (Connection conn = DBConnection.getInstance().getConnection();
@@ -212,11 +213,12 @@ public class DashboardServlet extends HttpServlet {
                 "SUM(CASE WHEN rl.status_code >= 200 AND rl.status_code < 300 THEN 1 ELSE 0 END) total_success, " +
                 "SUM(CASE WHEN rl.status_code >= 400 THEN 1 ELSE 0 END) total_errors " +
                 "FROM request_logs rl INNER JOIN servers s ON s.server_id = rl.server_id " +
-                "WHERE rl.server_id = ? AND s.user_id = ?";
+                "WHERE rl.server_id = ? AND s.user_id = ? AND s.deleted_at IS NULL AND rl.created_at >= NOW() - INTERVAL ? HOUR";
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, serverId);
             stmt.setLong(2, userId);
+            stmt.setInt(3, RequestLogDAO.defaultWindowHours());
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     stats.put("totalRequests", rs.getLong("total_requests"));
@@ -238,7 +240,7 @@ public class DashboardServlet extends HttpServlet {
                 "FROM request_logs rl " +
                 "INNER JOIN tools t ON rl.tool_id = t.tool_id " +
                 "INNER JOIN servers s ON s.server_id = rl.server_id " +
-                "WHERE s.user_id = ? AND rl.created_at >= NOW() - INTERVAL ? HOUR " +
+                "WHERE s.user_id = ? AND s.deleted_at IS NULL AND rl.created_at >= NOW() - INTERVAL ? HOUR " +
                 (serverId != null ? "AND rl.server_id = ? " : "") +
                 "GROUP BY t.tool_id, t.tool_name ORDER BY request_count DESC LIMIT ?";
 
@@ -282,7 +284,7 @@ public class DashboardServlet extends HttpServlet {
         String sql = "SELECT DATE_FORMAT(rl.created_at, '%H:00') as time_label, COUNT(*) as value " +
                 "FROM request_logs rl " +
                 "INNER JOIN servers s ON s.server_id = rl.server_id " +
-                "WHERE s.user_id = ? AND rl.created_at >= NOW() - INTERVAL ? HOUR " +
+                "WHERE s.user_id = ? AND s.deleted_at IS NULL AND rl.created_at >= NOW() - INTERVAL ? HOUR " +
                 (serverId != null ? "AND rl.server_id = ? " : "") +
                 "GROUP BY DATE_FORMAT(rl.created_at, '%Y-%m-%d %H:00:00') ORDER BY rl.created_at";
 
@@ -316,7 +318,7 @@ public class DashboardServlet extends HttpServlet {
         if (serverId == null || userId == null) {
             return false;
         }
-        String sql = "SELECT 1 FROM servers WHERE server_id = ? AND user_id = ?";
+        String sql = "SELECT 1 FROM servers WHERE server_id = ? AND user_id = ? AND deleted_at IS NULL";
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, serverId);
@@ -2,6 +2,9 @@ package com.tradeshow.pulse24x7.mcp.controller;
 
 import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.db.DBConnection;
+import com.tradeshow.pulse24x7.mcp.service.ClusterMembership;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
+import com.tradeshow.pulse24x7.mcp.service.StartupOrchestrator;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -34,19 +37,33 @@ public class HealthCheckServlet extends HttpServlet {
 
         boolean dbHealthy = checkDatabaseHealth();
         healthStatus.put("database", dbHealthy ? "UP" : "DOWN");
+        healthStatus.put("cluster", ClusterMembership.shared().describe());
+        StartupOrchestrator startup = startupOrchestrator();
+        boolean ready = startup != null && startup.isReady();
+        healthStatus.put("startup", startup != null ? startup.describe()
+                : Map.of("ready", false, "detail", "services not started"));
         
-        if (dbHealthy) {
+        if (dbHealthy && ready) {
             sendSuccessResponse(resp, healthStatus);
         } else {
+            // Load balancers keep traffic away until warm-up has finished.
             resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
-            healthStatus.put("status", "DEGRADED");
+            healthStatus.put("status", dbHealthy ? "STARTING" : "DEGRADED");
             resp.getWriter().write(JsonUtil.toJson(healthStatus));
         }
     }
 
-    private boolean checkDatabaseHealth() {
+    /** Null when the application listener failed before registering the services. */
+    private StartupOrchestrator startupOrchestrator() {
         try {
-            Connection conn = DBConnection.getInstance().getConnection();
+            return ServiceRegistry.from(getServletContext()).getStartupOrchestrator();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private boolean checkDatabaseHealth() {
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
             return conn != null && !conn.isClosed() && conn.isValid(2);
         } catch (Exception e) {
             logger.error("Database health check failed", e);
@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.model.ServerHistory;
 import com.tradeshow.pulse24x7.mcp.model.ToolHistory;
 import com.tradeshow.pulse24x7.mcp.service.ServerService;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
 import com.tradeshow.pulse24x7.mcp.service.ToolService;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
 import jakarta.servlet.ServletException;
@@ -30,8 +31,9 @@ public class HistoryServlet extends HttpServlet {
     @Override
     public void init() throws ServletException {
         super.init();
-        serverService = new ServerService();
-        toolService = new ToolService();
+        ServiceRegistry services = ServiceRegistry.from(getServletContext());
+        serverService = services.getServerService();
+        toolService = services.getToolService();
         logger.info("HistoryServlet initialized");
     }
 
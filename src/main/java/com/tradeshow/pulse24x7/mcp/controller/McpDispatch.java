@@ -0,0 +1,83 @@
+package com.tradeshow.pulse24x7.mcp.controller;
+
+import com.tradeshow.pulse24x7.mcp.db.QueryScope;
+import com.tradeshow.pulse24x7.mcp.service.Bulkhead;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+
+/**
+ * Moves the MCP-bound part of a servlet request off the connector thread: the request is put into async
+ * mode and the work runs in the server's {@link Bulkhead}. A saturated server is answered with 429 and a
+ * Retry-After header straight away, so connector threads never wait on upstream MCP I/O.
+ */
+final class McpDispatch {
+    private static final Logger logger = LogManager.getLogger(McpDispatch.class);
+    private static final String RETRY_AFTER_SECONDS = String.valueOf(
+            Math.max(1, EnvUtil.getInt("MCP_BULKHEAD_RETRY_AFTER_SECONDS", 5)));
+
+    interface Work {
+        void run() throws IOException;
+    }
+
+    private McpDispatch() {
+    }
+
+    /**
+     * Runs {@code work} asynchronously in the bulkhead of {@code serverUrl}. The work writes the response as
+     * it would synchronously; the request completes when it returns.
+     */
+    static void dispatch(HttpServletRequest req, HttpServletResponse resp, String serverUrl, Work work)
+            throws IOException {
+        AsyncContext async = req.startAsync(req, resp);
+        // MCP calls carry their own timeouts; a container timeout would race the worker for the response.
+        async.setTimeout(0L);
+        String scope = req.getMethod() + " " + req.getRequestURI();
+        boolean accepted = Bulkhead.forUrl(serverUrl).submit(() -> {
+            QueryScope queryScope = QueryScope.begin(scope);
+            try {
+                work.run();
+            } catch (Exception e) {
+                logger.error("Error processing {}", scope, e);
+                sendError(resp, "Internal server error", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            } finally {
+                queryScope.close();
+                async.complete();
+            }
+        }, () -> {
+            try {
+                sendSaturated(resp);
+            } finally {
+                async.complete();
+            }
+        });
+        if (!accepted) {
+            sendSaturated(resp);
+            async.complete();
+        }
+    }
+
+    private static void sendSaturated(HttpServletResponse resp) {
+        resp.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+        sendError(resp, "Too many requests in flight for this MCP server; retry shortly", 429);
+    }
+
+    private static void sendError(HttpServletResponse resp, String message, int statusCode) {
+        if (resp.isCommitted()) {
+            return;
+        }
+        try {
+            resp.resetBuffer();
+            resp.setStatus(statusCode);
+            resp.getWriter().write(JsonUtil.createErrorResponse(message).toString());
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Could not write error response: {}", e.getMessage());
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.tradeshow.pulse24x7.mcp.dao.ServerHistoryDAO;
 import com.tradeshow.pulse24x7.mcp.model.Server;
 import com.tradeshow.pulse24x7.mcp.service.RequestLogService;
 import com.tradeshow.pulse24x7.mcp.service.ServerService;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -26,8 +27,9 @@ public class MetricsServlet extends HttpServlet {
     @Override
     public void init() throws ServletException {
         super.init();
-        serverService = new ServerService();
-        requestLogService = new RequestLogService();
+        ServiceRegistry services = ServiceRegistry.from(getServletContext());
+        serverService = services.getServerService();
+        requestLogService = services.getRequestLogService();
         serverHistoryDAO = new ServerHistoryDAO();
     }
 
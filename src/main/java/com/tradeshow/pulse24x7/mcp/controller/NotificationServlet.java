@@ -3,6 +3,7 @@ package com.tradeshow.pulse24x7.mcp.controller;
 import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.service.NotificationService;
 import com.tradeshow.pulse24x7.mcp.service.ServerService;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
 import com.tradeshow.pulse24x7.mcp.utils.ServletUtil;
 import jakarta.servlet.ServletException;
@@ -24,8 +25,9 @@ public class NotificationServlet extends HttpServlet {
     @Override
     public void init() throws ServletException {
         super.init();
-        notificationService = new NotificationService();
-        serverService = new ServerService();
+        ServiceRegistry services = ServiceRegistry.from(getServletContext());
+        notificationService = services.getNotificationService();
+        serverService = services.getServerService();
     }
 
     @Override
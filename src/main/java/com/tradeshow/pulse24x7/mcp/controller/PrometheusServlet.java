@@ -0,0 +1,110 @@
+package com.tradeshow.pulse24x7.mcp.controller;
+
+import com.google.gson.JsonObject;
+import com.tradeshow.pulse24x7.mcp.db.SqlStats;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
+import com.tradeshow.pulse24x7.mcp.utils.JwtUtil;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+// Exact mappings win over MetricsServlet's "/metrics/*", which keeps serving the JSON overview.
+@WebServlet({"/metrics", "/metrics/sql"})
+public class PrometheusServlet extends HttpServlet {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        boolean sql = "/metrics/sql".equals(req.getServletPath());
+        if (!authorize(req, resp, !sql)) {
+            return;
+        }
+        if (sql) {
+            writeSqlStats(req, resp);
+            return;
+        }
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(CONTENT_TYPE);
+        resp.setCharacterEncoding(String.valueOf(StandardCharsets.UTF_8));
+        MetricsRegistry.writePrometheus(resp.getWriter());
+    }
+
+    private void writeSqlStats(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        int limit = 50;
+        try {
+            if (req.getParameter("limit") != null) {
+                limit = Math.max(1, Math.min(Integer.parseInt(req.getParameter("limit")), 500));
+            }
+        } catch (NumberFormatException ignored) {
+            // keep default
+        }
+        List<Map<String, Object>> statements = SqlStats.snapshot(limit);
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding(String.valueOf(StandardCharsets.UTF_8));
+        resp.getWriter().write(JsonUtil.createSuccessResponse(Map.of("statements", statements)).toString());
+    }
+
+    /** POST /metrics/sql?reset=true clears the per-statement stats. */
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!"/metrics/sql".equals(req.getServletPath())) {
+            resp.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        if (!authorize(req, resp, false)) {
+            return;
+        }
+        if (!"true".equalsIgnoreCase(req.getParameter("reset"))) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        SqlStats.reset();
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding(String.valueOf(StandardCharsets.UTF_8));
+        resp.getWriter().write(JsonUtil.createSuccessResponse(Map.of("reset", true)).toString());
+    }
+
+    /**
+     * Scrapes must present MCP_METRICS_TOKEN or the JWT of an ADMIN user. The endpoint is only open without
+     * credentials when MCP_METRICS_PUBLIC=true, for deployments that restrict it at the network instead;
+     * that never applies to the SQL statement stats. Sends 401 or 403 and returns false otherwise.
+     */
+    private boolean authorize(HttpServletRequest req, HttpServletResponse resp, boolean publicAllowed) {
+        if (publicAllowed && EnvUtil.getBoolean("MCP_METRICS_PUBLIC", false)) {
+            return true;
+        }
+        String header = req.getHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return false;
+        }
+        String presented = header.substring("Bearer ".length()).trim();
+        String scrapeToken = EnvUtil.getString("MCP_METRICS_TOKEN", null);
+        if (scrapeToken != null && MessageDigest.isEqual(presented.getBytes(StandardCharsets.UTF_8),
+                scrapeToken.getBytes(StandardCharsets.UTF_8))) {
+            return true;
+        }
+        JsonObject payload = JwtUtil.verify(presented);
+        if (payload == null) {
+            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return false;
+        }
+        if (!payload.has("role") || payload.get("role").isJsonNull()
+                || !"ADMIN".equalsIgnoreCase(payload.get("role").getAsString())) {
+            resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return false;
+        }
+        return true;
+    }
+}
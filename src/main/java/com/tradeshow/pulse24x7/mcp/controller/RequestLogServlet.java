@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.model.RequestLog;
 import com.tradeshow.pulse24x7.mcp.service.RequestLogService;
 import com.tradeshow.pulse24x7.mcp.service.ServerService;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
 import com.tradeshow.pulse24x7.mcp.utils.ServletUtil;
 import jakarta.servlet.ServletException;
@@ -30,8 +31,9 @@ public class RequestLogServlet extends HttpServlet {
     @Override
     public void init() throws ServletException {
         super.init();
-        requestLogService = new RequestLogService();
-        serverService = new ServerService();
+        ServiceRegistry services = ServiceRegistry.from(getServletContext());
+        requestLogService = services.getRequestLogService();
+        serverService = services.getServerService();
         logger.info("RequestLogServlet initialized");
     }
 
@@ -1,14 +1,18 @@
 package com.tradeshow.pulse24x7.mcp.controller;
 
 import com.google.gson.JsonObject;
+import com.tradeshow.pulse24x7.mcp.jfr.JfrContext;
 import com.tradeshow.pulse24x7.mcp.model.AuthToken;
 import com.tradeshow.pulse24x7.mcp.model.HttpResult;
 import com.tradeshow.pulse24x7.mcp.model.Server;
 import com.tradeshow.pulse24x7.mcp.model.ServerHistory;
 import com.tradeshow.pulse24x7.mcp.service.AuthTokenService;
+import com.tradeshow.pulse24x7.mcp.service.CircuitBreaker;
+import com.tradeshow.pulse24x7.mcp.service.McpTransportService;
 import com.tradeshow.pulse24x7.mcp.service.MonitoringService;
 import com.tradeshow.pulse24x7.mcp.service.RequestLogService;
 import com.tradeshow.pulse24x7.mcp.service.ServerService;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
 import com.tradeshow.pulse24x7.mcp.utils.AuthHeaderUtil;
 import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
@@ -29,24 +33,29 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
-@WebServlet("/server/*")
+@WebServlet(value = "/server/*", asyncSupported = true)
 public class ServerServlet extends HttpServlet {
     private static final Logger logger = LogManager.getLogger(ServerServlet.class);
     private ServerService serverService;
     private AuthTokenService authTokenService;
     private MonitoringService monitoringService;
     private RequestLogService requestLogService;
+    private McpTransportService transportService;
 
     @Override
     public void init() throws ServletException {
         super.init();
-        serverService = new ServerService();
-        authTokenService = new AuthTokenService();
-        monitoringService = new MonitoringService();
-        requestLogService = new RequestLogService();
+        ServiceRegistry services = ServiceRegistry.from(getServletContext());
+        serverService = services.getServerService();
+        authTokenService = services.getAuthTokenService();
+        monitoringService = services.getMonitoringService();
+        requestLogService = services.getRequestLogService();
+        transportService = services.getTransportService();
         logger.info("ServerServlet initialized");
     }
 
@@ -62,6 +71,8 @@ public class ServerServlet extends HttpServlet {
                 handleGetServerStatuses(req, resp);
             } else if (pathInfo.equals("/history")) {
                 handleGetServerHistory(req, resp);
+            } else if (pathInfo.equals("/deletion-status")) {
+                handleGetDeletionStatus(req, resp);
             } else if (pathInfo.matches("/\\d+")) {
                 handleGetServerByPath(req, resp, pathInfo);
             } else {
@@ -139,8 +150,18 @@ public class ServerServlet extends HttpServlet {
         }
 
         JsonObject payload = ServletUtil.readJsonBody(req);
-        String serverName = ServletUtil.getString(payload, "serverName", null);
         String serverUrl = ServletUtil.getString(payload, "serverUrl", null);
+        if (serverUrl == null || serverUrl.isBlank()) {
+            sendErrorResponse(resp, "Server URL is required", HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        // Code exchange, ping and the first check all go upstream.
+        McpDispatch.dispatch(req, resp, serverUrl, () -> registerServer(req, resp, userId, payload, serverUrl));
+    }
+
+    private void registerServer(HttpServletRequest req, HttpServletResponse resp, Long userId, JsonObject payload,
+                                String serverUrl) throws IOException {
+        String serverName = ServletUtil.getString(payload, "serverName", null);
         String headerType = ServletUtil.getString(payload, "headerType", "Bearer");
         String accessToken = ServletUtil.getString(payload, "accessToken", null);
         String refreshToken = ServletUtil.getString(payload, "refreshToken", null);
@@ -156,15 +177,13 @@ public class ServerServlet extends HttpServlet {
         Boolean autoReconnect = payload != null && payload.has("autoReconnect")
                 ? payload.get("autoReconnect").getAsBoolean()
                 : Boolean.TRUE;
+        boolean adaptiveInterval = payload != null && payload.has("adaptiveInterval")
+                && payload.get("adaptiveInterval").getAsBoolean();
 
         if (serverName == null || serverName.isBlank()) {
             sendErrorResponse(resp, "Server name is required", HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
-        if (serverUrl == null || serverUrl.isBlank()) {
-            sendErrorResponse(resp, "Server URL is required", HttpServletResponse.SC_BAD_REQUEST);
-            return;
-        }
         if (headerType == null || headerType.isBlank()) {
             sendErrorResponse(resp, "Header type is required", HttpServletResponse.SC_BAD_REQUEST);
             return;
@@ -220,7 +239,8 @@ public class ServerServlet extends HttpServlet {
             }
 
         int effectiveTimeoutMs = clampTimeoutMs(connectionTimeout, autoReconnect);
-        HttpResult result = HttpClientUtil.canPingServer(
+        HttpResult result = transportService.ping(
+                null,
                 serverUrl,
                 AuthHeaderUtil.withAuthHeaders(Map.of("Content-Type", "application/json"), headerType, accessToken),
                 JsonUtil.createMCPRequest("ping", Map.of()).toString(),
@@ -231,7 +251,8 @@ public class ServerServlet extends HttpServlet {
             return;
         }
 
-        Integer serverId = serverService.registerServer(userId, serverName, serverUrl, monitorIntervalMinutes, effectiveTimeoutMs, autoReconnect);
+        Integer serverId = serverService.registerServer(userId, serverName, serverUrl, monitorIntervalMinutes, effectiveTimeoutMs,
+                autoReconnect, adaptiveInterval);
         if (serverId == null) {
             Server existing = serverService.getServerByUrl(serverUrl, userId);
             if (existing == null) {
@@ -368,6 +389,9 @@ public class ServerServlet extends HttpServlet {
             row.put("serverUp", latest != null && Boolean.TRUE.equals(latest.getServerUp()));
             row.put("toolCount", latest != null ? latest.getToolCount() : 0);
             row.put("checkedAt", latest != null ? latest.getCheckedAt() : null);
+            row.put("adaptiveInterval", Boolean.TRUE.equals(server.getAdaptiveInterval()));
+            row.put("effectiveIntervalSeconds", server.getEffectiveIntervalSeconds());
+            row.put("circuitBreaker", CircuitBreaker.describe(server.getServerUrl()));
             statuses.add(row);
         }
         sendSuccessResponse(resp, statuses);
@@ -450,6 +474,9 @@ public class ServerServlet extends HttpServlet {
         }
 
         boolean updated = serverService.updateServer(serverId, userId, serverName, serverUrl, monitorIntervalMinutes);
+        if (updated && payload != null && payload.has("adaptiveInterval")) {
+            updated = serverService.setAdaptiveInterval(serverId, userId, payload.get("adaptiveInterval").getAsBoolean());
+        }
         if (!updated) {
             sendErrorResponse(resp, "Failed to update server", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             return;
@@ -479,7 +506,29 @@ public class ServerServlet extends HttpServlet {
             sendErrorResponse(resp, "Failed to delete server", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             return;
         }
-        sendSuccessResponse(resp, Map.of("message", "Server deleted successfully"));
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Server deleted successfully");
+        response.put("deletion", serverService.getDeletionProgress(serverId, userId));
+        sendSuccessResponse(resp, response);
+    }
+
+    private void handleGetDeletionStatus(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        Integer serverId = parseInt(req.getParameter("id"));
+        if (serverId == null) {
+            sendErrorResponse(resp, "Invalid server ID", HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        Map<String, Object> progress = serverService.getDeletionProgress(serverId, userId);
+        if (progress == null) {
+            sendErrorResponse(resp, "No deletion in progress for this server", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        sendSuccessResponse(resp, progress);
     }
 
     private void handleMonitorServer(HttpServletRequest req, HttpServletResponse resp) throws IOException {
@@ -498,13 +547,17 @@ public class ServerServlet extends HttpServlet {
             sendErrorResponse(resp, "Invalid server ID", HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
-        if (!serverService.isServerOwnedByUser(serverId, userId)) {
+        Server server = serverService.getServerById(serverId, userId);
+        if (server == null) {
             sendErrorResponse(resp, "Server not found", HttpServletResponse.SC_NOT_FOUND);
             return;
         }
-
         boolean force = Boolean.parseBoolean(req.getParameter("force"));
-        boolean executed = monitoringService.monitorServerIfDue(serverId, force);
+        McpDispatch.dispatch(req, resp, server.getServerUrl(), () -> monitorServer(resp, server, force));
+    }
+
+    private void monitorServer(HttpServletResponse resp, Server server, boolean force) throws IOException {
+        boolean executed = monitoringService.monitorServerIfDue(server.getServerId(), force);
         if (executed) {
             sendSuccessResponse(resp, Map.of("message", "Monitoring completed successfully", "executed", true));
             return;
@@ -529,15 +582,21 @@ public class ServerServlet extends HttpServlet {
             sendErrorResponse(resp, "serverUrl is required", HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
+        McpDispatch.dispatch(req, resp, serverUrl,
+                () -> testServer(resp, serverUrl, headerType, accessToken, clampTimeoutMs(connectionTimeout, autoReconnect)));
+    }
 
-        long start = System.currentTimeMillis();
-        HttpResult result = HttpClientUtil.canPingServer(
+    private void testServer(HttpServletResponse resp, String serverUrl, String headerType, String accessToken,
+                            int timeoutMs) throws IOException {
+        long start = System.nanoTime();
+        HttpResult result = transportService.ping(
+                null,
                 serverUrl,
                 AuthHeaderUtil.withAuthHeaders(Map.of("Content-Type", "application/json"), headerType, accessToken),
                 JsonUtil.createMCPRequest("ping", Map.of()).toString(),
-                clampTimeoutMs(connectionTimeout, autoReconnect)
+                timeoutMs
         );
-        long latency = System.currentTimeMillis() - start;
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 
         if (!result.isSuccess()) {
             sendErrorResponse(resp, "Server test failed: " + result.getErrorMessage(), HttpServletResponse.SC_BAD_GATEWAY);
@@ -572,20 +631,31 @@ public class ServerServlet extends HttpServlet {
             sendErrorResponse(resp, "Server not found", HttpServletResponse.SC_NOT_FOUND);
             return;
         }
+        McpDispatch.dispatch(req, resp, server.getServerUrl(), () -> pingServer(req, resp, server));
+    }
 
+    private void pingServer(HttpServletRequest req, HttpServletResponse resp, Server server) throws IOException {
+        Integer serverId = server.getServerId();
         AuthToken token = authTokenService.getToken(serverId);
         String accessToken = authTokenService.ensureValidAccessToken(serverId);
         String headerType = token != null ? token.getHeaderType() : "Bearer";
         JsonObject pingBody = JsonUtil.createMCPRequest("ping", Map.of());
         pingBody.addProperty("mcpServerUrl", server.getServerUrl());
-        long start = System.currentTimeMillis();
-        HttpResult result = HttpClientUtil.canPingServer(
-                server.getServerUrl(),
-                AuthHeaderUtil.withAuthHeaders(Map.of("Content-Type", "application/json"), headerType, accessToken),
-                pingBody.toString(),
-                server.getConnectionTimeoutMs()
-        );
-        long latency = System.currentTimeMillis() - start;
+        long start = System.nanoTime();
+        Integer previousServer = JfrContext.enterServer(serverId);
+        HttpResult result;
+        try {
+            result = transportService.ping(
+                    serverId,
+                    server.getServerUrl(),
+                    AuthHeaderUtil.withAuthHeaders(Map.of("Content-Type", "application/json"), headerType, accessToken),
+                    pingBody.toString(),
+                    server.getConnectionTimeoutMs()
+            );
+        } finally {
+            JfrContext.restoreServer(previousServer);
+        }
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 
         int statusCode = result.isSuccess() ? HttpServletResponse.SC_OK : HttpServletResponse.SC_BAD_GATEWAY;
         String statusText = result.isSuccess() ? "OK" : "ERR";
@@ -606,7 +676,8 @@ public class ServerServlet extends HttpServlet {
                         pingBody,
                         responsePayload,
                         errorMessage,
-                        req.getHeader("User-Agent")
+                        req.getHeader("User-Agent"),
+                        result.getTimings()
                 )
         );
 
@@ -614,7 +685,13 @@ public class ServerServlet extends HttpServlet {
             sendErrorResponse(resp, "Ping failed: " + errorMessage, HttpServletResponse.SC_BAD_GATEWAY);
             return;
         }
-        sendSuccessResponse(resp, Map.of("message", "Ping successful", "latencyMs", latency));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", "Ping successful");
+        body.put("latencyMs", latency);
+        if (result.getTimings() != null) {
+            body.put("phases", result.getTimings().toMap());
+        }
+        sendSuccessResponse(resp, body);
     }
 
     private void handleRefreshServerData(HttpServletRequest req, HttpServletResponse resp) throws IOException {
@@ -638,7 +715,11 @@ public class ServerServlet extends HttpServlet {
             sendErrorResponse(resp, "Server not found", HttpServletResponse.SC_NOT_FOUND);
             return;
         }
+        McpDispatch.dispatch(req, resp, server.getServerUrl(), () -> refreshServerData(req, resp, server));
+    }
 
+    private void refreshServerData(HttpServletRequest req, HttpServletResponse resp, Server server) throws IOException {
+        Integer serverId = server.getServerId();
         JsonObject requestPayload = new JsonObject();
         requestPayload.addProperty("serverId", serverId);
         requestPayload.addProperty("event", "refresh_server_data");
@@ -1,18 +1,30 @@
 package com.tradeshow.pulse24x7.mcp.controller;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.model.AuthToken;
 import com.tradeshow.pulse24x7.mcp.model.HttpResult;
+import com.tradeshow.pulse24x7.mcp.model.LoadTestRun;
+import com.tradeshow.pulse24x7.mcp.model.RequestLog;
 import com.tradeshow.pulse24x7.mcp.model.Server;
 import com.tradeshow.pulse24x7.mcp.model.Tool;
 import com.tradeshow.pulse24x7.mcp.model.ToolHistory;
+import com.tradeshow.pulse24x7.mcp.model.ToolProbe;
+import com.tradeshow.pulse24x7.mcp.model.ToolProbeResult;
 import com.tradeshow.pulse24x7.mcp.service.AuthTokenService;
+import com.tradeshow.pulse24x7.mcp.service.Bulkhead;
 import com.tradeshow.pulse24x7.mcp.service.RequestLogService;
 import com.tradeshow.pulse24x7.mcp.service.ServerService;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
+import com.tradeshow.pulse24x7.mcp.service.ToolLoadTestService;
+import com.tradeshow.pulse24x7.mcp.service.ToolProbeService;
 import com.tradeshow.pulse24x7.mcp.service.ToolService;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
 import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
 import com.tradeshow.pulse24x7.mcp.utils.ServletUtil;
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -23,28 +35,54 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
-@WebServlet("/tool/*")
+@WebServlet(value = "/tool/*", asyncSupported = true)
 public class ToolServlet extends HttpServlet {
     private static final Logger logger = LogManager.getLogger(ToolServlet.class);
+    private static final int BATCH_MAX_CALLS = Math.max(1, EnvUtil.getInt("MCP_TOOL_BATCH_MAX_CALLS", 500));
+    // In flight per server for one batch; the server's bulkhead still bounds it together with other traffic.
+    private static final int BATCH_PER_SERVER = Math.max(1, EnvUtil.getInt("MCP_TOOL_BATCH_PER_SERVER", 4));
     private ToolService toolService;
     private ServerService serverService;
     private AuthTokenService authTokenService;
     private RequestLogService requestLogService;
+    private ToolProbeService probeService;
+    private ToolLoadTestService loadTestService;
+
+    public ToolServlet() {
+    }
+
+    ToolServlet(ToolService toolService, ServerService serverService, AuthTokenService authTokenService,
+                RequestLogService requestLogService) {
+        this.toolService = toolService;
+        this.serverService = serverService;
+        this.authTokenService = authTokenService;
+        this.requestLogService = requestLogService;
+    }
 
     @Override
     public void init() throws ServletException {
         super.init();
-        toolService = new ToolService();
-        serverService = new ServerService();
-        authTokenService = new AuthTokenService();
-        requestLogService = new RequestLogService();
+        ServiceRegistry services = ServiceRegistry.from(getServletContext());
+        toolService = services.getToolService();
+        serverService = services.getServerService();
+        authTokenService = services.getAuthTokenService();
+        requestLogService = services.getRequestLogService();
+        probeService = services.getToolProbeService();
+        loadTestService = services.getToolLoadTestService();
         logger.info("ToolServlet initialized");
     }
 
@@ -65,6 +103,14 @@ public class ToolServlet extends HttpServlet {
                 handleGetActiveTools(req, resp);
             } else if (pathInfo.equals("/history")) {
                 handleGetToolHistory(req, resp);
+            } else if (pathInfo.equals("/probes")) {
+                handleGetProbes(req, resp);
+            } else if (pathInfo.matches("/probes/\\d+")) {
+                handleGetProbeResults(req, resp, pathInfo);
+            } else if (pathInfo.equals("/load-tests")) {
+                handleGetLoadTests(req, resp);
+            } else if (pathInfo.matches("/load-tests/\\d+")) {
+                handleGetLoadTest(req, resp, pathInfo);
             } else if (pathInfo.matches("/\\d+")) {
                 handleGetToolById(req, resp, pathInfo);
             } else {
@@ -87,6 +133,16 @@ public class ToolServlet extends HttpServlet {
                 handleRefreshTools(req, resp);
             } else if ("/test".equals(pathInfo)) {
                 handleTestTool(req, resp);
+            } else if ("/batch".equals(pathInfo)) {
+                handleBatchTools(req, resp);
+            } else if ("/probes".equals(pathInfo)) {
+                handleCreateProbe(req, resp);
+            } else if (pathInfo != null && pathInfo.matches("/probes/\\d+/run")) {
+                handleRunProbe(req, resp, pathInfo);
+            } else if ("/load-tests".equals(pathInfo)) {
+                handleStartLoadTest(req, resp);
+            } else if (pathInfo != null && pathInfo.matches("/load-tests/\\d+/stop")) {
+                handleStopLoadTest(req, resp, pathInfo);
             } else {
                 sendErrorResponse(resp, "Invalid endpoint", HttpServletResponse.SC_BAD_REQUEST);
             }
@@ -96,6 +152,42 @@ public class ToolServlet extends HttpServlet {
         }
     }
 
+    @Override
+    protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setContentType(String.valueOf(ContentType.APPLICATION_JSON));
+        resp.setCharacterEncoding(String.valueOf(StandardCharsets.UTF_8));
+        String pathInfo = req.getPathInfo();
+
+        try {
+            if (pathInfo != null && pathInfo.matches("/probes/\\d+")) {
+                handleUpdateProbe(req, resp, pathInfo);
+            } else {
+                sendErrorResponse(resp, "Invalid endpoint", HttpServletResponse.SC_BAD_REQUEST);
+            }
+        } catch (Exception e) {
+            logger.error("Error processing PUT request", e);
+            sendErrorResponse(resp, "Internal server error", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setContentType(String.valueOf(ContentType.APPLICATION_JSON));
+        resp.setCharacterEncoding(String.valueOf(StandardCharsets.UTF_8));
+        String pathInfo = req.getPathInfo();
+
+        try {
+            if (pathInfo != null && pathInfo.matches("/probes/\\d+")) {
+                handleDeleteProbe(req, resp, pathInfo);
+            } else {
+                sendErrorResponse(resp, "Invalid endpoint", HttpServletResponse.SC_BAD_REQUEST);
+            }
+        } catch (Exception e) {
+            logger.error("Error processing DELETE request", e);
+            sendErrorResponse(resp, "Internal server error", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
     private void handleGetToolsByServer(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         Long userId = getUserId(req);
         if (userId == null) {
@@ -202,6 +294,19 @@ public class ToolServlet extends HttpServlet {
             cutoff = Timestamp.from(Instant.now().minusSeconds(24 * 3600L));
         }
 
+        if ("true".equalsIgnoreCase(req.getParameter("diff"))) {
+            Timestamp until = parseTimestamp(req.getParameter("end"));
+            if (until == null) {
+                until = Timestamp.from(Instant.now());
+            }
+            if (until.before(cutoff)) {
+                sendErrorResponse(resp, "end must not be before the snapshot time", HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            sendSuccessResponse(resp, toolService.diffToolsByServer(serverId, cutoff, until));
+            return;
+        }
+
         boolean includeInactive = "true".equalsIgnoreCase(req.getParameter("includeInactive"));
         List<Tool> tools = toolService.getToolsByServerSnapshot(serverId, cutoff);
         if (!includeInactive) {
@@ -283,7 +388,11 @@ public class ToolServlet extends HttpServlet {
             sendErrorResponse(resp, "Server not found", HttpServletResponse.SC_NOT_FOUND);
             return;
         }
+        McpDispatch.dispatch(req, resp, server.getServerUrl(), () -> refreshTools(resp, server));
+    }
 
+    private void refreshTools(HttpServletResponse resp, Server server) throws IOException {
+        Integer serverId = server.getServerId();
         AuthToken token = authTokenService.getToken(serverId);
         String accessToken = authTokenService.ensureValidAccessToken(serverId);
         String headerType = token != null ? token.getHeaderType() : "Bearer";
@@ -299,7 +408,8 @@ public class ToolServlet extends HttpServlet {
                 headerType,
                 server.getConnectionTimeoutMs()
         );
-        sendSuccessResponse(resp, tools);
+        // The sync only builds schema text for changed tools; answer with the stored catalog.
+        sendSuccessResponse(resp, tools.isEmpty() ? tools : toolService.getAvailableTools(serverId));
     }
 
     private void handleTestTool(HttpServletRequest req, HttpServletResponse resp) throws IOException {
@@ -310,10 +420,7 @@ public class ToolServlet extends HttpServlet {
         }
         JsonObject payload = ServletUtil.readJsonBody(req);
         Integer serverId = ServletUtil.getInteger(payload, "serverId", null);
-        Integer toolId = ServletUtil.getInteger(payload, "toolId", null);
         String toolName = ServletUtil.getString(payload, "toolName", null);
-        String inputParamsRaw = ServletUtil.getString(payload, "inputParams", "{}");
-        Integer requestTimeoutMs = ServletUtil.getInteger(payload, "requestTimeoutMs", null);
 
         if (serverId == null || toolName == null || toolName.isBlank()) {
             sendErrorResponse(resp, "serverId and toolName are required", HttpServletResponse.SC_BAD_REQUEST);
@@ -325,7 +432,12 @@ public class ToolServlet extends HttpServlet {
             sendErrorResponse(resp, "Server not found", HttpServletResponse.SC_NOT_FOUND);
             return;
         }
+        McpDispatch.dispatch(req, resp, server.getServerUrl(), () -> testTool(req, resp, payload, server));
+    }
 
+    private void testTool(HttpServletRequest req, HttpServletResponse resp, JsonObject payload, Server server)
+            throws IOException {
+        Integer serverId = server.getServerId();
         AuthToken token = authTokenService.getToken(serverId);
         String accessToken = authTokenService.ensureValidAccessToken(serverId);
         String headerType = token != null ? token.getHeaderType() : "Bearer";
@@ -333,18 +445,585 @@ public class ToolServlet extends HttpServlet {
             sendErrorResponse(resp, "Access token is not configured for this server", HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
-        JsonObject inputParams = toolService.parseJsonObjectSafely(inputParamsRaw);
+
+        ToolCall call = callTool(server, headerType, accessToken, payload);
+        requestLogService.record(buildToolCallLog(server, payload, call, req.getHeader("User-Agent")));
+
+        if (call.statusCode >= 400) {
+            if (call.statusCode == 504) {
+                sendErrorResponse(resp, call.errorMessage == null ? "Request timeout reached" : call.errorMessage, 504);
+                return;
+            }
+            if (call.isScopeFailure(toolService)) {
+                sendScopeRecoveryError(resp, call.errorMessage, call.statusCode);
+                return;
+            }
+            sendErrorResponse(resp, call.errorMessage == null ? "Tool execution failed" : call.errorMessage, call.statusCode);
+        } else {
+            Map<String, Object> response = new HashMap<>();
+            response.put("result", call.responseData);
+            response.put("latencyMs", call.latencyMs);
+            sendSuccessResponse(resp, response);
+        }
+    }
+
+    private void handleGetProbes(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        Integer serverId = parseInt(req.getParameter("serverId"));
+        if (serverId == null) {
+            sendErrorResponse(resp, "Server ID is required", HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (serverService.getServerById(serverId, userId) == null) {
+            sendErrorResponse(resp, "Server not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        sendSuccessResponse(resp, probeService.getProbesByServer(serverId));
+    }
+
+    private void handleGetProbeResults(HttpServletRequest req, HttpServletResponse resp, String pathInfo)
+            throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        ToolProbe probe = findProbe(pathInfo, userId);
+        if (probe == null) {
+            sendErrorResponse(resp, "Probe not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        int hours = Math.max(1, Math.min(24 * 30, parseInt(req.getParameter("hours"), 24)));
+        sendSuccessResponse(resp, probeService.getProbeSeries(probe, hours));
+    }
+
+    private void handleCreateProbe(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        JsonObject payload = ServletUtil.readJsonBody(req);
+        Integer toolId = ServletUtil.getInteger(payload, "toolId", null);
+        if (toolId == null) {
+            sendErrorResponse(resp, "toolId is required", HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        Tool tool = toolService.getToolById(toolId);
+        if (tool == null || serverService.getServerById(tool.getServerId(), userId) == null) {
+            sendErrorResponse(resp, "Tool not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        ToolProbe probe = new ToolProbe();
+        probe.setToolId(tool.getToolId());
+        probe.setServerId(tool.getServerId());
+        applyProbeSettings(probe, payload);
+        Integer probeId;
+        try {
+            probeId = probeService.createProbe(probe);
+        } catch (IllegalArgumentException e) {
+            sendErrorResponse(resp, e.getMessage(), HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (probeId == null) {
+            sendErrorResponse(resp, "Failed to create probe", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
+        }
+        sendSuccessResponse(resp, probeService.getProbe(probeId));
+    }
+
+    private void handleUpdateProbe(HttpServletRequest req, HttpServletResponse resp, String pathInfo)
+            throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        ToolProbe probe = findProbe(pathInfo, userId);
+        if (probe == null) {
+            sendErrorResponse(resp, "Probe not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        applyProbeSettings(probe, ServletUtil.readJsonBody(req));
+        try {
+            if (!probeService.updateProbe(probe)) {
+                sendErrorResponse(resp, "Failed to update probe", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            sendErrorResponse(resp, e.getMessage(), HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        sendSuccessResponse(resp, probeService.getProbe(probe.getProbeId()));
+    }
+
+    private void handleDeleteProbe(HttpServletRequest req, HttpServletResponse resp, String pathInfo)
+            throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        ToolProbe probe = findProbe(pathInfo, userId);
+        if (probe == null) {
+            sendErrorResponse(resp, "Probe not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!probeService.deleteProbe(probe.getProbeId())) {
+            sendErrorResponse(resp, "Failed to delete probe", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
+        }
+        sendSuccessResponse(resp, Map.of("deleted", true));
+    }
+
+    private void handleRunProbe(HttpServletRequest req, HttpServletResponse resp, String pathInfo)
+            throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        ToolProbe probe = findProbe(pathInfo.substring(0, pathInfo.length() - "/run".length()), userId);
+        if (probe == null) {
+            sendErrorResponse(resp, "Probe not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Server server = serverService.getServerByIdGlobal(probe.getServerId());
+        McpDispatch.dispatch(req, resp, server.getServerUrl(), () -> {
+            ToolProbeResult result = probeService.runProbe(probe);
+            if (result == null) {
+                resp.setHeader("Retry-After", "30");
+                sendErrorResponse(resp, "Server is currently failing; probe skipped",
+                        HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
+            }
+            sendSuccessResponse(resp, result);
+        });
+    }
+
+    private void handleGetLoadTests(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        Integer serverId = parseInt(req.getParameter("serverId"));
+        if (serverId == null) {
+            sendErrorResponse(resp, "Server ID is required", HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (serverService.getServerById(serverId, userId) == null) {
+            sendErrorResponse(resp, "Server not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        int limit = Math.max(1, Math.min(200, parseInt(req.getParameter("limit"), 50)));
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (LoadTestRun run : loadTestService.getRuns(serverId, parseInt(req.getParameter("toolId")), limit)) {
+            runs.add(loadTestService.describe(run));
+        }
+        sendSuccessResponse(resp, runs);
+    }
+
+    private void handleGetLoadTest(HttpServletRequest req, HttpServletResponse resp, String pathInfo)
+            throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        LoadTestRun run = findLoadTest(pathInfo, userId);
+        if (run == null) {
+            sendErrorResponse(resp, "Load test not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        sendSuccessResponse(resp, loadTestService.describe(run));
+    }
+
+    private void handleStartLoadTest(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        JsonObject payload = ServletUtil.readJsonBody(req);
+        Integer toolId = ServletUtil.getInteger(payload, "toolId", null);
+        if (toolId == null) {
+            sendErrorResponse(resp, "toolId is required", HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        Tool tool = toolService.getToolById(toolId);
+        Server server = tool == null ? null : serverService.getServerById(tool.getServerId(), userId);
+        if (server == null) {
+            sendErrorResponse(resp, "Tool not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        try {
+            LoadTestRun run = loadTestService.start(server, tool,
+                    ServletUtil.getString(payload, "mode", "closed"),
+                    ServletUtil.getInteger(payload, "concurrency", 1),
+                    getNumber(payload, "ratePerSecond"),
+                    ServletUtil.getInteger(payload, "durationSeconds", 30),
+                    clampTimeoutMs(ServletUtil.getInteger(payload, "timeoutMs", null)),
+                    payload.has("inputParams") ? jsonText(payload.get("inputParams")) : null,
+                    userId);
+            resp.setStatus(HttpServletResponse.SC_ACCEPTED);
+            resp.getWriter().write(JsonUtil.createSuccessResponse(loadTestService.describe(run)).toString());
+        } catch (IllegalArgumentException e) {
+            sendErrorResponse(resp, e.getMessage(), HttpServletResponse.SC_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            sendErrorResponse(resp, e.getMessage(), HttpServletResponse.SC_CONFLICT);
+        }
+    }
+
+    private void handleStopLoadTest(HttpServletRequest req, HttpServletResponse resp, String pathInfo)
+            throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        LoadTestRun run = findLoadTest(pathInfo.substring(0, pathInfo.length() - "/stop".length()), userId);
+        if (run == null) {
+            sendErrorResponse(resp, "Load test not found", HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!loadTestService.stop(run.getRunId())) {
+            sendErrorResponse(resp, "Load test is not running", HttpServletResponse.SC_CONFLICT);
+            return;
+        }
+        sendSuccessResponse(resp, Map.of("stopping", true));
+    }
+
+    /** Resolves {@code /load-tests/{id}} to a run on one of the user's servers. */
+    private LoadTestRun findLoadTest(String pathInfo, Long userId) {
+        Long runId;
+        try {
+            runId = Long.parseLong(pathInfo.substring("/load-tests/".length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        LoadTestRun run = loadTestService.getRun(runId);
+        if (run == null || serverService.getServerById(run.getServerId(), userId) == null) {
+            return null;
+        }
+        return run;
+    }
+
+    /** Resolves {@code /probes/{id}} to a probe on one of the user's servers. */
+    private ToolProbe findProbe(String pathInfo, Long userId) {
+        Integer probeId = parseInt(pathInfo.substring("/probes/".length()));
+        ToolProbe probe = probeId == null ? null : probeService.getProbe(probeId);
+        if (probe == null || serverService.getServerById(probe.getServerId(), userId) == null) {
+            return null;
+        }
+        return probe;
+    }
+
+    /** Copies the settings present in {@code payload}; JSON inputs may be sent as objects or as strings. */
+    private void applyProbeSettings(ToolProbe probe, JsonObject payload) {
+        if (payload.has("inputParams")) {
+            probe.setInputParams(jsonText(payload.get("inputParams")));
+        }
+        if (payload.has("expectedResult")) {
+            probe.setExpectedResult(jsonText(payload.get("expectedResult")));
+        }
+        if (payload.has("intervalMinutes")) {
+            probe.setIntervalMinutes(ServletUtil.getInteger(payload, "intervalMinutes", null));
+        }
+        if (payload.has("timeoutMs")) {
+            probe.setTimeoutMs(clampTimeoutMs(ServletUtil.getInteger(payload, "timeoutMs", null)));
+        }
+        if (payload.has("sloP95Ms")) {
+            Double sloP95Ms = getNumber(payload, "sloP95Ms");
+            probe.setSloP95Ms(sloP95Ms == null ? null : sloP95Ms.longValue());
+        }
+        if (payload.has("sloErrorRatePercent")) {
+            probe.setSloErrorRatePercent(getNumber(payload, "sloErrorRatePercent"));
+        }
+        if (payload.has("enabled")) {
+            probe.setEnabled(ServletUtil.getBoolean(payload, "enabled", true));
+        }
+    }
+
+    private String jsonText(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        return element.isJsonPrimitive() ? element.getAsString() : element.toString();
+    }
+
+    private Double getNumber(JsonObject payload, String key) {
+        try {
+            JsonElement element = payload.get(key);
+            return element == null || element.isJsonNull() ? null : element.getAsDouble();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs {@code {"calls": [{serverId, toolId?, toolName, inputParams, requestTimeoutMs?}, ...]}} concurrently
+     * and streams one NDJSON line per call as it finishes, followed by a summary line. Calls to the same
+     * server are fed through its bulkhead at most MCP_TOOL_BATCH_PER_SERVER at a time, so the batch takes
+     * about as long as its slowest server's share rather than the sum of all calls.
+     */
+    private void handleBatchTools(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Long userId = getUserId(req);
+        if (userId == null) {
+            sendErrorResponse(resp, "Unauthorized", HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        JsonObject payload = ServletUtil.readJsonBody(req);
+        JsonArray calls = payload.has("calls") && payload.get("calls").isJsonArray() ? payload.getAsJsonArray("calls") : null;
+        if (calls == null || calls.isEmpty()) {
+            sendErrorResponse(resp, "calls must be a non-empty array", HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (calls.size() > BATCH_MAX_CALLS) {
+            sendErrorResponse(resp, "At most " + BATCH_MAX_CALLS + " calls per batch", HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        // Look everything up before going async, so a failure here still gets the plain error response.
+        Map<Integer, Server> servers = new HashMap<>();
+        Map<Integer, List<Map.Entry<Integer, JsonObject>>> callsByServer = new LinkedHashMap<>();
+        List<Consumer<BatchRun>> rejections = new ArrayList<>();
+        for (int index = 0; index < calls.size(); index++) {
+            int position = index;
+            JsonObject call = calls.get(index).isJsonObject() ? calls.get(index).getAsJsonObject() : new JsonObject();
+            Integer serverId = ServletUtil.getInteger(call, "serverId", null);
+            String toolName = ServletUtil.getString(call, "toolName", null);
+            if (serverId == null || toolName == null || toolName.isBlank()) {
+                rejections.add(run -> run.reject(position, call, HttpServletResponse.SC_BAD_REQUEST, "serverId and toolName are required"));
+            } else if (servers.computeIfAbsent(serverId, id -> serverService.getServerById(id, userId)) == null) {
+                rejections.add(run -> run.reject(position, call, HttpServletResponse.SC_NOT_FOUND, "Server not found"));
+            } else {
+                callsByServer.computeIfAbsent(serverId, id -> new ArrayList<>()).add(Map.entry(index, call));
+            }
+        }
+
+        BatchRun run = new BatchRun(req, resp, calls.size());
+        List<BatchLane> lanes = new ArrayList<>();
+        callsByServer.forEach((serverId, serverCalls) -> lanes.add(new BatchLane(run, servers.get(serverId), serverCalls)));
+        rejections.forEach(rejection -> rejection.accept(run));
+        lanes.forEach(BatchLane::pump);
+    }
+
+    /** One batch request: collects results and request logs and completes the response after the last call. */
+    private final class BatchRun {
+        private final AsyncContext async;
+        private final HttpServletResponse resp;
+        private final String userAgent;
+        private final long startedAt = System.currentTimeMillis();
+        private final List<RequestLog> logs = new ArrayList<>();
+        private final AtomicInteger remaining;
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final int total;
+
+        private BatchRun(HttpServletRequest req, HttpServletResponse resp, int total) {
+            this.resp = resp;
+            this.userAgent = req.getHeader("User-Agent");
+            this.total = total;
+            this.remaining = new AtomicInteger(total);
+            resp.setContentType("application/x-ndjson");
+            this.async = req.startAsync(req, resp);
+            // Each call has its own timeout; the batch ends when the last one reports.
+            async.setTimeout(0L);
+        }
+
+        private void reject(int index, JsonObject call, int statusCode, String message) {
+            JsonObject line = line(index, call, statusCode);
+            line.addProperty("error", message);
+            finish(line, null);
+        }
+
+        private void report(int index, JsonObject call, ToolCall outcome, RequestLog log) {
+            JsonObject line = line(index, call, outcome.statusCode);
+            line.addProperty("latencyMs", outcome.latencyMs);
+            if (outcome.statusCode >= 400) {
+                line.addProperty("error", outcome.errorMessage == null ? "Tool execution failed" : outcome.errorMessage);
+                if (outcome.isScopeFailure(toolService)) {
+                    line.addProperty("errorCode", "scope_mismatch");
+                }
+            } else {
+                succeeded.incrementAndGet();
+            }
+            line.add("result", outcome.responseData);
+            finish(line, log);
+        }
+
+        private JsonObject line(int index, JsonObject call, int statusCode) {
+            JsonObject line = new JsonObject();
+            line.addProperty("index", index);
+            line.add("serverId", call.get("serverId"));
+            line.add("toolName", call.get("toolName"));
+            line.addProperty("status", statusCode);
+            return line;
+        }
+
+        private void finish(JsonObject line, RequestLog log) {
+            synchronized (this) {
+                if (log != null) {
+                    logs.add(log);
+                }
+                writeLine(line);
+            }
+            if (remaining.decrementAndGet() > 0) {
+                return;
+            }
+            JsonObject summary = new JsonObject();
+            summary.addProperty("done", true);
+            summary.addProperty("total", total);
+            summary.addProperty("succeeded", succeeded.get());
+            summary.addProperty("failed", total - succeeded.get());
+            summary.addProperty("latencyMs", System.currentTimeMillis() - startedAt);
+            List<RequestLog> batchLogs;
+            synchronized (this) {
+                writeLine(summary);
+                batchLogs = new ArrayList<>(logs);
+            }
+            async.complete();
+            requestLogService.recordAll(batchLogs);
+        }
+
+        private void writeLine(JsonObject line) {
+            try {
+                PrintWriter writer = resp.getWriter();
+                writer.write(line.toString());
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the remaining calls still run and are logged.
+                logger.debug("Could not stream batch result: {}", e.getMessage());
+            }
+        }
+    }
+
+    /** The calls of one batch for one server, fed to the server's bulkhead a few at a time. */
+    private final class BatchLane {
+        private final BatchRun run;
+        private final Server server;
+        private final Deque<Map.Entry<Integer, JsonObject>> pending = new ArrayDeque<>();
+        private int inFlight;
+        private String headerType;
+        private String accessToken;
+        private boolean tokenResolved;
+
+        private BatchLane(BatchRun run, Server server, List<Map.Entry<Integer, JsonObject>> calls) {
+            this.run = run;
+            this.server = server;
+            this.pending.addAll(calls);
+        }
+
+        private void pump() {
+            List<Map.Entry<Integer, JsonObject>> refused = new ArrayList<>();
+            synchronized (this) {
+                while (inFlight < BATCH_PER_SERVER && !pending.isEmpty()) {
+                    Map.Entry<Integer, JsonObject> next = pending.pollFirst();
+                    inFlight++;
+                    boolean accepted = Bulkhead.forUrl(server.getServerUrl()).submit(
+                            () -> execute(next.getKey(), next.getValue()),
+                            () -> refuse(next.getKey(), next.getValue()));
+                    if (accepted) {
+                        continue;
+                    }
+                    inFlight--;
+                    if (inFlight > 0) {
+                        // Our own calls hold the server's slots; the next completion pumps again.
+                        pending.addFirst(next);
+                        break;
+                    }
+                    // Saturated by other traffic: give up on the rest of this server's calls.
+                    refused.add(next);
+                    refused.addAll(pending);
+                    pending.clear();
+                }
+            }
+            for (Map.Entry<Integer, JsonObject> call : refused) {
+                run.reject(call.getKey(), call.getValue(), 429, "Too many requests in flight for this MCP server");
+            }
+        }
+
+        private void execute(int index, JsonObject call) {
+            try {
+                if (!resolveToken()) {
+                    run.reject(index, call, HttpServletResponse.SC_BAD_REQUEST, "Access token is not configured for this server");
+                    return;
+                }
+                ToolCall outcome = callTool(server, headerType, accessToken, call);
+                run.report(index, call, outcome, buildToolCallLog(server, call, outcome, run.userAgent));
+            } catch (RuntimeException e) {
+                logger.error("Batch call {} to server {} failed", index, server.getServerId(), e);
+                run.reject(index, call, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal server error");
+            } finally {
+                done();
+            }
+        }
+
+        private void refuse(int index, JsonObject call) {
+            try {
+                run.reject(index, call, 429, "Too many requests in flight for this MCP server");
+            } finally {
+                done();
+            }
+        }
+
+        private void done() {
+            synchronized (this) {
+                inFlight--;
+            }
+            pump();
+        }
+
+        private synchronized boolean resolveToken() {
+            if (!tokenResolved) {
+                AuthToken token = authTokenService.getToken(server.getServerId());
+                accessToken = authTokenService.ensureValidAccessToken(server.getServerId());
+                headerType = token != null ? token.getHeaderType() : "Bearer";
+                tokenResolved = true;
+            }
+            return accessToken != null && !accessToken.isBlank();
+        }
+    }
+
+    /** Outcome of one tools/call as reported to the UI and the request log. */
+    private static final class ToolCall {
+        private JsonObject responseData;
+        private int statusCode = HttpServletResponse.SC_OK;
+        private String statusText = "OK";
+        private String errorMessage;
+        private boolean scopeRelatedFailure;
+        private long latencyMs;
+
+        private boolean isScopeFailure(ToolService toolService) {
+            return scopeRelatedFailure || toolService.isScopeRelatedError(errorMessage) || toolService.hasScopeErrorPayload(responseData);
+        }
+    }
+
+    /**
+     * Runs one tools/call described by {@code payload} (toolId, toolName, inputParams, requestTimeoutMs) and
+     * updates the tool's request metrics and history. The request log is left to the caller.
+     */
+    private ToolCall callTool(Server server, String headerType, String accessToken, JsonObject payload) {
+        Integer serverId = server.getServerId();
+        Integer toolId = ServletUtil.getInteger(payload, "toolId", null);
+        String toolName = ServletUtil.getString(payload, "toolName", null);
+        Integer requestTimeoutMs = ServletUtil.getInteger(payload, "requestTimeoutMs", null);
+        JsonObject inputParams = payload.has("inputParams") && payload.get("inputParams").isJsonObject()
+                ? payload.getAsJsonObject("inputParams")
+                : toolService.parseJsonObjectSafely(ServletUtil.getString(payload, "inputParams", "{}"));
         int effectiveTimeoutMs = clampTimeoutMs(requestTimeoutMs != null ? requestTimeoutMs : server.getConnectionTimeoutMs());
 
+        ToolCall call = new ToolCall();
         long start = System.currentTimeMillis();
-        JsonObject responseData;
-        int statusCode = HttpServletResponse.SC_OK;
-        String statusText = "OK";
-        String errorMessage = null;
-        boolean scopeRelatedFailure = false;
-
         try {
-            responseData = toolService.executeTool(
+            call.responseData = toolService.executeTool(
                     serverId,
                     server.getServerUrl(),
                     headerType,
@@ -353,79 +1032,62 @@ public class ToolServlet extends HttpServlet {
                     inputParams,
                     effectiveTimeoutMs
             );
-            String payloadErrorMessage = toolService.extractMcpErrorMessage(responseData);
+            String payloadErrorMessage = toolService.extractMcpErrorMessage(call.responseData);
             if (payloadErrorMessage != null) {
-                statusCode = HttpServletResponse.SC_BAD_REQUEST;
-                statusText = "ERR";
-                errorMessage = payloadErrorMessage;
-                scopeRelatedFailure = toolService.hasScopeErrorPayload(responseData) || toolService.isScopeRelatedError(payloadErrorMessage);
+                call.statusCode = HttpServletResponse.SC_BAD_REQUEST;
+                call.statusText = "ERR";
+                call.errorMessage = payloadErrorMessage;
+                call.scopeRelatedFailure = toolService.hasScopeErrorPayload(call.responseData) || toolService.isScopeRelatedError(payloadErrorMessage);
             }
         } catch (HttpClientUtil.HttpTimeoutException ex) {
-            responseData = new JsonObject();
-            responseData.addProperty("error", ex.getMessage());
-            responseData.addProperty("errorCode", "request_timeout");
-            statusCode = 504;
-            statusText = "TIMEOUT";
-            errorMessage = ex.getMessage();
+            call.responseData = new JsonObject();
+            call.responseData.addProperty("error", ex.getMessage());
+            call.responseData.addProperty("errorCode", "request_timeout");
+            call.statusCode = 504;
+            call.statusText = "TIMEOUT";
+            call.errorMessage = ex.getMessage();
         } catch (Exception ex) {
-            responseData = new JsonObject();
-            responseData.addProperty("error", ex.getMessage());
+            call.responseData = new JsonObject();
+            call.responseData.addProperty("error", ex.getMessage());
             boolean isScopeError = toolService.isScopeRelatedError(ex.getMessage());
             if (ex instanceof HttpClientUtil.HttpRequestException httpEx) {
                 isScopeError = isScopeError || toolService.isScopeRelatedError(httpEx.getResponseBody());
-                responseData.addProperty("upstreamBody", httpEx.getResponseBody());
+                call.responseData.addProperty("upstreamBody", httpEx.getResponseBody());
                 if (!isScopeError) {
-                    isScopeError = toolService.hasScopeErrorPayload(responseData);
+                    isScopeError = toolService.hasScopeErrorPayload(call.responseData);
                 }
             }
-            responseData.addProperty("errorCode", isScopeError ? "scope_mismatch" : "tool_execution_error");
-            statusCode = isScopeError ? HttpServletResponse.SC_BAD_REQUEST : HttpServletResponse.SC_BAD_GATEWAY;
-            statusText = "ERR";
-            errorMessage = ex.getMessage();
-            scopeRelatedFailure = isScopeError;
+            call.responseData.addProperty("errorCode", isScopeError ? "scope_mismatch" : "tool_execution_error");
+            call.statusCode = isScopeError ? HttpServletResponse.SC_BAD_REQUEST : HttpServletResponse.SC_BAD_GATEWAY;
+            call.statusText = "ERR";
+            call.errorMessage = ex.getMessage();
+            call.scopeRelatedFailure = isScopeError;
         }
 
-        long latency = System.currentTimeMillis() - start;
+        call.latencyMs = System.currentTimeMillis() - start;
         if (toolId != null) {
-            toolService.trackToolRequest(toolId, statusCode, latency);
-            toolService.recordToolHistory(toolId, statusCode >= 200 && statusCode < 300);
+            toolService.trackToolRequest(toolId, call.statusCode, call.latencyMs);
+            toolService.recordToolHistory(toolId, call.statusCode >= 200 && call.statusCode < 300);
         }
+        return call;
+    }
 
+    private RequestLog buildToolCallLog(Server server, JsonObject payload, ToolCall call, String userAgent) {
         JsonObject logRequestPayload = payload.deepCopy();
         logRequestPayload.addProperty("mcpServerUrl", server.getServerUrl());
-
-        requestLogService.record(
-                requestLogService.buildRequestLog(
-                        serverId,
-                        toolId,
-                        toolName,
-                        "POST",
-                        statusCode,
-                        statusText,
-                        latency,
-                        logRequestPayload,
-                        responseData,
-                        errorMessage,
-                        req.getHeader("User-Agent")
-                )
+        return requestLogService.buildRequestLog(
+                server.getServerId(),
+                ServletUtil.getInteger(payload, "toolId", null),
+                ServletUtil.getString(payload, "toolName", null),
+                "POST",
+                call.statusCode,
+                call.statusText,
+                call.latencyMs,
+                logRequestPayload,
+                call.responseData,
+                call.errorMessage,
+                userAgent
         );
-
-        if (statusCode >= 400) {
-            if (statusCode == 504) {
-                sendErrorResponse(resp, errorMessage == null ? "Request timeout reached" : errorMessage, 504);
-                return;
-            }
-            if (scopeRelatedFailure || toolService.isScopeRelatedError(errorMessage) || toolService.hasScopeErrorPayload(responseData)) {
-                sendScopeRecoveryError(resp, errorMessage, statusCode);
-                return;
-            }
-            sendErrorResponse(resp, errorMessage == null ? "Tool execution failed" : errorMessage, statusCode);
-        } else {
-            Map<String, Object> response = new HashMap<>();
-            response.put("result", responseData);
-            response.put("latencyMs", latency);
-            sendSuccessResponse(resp, response);
-        }
     }
 
     private Integer parseInt(String value) {
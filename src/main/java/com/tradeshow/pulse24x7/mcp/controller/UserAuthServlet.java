@@ -3,6 +3,7 @@ package com.tradeshow.pulse24x7.mcp.controller;
 import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.model.User;
 import com.tradeshow.pulse24x7.mcp.model.UserEmailSettings;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
 import com.tradeshow.pulse24x7.mcp.service.UserAuthService;
 import com.tradeshow.pulse24x7.mcp.service.UserEmailSettingsService;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
@@ -28,8 +29,9 @@ public class UserAuthServlet extends HttpServlet {
     @Override
     public void init() throws ServletException {
         super.init();
-        userAuthService = new UserAuthService();
-        userEmailSettingsService = new UserEmailSettingsService();
+        ServiceRegistry services = ServiceRegistry.from(getServletContext());
+        userAuthService = services.getUserAuthService();
+        userEmailSettingsService = services.getUserEmailSettingsService();
     }
 
     @Override
@@ -0,0 +1,94 @@
+package com.tradeshow.pulse24x7.mcp.dao;
+
+import com.tradeshow.pulse24x7.mcp.db.DBConnection;
+import com.tradeshow.pulse24x7.mcp.utils.DBQueries;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class CacheInvalidationDAO {
+    private static final Logger logger = LogManager.getLogger(CacheInvalidationDAO.class);
+    private static final AtomicBoolean ensuredTable = new AtomicBoolean(false);
+
+    public record Invalidation(long id, String entity, int entityId) {
+    }
+
+    public boolean publish(String entity, int entityId) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTable(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.INSERT_CACHE_INVALIDATION)) {
+                ps.setString(1, entity);
+                ps.setInt(2, entityId);
+                return ps.executeUpdate() > 0;
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to publish cache invalidation for {} {}", entity, entityId, e);
+        }
+        return false;
+    }
+
+    /** Invalidations written after {@code afterId}, oldest first, or null if the table could not be read. */
+    public List<Invalidation> getInvalidationsAfter(long afterId, int limit) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTable(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_CACHE_INVALIDATIONS_AFTER)) {
+                ps.setLong(1, afterId);
+                ps.setInt(2, limit);
+                List<Invalidation> invalidations = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        invalidations.add(new Invalidation(rs.getLong("id"), rs.getString("entity"),
+                                rs.getInt("entity_id")));
+                    }
+                }
+                return invalidations;
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to read cache invalidations after ID: {}", afterId, e);
+        }
+        return null;
+    }
+
+    /** Highest invalidation ID so far (0 when empty), or null if the table could not be read. */
+    public Long getLatestId() {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTable(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_LATEST_CACHE_INVALIDATION_ID);
+                 ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong("max_id");
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to read latest cache invalidation ID", e);
+        }
+        return null;
+    }
+
+    public int deleteOlderThan(int ageSeconds, int limit) {
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.DELETE_CACHE_INVALIDATIONS_BEFORE)) {
+            ps.setInt(1, ageSeconds);
+            ps.setInt(2, limit);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Failed to delete old cache invalidations", e);
+        }
+        return 0;
+    }
+
+    private void ensureTable(Connection con) {
+        if (!ensuredTable.compareAndSet(false, true)) {
+            return;
+        }
+        try (PreparedStatement ps = con.prepareStatement(DBQueries.CREATE_CACHE_INVALIDATIONS_TABLE)) {
+            ps.execute();
+        } catch (SQLException ignored) {
+            // ignore if table already exists or insufficient privileges
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.tradeshow.pulse24x7.mcp.dao;
+
+import com.tradeshow.pulse24x7.mcp.db.DBConnection;
+import com.tradeshow.pulse24x7.mcp.utils.DBQueries;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ClusterDAO {
+    private static final Logger logger = LogManager.getLogger(ClusterDAO.class);
+    private static final AtomicBoolean ensuredTables = new AtomicBoolean(false);
+
+    /** Records a heartbeat for {@code nodeId} and returns the nodes alive within {@code ttlSeconds}. */
+    public List<String> heartbeat(String nodeId, String hostName, int ttlSeconds) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.UPSERT_CLUSTER_NODE)) {
+                ps.setString(1, nodeId);
+                ps.setString(2, hostName);
+                ps.executeUpdate();
+            }
+            return liveNodes(con, ttlSeconds);
+        } catch (SQLException e) {
+            logger.error("Failed to record heartbeat for node {}", nodeId, e);
+        }
+        return null;
+    }
+
+    public List<String> getLiveNodes(int ttlSeconds) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            return liveNodes(con, ttlSeconds);
+        } catch (SQLException e) {
+            logger.error("Failed to fetch live cluster nodes", e);
+        }
+        return null;
+    }
+
+    public int deleteDeadNodes(int deadForSeconds) {
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.DELETE_DEAD_CLUSTER_NODES)) {
+            ps.setInt(1, deadForSeconds);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Failed to delete dead cluster nodes", e);
+        }
+        return 0;
+    }
+
+    /**
+     * Brings this node's leases in line with the servers it should own: leases on servers it no longer
+     * owns are released so their new owner can take them, and the wanted ones are renewed, taken over from
+     * expired or dead holders, or created. Returns the servers this node holds a live lease on afterwards,
+     * or null if the lease table could not be used.
+     */
+    public Set<Integer> claimLeases(String nodeId, Collection<Integer> wanted, int leaseSeconds, int ttlSeconds) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            Set<Integer> release = new HashSet<>();
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_NODE_SERVER_LEASES)) {
+                ps.setString(1, nodeId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        release.add(rs.getInt("server_id"));
+                    }
+                }
+            }
+            release.removeAll(wanted);
+            if (!release.isEmpty()) {
+                try (PreparedStatement ps = con.prepareStatement(DBQueries.RELEASE_SERVER_LEASE)) {
+                    for (Integer serverId : release) {
+                        ps.setInt(1, serverId);
+                        ps.setString(2, nodeId);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            if (!wanted.isEmpty()) {
+                try (PreparedStatement ps = con.prepareStatement(DBQueries.TAKE_SERVER_LEASE)) {
+                    for (Integer serverId : wanted) {
+                        ps.setString(1, nodeId);
+                        ps.setInt(2, leaseSeconds);
+                        ps.setInt(3, serverId);
+                        ps.setString(4, nodeId);
+                        ps.setInt(5, ttlSeconds);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                try (PreparedStatement ps = con.prepareStatement(DBQueries.INSERT_SERVER_LEASE)) {
+                    for (Integer serverId : wanted) {
+                        ps.setInt(1, serverId);
+                        ps.setString(2, nodeId);
+                        ps.setInt(3, leaseSeconds);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            // Batched update counts are not reliable across drivers; read back what we actually hold.
+            Set<Integer> held = new HashSet<>();
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_HELD_SERVER_LEASES)) {
+                ps.setString(1, nodeId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        held.add(rs.getInt("server_id"));
+                    }
+                }
+            }
+            return held;
+        } catch (SQLException e) {
+            logger.error("Failed to claim server leases for node {}", nodeId, e);
+        }
+        return null;
+    }
+
+    /** Graceful leave: drops the node and its leases so the rest of the cluster takes over at once. */
+    public void leave(String nodeId) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.RELEASE_NODE_SERVER_LEASES)) {
+                ps.setString(1, nodeId);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.DELETE_CLUSTER_NODE)) {
+                ps.setString(1, nodeId);
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to remove node {} from the cluster", nodeId, e);
+        }
+    }
+
+    private List<String> liveNodes(Connection con, int ttlSeconds) throws SQLException {
+        List<String> nodes = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_LIVE_CLUSTER_NODES)) {
+            ps.setInt(1, ttlSeconds);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    nodes.add(rs.getString("node_id"));
+                }
+            }
+        }
+        return nodes;
+    }
+
+    private void ensureTables(Connection con) {
+        if (!ensuredTables.compareAndSet(false, true)) {
+            return;
+        }
+        try (Statement st = con.createStatement()) {
+            st.execute(DBQueries.CREATE_CLUSTER_NODES_TABLE);
+            st.execute(DBQueries.CREATE_SERVER_LEASES_TABLE);
+        } catch (SQLException ignored) {
+            // ignore if tables already exist or insufficient privileges
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.tradeshow.pulse24x7.mcp.dao;
+
+import com.tradeshow.pulse24x7.mcp.db.DBConnection;
+import com.tradeshow.pulse24x7.mcp.model.LoadTestRun;
+import com.tradeshow.pulse24x7.mcp.utils.DBQueries;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class LoadTestDAO {
+    private static final Logger logger = LogManager.getLogger(LoadTestDAO.class);
+    private static final AtomicBoolean ensuredTable = new AtomicBoolean(false);
+
+    public Long insertRun(LoadTestRun run) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTable(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.INSERT_TOOL_LOAD_TEST,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, run.getServerId());
+                ps.setInt(2, run.getToolId());
+                ps.setString(3, run.getToolName());
+                ps.setString(4, run.getMode());
+                ps.setInt(5, run.getConcurrency());
+                if (run.getRatePerSecond() == null) {
+                    ps.setNull(6, Types.DOUBLE);
+                } else {
+                    ps.setDouble(6, run.getRatePerSecond());
+                }
+                ps.setInt(7, run.getDurationSeconds());
+                ps.setInt(8, run.getTimeoutMs());
+                ps.setString(9, run.getInputParams());
+                ps.setString(10, run.getStatus());
+                if (run.getStartedBy() == null) {
+                    ps.setNull(11, Types.BIGINT);
+                } else {
+                    ps.setLong(11, run.getStartedBy());
+                }
+                ps.setTimestamp(12, run.getStartedAt());
+                if (ps.executeUpdate() > 0) {
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            return keys.getLong(1);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to insert load test for tool ID: {}", run.getToolId(), e);
+        }
+        return null;
+    }
+
+    public boolean finishRun(LoadTestRun run) {
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.FINISH_TOOL_LOAD_TEST)) {
+            ps.setString(1, run.getStatus());
+            ps.setString(2, run.getStopReason());
+            ps.setLong(3, run.getTotalCalls());
+            ps.setLong(4, run.getErrorCount());
+            ps.setLong(5, run.getShedCount());
+            ps.setDouble(6, run.getThroughputPerSecond());
+            ps.setString(7, run.getServiceTimeJson());
+            ps.setString(8, run.getResponseTimeJson());
+            ps.setString(9, run.getStatusBreakdownJson());
+            ps.setString(10, run.getHistogramJson());
+            ps.setTimestamp(11, run.getFinishedAt());
+            ps.setLong(12, run.getRunId());
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Failed to store results of load test ID: {}", run.getRunId(), e);
+        }
+        return false;
+    }
+
+    public LoadTestRun getRunById(Long runId) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTable(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_TOOL_LOAD_TEST_BY_ID)) {
+                ps.setLong(1, runId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        LoadTestRun run = mapResultSetToRun(rs);
+                        run.setHistogramJson(rs.getString("histogram"));
+                        return run;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to fetch load test ID: {}", runId, e);
+        }
+        return null;
+    }
+
+    public List<LoadTestRun> getRunsByServer(Integer serverId, Integer toolId, int limit) {
+        List<LoadTestRun> runs = new ArrayList<>();
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTable(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_TOOL_LOAD_TESTS_BY_SERVER)) {
+                ps.setInt(1, serverId);
+                if (toolId == null) {
+                    ps.setNull(2, Types.INTEGER);
+                    ps.setNull(3, Types.INTEGER);
+                } else {
+                    ps.setInt(2, toolId);
+                    ps.setInt(3, toolId);
+                }
+                ps.setInt(4, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        runs.add(mapResultSetToRun(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to fetch load tests for server ID: {}", serverId, e);
+        }
+        return runs;
+    }
+
+    /** Marks runs left "running" by a previous process as interrupted. */
+    public int interruptStaleRuns(Timestamp startedBefore) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTable(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.INTERRUPT_STALE_TOOL_LOAD_TESTS)) {
+                ps.setTimestamp(1, startedBefore);
+                return ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to interrupt stale load tests", e);
+        }
+        return 0;
+    }
+
+    private void ensureTable(Connection con) {
+        if (!ensuredTable.compareAndSet(false, true)) {
+            return;
+        }
+        try (PreparedStatement ps = con.prepareStatement(DBQueries.CREATE_TOOL_LOAD_TESTS_TABLE)) {
+            ps.execute();
+        } catch (SQLException ignored) {
+            // ignore if table already exists or insufficient privileges
+        }
+    }
+
+    private LoadTestRun mapResultSetToRun(ResultSet rs) throws SQLException {
+        LoadTestRun run = new LoadTestRun();
+        run.setRunId(rs.getLong("run_id"));
+        run.setServerId(rs.getInt("server_id"));
+        run.setToolId(rs.getInt("tool_id"));
+        run.setToolName(rs.getString("tool_name"));
+        run.setMode(rs.getString("mode"));
+        run.setConcurrency(rs.getInt("concurrency"));
+        double rate = rs.getDouble("rate_per_second");
+        run.setRatePerSecond(rs.wasNull() ? null : rate);
+        run.setDurationSeconds(rs.getInt("duration_seconds"));
+        run.setTimeoutMs(rs.getInt("timeout_ms"));
+        run.setInputParams(rs.getString("input_params"));
+        run.setStatus(rs.getString("status"));
+        run.setStopReason(rs.getString("stop_reason"));
+        run.setTotalCalls(rs.getLong("total_calls"));
+        run.setErrorCount(rs.getLong("error_count"));
+        run.setShedCount(rs.getLong("shed_count"));
+        double throughput = rs.getDouble("throughput_per_second");
+        run.setThroughputPerSecond(rs.wasNull() ? null : throughput);
+        run.setServiceTimeJson(rs.getString("service_time_ms"));
+        run.setResponseTimeJson(rs.getString("response_time_ms"));
+        run.setStatusBreakdownJson(rs.getString("status_breakdown"));
+        long startedBy = rs.getLong("started_by");
+        run.setStartedBy(rs.wasNull() ? null : startedBy);
+        run.setStartedAt(rs.getTimestamp("started_at"));
+        run.setFinishedAt(rs.getTimestamp("finished_at"));
+        return run;
+    }
+}
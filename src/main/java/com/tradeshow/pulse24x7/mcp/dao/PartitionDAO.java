@@ -0,0 +1,104 @@
+package com.tradeshow.pulse24x7.mcp.dao;
+
+import com.tradeshow.pulse24x7.mcp.db.DBConnection;
+import com.tradeshow.pulse24x7.mcp.utils.DBQueries;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PartitionDAO {
+    private static final Logger logger = LogManager.getLogger(PartitionDAO.class);
+    private static final DateTimeFormatter SQL_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Partition name -> exclusive upper bound in ordinal order; MAXVALUE maps to null, empty when unpartitioned.
+    public Map<String, LocalDateTime> getPartitions(String table) {
+        Map<String, LocalDateTime> partitions = new LinkedHashMap<>();
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.SELECT_TABLE_PARTITIONS)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String bound = rs.getString("upper_bound");
+                    partitions.put(rs.getString("PARTITION_NAME"),
+                            bound == null ? null : LocalDateTime.parse(bound, SQL_DATE_TIME));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to read partitions for table {}", table, e);
+        }
+        return partitions;
+    }
+
+    public boolean addPartitions(String table, Map<String, LocalDateTime> upperBounds) {
+        if (upperBounds.isEmpty()) {
+            return true;
+        }
+        StringBuilder definitions = new StringBuilder();
+        for (Map.Entry<String, LocalDateTime> entry : upperBounds.entrySet()) {
+            if (definitions.length() > 0) {
+                definitions.append(", ");
+            }
+            definitions.append(String.format(DBQueries.PARTITION_DEFINITION_TEMPLATE,
+                    entry.getKey(), entry.getValue().format(SQL_DATE_TIME)));
+        }
+        String sql = String.format(DBQueries.REORGANIZE_MAX_PARTITION_TEMPLATE, table, definitions);
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.execute();
+            logger.info("Added partitions {} to {}", upperBounds.keySet(), table);
+            return true;
+        } catch (SQLException e) {
+            logger.error("Failed to add partitions to table {}", table, e);
+            return false;
+        }
+    }
+
+    public boolean dropPartitions(String table, List<String> partitionNames) {
+        if (partitionNames.isEmpty()) {
+            return true;
+        }
+        String sql = String.format(DBQueries.DROP_PARTITIONS_TEMPLATE, table, String.join(", ", partitionNames));
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.execute();
+            logger.info("Dropped partitions {} from {}", partitionNames, table);
+            return true;
+        } catch (SQLException e) {
+            logger.error("Failed to drop partitions {} from table {}", partitionNames, table, e);
+            return false;
+        }
+    }
+
+    public Long getMaxIdInPartition(String table, String partitionName) {
+        String sql = String.format(DBQueries.SELECT_MAX_ID_IN_PARTITION_TEMPLATE, table, partitionName);
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+                long maxId = rs.getLong("max_id");
+                return rs.wasNull() ? null : maxId;
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to read max id of partition {} in {}", partitionName, table, e);
+        }
+        return null;
+    }
+
+    public int deleteRequestLogPayloadsUpTo(long maxRequestLogId, int chunkSize) throws SQLException {
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.DELETE_REQUEST_LOG_PAYLOADS_UP_TO)) {
+            ps.setLong(1, maxRequestLogId);
+            ps.setInt(2, chunkSize);
+            return ps.executeUpdate();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.tradeshow.pulse24x7.mcp.dao;
 import com.tradeshow.pulse24x7.mcp.db.DBConnection;
 import com.tradeshow.pulse24x7.mcp.model.RequestLog;
 import com.tradeshow.pulse24x7.mcp.utils.DBQueries;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -18,9 +19,32 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class RequestLogDAO {
     private static final Logger logger = LogManager.getLogger(RequestLogDAO.class);
+    private static final AtomicBoolean ensuredPhaseColumns = new AtomicBoolean(false);
+    private static final int DEFAULT_WINDOW_HOURS = Math.max(24, EnvUtil.getInt("MCP_RETENTION_REQUEST_LOG_DAYS", 90) * 24);
+
+    public static int defaultWindowHours() {
+        return DEFAULT_WINDOW_HOURS;
+    }
+
+    public static void ensurePhaseColumns() {
+        if (!ensuredPhaseColumns.compareAndSet(false, true)) {
+            return;
+        }
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.ADD_REQUEST_LOG_PHASE_COLUMNS)) {
+                ps.execute();
+            } catch (SQLException ignored) {
+                // ignore if columns already exist or insufficient privileges
+            }
+        } catch (SQLException e) {
+            ensuredPhaseColumns.set(false);
+            logger.warn("Could not verify request_logs phase timing columns", e);
+        }
+    }
 
     public boolean insert(RequestLog requestLog) {
         Connection con = null;
@@ -28,20 +52,7 @@ public class RequestLogDAO {
             con = DBConnection.getInstance().getConnection();
             con.setAutoCommit(false);
             try (PreparedStatement ps = con.prepareStatement(DBQueries.INSERT_REQUEST_LOG, Statement.RETURN_GENERATED_KEYS)) {
-                ps.setInt(1, requestLog.getServerId());
-                if (requestLog.getToolId() == null) {
-                    ps.setNull(2, java.sql.Types.INTEGER);
-                } else {
-                    ps.setInt(2, requestLog.getToolId());
-                }
-                ps.setString(3, requestLog.getToolName());
-                ps.setString(4, requestLog.getMethod());
-                ps.setInt(5, requestLog.getStatusCode());
-                ps.setString(6, requestLog.getStatusText());
-                ps.setLong(7, requestLog.getLatencyMs() == null ? 0 : requestLog.getLatencyMs());
-                ps.setString(8, requestLog.getErrorMessage());
-                ps.setLong(9, requestLog.getResponseSizeBytes() == null ? 0 : requestLog.getResponseSizeBytes());
-                ps.setString(10, requestLog.getUserAgent());
+                bindRequestLog(ps, requestLog);
                 int inserted = ps.executeUpdate();
                 if (inserted <= 0) {
                     con.rollback();
@@ -148,7 +159,7 @@ public class RequestLogDAO {
     }
 
     public Map<String, Object> getStats(Integer serverId) {
-        return getStats(serverId, null, null, null, null, 24 * 365);
+        return getStats(serverId, null, null, null, null, DEFAULT_WINDOW_HOURS);
     }
 
     public Map<String, Object> getStats(Integer serverId, String search, Integer statusMin, Integer statusMax,
@@ -227,11 +238,16 @@ public class RequestLogDAO {
     }
 
     public List<Map<String, Object>> getTopTools(Integer serverId, int limit) {
+        return getTopTools(serverId, limit, DEFAULT_WINDOW_HOURS);
+    }
+
+    public List<Map<String, Object>> getTopTools(Integer serverId, int limit, int hours) {
         List<Map<String, Object>> rows = new ArrayList<>();
         try (Connection con = DBConnection.getInstance().getConnection();
              PreparedStatement ps = con.prepareStatement(DBQueries.SELECT_TOP_TOOLS)) {
             ps.setInt(1, serverId);
-            ps.setInt(2, limit);
+            ps.setTimestamp(2, timestampHoursAgo(hours));
+            ps.setInt(3, limit);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     Map<String, Object> row = new HashMap<>();
@@ -264,6 +280,12 @@ public class RequestLogDAO {
         log.setErrorMessage(rs.getString("error_message"));
         log.setResponseSizeBytes(rs.getLong("response_size_bytes"));
         log.setUserAgent(rs.getString("user_agent"));
+        log.setLeaseWaitUs(getNullableLong(rs, "lease_wait_us"));
+        log.setDnsUs(getNullableLong(rs, "dns_us"));
+        log.setConnectUs(getNullableLong(rs, "connect_us"));
+        log.setTlsUs(getNullableLong(rs, "tls_us"));
+        log.setTtfbUs(getNullableLong(rs, "ttfb_us"));
+        log.setBodyReadUs(getNullableLong(rs, "body_read_us"));
         String createdAtRaw = rs.getString("created_at");
         if (createdAtRaw != null && !createdAtRaw.isBlank()) {
             log.setCreatedAt(Timestamp.valueOf(createdAtRaw));
@@ -273,6 +295,105 @@ public class RequestLogDAO {
         return log;
     }
 
+    /**
+     * Inserts the logs and their payloads as two JDBC batches in one transaction, for callers such as the tool
+     * batch API that produce many logs at once. Returns false (and stores none) if any insert fails.
+     */
+    public boolean insertBatch(List<RequestLog> requestLogs) {
+        if (requestLogs == null || requestLogs.isEmpty()) {
+            return true;
+        }
+        Connection con = null;
+        try {
+            con = DBConnection.getInstance().getConnection();
+            con.setAutoCommit(false);
+            List<Long> ids = new ArrayList<>(requestLogs.size());
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.INSERT_REQUEST_LOG, Statement.RETURN_GENERATED_KEYS)) {
+                for (RequestLog requestLog : requestLogs) {
+                    bindRequestLog(ps, requestLog);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+            }
+            if (ids.size() != requestLogs.size()) {
+                con.rollback();
+                logger.error("Request log batch returned {} keys for {} rows", ids.size(), requestLogs.size());
+                return false;
+            }
+            try (PreparedStatement payloadPs = con.prepareStatement(DBQueries.INSERT_REQUEST_LOG_PAYLOAD)) {
+                for (int i = 0; i < ids.size(); i++) {
+                    payloadPs.setLong(1, ids.get(i));
+                    payloadPs.setString(2, requestLogs.get(i).getRequestPayload());
+                    payloadPs.setString(3, requestLogs.get(i).getResponseBody());
+                    payloadPs.addBatch();
+                }
+                payloadPs.executeBatch();
+            }
+            con.commit();
+            return true;
+        } catch (SQLException e) {
+            if (con != null) {
+                try {
+                    con.rollback();
+                } catch (SQLException ignored) {
+                    // no-op
+                }
+            }
+            logger.error("Failed to insert {} request logs", requestLogs.size(), e);
+            return false;
+        } finally {
+            if (con != null) {
+                try {
+                    con.setAutoCommit(true);
+                    con.close();
+                } catch (SQLException ignored) {
+                    // no-op
+                }
+            }
+        }
+    }
+
+    private static void bindRequestLog(PreparedStatement ps, RequestLog requestLog) throws SQLException {
+        ps.setInt(1, requestLog.getServerId());
+        if (requestLog.getToolId() == null) {
+            ps.setNull(2, java.sql.Types.INTEGER);
+        } else {
+            ps.setInt(2, requestLog.getToolId());
+        }
+        ps.setString(3, requestLog.getToolName());
+        ps.setString(4, requestLog.getMethod());
+        ps.setInt(5, requestLog.getStatusCode());
+        ps.setString(6, requestLog.getStatusText());
+        ps.setLong(7, requestLog.getLatencyMs() == null ? 0 : requestLog.getLatencyMs());
+        ps.setString(8, requestLog.getErrorMessage());
+        ps.setLong(9, requestLog.getResponseSizeBytes() == null ? 0 : requestLog.getResponseSizeBytes());
+        ps.setString(10, requestLog.getUserAgent());
+        setNullableLong(ps, 11, requestLog.getLeaseWaitUs());
+        setNullableLong(ps, 12, requestLog.getDnsUs());
+        setNullableLong(ps, 13, requestLog.getConnectUs());
+        setNullableLong(ps, 14, requestLog.getTlsUs());
+        setNullableLong(ps, 15, requestLog.getTtfbUs());
+        setNullableLong(ps, 16, requestLog.getBodyReadUs());
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, java.sql.Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+
+    private static Long getNullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
     private void appendLogFilters(StringBuilder query, List<Object> params, String search,
                                   Integer statusMin, Integer statusMax, String toolName, int hours) {
         if (search != null && !search.isBlank()) {
@@ -0,0 +1,150 @@
+package com.tradeshow.pulse24x7.mcp.dao;
+
+import com.tradeshow.pulse24x7.mcp.db.DBConnection;
+import com.tradeshow.pulse24x7.mcp.utils.DBQueries;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class RetentionDAO {
+    private static final Logger logger = LogManager.getLogger(RetentionDAO.class);
+    private static final AtomicBoolean ensuredWatermarkTable = new AtomicBoolean(false);
+
+    public List<Map<String, Object>> selectChunk(String sql, long afterId, int limit) throws SQLException {
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                return readRows(rs);
+            }
+        }
+    }
+
+    /** Latest row of each key in {@code keys} with an ID at or below {@code maxId}. */
+    public List<Map<String, Object>> selectSeedRows(String sqlTemplate, long maxId, List<Object> keys) throws SQLException {
+        if (keys == null || keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String placeholders = String.join(",", Collections.nCopies(keys.size(), "?"));
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(String.format(sqlTemplate, placeholders))) {
+            ps.setLong(1, maxId);
+            for (int i = 0; i < keys.size(); i++) {
+                ps.setObject(i + 2, keys.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return readRows(rs);
+            }
+        }
+    }
+
+    /** Highest ID a previous run finished compacting in {@code table}, or 0 if none is recorded. */
+    public long getWatermark(String table) throws SQLException {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureWatermarkTable(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_RETENTION_WATERMARK)) {
+                ps.setString(1, table);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getLong("last_id") : 0L;
+                }
+            }
+        }
+    }
+
+    public void saveWatermark(String table, long lastId) throws SQLException {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureWatermarkTable(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.UPSERT_RETENTION_WATERMARK)) {
+                ps.setString(1, table);
+                ps.setLong(2, lastId);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    public int deleteByIds(String sqlTemplate, List<Long> ids) throws SQLException {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(String.format(sqlTemplate, placeholders))) {
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setLong(i + 1, ids.get(i));
+            }
+            return ps.executeUpdate();
+        }
+    }
+
+    public int insertIgnore(String table, List<String> columns, List<List<Object>> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(columns.size(), "?"));
+        String sql = String.format(DBQueries.INSERT_IGNORE_ARCHIVED_ROW, table, String.join(",", columns), placeholders);
+
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                for (List<Object> row : rows) {
+                    for (int i = 0; i < columns.size(); i++) {
+                        ps.setObject(i + 1, row.get(i));
+                    }
+                    ps.addBatch();
+                }
+                int inserted = 0;
+                for (int count : ps.executeBatch()) {
+                    inserted += Math.max(0, count);
+                }
+                con.commit();
+                return inserted;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to re-import {} archived rows into {}", rows.size(), table, e);
+            return 0;
+        }
+    }
+
+    private List<Map<String, Object>> readRows(ResultSet rs) throws SQLException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        while (rs.next()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 1; i <= columns; i++) {
+                row.put(meta.getColumnLabel(i), rs.getObject(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void ensureWatermarkTable(Connection con) {
+        if (ensuredWatermarkTable.get()) {
+            return;
+        }
+        try (PreparedStatement ps = con.prepareStatement(DBQueries.CREATE_RETENTION_WATERMARKS_TABLE)) {
+            ps.execute();
+            ensuredWatermarkTable.set(true);
+        } catch (SQLException ignored) {
+            // ignore if table already exists or insufficient privileges
+        }
+    }
+}
@@ -14,9 +14,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class ServerDAO {
     private static final Logger logger = LogManager.getLogger(ServerDAO.class);
     private static final AtomicBoolean ensuredConnectionColumns = new AtomicBoolean(false);
+    private static final AtomicBoolean ensuredTombstoneColumn = new AtomicBoolean(false);
+    private static final int ER_NO_SUCH_TABLE = 1146;
 
     public Integer insertServer(Long userId, String serverName, String serverUrl, Integer monitorIntervalMinutes,
-                                Integer connectionTimeoutMs, Boolean autoReconnect) {
+                                Integer connectionTimeoutMs, Boolean autoReconnect, Boolean adaptiveInterval) {
         logger.info("Inserting server for userId={}: {} - {}", userId, serverName, serverUrl);
 
         try (Connection con = DBConnection.getInstance().getConnection();
@@ -29,6 +31,7 @@ public class ServerDAO {
             ps.setInt(4, normalizeMonitorInterval(monitorIntervalMinutes));
             ps.setInt(5, normalizeConnectionTimeoutMs(connectionTimeoutMs));
             ps.setBoolean(6, autoReconnect == null || autoReconnect);
+            ps.setBoolean(7, Boolean.TRUE.equals(adaptiveInterval));
 
             int affectedRows = ps.executeUpdate();
 
@@ -164,61 +167,94 @@ public class ServerDAO {
         return false;
     }
 
-    public boolean deleteServer(Integer serverId, Long userId) {
-        logger.info("Deleting server ID={} for userId={}", serverId, userId);
+    public boolean updateAdaptiveInterval(Integer serverId, Long userId, boolean adaptiveInterval) {
+        logger.info("Setting adaptive interval={} for server ID {} userId={}", adaptiveInterval, serverId, userId);
 
-        try (Connection con = DBConnection.getInstance().getConnection()) {
-            con.setAutoCommit(false);
-            try {
-                // Hard-delete all records that belong to this server to avoid orphan/null references.
-                deleteByServerId(con, DBQueries.DELETE_REQUEST_LOG_PAYLOADS_BY_SERVER, serverId);
-                deleteByServerId(con, DBQueries.DELETE_REQUEST_LOGS_BY_SERVER, serverId);
-                deleteByServerId(con, DBQueries.DELETE_TOOLS_HISTORY_BY_SERVER, serverId);
-                deleteByServerId(con, DBQueries.DELETE_TOOLS_BY_SERVER, serverId);
-                deleteByServerId(con, DBQueries.DELETE_SERVER_HISTORY_BY_SERVER, serverId);
-                deleteByServerId(con, DBQueries.DELETE_AUTH_TOKEN_BY_SERVER, serverId);
-                deleteByServerId(con, DBQueries.DELETE_NOTIFICATIONS_BY_SERVER, serverId);
-                deleteOrphanNotifications(con);
-
-                int affectedRows;
-                try (PreparedStatement ps = con.prepareStatement(DBQueries.DELETE_SERVER)) {
-                    ps.setInt(1, serverId);
-                    ps.setLong(2, userId);
-                    affectedRows = ps.executeUpdate();
-                }
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.UPDATE_SERVER_ADAPTIVE_INTERVAL)) {
+            ensureConnectionColumns(con);
+            ps.setBoolean(1, adaptiveInterval);
+            ps.setInt(2, serverId);
+            ps.setLong(3, userId);
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Failed to update adaptive interval for server: {}", serverId, e);
+        }
+        return false;
+    }
 
-                if (affectedRows <= 0) {
-                    con.rollback();
-                    logger.warn("Server not deleted (not found/unauthorized) serverId={} userId={}", serverId, userId);
-                    return false;
-                }
+    public boolean markServerDeleted(Integer serverId, Long userId) {
+        logger.info("Tombstoning server ID={} for userId={}", serverId, userId);
 
-                con.commit();
-                logger.info("Server deleted successfully with all dependent records: {}", serverId);
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.TOMBSTONE_SERVER)) {
+            ps.setInt(1, serverId);
+            ps.setLong(2, userId);
+            if (ps.executeUpdate() > 0) {
                 return true;
-            } catch (SQLException e) {
-                con.rollback();
-                throw e;
-            } finally {
-                con.setAutoCommit(true);
             }
+            logger.warn("Server not tombstoned (not found/unauthorized) serverId={} userId={}", serverId, userId);
         } catch (SQLException e) {
-            logger.error("Failed to delete server: {}", serverId, e);
+            logger.error("Failed to tombstone server: {}", serverId, e);
         }
         return false;
     }
 
-    private void deleteByServerId(Connection con, String sql, int serverId) throws SQLException {
-        try (PreparedStatement ps = con.prepareStatement(sql)) {
+    public List<Server> getTombstonedServers() {
+        List<Server> servers = new ArrayList<>();
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.GET_TOMBSTONED_SERVERS);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                servers.add(mapResultSetToServer(rs));
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to fetch tombstoned servers", e);
+        }
+        return servers;
+    }
+
+    public List<Long> getIdsByServer(String sql, int serverId, int limit) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, serverId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    public int deleteByServerId(String sql, int serverId, int limit) throws SQLException {
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setInt(1, serverId);
-            ps.executeUpdate();
+            ps.setInt(2, limit);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            if (e.getErrorCode() == ER_NO_SUCH_TABLE) {
+                return 0;
+            }
+            throw e;
         }
     }
 
-    private void deleteOrphanNotifications(Connection con) throws SQLException {
-        try (PreparedStatement ps = con.prepareStatement(DBQueries.DELETE_ORPHAN_NOTIFICATIONS)) {
-            ps.executeUpdate();
+    public boolean deleteTombstonedServer(Integer serverId) {
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.DELETE_TOMBSTONED_SERVER)) {
+            ps.setInt(1, serverId);
+            if (ps.executeUpdate() > 0) {
+                logger.info("Server row removed after reaping dependents: {}", serverId);
+                return true;
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to delete tombstoned server: {}", serverId, e);
         }
+        return false;
     }
 
     public boolean serverExists(String serverUrl, Long userId) {
@@ -226,7 +262,7 @@ public class ServerDAO {
     }
 
     private Server mapResultSetToServer(ResultSet rs) throws SQLException {
-        return new Server(
+        Server server = new Server(
                 rs.getInt("server_id"),
                 rs.getLong("user_id"),
                 rs.getString("server_name"),
@@ -236,6 +272,8 @@ public class ServerDAO {
                 safeGetBoolean(rs, "auto_reconnect", true),
                 rs.getTimestamp("created_at")
         );
+        server.setAdaptiveInterval(safeGetBoolean(rs, "adaptive_interval", false));
+        return server;
     }
 
     private int normalizeMonitorInterval(Integer monitorIntervalMinutes) {
@@ -286,5 +324,30 @@ public class ServerDAO {
         } catch (SQLException ignored) {
             // ignore if column already exists or insufficient privileges
         }
+        try (PreparedStatement ps3 = con.prepareStatement(
+                "ALTER TABLE servers ADD COLUMN adaptive_interval BOOLEAN NOT NULL DEFAULT FALSE"
+        )) {
+            ps3.execute();
+        } catch (SQLException ignored) {
+            // ignore if column already exists or insufficient privileges
+        }
+    }
+
+    public static void ensureTombstoneColumn() {
+        if (!ensuredTombstoneColumn.compareAndSet(false, true)) {
+            return;
+        }
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "ALTER TABLE servers ADD COLUMN deleted_at TIMESTAMP NULL DEFAULT NULL"
+            )) {
+                ps.execute();
+            } catch (SQLException ignored) {
+                // ignore if column already exists or insufficient privileges
+            }
+        } catch (SQLException e) {
+            ensuredTombstoneColumn.set(false);
+            logger.warn("Could not verify servers.deleted_at column", e);
+        }
     }
 }
@@ -8,14 +8,35 @@ import org.apache.logging.log4j.Logger;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ToolDAO {
     private static final Logger logger = LogManager.getLogger(ToolDAO.class);
+    private static final AtomicBoolean ensuredValidityTable = new AtomicBoolean(false);
+    private static final AtomicBoolean ensuredFingerprintColumn = new AtomicBoolean(false);
+
+    public static void ensureFingerprintColumn() {
+        if (!ensuredFingerprintColumn.compareAndSet(false, true)) {
+            return;
+        }
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.ADD_TOOL_SCHEMA_FINGERPRINT_COLUMN)) {
+                ps.execute();
+            } catch (SQLException ignored) {
+                // ignore if column already exists or insufficient privileges
+            }
+        } catch (SQLException e) {
+            ensuredFingerprintColumn.set(false);
+            logger.warn("Could not verify tools.schema_fingerprint column", e);
+        }
+    }
 
     public boolean insertTool(String toolName, String description, String toolType,
-                              String inputSchema, String outputSchema, Integer serverId) {
+                              String inputSchema, String outputSchema, String schemaFingerprint, Integer serverId) {
         logger.info("Inserting/Updating tool: {} for server ID: {}", toolName, serverId);
 
         try (Connection con = DBConnection.getInstance().getConnection();
@@ -26,7 +47,8 @@ public class ToolDAO {
             ps.setString(3, toolType);
             ps.setString(4, inputSchema);
             ps.setString(5, outputSchema);
-            ps.setInt(6, serverId);
+            ps.setString(6, schemaFingerprint);
+            ps.setInt(7, serverId);
 
             int affectedRows = ps.executeUpdate();
 
@@ -40,6 +62,27 @@ public class ToolDAO {
         return false;
     }
 
+    /**
+     * Stores fingerprints for rows written before the schema_fingerprint column existed, so their schemas
+     * are not re-read for change detection on every refresh.
+     */
+    public void backfillSchemaFingerprints(Map<Integer, String> fingerprintsByToolId) {
+        if (fingerprintsByToolId == null || fingerprintsByToolId.isEmpty()) {
+            return;
+        }
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.BACKFILL_TOOL_SCHEMA_FINGERPRINT)) {
+            for (Map.Entry<Integer, String> entry : fingerprintsByToolId.entrySet()) {
+                ps.setString(1, entry.getValue());
+                ps.setInt(2, entry.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            logger.warn("Failed to backfill schema fingerprints for {} tools", fingerprintsByToolId.size(), e);
+        }
+    }
+
     public boolean updateToolRequestMetrics(Integer toolId, boolean success, int statusCode, long latencyMs) {
         logger.debug("Updating metrics for toolId={} success={} statusCode={} latencyMs={}",
                 toolId, success, statusCode, latencyMs);
@@ -124,16 +167,29 @@ public class ToolDAO {
         logger.debug("Fetching tools snapshot for server ID: {} at {}", serverId, snapshotAt);
         List<Tool> tools = new ArrayList<>();
 
-        try (Connection con = DBConnection.getInstance().getConnection();
-             PreparedStatement ps = con.prepareStatement(DBQueries.GET_TOOLS_BY_SERVER_SNAPSHOT)) {
-            ps.setTimestamp(1, snapshotAt);
-            ps.setTimestamp(2, snapshotAt);
-            ps.setInt(3, serverId);
-            ps.setTimestamp(4, snapshotAt);
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureValidityTable(con);
+            Timestamp versionedSince = getFirstToolVersionAt(con, serverId);
+            boolean versioned = versionedSince != null && !snapshotAt.before(versionedSince);
+            try (PreparedStatement ps = con.prepareStatement(versioned
+                    ? DBQueries.GET_TOOLS_BY_SERVER_AS_OF
+                    : DBQueries.GET_TOOLS_BY_SERVER_SNAPSHOT)) {
+                if (versioned) {
+                    ps.setInt(1, serverId);
+                    ps.setTimestamp(2, snapshotAt);
+                    ps.setTimestamp(3, snapshotAt);
+                } else {
+                    // Before the server's first sync into tool_validity, only the history scan knows the state.
+                    ps.setTimestamp(1, snapshotAt);
+                    ps.setTimestamp(2, snapshotAt);
+                    ps.setInt(3, serverId);
+                    ps.setTimestamp(4, snapshotAt);
+                }
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    tools.add(mapResultSetToTool(rs));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        tools.add(mapResultSetToTool(rs));
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -142,6 +198,79 @@ public class ToolDAO {
         return tools;
     }
 
+    public boolean syncToolVersions(Integer serverId, Collection<String> changedToolNames, Timestamp changedAt) {
+        logger.debug("Syncing tool versions for server ID: {} ({} changed)", serverId,
+                changedToolNames == null ? 0 : changedToolNames.size());
+
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureValidityTable(con);
+            con.setAutoCommit(false);
+            try {
+                if (changedToolNames != null && !changedToolNames.isEmpty()) {
+                    List<String> names = new ArrayList<>(changedToolNames);
+                    String placeholders = String.join(",", Collections.nCopies(names.size(), "?"));
+                    try (PreparedStatement ps = con.prepareStatement(String.format(DBQueries.CLOSE_TOOL_VERSIONS, placeholders))) {
+                        ps.setTimestamp(1, changedAt);
+                        ps.setInt(2, serverId);
+                        for (int i = 0; i < names.size(); i++) {
+                            ps.setString(i + 3, names.get(i));
+                        }
+                        ps.executeUpdate();
+                    }
+                }
+
+                int opened;
+                try (PreparedStatement ps = con.prepareStatement(DBQueries.OPEN_MISSING_TOOL_VERSIONS)) {
+                    ps.setTimestamp(1, changedAt);
+                    ps.setTimestamp(2, changedAt);
+                    ps.setTimestamp(3, changedAt);
+                    ps.setTimestamp(4, changedAt);
+                    ps.setInt(5, serverId);
+                    opened = ps.executeUpdate();
+                }
+
+                con.commit();
+                if (opened > 0) {
+                    logger.info("Opened {} tool versions for server ID: {}", opened, serverId);
+                }
+                return true;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to sync tool versions for server ID: {}", serverId, e);
+            return false;
+        }
+    }
+
+    /** When tool_validity starts covering {@code serverId}, or null if it has no rows (or the lookup failed). */
+    private Timestamp getFirstToolVersionAt(Connection con, Integer serverId) {
+        try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_FIRST_TOOL_VERSION_BY_SERVER)) {
+            ps.setInt(1, serverId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getTimestamp("first_valid_from") : null;
+            }
+        } catch (SQLException e) {
+            logger.warn("Tool validity lookup failed for server ID: {}", serverId, e);
+            return null;
+        }
+    }
+
+    private void ensureValidityTable(Connection con) {
+        if (ensuredValidityTable.get()) {
+            return;
+        }
+        try (PreparedStatement ps = con.prepareStatement(DBQueries.CREATE_TOOL_VALIDITY_TABLE)) {
+            ps.execute();
+            ensuredValidityTable.set(true);
+        } catch (SQLException ignored) {
+            // ignore if table already exists or insufficient privileges; retried on the next call
+        }
+    }
+
     public boolean updateToolAvailability(Integer toolId, Boolean isAvailable) {
         logger.info("Updating tool availability: toolId={}, available={}", toolId, isAvailable);
 
@@ -236,7 +365,7 @@ public class ToolDAO {
     }
 
     private Tool mapResultSetToTool(ResultSet rs) throws SQLException {
-        return new Tool(
+        Tool tool = new Tool(
                 rs.getInt("tool_id"),
                 rs.getString("tool_name"),
                 rs.getString("tool_description"),
@@ -252,5 +381,15 @@ public class ToolDAO {
                 rs.getTimestamp("last_modify"),
                 rs.getInt("server_id")
         );
+        tool.setSchemaFingerprint(safeGetString(rs, "schema_fingerprint"));
+        return tool;
+    }
+
+    private String safeGetString(ResultSet rs, String column) {
+        try {
+            return rs.getString(column);
+        } catch (SQLException ignored) {
+            return null;
+        }
     }
 }
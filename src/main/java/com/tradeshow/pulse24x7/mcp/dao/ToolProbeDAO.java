@@ -0,0 +1,279 @@
+package com.tradeshow.pulse24x7.mcp.dao;
+
+import com.tradeshow.pulse24x7.mcp.db.DBConnection;
+import com.tradeshow.pulse24x7.mcp.model.ToolProbe;
+import com.tradeshow.pulse24x7.mcp.model.ToolProbeResult;
+import com.tradeshow.pulse24x7.mcp.utils.DBQueries;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ToolProbeDAO {
+    private static final Logger logger = LogManager.getLogger(ToolProbeDAO.class);
+    private static final AtomicBoolean ensuredTables = new AtomicBoolean(false);
+
+    public Integer insertProbe(ToolProbe probe) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.INSERT_TOOL_PROBE,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, probe.getToolId());
+                ps.setInt(2, probe.getServerId());
+                bindSettings(ps, 3, probe);
+                if (ps.executeUpdate() > 0) {
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            return keys.getInt(1);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to insert probe for tool ID: {}", probe.getToolId(), e);
+        }
+        return null;
+    }
+
+    public boolean updateProbe(ToolProbe probe) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.UPDATE_TOOL_PROBE)) {
+                bindSettings(ps, 1, probe);
+                ps.setInt(8, probe.getProbeId());
+                return ps.executeUpdate() > 0;
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to update probe ID: {}", probe.getProbeId(), e);
+        }
+        return false;
+    }
+
+    public boolean deleteProbe(Integer probeId) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.DELETE_TOOL_PROBE)) {
+                ps.setInt(1, probeId);
+                return ps.executeUpdate() > 0;
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to delete probe ID: {}", probeId, e);
+        }
+        return false;
+    }
+
+    public ToolProbe getProbeById(Integer probeId) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_TOOL_PROBE_BY_ID)) {
+                ps.setInt(1, probeId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return mapResultSetToProbe(rs);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to fetch probe ID: {}", probeId, e);
+        }
+        return null;
+    }
+
+    public List<ToolProbe> getProbesByServer(Integer serverId) {
+        List<ToolProbe> probes = new ArrayList<>();
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_TOOL_PROBES_BY_SERVER)) {
+                ps.setInt(1, serverId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        probes.add(mapResultSetToProbe(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to fetch probes for server ID: {}", serverId, e);
+        }
+        return probes;
+    }
+
+    /** Due probes of live servers among {@code serverIds}, least recently run first, at most {@code limit}. */
+    public List<ToolProbe> getDueProbes(Collection<Integer> serverIds, int limit) {
+        List<ToolProbe> probes = new ArrayList<>();
+        if (serverIds.isEmpty()) {
+            return probes;
+        }
+        String placeholders = String.join(",", Collections.nCopies(serverIds.size(), "?"));
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(String.format(DBQueries.GET_DUE_TOOL_PROBES, placeholders))) {
+                int index = 1;
+                for (Integer serverId : serverIds) {
+                    ps.setInt(index++, serverId);
+                }
+                ps.setInt(index, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        probes.add(mapResultSetToProbe(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to fetch due probes", e);
+        }
+        return probes;
+    }
+
+    public boolean markRun(Integer probeId, Timestamp runAt, boolean sloBreached) {
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.UPDATE_TOOL_PROBE_RUN)) {
+            ps.setTimestamp(1, runAt);
+            ps.setBoolean(2, sloBreached);
+            ps.setInt(3, probeId);
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Failed to mark run for probe ID: {}", probeId, e);
+        }
+        return false;
+    }
+
+    public boolean insertResult(ToolProbeResult result) {
+        try (Connection con = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBQueries.INSERT_TOOL_PROBE_RESULT)) {
+            ps.setInt(1, result.getProbeId());
+            ps.setInt(2, result.getToolId());
+            ps.setBoolean(3, Boolean.TRUE.equals(result.getSuccess()));
+            ps.setLong(4, result.getLatencyMs() == null ? 0L : result.getLatencyMs());
+            ps.setInt(5, result.getStatusCode() == null ? 0 : result.getStatusCode());
+            ps.setString(6, result.getErrorMessage());
+            ps.setTimestamp(7, result.getCheckedAt());
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Failed to insert result for probe ID: {}", result.getProbeId(), e);
+        }
+        return false;
+    }
+
+    /** Newest first. */
+    public List<ToolProbeResult> getRecentResults(Integer probeId, int limit) {
+        List<ToolProbeResult> results = new ArrayList<>();
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_RECENT_TOOL_PROBE_RESULTS)) {
+                ps.setInt(1, probeId);
+                ps.setInt(2, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        results.add(mapResultSetToResult(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to fetch recent results for probe ID: {}", probeId, e);
+        }
+        return results;
+    }
+
+    /** Oldest first, for charting. */
+    public List<ToolProbeResult> getResultsSince(Integer probeId, Timestamp since) {
+        List<ToolProbeResult> results = new ArrayList<>();
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.GET_TOOL_PROBE_RESULTS_SINCE)) {
+                ps.setInt(1, probeId);
+                ps.setTimestamp(2, since);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        results.add(mapResultSetToResult(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to fetch results for probe ID: {}", probeId, e);
+        }
+        return results;
+    }
+
+    public int deleteResultsBefore(Timestamp cutoff, int limit) {
+        try (Connection con = DBConnection.getInstance().getConnection()) {
+            ensureTables(con);
+            try (PreparedStatement ps = con.prepareStatement(DBQueries.DELETE_TOOL_PROBE_RESULTS_BEFORE)) {
+                ps.setTimestamp(1, cutoff);
+                ps.setInt(2, limit);
+                return ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to prune probe results before {}", cutoff, e);
+        }
+        return 0;
+    }
+
+    private void bindSettings(PreparedStatement ps, int index, ToolProbe probe) throws SQLException {
+        ps.setString(index, probe.getInputParams());
+        ps.setString(index + 1, probe.getExpectedResult());
+        ps.setInt(index + 2, probe.getIntervalMinutes());
+        ps.setInt(index + 3, probe.getTimeoutMs());
+        if (probe.getSloP95Ms() == null) {
+            ps.setNull(index + 4, Types.BIGINT);
+        } else {
+            ps.setLong(index + 4, probe.getSloP95Ms());
+        }
+        if (probe.getSloErrorRatePercent() == null) {
+            ps.setNull(index + 5, Types.DOUBLE);
+        } else {
+            ps.setDouble(index + 5, probe.getSloErrorRatePercent());
+        }
+        ps.setBoolean(index + 6, !Boolean.FALSE.equals(probe.getEnabled()));
+    }
+
+    private void ensureTables(Connection con) {
+        if (!ensuredTables.compareAndSet(false, true)) {
+            return;
+        }
+        try (Statement st = con.createStatement()) {
+            st.execute(DBQueries.CREATE_TOOL_PROBES_TABLE);
+            st.execute(DBQueries.CREATE_TOOL_PROBE_RESULTS_TABLE);
+        } catch (SQLException ignored) {
+            // ignore if tables already exist or insufficient privileges
+        }
+    }
+
+    private ToolProbe mapResultSetToProbe(ResultSet rs) throws SQLException {
+        ToolProbe probe = new ToolProbe();
+        probe.setProbeId(rs.getInt("probe_id"));
+        probe.setToolId(rs.getInt("tool_id"));
+        probe.setServerId(rs.getInt("server_id"));
+        probe.setToolName(rs.getString("tool_name"));
+        probe.setInputParams(rs.getString("input_params"));
+        probe.setExpectedResult(rs.getString("expected_result"));
+        probe.setIntervalMinutes(rs.getInt("interval_minutes"));
+        probe.setTimeoutMs(rs.getInt("timeout_ms"));
+        long sloP95Ms = rs.getLong("slo_p95_ms");
+        probe.setSloP95Ms(rs.wasNull() ? null : sloP95Ms);
+        double sloErrorRate = rs.getDouble("slo_error_rate_percent");
+        probe.setSloErrorRatePercent(rs.wasNull() ? null : sloErrorRate);
+        probe.setEnabled(rs.getBoolean("enabled"));
+        probe.setSloBreached(rs.getBoolean("slo_breached"));
+        probe.setLastRunAt(rs.getTimestamp("last_run_at"));
+        probe.setCreatedAt(rs.getTimestamp("created_at"));
+        return probe;
+    }
+
+    private ToolProbeResult mapResultSetToResult(ResultSet rs) throws SQLException {
+        ToolProbeResult result = new ToolProbeResult();
+        result.setId(rs.getLong("id"));
+        result.setProbeId(rs.getInt("probe_id"));
+        result.setToolId(rs.getInt("tool_id"));
+        result.setSuccess(rs.getBoolean("success"));
+        result.setLatencyMs(rs.getLong("latency_ms"));
+        result.setStatusCode(rs.getInt("status_code"));
+        result.setErrorMessage(rs.getString("error_message"));
+        result.setCheckedAt(rs.getTimestamp("checked_at"));
+        return result;
+    }
+}
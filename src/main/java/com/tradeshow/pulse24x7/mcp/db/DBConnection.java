@@ -1,5 +1,9 @@
 package com.tradeshow.pulse24x7.mcp.db;
 
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.Histogram;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -10,6 +14,12 @@ import java.sql.SQLException;
 public class DBConnection {
     private static final Logger logger = LogManager.getLogger(DBConnection.class);
     private static DBConnection instance;
+    private static final Histogram CONNECT_SECONDS = MetricsRegistry.histogram("pulse_db_connection_acquire_seconds",
+            "Time to obtain a JDBC connection");
+    private static final Counter CONNECT_ERRORS = MetricsRegistry.counter("pulse_db_connection_errors_total",
+            "Failed attempts to obtain a JDBC connection");
+
+    private static final boolean INSTRUMENT_STATEMENTS = EnvUtil.getBoolean("MCP_JDBC_INSTRUMENTATION", true);
 
     private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/Pulse24x7";
     private static final String DEFAULT_USER = "root";
@@ -37,9 +47,13 @@ public class DBConnection {
         String user = getEnv("MCP_DB_USER", DEFAULT_USER);
         String password = getEnv("MCP_DB_PASSWORD", DEFAULT_PASSWORD);
 
+        long start = System.nanoTime();
         try {
-            return DriverManager.getConnection(url, user, password);
+            Connection connection = DriverManager.getConnection(url, user, password);
+            CONNECT_SECONDS.observeSince(start);
+            return INSTRUMENT_STATEMENTS ? JdbcInstrumentation.wrap(connection) : connection;
         } catch (SQLException e) {
+            CONNECT_ERRORS.inc();
             logger.error("Failed to get database connection", e);
             throw new RuntimeException("Failed to connect to database", e);
         }
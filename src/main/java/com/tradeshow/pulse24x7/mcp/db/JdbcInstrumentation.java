@@ -0,0 +1,218 @@
+package com.tradeshow.pulse24x7.mcp.db;
+
+import com.tradeshow.pulse24x7.mcp.jfr.DaoStatementEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+/**
+ * Dynamic-proxy wrappers for the JDBC objects handed out by {@link DBConnection}. Every execution is timed
+ * and attributed to its normalized SQL in {@link SqlStats}; rows are counted as result sets are read.
+ */
+public final class JdbcInstrumentation {
+    private static final ClassLoader LOADER = JdbcInstrumentation.class.getClassLoader();
+
+    private JdbcInstrumentation() {
+    }
+
+    public static Connection wrap(Connection connection) {
+        if (connection == null || (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof ConnectionHandler)) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(LOADER, new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return wrapStatement(proxy, (Statement) result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall":
+                    return wrapStatement(proxy, (Statement) result, CallableStatement.class, (String) args[0]);
+                case "createStatement":
+                    return wrapStatement(proxy, (Statement) result, Statement.class, null);
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private static Object wrapStatement(Object connection, Statement statement, Class<?> type, String sql) {
+        return Proxy.newProxyInstance(LOADER, new Class<?>[]{type},
+                new StatementHandler(connection, statement, sql));
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Object connection;
+        private final Statement target;
+        private final SqlStats.Entry preparedEntry;
+        private final TreeMap<Integer, String> parameterShapes = new TreeMap<>();
+        private SqlStats.Entry lastEntry;
+        private String batchSql;
+        private int batchSize;
+
+        private StatementHandler(Object connection, Statement target, String sql) {
+            this.connection = connection;
+            this.target = target;
+            this.preparedEntry = sql == null ? null : SqlStats.entryFor(SqlStats.normalize(sql));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "executeQuery":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "execute":
+                    return timed(method, args, entryFor(args));
+                case "executeBatch":
+                case "executeLargeBatch":
+                    SqlStats.Entry batchEntry = preparedEntry != null ? preparedEntry
+                            : SqlStats.entryFor(SqlStats.normalize(batchSql));
+                    parameterShapes.put(0, "batch=" + batchSize);
+                    try {
+                        return timed(method, args, batchEntry);
+                    } finally {
+                        batchSize = 0;
+                        parameterShapes.clear();
+                    }
+                case "addBatch":
+                    batchSize++;
+                    if (args != null && args.length == 1 && args[0] instanceof String sql) {
+                        batchSql = sql;
+                    }
+                    return invokeTarget(target, method, args);
+                case "clearParameters":
+                    parameterShapes.clear();
+                    return invokeTarget(target, method, args);
+                case "getResultSet":
+                    Object resultSet = invokeTarget(target, method, args);
+                    return lastEntry == null ? resultSet : wrapResultSet((ResultSet) resultSet, lastEntry);
+                case "getConnection":
+                    return connection;
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        parameterShapes.put(index, shapeOf(name, args[1]));
+                    }
+                    return invokeTarget(target, method, args);
+            }
+        }
+
+        private SqlStats.Entry entryFor(Object[] args) {
+            if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                return SqlStats.entryFor(SqlStats.normalize(sql));
+            }
+            return preparedEntry;
+        }
+
+        private Object timed(Method method, Object[] args, SqlStats.Entry entry) throws Throwable {
+            lastEntry = entry;
+            DaoStatementEvent event = new DaoStatementEvent();
+            event.begin();
+            long start = System.nanoTime();
+            boolean failed = true;
+            Object result = null;
+            try {
+                result = invokeTarget(target, method, args);
+                failed = false;
+            } finally {
+                long rows = affectedRows(result);
+                SqlStats.record(entry, System.nanoTime() - start, rows, failed,
+                        new ArrayList<>(parameterShapes.values()));
+                event.end();
+                if (event.shouldCommit()) {
+                    event.sql = entry.getSql();
+                    event.rows = rows;
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+            return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, entry) : result;
+        }
+
+        private Object wrapResultSet(ResultSet resultSet, SqlStats.Entry entry) {
+            if (resultSet == null) {
+                return null;
+            }
+            return Proxy.newProxyInstance(LOADER, new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(resultSet, entry));
+        }
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        long total = 0L;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                total += Math.max(0L, count);
+            }
+        }
+        return total;
+    }
+
+    private static String shapeOf(String setter, Object value) {
+        if ("setNull".equals(setter) || value == null) {
+            return "NULL";
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final SqlStats.Entry entry;
+
+        private ResultSetHandler(ResultSet target, SqlStats.Entry entry) {
+            this.target = target;
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                entry.addRows(1L);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.tradeshow.pulse24x7.mcp.db;
+
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Thread-bound unit of work (one servlet request or one server check) that counts how often each
+ * statement runs inside it. Statements executed more than MCP_NPLUS1_THRESHOLD times are reported
+ * as likely N+1 patterns when the scope closes.
+ */
+public final class QueryScope implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(QueryScope.class);
+    private static final int THRESHOLD = Math.max(2, EnvUtil.getInt("MCP_NPLUS1_THRESHOLD", 10));
+    private static final Counter N_PLUS_ONE = MetricsRegistry.counter("pulse_db_nplus1_detections_total",
+            "Statements repeated more than MCP_NPLUS1_THRESHOLD times within one request or server check");
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+    private static final QueryScope NESTED = new QueryScope(null);
+
+    private final String name;
+    private final Map<SqlStats.Entry, int[]> executions = new IdentityHashMap<>();
+
+    private QueryScope(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Opens a scope on the current thread. When one is already open the outer scope keeps counting and
+     * the returned handle closes as a no-op.
+     */
+    public static QueryScope begin(String name) {
+        if (CURRENT.get() != null) {
+            return NESTED;
+        }
+        QueryScope scope = new QueryScope(name);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void recordExecution(SqlStats.Entry entry) {
+        QueryScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.executions.computeIfAbsent(entry, key -> new int[1])[0]++;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this == NESTED) {
+            return;
+        }
+        CURRENT.remove();
+        for (Map.Entry<SqlStats.Entry, int[]> execution : executions.entrySet()) {
+            int count = execution.getValue()[0];
+            if (count > THRESHOLD) {
+                execution.getKey().flagNPlusOne();
+                N_PLUS_ONE.inc();
+                logger.warn("Possible N+1 in {}: statement executed {} times: {}",
+                        name, count, execution.getKey().getSql());
+            }
+        }
+    }
+}
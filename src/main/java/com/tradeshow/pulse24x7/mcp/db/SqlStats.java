@@ -0,0 +1,155 @@
+package com.tradeshow.pulse24x7.mcp.db;
+
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.Histogram;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Process-wide execution statistics keyed by normalized SQL, fed by {@link JdbcInstrumentation}.
+ */
+public final class SqlStats {
+    private static final Logger logger = LogManager.getLogger(SqlStats.class);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern QUOTED = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern VALUES_LIST = Pattern.compile("(?i)(VALUES\\s*\\([^)]*\\))(?:\\s*,\\s*\\([^)]*\\))+");
+    private static final String OVERFLOW_KEY = "<other statements>";
+    private static final int MAX_STATEMENTS = 2000;
+    private static final long SLOW_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(1L, EnvUtil.getLong("MCP_SLOW_QUERY_MS", 200L)));
+
+    private static final Histogram STATEMENT_SECONDS = MetricsRegistry.histogram("pulse_db_statement_seconds",
+            "JDBC statement execution time");
+    private static final Counter STATEMENT_ERRORS = MetricsRegistry.counter("pulse_db_statement_errors_total",
+            "JDBC statement executions that threw");
+    private static final Counter SLOW_STATEMENTS = MetricsRegistry.counter("pulse_db_slow_statements_total",
+            "JDBC statement executions over MCP_SLOW_QUERY_MS");
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    static {
+        MetricsRegistry.gauge("pulse_db_distinct_statements", "Distinct normalized statements seen since startup",
+                entries::size);
+    }
+
+    private SqlStats() {
+    }
+
+    public static final class Entry {
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder nPlusOne = new LongAdder();
+
+        private Entry(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        void addRows(long value) {
+            if (value > 0) {
+                rows.add(value);
+            }
+        }
+
+        void flagNPlusOne() {
+            nPlusOne.increment();
+        }
+
+        private Map<String, Object> toMap() {
+            long executions = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sql", sql);
+            map.put("count", executions);
+            map.put("totalMs", TimeUnit.NANOSECONDS.toMillis(total));
+            map.put("avgMs", executions == 0 ? 0.0 : Math.round(total / (double) executions / 1e4) / 100.0);
+            map.put("maxMs", Math.round(maxNanos.get() / 1e4) / 100.0);
+            map.put("rows", rows.sum());
+            map.put("errors", errors.sum());
+            map.put("slow", slow.sum());
+            map.put("nPlusOneDetections", nPlusOne.sum());
+            return map;
+        }
+    }
+
+    public static Entry entryFor(String normalizedSql) {
+        Entry entry = entries.get(normalizedSql);
+        if (entry != null) {
+            return entry;
+        }
+        // Ad-hoc SQL (e.g. partition DDL with literal names) must not grow the map without bound.
+        if (entries.size() >= MAX_STATEMENTS) {
+            return entries.computeIfAbsent(OVERFLOW_KEY, Entry::new);
+        }
+        return entries.computeIfAbsent(normalizedSql, Entry::new);
+    }
+
+    static void record(Entry entry, long elapsedNanos, long rows, boolean failed, List<String> parameterShapes) {
+        entry.count.increment();
+        entry.totalNanos.add(elapsedNanos);
+        entry.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        entry.addRows(rows);
+        STATEMENT_SECONDS.observeNanos(elapsedNanos);
+        if (failed) {
+            entry.errors.increment();
+            STATEMENT_ERRORS.inc();
+        }
+        if (elapsedNanos >= SLOW_THRESHOLD_NANOS) {
+            entry.slow.increment();
+            SLOW_STATEMENTS.inc();
+            logger.warn("Slow query ({} ms, params {}): {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), parameterShapes, entry.sql);
+        }
+        QueryScope.recordExecution(entry);
+    }
+
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = QUOTED.matcher(normalized).replaceAll("?");
+        normalized = NUMBER.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("IN (?...)");
+        return VALUES_LIST.matcher(normalized).replaceAll("$1, ...");
+    }
+
+    /**
+     * Statements ordered by total time, heaviest first.
+     */
+    public static List<Map<String, Object>> snapshot(int limit) {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingLong((Entry entry) -> entry.totalNanos.sum()).reversed());
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Entry entry : sorted.subList(0, Math.min(Math.max(0, limit), sorted.size()))) {
+            result.add(entry.toMap());
+        }
+        return result;
+    }
+
+    public static void reset() {
+        entries.clear();
+    }
+}
@@ -14,7 +14,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-@WebFilter("/*")
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
 public class CORSFilter extends HttpFilter {
     private static final Logger logger = LogManager.getLogger(CORSFilter.class);
     private Set<String> allowedOrigins;
@@ -13,7 +13,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
-@WebFilter("/*")
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
 public class JwtAuthFilter extends HttpFilter {
     @Override
     protected void doFilter(HttpServletRequest req, HttpServletResponse resp, FilterChain chain) throws IOException, ServletException {
@@ -33,6 +33,11 @@ public class JwtAuthFilter extends HttpFilter {
             chain.doFilter(req, resp);
             return;
         }
+        if ("/metrics".equals(relative) || "/metrics/sql".equals(relative)) {
+            // Operator endpoints; PrometheusServlet accepts MCP_METRICS_TOKEN as well as an admin JWT.
+            chain.doFilter(req, resp);
+            return;
+        }
         if (relative.startsWith("/user-auth/signup")
                 || relative.startsWith("/user-auth/login")
                 || relative.startsWith("/user-auth/zoho")
@@ -0,0 +1,95 @@
+package com.tradeshow.pulse24x7.mcp.filter;
+
+import com.tradeshow.pulse24x7.mcp.db.QueryScope;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.Histogram;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class RequestMetricsFilter extends HttpFilter {
+    // Route label is the servlet mapping prefix; keeps series cardinality fixed.
+    private static final String[] ROUTES = {"/server", "/tool", "/auth", "/metrics", "/request-log", "/notification",
+            "/dashboard", "/history", "/user-auth", "/health"};
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+    private static final Histogram[] DURATIONS = new Histogram[ROUTES.length + 1];
+    private static final Counter[] REQUESTS = new Counter[(ROUTES.length + 1) * STATUS_CLASSES.length];
+
+    static {
+        for (int route = 0; route <= ROUTES.length; route++) {
+            String label = route < ROUTES.length ? ROUTES[route].substring(1) : "other";
+            DURATIONS[route] = MetricsRegistry.histogram("pulse_http_server_request_seconds",
+                    "Servlet request duration", "route", label);
+            for (int status = 0; status < STATUS_CLASSES.length; status++) {
+                REQUESTS[route * STATUS_CLASSES.length + status] = MetricsRegistry.counter("pulse_http_server_requests_total",
+                        "Servlet requests by route and status class", "route", label, "status", STATUS_CLASSES[status]);
+            }
+        }
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+        long start = System.nanoTime();
+        QueryScope queryScope = QueryScope.begin(req.getMethod() + " " + req.getRequestURI());
+        try {
+            chain.doFilter(req, resp);
+        } finally {
+            queryScope.close();
+            if (req.isAsyncStarted()) {
+                // MCP-bound work finishes on a worker thread; measure up to the async completion.
+                req.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(req, resp, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(req, resp, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest req, HttpServletResponse resp, long start) {
+        int route = routeIndex(req);
+        int status = Math.max(0, Math.min(STATUS_CLASSES.length - 1, resp.getStatus() / 100 - 1));
+        DURATIONS[route].observeSince(start);
+        REQUESTS[route * STATUS_CLASSES.length + status].inc();
+    }
+
+    private int routeIndex(HttpServletRequest req) {
+        String uri = req.getRequestURI();
+        int offset = req.getContextPath().length();
+        for (int i = 0; i < ROUTES.length; i++) {
+            String route = ROUTES[i];
+            if (uri.startsWith(route, offset)) {
+                int end = offset + route.length();
+                if (uri.length() == end || uri.charAt(end) == '/' || uri.charAt(end) == '?') {
+                    return i;
+                }
+            }
+        }
+        return ROUTES.length;
+    }
+}
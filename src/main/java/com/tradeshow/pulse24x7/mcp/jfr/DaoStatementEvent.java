@@ -0,0 +1,23 @@
+package com.tradeshow.pulse24x7.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pulse24x7.DaoStatement")
+@Label("DAO Statement")
+@Category({"Pulse24x7", "Database"})
+@Description("JDBC statement execution issued by a DAO, keyed by normalized SQL")
+public class DaoStatementEvent extends Event {
+    @Label("SQL")
+    public String sql;
+
+    @Label("Rows")
+    @Description("Update count, or 0 for queries (rows are read after the event ends)")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,17 @@
+package com.tradeshow.pulse24x7.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pulse24x7.EmailSend")
+@Label("Email Send")
+@Category({"Pulse24x7", "Notifications"})
+public class EmailSendEvent extends Event {
+    @Label("SMTP Host")
+    public String host;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,34 @@
+package com.tradeshow.pulse24x7.mcp.jfr;
+
+/**
+ * Carries the MCP server a thread is currently working for, so HttpClientUtil can tag its call events
+ * without every caller threading the ID through.
+ */
+public final class JfrContext {
+    private static final ThreadLocal<Integer> SERVER_ID = new ThreadLocal<>();
+
+    private JfrContext() {
+    }
+
+    /**
+     * Binds the server to the current thread and returns the previous binding for {@link #restoreServer}.
+     */
+    public static Integer enterServer(Integer serverId) {
+        Integer previous = SERVER_ID.get();
+        SERVER_ID.set(serverId);
+        return previous;
+    }
+
+    public static void restoreServer(Integer previous) {
+        if (previous == null) {
+            SERVER_ID.remove();
+        } else {
+            SERVER_ID.set(previous);
+        }
+    }
+
+    public static int currentServerId() {
+        Integer serverId = SERVER_ID.get();
+        return serverId == null ? 0 : serverId;
+    }
+}
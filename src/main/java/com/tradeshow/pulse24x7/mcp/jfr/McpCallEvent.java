@@ -0,0 +1,58 @@
+package com.tradeshow.pulse24x7.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("pulse24x7.McpCall")
+@Label("MCP HTTP Call")
+@Category({"Pulse24x7", "HTTP"})
+@Description("Outbound HTTP exchange made through HttpClientUtil, with its phase breakdown")
+public class McpCallEvent extends Event {
+    @Label("Server ID")
+    @Description("MCP server the call was made for, or 0 when not made on behalf of a server")
+    public int serverId;
+
+    @Label("HTTP Method")
+    public String httpMethod;
+
+    @Label("MCP Method")
+    public String mcpMethod;
+
+    @Label("URL")
+    public String url;
+
+    @Label("Status Code")
+    public int statusCode;
+
+    @Label("Outcome")
+    @Description("ok, http_error, timeout or failed")
+    public String outcome;
+
+    @Label("Lease Wait")
+    @Timespan(Timespan.MICROSECONDS)
+    public long leaseWait;
+
+    @Label("DNS")
+    @Timespan(Timespan.MICROSECONDS)
+    public long dns;
+
+    @Label("Connect")
+    @Timespan(Timespan.MICROSECONDS)
+    public long connect;
+
+    @Label("TLS Handshake")
+    @Timespan(Timespan.MICROSECONDS)
+    public long tls;
+
+    @Label("Time To First Byte")
+    @Timespan(Timespan.MICROSECONDS)
+    public long ttfb;
+
+    @Label("Body Read")
+    @Timespan(Timespan.MICROSECONDS)
+    public long bodyRead;
+}
@@ -0,0 +1,20 @@
+package com.tradeshow.pulse24x7.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pulse24x7.MonitoringCycle")
+@Label("Monitoring Cycle")
+@Category({"Pulse24x7", "Monitoring"})
+@Description("One monitorAllServers sweep")
+public class MonitoringCycleEvent extends Event {
+    @Label("Servers")
+    public int servers;
+
+    @Label("Checked")
+    @Description("Servers that were due and actually checked")
+    public int checked;
+}
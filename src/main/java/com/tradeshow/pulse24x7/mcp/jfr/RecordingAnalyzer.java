@@ -0,0 +1,200 @@
+package com.tradeshow.pulse24x7.mcp.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline summary of a .jfr recording made with pulse24x7.jfc: slowest servers by check time (with where
+ * their MCP call time went) and heaviest DAO statements.
+ * <pre>
+ * java -cp WEB-INF/classes com.tradeshow.pulse24x7.mcp.jfr.RecordingAnalyzer recording.jfr [top]
+ * </pre>
+ */
+public class RecordingAnalyzer {
+    private static final String[] PHASES = {"leaseWait", "dns", "connect", "tls", "ttfb", "bodyRead"};
+
+    public static class Aggregate {
+        private final String key;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long failures;
+        private final long[] phaseMicros = new long[PHASES.length];
+
+        Aggregate(String key) {
+            this.key = key;
+        }
+
+        void add(Duration duration, boolean failed) {
+            long nanos = duration.toNanos();
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            if (failed) {
+                failures++;
+            }
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getTotalMs() {
+            return totalNanos / 1e6;
+        }
+
+        public double getAvgMs() {
+            return count == 0 ? 0.0 : totalNanos / 1e6 / count;
+        }
+
+        public double getMaxMs() {
+            return maxNanos / 1e6;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+    }
+
+    public static class Summary {
+        private final List<Aggregate> servers;
+        private final List<Aggregate> mcpCalls;
+        private final List<Aggregate> statements;
+        private final Aggregate cycles;
+
+        Summary(List<Aggregate> servers, List<Aggregate> mcpCalls, List<Aggregate> statements, Aggregate cycles) {
+            this.servers = servers;
+            this.mcpCalls = mcpCalls;
+            this.statements = statements;
+            this.cycles = cycles;
+        }
+
+        public List<Aggregate> getServers() {
+            return servers;
+        }
+
+        public List<Aggregate> getMcpCalls() {
+            return mcpCalls;
+        }
+
+        public List<Aggregate> getStatements() {
+            return statements;
+        }
+
+        public Aggregate getCycles() {
+            return cycles;
+        }
+    }
+
+    public static Summary analyze(Path recording) throws IOException {
+        Map<String, Aggregate> servers = new HashMap<>();
+        Map<String, Aggregate> calls = new HashMap<>();
+        Map<String, Aggregate> statements = new HashMap<>();
+        Aggregate cycles = new Aggregate("cycles");
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "pulse24x7.MonitoringCycle":
+                        cycles.add(event.getDuration(), false);
+                        break;
+                    case "pulse24x7.ServerCheck":
+                        servers.computeIfAbsent("server " + event.getInt("serverId"), Aggregate::new)
+                                .add(event.getDuration(), !"up".equals(event.getString("outcome")));
+                        break;
+                    case "pulse24x7.McpCall":
+                        Aggregate call = calls.computeIfAbsent("server " + event.getInt("serverId"), Aggregate::new);
+                        call.add(event.getDuration(), !"ok".equals(event.getString("outcome")));
+                        for (int i = 0; i < PHASES.length; i++) {
+                            call.phaseMicros[i] += event.getDuration(PHASES[i]).toNanos() / 1_000L;
+                        }
+                        break;
+                    case "pulse24x7.DaoStatement":
+                        statements.computeIfAbsent(event.getString("sql"), Aggregate::new)
+                                .add(event.getDuration(), event.getBoolean("failed"));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return new Summary(byTotal(servers), byTotal(calls), byTotal(statements), cycles);
+    }
+
+    private static List<Aggregate> byTotal(Map<String, Aggregate> aggregates) {
+        List<Aggregate> sorted = new ArrayList<>(aggregates.values());
+        sorted.sort(Comparator.comparingLong((Aggregate aggregate) -> aggregate.totalNanos).reversed());
+        return sorted;
+    }
+
+    public static void print(Summary summary, int top, PrintStream out) {
+        Aggregate cycles = summary.getCycles();
+        out.printf("Monitoring cycles: %d, avg %.1f ms, max %.1f ms%n%n",
+                cycles.getCount(), cycles.getAvgMs(), cycles.getMaxMs());
+
+        out.println("Slowest servers (ServerCheck)");
+        out.printf("%-14s %8s %12s %10s %10s %8s%n", "server", "checks", "total ms", "avg ms", "max ms", "down");
+        for (Aggregate server : limit(summary.getServers(), top)) {
+            out.printf("%-14s %8d %12.1f %10.1f %10.1f %8d%n", server.getKey(), server.getCount(),
+                    server.getTotalMs(), server.getAvgMs(), server.getMaxMs(), server.getFailures());
+        }
+
+        out.println();
+        out.println("MCP call time by phase (McpCall, avg ms)");
+        out.printf("%-14s %7s %8s", "server", "calls", "failed");
+        for (String phase : PHASES) {
+            out.printf(" %9s", phase);
+        }
+        out.println();
+        for (Aggregate call : limit(summary.getMcpCalls(), top)) {
+            out.printf("%-14s %7d %8d", call.getKey(), call.getCount(), call.getFailures());
+            for (long micros : call.phaseMicros) {
+                out.printf(" %9.1f", call.getCount() == 0 ? 0.0 : micros / 1e3 / call.getCount());
+            }
+            out.println();
+        }
+
+        out.println();
+        out.println("Heaviest statements (DaoStatement over the recording threshold)");
+        out.printf("%8s %12s %10s %10s  %s%n", "count", "total ms", "avg ms", "max ms", "sql");
+        for (Aggregate statement : limit(summary.getStatements(), top)) {
+            out.printf("%8d %12.1f %10.1f %10.1f  %s%n", statement.getCount(), statement.getTotalMs(),
+                    statement.getAvgMs(), statement.getMaxMs(), statement.getKey());
+        }
+    }
+
+    private static List<Aggregate> limit(List<Aggregate> aggregates, int top) {
+        return aggregates.subList(0, Math.min(Math.max(0, top), aggregates.size()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: RecordingAnalyzer <recording.jfr> [top]");
+            System.exit(1);
+        }
+        Path recording = Paths.get(args[0]);
+        if (!Files.isRegularFile(recording)) {
+            System.err.println("Recording not found: " + recording);
+            System.exit(1);
+        }
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        print(analyze(recording), top, System.out);
+    }
+}
@@ -0,0 +1,26 @@
+package com.tradeshow.pulse24x7.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pulse24x7.ServerCheck")
+@Label("Server Check")
+@Category({"Pulse24x7", "Monitoring"})
+@Description("Health check of a single MCP server, including tool refresh and history writes")
+public class ServerCheckEvent extends Event {
+    @Label("Server ID")
+    public int serverId;
+
+    @Label("Up")
+    public boolean up;
+
+    @Label("Tool Count")
+    public int toolCount;
+
+    @Label("Outcome")
+    @Description("up, down, missing or error")
+    public String outcome;
+}
@@ -0,0 +1,22 @@
+package com.tradeshow.pulse24x7.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pulse24x7.TokenRefresh")
+@Label("Token Refresh")
+@Category({"Pulse24x7", "Auth"})
+@Description("OAuth refresh_token grant for an MCP server")
+public class TokenRefreshEvent extends Event {
+    @Label("Server ID")
+    public int serverId;
+
+    @Label("Token Endpoint")
+    public String tokenEndpoint;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,62 @@
+package com.tradeshow.pulse24x7.mcp.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram. Observations are nanoseconds and only touch LongAdders,
+ * so recording never allocates or blocks; buckets are exported cumulatively in seconds.
+ */
+public final class Histogram {
+    private final long[] upperBoundsNanos;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    Histogram(double[] upperBoundsSeconds) {
+        this.upperBoundsNanos = new long[upperBoundsSeconds.length];
+        for (int i = 0; i < upperBoundsSeconds.length; i++) {
+            upperBoundsNanos[i] = (long) (upperBoundsSeconds[i] * 1_000_000_000L);
+        }
+        this.buckets = new LongAdder[upperBoundsSeconds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observeNanos(long nanos) {
+        long value = Math.max(0L, nanos);
+        int index = 0;
+        while (index < upperBoundsNanos.length && value > upperBoundsNanos[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        sumNanos.add(value);
+    }
+
+    public void observeSince(long startNanos) {
+        observeNanos(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    long[] getUpperBoundsNanos() {
+        return upperBoundsNanos;
+    }
+
+    long[] cumulativeCounts() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0L;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+}
@@ -0,0 +1,124 @@
+package com.tradeshow.pulse24x7.mcp.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram for full percentile reports, in the spirit of HdrHistogram: values up to
+ * 127 µs are exact, above that each power of two is split into 64 buckets, so every reported percentile is
+ * within about 1.6% of the true value. Recording is lock-free and allocation-free; values are microseconds.
+ * Unlike {@link Histogram} this is not exported to Prometheus; it backs one-off measurements such as load
+ * tests.
+ */
+public final class LatencyRecorder {
+    private static final int SUB_BUCKETS = 64;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    // Shifts up to 40 cover roughly 2^46 µs, far beyond any timeout.
+    private static final int BUCKETS = LINEAR_LIMIT + 40 * SUB_BUCKETS;
+    private static final double[] REPORTED = {50.0, 75.0, 90.0, 95.0, 99.0, 99.9, 99.99};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordMicros(long micros) {
+        long value = Math.max(0L, micros);
+        counts.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sumMicros.add(value);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000L);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public double getMeanMicros() {
+        long total = count.sum();
+        return total == 0 ? 0.0 : (double) sumMicros.sum() / total;
+    }
+
+    /** Smallest recorded bucket value at or above {@code percentile} of the observations; 0 when empty. */
+    public long percentileMicros(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /** Mean, max and the standard percentile ladder, in milliseconds. */
+    public Map<String, Object> summaryMillis() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", getCount());
+        summary.put("mean", round(getMeanMicros() / 1_000.0));
+        for (double percentile : REPORTED) {
+            summary.put("p" + formatPercentile(percentile), round(percentileMicros(percentile) / 1_000.0));
+        }
+        summary.put("max", round(getMaxMicros() / 1_000.0));
+        return summary;
+    }
+
+    /** Non-empty buckets as {@code [upperBoundMicros, count]} pairs, compact enough to store with a result. */
+    public List<long[]> buckets() {
+        List<long[]> buckets = new ArrayList<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucketCount = counts.get(i);
+            if (bucketCount > 0) {
+                buckets.add(new long[]{highestEquivalent(i), bucketCount});
+            }
+        }
+        return buckets;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 6;
+        int mantissa = (int) (value >>> shift);
+        int index = LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (mantissa - SUB_BUCKETS);
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    static long highestEquivalent(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long mantissa = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile)
+                ? String.valueOf((long) percentile)
+                : String.valueOf(percentile).replace(".", "_");
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 1_000.0) / 1_000.0;
+    }
+}
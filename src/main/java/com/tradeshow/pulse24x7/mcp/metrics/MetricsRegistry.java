@@ -0,0 +1,157 @@
+package com.tradeshow.pulse24x7.mcp.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-wide metrics in Prometheus text format. Register series once (static fields at the call site)
+ * and keep the returned Counter/Histogram; only registration and scraping allocate.
+ */
+public final class MetricsRegistry {
+    public static final double[] LATENCY_BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+
+    private static final Map<String, Family> families = new LinkedHashMap<>();
+
+    static {
+        gauge("pulse_jvm_heap_used_bytes", "Used heap memory",
+                () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        gauge("pulse_jvm_threads_live", "Live JVM threads",
+                () -> ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private MetricsRegistry() {
+    }
+
+    public static Counter counter(String name, String help, String... labels) {
+        Counter counter = new Counter();
+        register(name, help, "counter", labels, counter);
+        return counter;
+    }
+
+    public static Histogram histogram(String name, String help, String... labels) {
+        return histogram(name, help, LATENCY_BUCKETS, labels);
+    }
+
+    public static Histogram histogram(String name, String help, double[] bucketsSeconds, String... labels) {
+        Histogram histogram = new Histogram(bucketsSeconds);
+        register(name, help, "histogram", labels, histogram);
+        return histogram;
+    }
+
+    public static void gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        register(name, help, "gauge", labels, supplier);
+    }
+
+    public static synchronized void writePrometheus(Writer out) throws IOException {
+        StringBuilder sb = new StringBuilder(8192);
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            sb.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            sb.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            for (Series series : family.series) {
+                if (series.metric instanceof Counter counter) {
+                    sample(sb, name, series.labels, null, counter.get());
+                } else if (series.metric instanceof DoubleSupplier gauge) {
+                    sample(sb, name, series.labels, null, safeGet(gauge));
+                } else if (series.metric instanceof Histogram histogram) {
+                    long[] bounds = histogram.getUpperBoundsNanos();
+                    long[] cumulative = histogram.cumulativeCounts();
+                    for (int i = 0; i < bounds.length; i++) {
+                        sample(sb, name + "_bucket", series.labels, formatDouble(bounds[i] / 1e9), cumulative[i]);
+                    }
+                    sample(sb, name + "_bucket", series.labels, "+Inf", cumulative[cumulative.length - 1]);
+                    sample(sb, name + "_sum", series.labels, null, histogram.getSumNanos() / 1e9);
+                    sample(sb, name + "_count", series.labels, null, cumulative[cumulative.length - 1]);
+                }
+            }
+        }
+        out.write(sb.toString());
+    }
+
+    private static synchronized void register(String name, String help, String type, String[] labels, Object metric) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs for " + name);
+        }
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " already registered as " + family.type);
+        }
+        String rendered = renderLabels(labels);
+        family.series.removeIf(existing -> existing.labels.equals(rendered));
+        family.series.add(new Series(rendered, metric));
+    }
+
+    private static String renderLabels(String[] labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, String le, double value) {
+        sb.append(name);
+        if (!labels.isEmpty() || le != null) {
+            sb.append('{').append(labels);
+            if (le != null) {
+                sb.append(labels.isEmpty() ? "" : ",").append("le=\"").append(le).append('"');
+            }
+            sb.append('}');
+        }
+        sb.append(' ').append(formatDouble(value)).append('\n');
+    }
+
+    private static String formatDouble(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%s", value);
+    }
+
+    private static double safeGet(DoubleSupplier gauge) {
+        try {
+            return gauge.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class Family {
+        private final String help;
+        private final String type;
+        private final List<Series> series = new ArrayList<>();
+
+        private Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private static final class Series {
+        private final String labels;
+        private final Object metric;
+
+        private Series(String labels, Object metric) {
+            this.labels = labels;
+            this.metric = metric;
+        }
+    }
+}
@@ -5,6 +5,7 @@ public class HttpResult {
     private int statusCode;
     private String responseBody;
     private String errorMessage;
+    private HttpTimings timings;
 
     public HttpResult(boolean success, int statusCode, String responseBody, String errorMessage) {
         this.success = success;
@@ -44,4 +45,12 @@ public class HttpResult {
     public void setErrorMessage(String errorMessage) {
         this.errorMessage = errorMessage;
     }
+
+    public HttpTimings getTimings() {
+        return timings;
+    }
+
+    public void setTimings(HttpTimings timings) {
+        this.timings = timings;
+    }
 }
@@ -0,0 +1,102 @@
+package com.tradeshow.pulse24x7.mcp.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-phase wall-clock breakdown of a single outbound HTTP exchange, captured with {@link System#nanoTime()}.
+ * Phases that did not happen (for example TLS on plain http, or DNS for a literal IP) stay at zero.
+ */
+public class HttpTimings {
+    private final long startNanos = System.nanoTime();
+    private long leaseWaitNanos;
+    private long dnsNanos;
+    private long connectNanos;
+    private long tlsNanos;
+    private long ttfbNanos;
+    private long bodyReadNanos;
+    private long totalNanos;
+    private long requestSentAtNanos;
+
+    public void addLeaseWait(long nanos) {
+        leaseWaitNanos += nanos;
+        requestSentAtNanos = Math.max(requestSentAtNanos, System.nanoTime());
+    }
+
+    public void addDns(long nanos) {
+        dnsNanos += nanos;
+    }
+
+    public void addConnect(long nanos) {
+        connectNanos += nanos;
+        requestSentAtNanos = Math.max(requestSentAtNanos, System.nanoTime());
+    }
+
+    public void addTls(long nanos) {
+        tlsNanos += nanos;
+        requestSentAtNanos = Math.max(requestSentAtNanos, System.nanoTime());
+    }
+
+    /**
+     * Marks the response head as received; time to first byte runs from the moment a ready connection was
+     * in hand (after lease, connect and TLS) to this point.
+     */
+    public void markHeadersReceived() {
+        long now = System.nanoTime();
+        long from = requestSentAtNanos > 0 ? requestSentAtNanos : startNanos;
+        ttfbNanos = Math.max(0L, now - from);
+    }
+
+    public void addBodyRead(long nanos) {
+        bodyReadNanos += nanos;
+    }
+
+    public void finish() {
+        totalNanos = System.nanoTime() - startNanos;
+    }
+
+    public long getLeaseWaitUs() {
+        return leaseWaitNanos / 1_000L;
+    }
+
+    public long getDnsUs() {
+        return dnsNanos / 1_000L;
+    }
+
+    public long getConnectUs() {
+        return connectNanos / 1_000L;
+    }
+
+    public long getTlsUs() {
+        return tlsNanos / 1_000L;
+    }
+
+    public long getTtfbUs() {
+        return ttfbNanos / 1_000L;
+    }
+
+    public long getBodyReadUs() {
+        return bodyReadNanos / 1_000L;
+    }
+
+    public long getTotalUs() {
+        return totalNanos / 1_000L;
+    }
+
+    public Map<String, Long> toMap() {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        phases.put("leaseWaitUs", getLeaseWaitUs());
+        phases.put("dnsUs", getDnsUs());
+        phases.put("connectUs", getConnectUs());
+        phases.put("tlsUs", getTlsUs());
+        phases.put("ttfbUs", getTtfbUs());
+        phases.put("bodyReadUs", getBodyReadUs());
+        phases.put("totalUs", getTotalUs());
+        return phases;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpTimings" + toMap();
+    }
+}
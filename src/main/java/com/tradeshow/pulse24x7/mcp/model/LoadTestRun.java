@@ -0,0 +1,216 @@
+package com.tradeshow.pulse24x7.mcp.model;
+
+import java.sql.Timestamp;
+
+public class LoadTestRun {
+    private Long runId;
+    private Integer serverId;
+    private Integer toolId;
+    private String toolName;
+    private String mode;
+    private Integer concurrency;
+    private Double ratePerSecond;
+    private Integer durationSeconds;
+    private Integer timeoutMs;
+    private String inputParams;
+    private String status;
+    private String stopReason;
+    private Long totalCalls;
+    private Long errorCount;
+    private Long shedCount;
+    private Double throughputPerSecond;
+    private String serviceTimeJson;
+    private String responseTimeJson;
+    private String statusBreakdownJson;
+    private String histogramJson;
+    private Long startedBy;
+    private Timestamp startedAt;
+    private Timestamp finishedAt;
+
+    public LoadTestRun() {
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public void setRunId(Long runId) {
+        this.runId = runId;
+    }
+
+    public Integer getServerId() {
+        return serverId;
+    }
+
+    public void setServerId(Integer serverId) {
+        this.serverId = serverId;
+    }
+
+    public Integer getToolId() {
+        return toolId;
+    }
+
+    public void setToolId(Integer toolId) {
+        this.toolId = toolId;
+    }
+
+    public String getToolName() {
+        return toolName;
+    }
+
+    public void setToolName(String toolName) {
+        this.toolName = toolName;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(Integer concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public Double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(Double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public Integer getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(Integer durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public Integer getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(Integer timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public String getInputParams() {
+        return inputParams;
+    }
+
+    public void setInputParams(String inputParams) {
+        this.inputParams = inputParams;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getStopReason() {
+        return stopReason;
+    }
+
+    public void setStopReason(String stopReason) {
+        this.stopReason = stopReason;
+    }
+
+    public Long getTotalCalls() {
+        return totalCalls;
+    }
+
+    public void setTotalCalls(Long totalCalls) {
+        this.totalCalls = totalCalls;
+    }
+
+    public Long getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(Long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public Long getShedCount() {
+        return shedCount;
+    }
+
+    public void setShedCount(Long shedCount) {
+        this.shedCount = shedCount;
+    }
+
+    public Double getThroughputPerSecond() {
+        return throughputPerSecond;
+    }
+
+    public void setThroughputPerSecond(Double throughputPerSecond) {
+        this.throughputPerSecond = throughputPerSecond;
+    }
+
+    public String getServiceTimeJson() {
+        return serviceTimeJson;
+    }
+
+    public void setServiceTimeJson(String serviceTimeJson) {
+        this.serviceTimeJson = serviceTimeJson;
+    }
+
+    public String getResponseTimeJson() {
+        return responseTimeJson;
+    }
+
+    public void setResponseTimeJson(String responseTimeJson) {
+        this.responseTimeJson = responseTimeJson;
+    }
+
+    public String getStatusBreakdownJson() {
+        return statusBreakdownJson;
+    }
+
+    public void setStatusBreakdownJson(String statusBreakdownJson) {
+        this.statusBreakdownJson = statusBreakdownJson;
+    }
+
+    public String getHistogramJson() {
+        return histogramJson;
+    }
+
+    public void setHistogramJson(String histogramJson) {
+        this.histogramJson = histogramJson;
+    }
+
+    public Long getStartedBy() {
+        return startedBy;
+    }
+
+    public void setStartedBy(Long startedBy) {
+        this.startedBy = startedBy;
+    }
+
+    public Timestamp getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Timestamp startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Timestamp getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Timestamp finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
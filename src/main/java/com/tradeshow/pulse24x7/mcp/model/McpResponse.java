@@ -0,0 +1,70 @@
+package com.tradeshow.pulse24x7.mcp.model;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.List;
+
+public class McpResponse {
+    private int statusCode;
+    private JsonObject body;
+    private String sessionId;
+    private boolean eventStream;
+    private JsonArray batch;
+    private List<JsonObject> notifications = List.of();
+
+    public McpResponse(int statusCode, JsonObject body, String sessionId, boolean eventStream) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.sessionId = sessionId;
+        this.eventStream = eventStream;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public JsonObject getBody() {
+        return body;
+    }
+
+    public void setBody(JsonObject body) {
+        this.body = body;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public boolean isEventStream() {
+        return eventStream;
+    }
+
+    public void setEventStream(boolean eventStream) {
+        this.eventStream = eventStream;
+    }
+
+    public JsonArray getBatch() {
+        return batch;
+    }
+
+    public void setBatch(JsonArray batch) {
+        this.batch = batch;
+    }
+
+    public List<JsonObject> getNotifications() {
+        return notifications;
+    }
+
+    public void setNotifications(List<JsonObject> notifications) {
+        this.notifications = notifications;
+    }
+}
@@ -16,6 +16,12 @@ public class RequestLog {
     private String errorMessage;
     private Long responseSizeBytes;
     private String userAgent;
+    private Long leaseWaitUs;
+    private Long dnsUs;
+    private Long connectUs;
+    private Long tlsUs;
+    private Long ttfbUs;
+    private Long bodyReadUs;
     private Timestamp createdAt;
 
     public Long getId() {
@@ -122,6 +128,54 @@ public class RequestLog {
         this.userAgent = userAgent;
     }
 
+    public Long getLeaseWaitUs() {
+        return leaseWaitUs;
+    }
+
+    public void setLeaseWaitUs(Long leaseWaitUs) {
+        this.leaseWaitUs = leaseWaitUs;
+    }
+
+    public Long getDnsUs() {
+        return dnsUs;
+    }
+
+    public void setDnsUs(Long dnsUs) {
+        this.dnsUs = dnsUs;
+    }
+
+    public Long getConnectUs() {
+        return connectUs;
+    }
+
+    public void setConnectUs(Long connectUs) {
+        this.connectUs = connectUs;
+    }
+
+    public Long getTlsUs() {
+        return tlsUs;
+    }
+
+    public void setTlsUs(Long tlsUs) {
+        this.tlsUs = tlsUs;
+    }
+
+    public Long getTtfbUs() {
+        return ttfbUs;
+    }
+
+    public void setTtfbUs(Long ttfbUs) {
+        this.ttfbUs = ttfbUs;
+    }
+
+    public Long getBodyReadUs() {
+        return bodyReadUs;
+    }
+
+    public void setBodyReadUs(Long bodyReadUs) {
+        this.bodyReadUs = bodyReadUs;
+    }
+
     public Timestamp getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,123 @@
+package com.tradeshow.pulse24x7.mcp.model;
+
+public class RetentionPolicy {
+    public enum Mode {
+        DELETE,
+        COMPACT
+    }
+
+    private String table;
+    private String idColumn;
+    private String selectChunkSql;
+    private String deleteSql;
+    private int retentionDays;
+    private Mode mode;
+    private String[] compactKeyColumns;
+    private String[] compactStateColumns;
+    private String dependentDeleteSql;
+    private String compactSeedSql;
+
+    public RetentionPolicy() {
+    }
+
+    public RetentionPolicy(String table, String idColumn, String selectChunkSql, String deleteSql,
+                           int retentionDays, Mode mode, String[] compactKeyColumns, String[] compactStateColumns) {
+        this.table = table;
+        this.idColumn = idColumn;
+        this.selectChunkSql = selectChunkSql;
+        this.deleteSql = deleteSql;
+        this.retentionDays = retentionDays;
+        this.mode = mode;
+        this.compactKeyColumns = compactKeyColumns;
+        this.compactStateColumns = compactStateColumns;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public String getIdColumn() {
+        return idColumn;
+    }
+
+    public void setIdColumn(String idColumn) {
+        this.idColumn = idColumn;
+    }
+
+    public String getSelectChunkSql() {
+        return selectChunkSql;
+    }
+
+    public void setSelectChunkSql(String selectChunkSql) {
+        this.selectChunkSql = selectChunkSql;
+    }
+
+    public String getDeleteSql() {
+        return deleteSql;
+    }
+
+    public void setDeleteSql(String deleteSql) {
+        this.deleteSql = deleteSql;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public String[] getCompactKeyColumns() {
+        return compactKeyColumns;
+    }
+
+    public void setCompactKeyColumns(String[] compactKeyColumns) {
+        this.compactKeyColumns = compactKeyColumns;
+    }
+
+    public String[] getCompactStateColumns() {
+        return compactStateColumns;
+    }
+
+    public void setCompactStateColumns(String[] compactStateColumns) {
+        this.compactStateColumns = compactStateColumns;
+    }
+
+    public String getDependentDeleteSql() {
+        return dependentDeleteSql;
+    }
+
+    public void setDependentDeleteSql(String dependentDeleteSql) {
+        this.dependentDeleteSql = dependentDeleteSql;
+    }
+
+    public String getCompactSeedSql() {
+        return compactSeedSql;
+    }
+
+    public void setCompactSeedSql(String compactSeedSql) {
+        this.compactSeedSql = compactSeedSql;
+    }
+
+    @Override
+    public String toString() {
+        return "RetentionPolicy{" +
+                "table='" + table + '\'' +
+                ", retentionDays=" + retentionDays +
+                ", mode=" + mode +
+                '}';
+    }
+}
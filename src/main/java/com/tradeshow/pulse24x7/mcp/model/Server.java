@@ -10,6 +10,8 @@ public class Server {
     private Integer monitorIntervalMinutes;
     private Integer connectionTimeoutMs;
     private Boolean autoReconnect;
+    private Boolean adaptiveInterval;
+    private Long effectiveIntervalSeconds;
     private Timestamp createdAt;
 
     public Server() {
@@ -27,6 +29,19 @@ public class Server {
         this.createdAt = createdAt;
     }
 
+    public Server(Server other) {
+        this.serverId = other.serverId;
+        this.userId = other.userId;
+        this.serverName = other.serverName;
+        this.serverUrl = other.serverUrl;
+        this.monitorIntervalMinutes = other.monitorIntervalMinutes;
+        this.connectionTimeoutMs = other.connectionTimeoutMs;
+        this.autoReconnect = other.autoReconnect;
+        this.adaptiveInterval = other.adaptiveInterval;
+        this.effectiveIntervalSeconds = other.effectiveIntervalSeconds;
+        this.createdAt = other.createdAt;
+    }
+
     public int getServerId() {
         return serverId;
     }
@@ -83,6 +98,22 @@ public class Server {
         this.autoReconnect = autoReconnect;
     }
 
+    public Boolean getAdaptiveInterval() {
+        return adaptiveInterval;
+    }
+
+    public void setAdaptiveInterval(Boolean adaptiveInterval) {
+        this.adaptiveInterval = adaptiveInterval;
+    }
+
+    public Long getEffectiveIntervalSeconds() {
+        return effectiveIntervalSeconds;
+    }
+
+    public void setEffectiveIntervalSeconds(Long effectiveIntervalSeconds) {
+        this.effectiveIntervalSeconds = effectiveIntervalSeconds;
+    }
+
     public Timestamp getCreatedAt() {
         return createdAt;
     }
@@ -101,6 +132,8 @@ public class Server {
                 ", monitorIntervalMinutes=" + monitorIntervalMinutes +
                 ", connectionTimeoutMs=" + connectionTimeoutMs +
                 ", autoReconnect=" + autoReconnect +
+                ", adaptiveInterval=" + adaptiveInterval +
+                ", effectiveIntervalSeconds=" + effectiveIntervalSeconds +
                 ", createdAt=" + createdAt +
                 '}';
     }
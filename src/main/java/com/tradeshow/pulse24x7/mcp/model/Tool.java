@@ -9,6 +9,7 @@ public class Tool {
     private String toolType;
     private String inputSchema;
     private String outputSchema;
+    private String schemaFingerprint;
     private Boolean isAvailability;
     private Integer totalRequests;
     private Integer successRequests;
@@ -40,6 +41,24 @@ public class Tool {
         this.serverId = serverId;
     }
 
+    public Tool(Tool other) {
+        this.toolId = other.toolId;
+        this.toolName = other.toolName;
+        this.toolDescription = other.toolDescription;
+        this.toolType = other.toolType;
+        this.inputSchema = other.inputSchema;
+        this.outputSchema = other.outputSchema;
+        this.schemaFingerprint = other.schemaFingerprint;
+        this.isAvailability = other.isAvailability;
+        this.totalRequests = other.totalRequests;
+        this.successRequests = other.successRequests;
+        this.lastStatusCode = other.lastStatusCode;
+        this.lastLatencyMs = other.lastLatencyMs;
+        this.createAt = other.createAt;
+        this.lastModify = other.lastModify;
+        this.serverId = other.serverId;
+    }
+
     public int getToolId() {
         return toolId;
     }
@@ -88,6 +107,14 @@ public class Tool {
         this.outputSchema = outputSchema;
     }
 
+    public String getSchemaFingerprint() {
+        return schemaFingerprint;
+    }
+
+    public void setSchemaFingerprint(String schemaFingerprint) {
+        this.schemaFingerprint = schemaFingerprint;
+    }
+
     public Boolean getIsAvailability() {
         return isAvailability;
     }
@@ -161,6 +188,7 @@ public class Tool {
                 ", toolType='" + toolType + '\'' +
                 ", inputSchema='" + inputSchema + '\'' +
                 ", outputSchema='" + outputSchema + '\'' +
+                ", schemaFingerprint='" + schemaFingerprint + '\'' +
                 ", isAvailability=" + isAvailability +
                 ", totalRequests=" + totalRequests +
                 ", successRequests=" + successRequests +
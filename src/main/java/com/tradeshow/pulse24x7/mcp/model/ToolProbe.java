@@ -0,0 +1,135 @@
+package com.tradeshow.pulse24x7.mcp.model;
+
+import java.sql.Timestamp;
+
+public class ToolProbe {
+    private Integer probeId;
+    private Integer toolId;
+    private Integer serverId;
+    private String toolName;
+    private String inputParams;
+    private String expectedResult;
+    private Integer intervalMinutes;
+    private Integer timeoutMs;
+    private Long sloP95Ms;
+    private Double sloErrorRatePercent;
+    private Boolean enabled;
+    private Boolean sloBreached;
+    private Timestamp lastRunAt;
+    private Timestamp createdAt;
+
+    public ToolProbe() {
+    }
+
+    public Integer getProbeId() {
+        return probeId;
+    }
+
+    public void setProbeId(Integer probeId) {
+        this.probeId = probeId;
+    }
+
+    public Integer getToolId() {
+        return toolId;
+    }
+
+    public void setToolId(Integer toolId) {
+        this.toolId = toolId;
+    }
+
+    public Integer getServerId() {
+        return serverId;
+    }
+
+    public void setServerId(Integer serverId) {
+        this.serverId = serverId;
+    }
+
+    public String getToolName() {
+        return toolName;
+    }
+
+    public void setToolName(String toolName) {
+        this.toolName = toolName;
+    }
+
+    public String getInputParams() {
+        return inputParams;
+    }
+
+    public void setInputParams(String inputParams) {
+        this.inputParams = inputParams;
+    }
+
+    public String getExpectedResult() {
+        return expectedResult;
+    }
+
+    public void setExpectedResult(String expectedResult) {
+        this.expectedResult = expectedResult;
+    }
+
+    public Integer getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    public void setIntervalMinutes(Integer intervalMinutes) {
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    public Integer getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(Integer timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public Long getSloP95Ms() {
+        return sloP95Ms;
+    }
+
+    public void setSloP95Ms(Long sloP95Ms) {
+        this.sloP95Ms = sloP95Ms;
+    }
+
+    public Double getSloErrorRatePercent() {
+        return sloErrorRatePercent;
+    }
+
+    public void setSloErrorRatePercent(Double sloErrorRatePercent) {
+        this.sloErrorRatePercent = sloErrorRatePercent;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Boolean getSloBreached() {
+        return sloBreached;
+    }
+
+    public void setSloBreached(Boolean sloBreached) {
+        this.sloBreached = sloBreached;
+    }
+
+    public Timestamp getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(Timestamp lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+}
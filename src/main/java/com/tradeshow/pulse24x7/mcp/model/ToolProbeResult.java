@@ -0,0 +1,81 @@
+package com.tradeshow.pulse24x7.mcp.model;
+
+import java.sql.Timestamp;
+
+public class ToolProbeResult {
+    private Long id;
+    private Integer probeId;
+    private Integer toolId;
+    private Boolean success;
+    private Long latencyMs;
+    private Integer statusCode;
+    private String errorMessage;
+    private Timestamp checkedAt;
+
+    public ToolProbeResult() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getProbeId() {
+        return probeId;
+    }
+
+    public void setProbeId(Integer probeId) {
+        this.probeId = probeId;
+    }
+
+    public Integer getToolId() {
+        return toolId;
+    }
+
+    public void setToolId(Integer toolId) {
+        this.toolId = toolId;
+    }
+
+    public Boolean getSuccess() {
+        return success;
+    }
+
+    public void setSuccess(Boolean success) {
+        this.success = success;
+    }
+
+    public Long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(Long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Timestamp getCheckedAt() {
+        return checkedAt;
+    }
+
+    public void setCheckedAt(Timestamp checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+}
@@ -3,50 +3,101 @@ package com.tradeshow.pulse24x7.mcp.scheduler;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.WebListener;
+import com.tradeshow.pulse24x7.mcp.dao.RequestLogDAO;
+import com.tradeshow.pulse24x7.mcp.dao.ServerDAO;
+import com.tradeshow.pulse24x7.mcp.dao.ToolDAO;
+import com.tradeshow.pulse24x7.mcp.service.MonitoringService;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.quartz.*;
 import org.quartz.impl.StdSchedulerFactory;
+import java.util.Date;
 import java.util.Properties;
 
 @WebListener
 public class MonitorScheduler implements ServletContextListener {
     private static final Logger logger = LogManager.getLogger(MonitorScheduler.class);
     private Scheduler scheduler;
+    private ServiceRegistry services;
 
     @Override
     public void contextInitialized(ServletContextEvent sce) {
         logger.info("Initializing MCP Monitor Scheduler");
-        
+        ServerDAO.ensureTombstoneColumn();
+        RequestLogDAO.ensurePhaseColumns();
+        ToolDAO.ensureFingerprintColumn();
+        services = new ServiceRegistry();
+        services.start();
+        sce.getServletContext().setAttribute(ServiceRegistry.ATTRIBUTE, services);
+
         try {
             Properties quartzProps = new Properties();
             quartzProps.setProperty("org.quartz.scheduler.instanceName", "Pulse24x7Scheduler");
-            quartzProps.setProperty("org.quartz.threadPool.threadCount", "1");
+            quartzProps.setProperty("org.quartz.threadPool.threadCount", "2");
             quartzProps.setProperty("org.quartz.threadPool.threadPriority", "5");
             scheduler = new StdSchedulerFactory(quartzProps).getScheduler();
+            scheduler.getContext().put(ServiceRegistry.ATTRIBUTE, services);
             
             // Create server monitoring job
             JobDetail serverMonitorJob = JobBuilder.newJob(ServerMonitorTask.class)
                     .withIdentity("ServerMonitorJob", "MCP_MONITOR_GROUP")
                     .build();
             
-            // Create trigger for server monitoring (runs every hour)
-            Trigger serverMonitorTrigger = TriggerBuilder.newTrigger()
-                    .withIdentity("ServerMonitorTrigger", "MCP_MONITOR_GROUP")
-                    .startNow()
+            // The first sweep waits for the warm-up so it does not compete with it for the database.
+            Scheduler monitorScheduler = scheduler;
+            services.getStartupOrchestrator().whenReady().thenRun(() -> {
+                // Sweep often enough to honour the shortest per-server interval; each server decides if it is due
+                Trigger serverMonitorTrigger = TriggerBuilder.newTrigger()
+                        .withIdentity("ServerMonitorTrigger", "MCP_MONITOR_GROUP")
+                        .startNow()
+                        .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                                .withIntervalInSeconds(MonitoringService.SWEEP_INTERVAL_SECONDS)
+                                .repeatForever())
+                        .build();
+                try {
+                    if (!monitorScheduler.isShutdown()) {
+                        monitorScheduler.scheduleJob(serverMonitorJob, serverMonitorTrigger);
+                    }
+                } catch (SchedulerException e) {
+                    logger.error("Failed to schedule server monitoring", e);
+                }
+            });
+            
+            if (EnvUtil.getBoolean("MCP_RETENTION_ENABLED", true)) {
+                int retentionHours = Math.max(1, EnvUtil.getInt("MCP_RETENTION_INTERVAL_HOURS", 24));
+                JobDetail retentionJob = JobBuilder.newJob(RetentionTask.class)
+                        .withIdentity("RetentionJob", "MCP_MAINTENANCE_GROUP")
+                        .build();
+                Trigger retentionTrigger = TriggerBuilder.newTrigger()
+                        .withIdentity("RetentionTrigger", "MCP_MAINTENANCE_GROUP")
+                        .startAt(new Date(System.currentTimeMillis() + 10 * 60 * 1000L))
+                        .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                                .withIntervalInHours(retentionHours)
+                                .repeatForever())
+                        .build();
+                scheduler.scheduleJob(retentionJob, retentionTrigger);
+                logger.info("Retention job scheduled every {} hours", retentionHours);
+            }
+
+            JobDetail reaperJob = JobBuilder.newJob(ServerReaperTask.class)
+                    .withIdentity("ServerReaperJob", "MCP_MAINTENANCE_GROUP")
+                    .build();
+            Trigger reaperTrigger = TriggerBuilder.newTrigger()
+                    .withIdentity("ServerReaperTrigger", "MCP_MAINTENANCE_GROUP")
+                    .startAt(new Date(System.currentTimeMillis() + 60 * 1000L))
                     .withSchedule(SimpleScheduleBuilder.simpleSchedule()
-                            .withIntervalInMinutes(30)
+                            .withIntervalInMinutes(Math.max(1, EnvUtil.getInt("MCP_REAPER_SWEEP_MINUTES", 15)))
                             .repeatForever())
                     .build();
-            
-            // Schedule the job
-            scheduler.scheduleJob(serverMonitorJob, serverMonitorTrigger);
-            
+            scheduler.scheduleJob(reaperJob, reaperTrigger);
+
             // Start scheduler
             scheduler.start();
             
             logger.info("MCP Monitor Scheduler started successfully. " +
-                    "Monitoring interval: {} minutes", 30);
+                    "Monitoring interval: {} seconds", MonitoringService.SWEEP_INTERVAL_SECONDS);
             
         } catch (SchedulerException e) {
             logger.error("Failed to start scheduler", e);
@@ -65,6 +116,15 @@ public class MonitorScheduler implements ServletContextListener {
         } catch (SchedulerException e) {
             logger.error("Error shutting down scheduler", e);
         }
+        // Jobs have finished above, so the services can be stopped underneath them.
+        if (services != null) {
+            services.stop();
+            sce.getServletContext().removeAttribute(ServiceRegistry.ATTRIBUTE);
+        }
+    }
+
+    static ServiceRegistry services(JobExecutionContext context) throws SchedulerException {
+        return (ServiceRegistry) context.getScheduler().getContext().get(ServiceRegistry.ATTRIBUTE);
     }
 
     public Scheduler getScheduler() {
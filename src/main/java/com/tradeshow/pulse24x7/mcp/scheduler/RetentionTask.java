@@ -0,0 +1,33 @@
+package com.tradeshow.pulse24x7.mcp.scheduler;
+
+import com.tradeshow.pulse24x7.mcp.service.ClusterMembership;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+@DisallowConcurrentExecution
+public class RetentionTask implements Job {
+    private static final Logger logger = LogManager.getLogger(RetentionTask.class);
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        if (!ClusterMembership.shared().isLeader()) {
+            logger.debug("Skipping retention run; another cluster node runs maintenance");
+            return;
+        }
+        logger.info("===== Starting scheduled retention run =====");
+
+        try {
+            ServiceRegistry services = MonitorScheduler.services(context);
+            services.getPartitionMaintenanceService().runMaintenance();
+            services.getRetentionService().runRetention();
+        } catch (Exception e) {
+            logger.error("Error during scheduled retention run", e);
+            throw new JobExecutionException(e);
+        }
+    }
+}
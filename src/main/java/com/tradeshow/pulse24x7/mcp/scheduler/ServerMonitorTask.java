@@ -3,10 +3,12 @@ package com.tradeshow.pulse24x7.mcp.scheduler;
 import com.tradeshow.pulse24x7.mcp.service.MonitoringService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.quartz.DisallowConcurrentExecution;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 
+@DisallowConcurrentExecution
 public class ServerMonitorTask implements Job {
     private static final Logger logger = LogManager.getLogger(ServerMonitorTask.class);
 
@@ -17,7 +19,7 @@ public class ServerMonitorTask implements Job {
         long startTime = System.currentTimeMillis();
         
         try {
-            MonitoringService monitoringService = new MonitoringService();
+            MonitoringService monitoringService = MonitorScheduler.services(context).getMonitoringService();
             monitoringService.monitorAllServers();
             
             long duration = System.currentTimeMillis() - startTime;
@@ -0,0 +1,28 @@
+package com.tradeshow.pulse24x7.mcp.scheduler;
+
+import com.tradeshow.pulse24x7.mcp.service.ClusterMembership;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+@DisallowConcurrentExecution
+public class ServerReaperTask implements Job {
+    private static final Logger logger = LogManager.getLogger(ServerReaperTask.class);
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        if (!ClusterMembership.shared().isLeader()) {
+            return;
+        }
+        try {
+            // Picks up tombstoned servers whose reaping was interrupted or failed.
+            MonitorScheduler.services(context).getServerReaperService().reapPending();
+        } catch (Exception e) {
+            logger.error("Error during tombstoned server sweep", e);
+            throw new JobExecutionException(e);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.tradeshow.pulse24x7.mcp.service;
 
 import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.dao.AuthTokenDAO;
+import com.tradeshow.pulse24x7.mcp.jfr.JfrContext;
+import com.tradeshow.pulse24x7.mcp.jfr.TokenRefreshEvent;
 import com.tradeshow.pulse24x7.mcp.model.AuthToken;
 import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
 import org.apache.logging.log4j.LogManager;
@@ -17,9 +19,9 @@ public class AuthTokenService {
     private final AuthTokenDAO authTokenDAO;
     private final RequestLogService requestLogService;
 
-    public AuthTokenService() {
+    public AuthTokenService(RequestLogService requestLogService) {
         this.authTokenDAO = new AuthTokenDAO();
-        this.requestLogService = new RequestLogService();
+        this.requestLogService = requestLogService;
     }
 
     public boolean saveToken(Integer serverId, String headerType, String accessToken, String refreshToken,
@@ -123,6 +125,11 @@ public class AuthTokenService {
             throw new IllegalStateException("clientId/clientSecret required for token refresh");
         }
 
+        TokenRefreshEvent event = new TokenRefreshEvent();
+        event.begin();
+        event.serverId = serverId;
+        event.tokenEndpoint = tokenEndpoint;
+        Integer previousServer = JfrContext.enterServer(serverId);
         try {
             var response = HttpClientUtil.doPostForm(tokenEndpoint, Map.of(), Map.of(
                     "refresh_token", token.getRefreshToken(),
@@ -144,12 +151,16 @@ public class AuthTokenService {
                 throw new IllegalStateException("Failed to persist refreshed token");
             }
             recordTokenRefreshLog(serverId, tokenEndpoint, true, response, null);
+            event.success = true;
             return newAccessToken;
         } catch (Exception e) {
             JsonObject errorBody = new JsonObject();
             errorBody.addProperty("error", e.getMessage());
             recordTokenRefreshLog(serverId, tokenEndpoint, false, errorBody, e.getMessage());
             throw e;
+        } finally {
+            JfrContext.restoreServer(previousServer);
+            event.commit();
         }
     }
 
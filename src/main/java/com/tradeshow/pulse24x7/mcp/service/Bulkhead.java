@@ -0,0 +1,215 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-server bulkhead for interactive MCP work (tool tests, pings, refreshes, registrations). At most
+ * MCP_BULKHEAD_CONCURRENCY tasks run for one server URL at a time and up to MCP_BULKHEAD_QUEUE more wait
+ * behind them; anything beyond that is refused at once, so one slow server cannot tie up the worker pool
+ * or the connector threads in front of it. A queued task still waiting after MCP_BULKHEAD_MAX_WAIT_MS is
+ * refused by a timer instead of being run late.
+ * <p>
+ * Each running slot owns one worker thread, which drains the server's queue when its task finishes. The
+ * pool has no queue of its own: once MCP_BULKHEAD_WORKERS threads are busy across all servers, new work is
+ * refused rather than piling up unbounded.
+ */
+public final class Bulkhead {
+    private static final Logger logger = LogManager.getLogger(Bulkhead.class);
+    private static final int CONCURRENCY = Math.max(1, EnvUtil.getInt("MCP_BULKHEAD_CONCURRENCY", 4));
+    private static final int QUEUE = Math.max(0, EnvUtil.getInt("MCP_BULKHEAD_QUEUE", 8));
+    private static final int WORKERS = Math.max(1, EnvUtil.getInt("MCP_BULKHEAD_WORKERS", 64));
+    private static final long MAX_WAIT_MS = Math.max(1L, EnvUtil.getLong("MCP_BULKHEAD_MAX_WAIT_MS", 30_000L));
+    private static final Counter REJECTED = MetricsRegistry.counter("pulse_mcp_bulkhead_calls_total",
+            "Interactive MCP tasks refused by a server bulkhead", "decision", "rejected");
+    private static final Counter EXPIRED = MetricsRegistry.counter("pulse_mcp_bulkhead_calls_total",
+            "Interactive MCP tasks refused by a server bulkhead", "decision", "expired");
+    private static final Counter NO_WORKER = MetricsRegistry.counter("pulse_mcp_bulkhead_calls_total",
+            "Interactive MCP tasks refused by a server bulkhead", "decision", "no_worker");
+    private static final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private static final ThreadPoolExecutor workers = new ThreadPoolExecutor(0, WORKERS, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "mcp-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final ScheduledExecutorService expiryTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-bulkhead-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        MetricsRegistry.gauge("pulse_mcp_bulkhead_active", "Interactive MCP tasks running",
+                () -> bulkheads.values().stream().mapToLong(bulkhead -> bulkhead.running).sum());
+        MetricsRegistry.gauge("pulse_mcp_bulkhead_queued", "Interactive MCP tasks waiting for a bulkhead slot",
+                () -> bulkheads.values().stream().mapToLong(Bulkhead::queued).sum());
+    }
+
+    private static final class Pending {
+        private final Runnable task;
+        private final Runnable expired;
+        private ScheduledFuture<?> expiry;
+
+        private Pending(Runnable task, Runnable expired) {
+            this.task = task;
+            this.expired = expired;
+        }
+    }
+
+    private final String url;
+    private final int concurrency;
+    private final int queueLimit;
+    private final long maxWaitMs;
+    private final Executor executor;
+    private final Deque<Pending> queue = new ArrayDeque<>();
+    private volatile int running;
+
+    Bulkhead(String url, int concurrency, int queueLimit, long maxWaitMs, Executor executor) {
+        this.url = url;
+        this.concurrency = concurrency;
+        this.queueLimit = queueLimit;
+        this.maxWaitMs = maxWaitMs;
+        this.executor = executor;
+    }
+
+    public static Bulkhead forUrl(String url) {
+        return bulkheads.computeIfAbsent(url == null ? "" : url,
+                key -> new Bulkhead(key, CONCURRENCY, QUEUE, MAX_WAIT_MS, workers));
+    }
+
+    public static void shutdown() {
+        expiryTimer.shutdownNow();
+        workers.shutdownNow();
+        bulkheads.clear();
+    }
+
+    /**
+     * Runs the task now or queues it. Returns false when the server or the worker pool is saturated; the
+     * caller should answer 429. If a queued task waits too long, {@code expired} runs instead of the task.
+     */
+    public boolean submit(Runnable task, Runnable expired) {
+        synchronized (this) {
+            if (running >= concurrency) {
+                if (queue.size() >= queueLimit) {
+                    REJECTED.inc();
+                    logger.debug("Bulkhead for {} saturated ({} running, {} queued)", url, running, queue.size());
+                    return false;
+                }
+                Pending pending = new Pending(task, expired);
+                pending.expiry = expiryTimer.schedule(() -> expire(pending), maxWaitMs, TimeUnit.MILLISECONDS);
+                queue.addLast(pending);
+                return true;
+            }
+            running++;
+        }
+        try {
+            executor.execute(() -> runSlot(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            NO_WORKER.inc();
+            logger.debug("No MCP worker free for {}", url);
+            releaseUnstartedSlot();
+            return false;
+        }
+    }
+
+    /** Runs {@code first}, then queued tasks of this server on the same thread until the queue is empty. */
+    private void runSlot(Runnable first) {
+        Runnable task = first;
+        while (task != null) {
+            boolean returned = false;
+            try {
+                task.run();
+                returned = true;
+            } catch (RuntimeException e) {
+                returned = true;
+                logger.error("Bulkhead task for {} failed", url, e);
+            } finally {
+                Pending pending = next();
+                task = pending == null ? null : pending.task;
+                if (!returned && pending != null) {
+                    // An Error is unwinding this thread; the queued task keeps the slot on a fresh one.
+                    handOff(pending);
+                }
+            }
+        }
+    }
+
+    private Pending next() {
+        Pending pending;
+        synchronized (this) {
+            pending = queue.pollFirst();
+            if (pending == null) {
+                running--;
+                return null;
+            }
+        }
+        pending.expiry.cancel(false);
+        return pending;
+    }
+
+    private void handOff(Pending pending) {
+        try {
+            executor.execute(() -> runSlot(pending.task));
+        } catch (RejectedExecutionException e) {
+            NO_WORKER.inc();
+            pending.expired.run();
+            releaseUnstartedSlot();
+        }
+    }
+
+    private void expire(Pending pending) {
+        synchronized (this) {
+            if (!queue.remove(pending)) {
+                return;
+            }
+        }
+        EXPIRED.inc();
+        pending.expired.run();
+    }
+
+    /**
+     * A slot was taken but no thread was free to run it. If it was the server's last slot, nothing would ever
+     * drain the queue, so queued tasks are refused now instead of when they expire.
+     */
+    private void releaseUnstartedSlot() {
+        Deque<Pending> stranded = new ArrayDeque<>();
+        synchronized (this) {
+            running--;
+            if (running == 0) {
+                stranded.addAll(queue);
+                queue.clear();
+            }
+        }
+        for (Pending pending : stranded) {
+            pending.expiry.cancel(false);
+            NO_WORKER.inc();
+            pending.expired.run();
+        }
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+
+    int running() {
+        return running;
+    }
+}
@@ -0,0 +1,232 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for one MCP server URL, over a sliding window of the last MCP_BREAKER_WINDOW calls.
+ * It opens when at least MCP_BREAKER_MIN_CALLS calls are recorded and either the failure rate reaches
+ * MCP_BREAKER_FAILURE_RATE percent or the share of calls slower than MCP_BREAKER_SLOW_CALL_MS reaches
+ * MCP_BREAKER_SLOW_CALL_RATE percent. While open, calls are rejected with {@link CircuitOpenException}
+ * without touching the network. After MCP_BREAKER_OPEN_SECONDS a single probe is let through
+ * (half-open): its success closes the breaker, its failure opens it again. Calls admitted in an earlier state
+ * that finish late are ignored, so only the probe decides.
+ * <p>
+ * Only transport trouble counts as failure (timeouts, connection errors, 5xx); a 4xx means the host is
+ * alive and answering.
+ */
+public final class CircuitBreaker {
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+    private static final int WINDOW = Math.max(1, EnvUtil.getInt("MCP_BREAKER_WINDOW", 10));
+    static final int MIN_CALLS = Math.max(1, Math.min(WINDOW, EnvUtil.getInt("MCP_BREAKER_MIN_CALLS", 5)));
+    private static final int FAILURE_RATE = EnvUtil.getInt("MCP_BREAKER_FAILURE_RATE", 50);
+    private static final int SLOW_CALL_RATE = EnvUtil.getInt("MCP_BREAKER_SLOW_CALL_RATE", 80);
+    static final long SLOW_CALL_MS = Math.max(1L, EnvUtil.getLong("MCP_BREAKER_SLOW_CALL_MS", 10_000L));
+    static final long OPEN_MS = TimeUnit.SECONDS.toMillis(Math.max(1, EnvUtil.getInt("MCP_BREAKER_OPEN_SECONDS", 30)));
+    private static final boolean ENABLED = EnvUtil.getBoolean("MCP_BREAKER_ENABLED", true);
+    private static final Counter REJECTED = MetricsRegistry.counter("pulse_mcp_breaker_calls_total",
+            "MCP calls by circuit breaker decision", "decision", "rejected");
+    private static final Counter OPENED = MetricsRegistry.counter("pulse_mcp_breaker_transitions_total",
+            "Circuit breaker state changes", "to", "open");
+    private static final Counter CLOSED = MetricsRegistry.counter("pulse_mcp_breaker_transitions_total",
+            "Circuit breaker state changes", "to", "closed");
+    private static final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    static {
+        MetricsRegistry.gauge("pulse_mcp_breakers_open", "Server URLs whose circuit breaker is open or half-open",
+                () -> breakers.values().stream().filter(breaker -> breaker.state != State.CLOSED).count());
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public static class CircuitOpenException extends HttpClientUtil.HttpRequestException {
+        public CircuitOpenException(String url, long retryInMs) {
+            super(503, "Circuit open for " + url + "; next probe in " + Math.max(0L, retryInMs) + " ms", null);
+        }
+    }
+
+    private final String url;
+    // Ring buffer of outcomes: bit 0 = failed, bit 1 = slow.
+    private final byte[] outcomes = new byte[WINDOW];
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slowCalls;
+    private final LongSupplier nanoClock;
+    private volatile State state = State.CLOSED;
+    // Bumped on every state change; a call only counts towards the state it was admitted in.
+    private long generation;
+    private long openedAtNanos;
+    private long openedAtEpochMs;
+    private boolean probing;
+
+    /** Admission of one call: the state generation it was let through in, and whether it is the half-open probe. */
+    record Permit(long generation, boolean probe) {
+    }
+
+    private CircuitBreaker(String url) {
+        this(url, System::nanoTime);
+    }
+
+    CircuitBreaker(String url, LongSupplier nanoClock) {
+        this.url = url;
+        this.nanoClock = nanoClock;
+    }
+
+    public static CircuitBreaker forUrl(String url) {
+        return breakers.computeIfAbsent(url == null ? "" : url, CircuitBreaker::new);
+    }
+
+    /** Breaker state for the status API; a URL without calls yet reports as closed. */
+    public static Map<String, Object> describe(String url) {
+        CircuitBreaker breaker = url == null ? null : breakers.get(url);
+        return breaker == null ? new CircuitBreaker(url).snapshot() : breaker.snapshot();
+    }
+
+    public static void forget(String url) {
+        if (url != null) {
+            breakers.remove(url);
+        }
+    }
+
+    /**
+     * Runs an MCP call through the breaker. Rejected calls throw {@link CircuitOpenException} immediately.
+     */
+    public <T> T call(Supplier<T> call) {
+        if (!ENABLED) {
+            return call.get();
+        }
+        Permit permit = acquirePermission();
+        long start = nanoClock.getAsLong();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } catch (RuntimeException e) {
+            failed = isFailure(e);
+            throw e;
+        } finally {
+            record(permit, failed, TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - start) >= SLOW_CALL_MS);
+        }
+    }
+
+    synchronized Permit acquirePermission() {
+        if (state == State.CLOSED) {
+            return new Permit(generation, false);
+        }
+        long retryIn = OPEN_MS - TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - openedAtNanos);
+        if (state == State.OPEN && retryIn <= 0) {
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN && !probing) {
+            probing = true;
+            return new Permit(generation, true);
+        }
+        REJECTED.inc();
+        HttpClientUtil.clearTimings();
+        throw new CircuitOpenException(url, retryIn);
+    }
+
+    synchronized void record(Permit permit, boolean failed, boolean slow) {
+        if (permit.generation() != generation) {
+            // Admitted before the last state change and finished late; it does not change the verdict.
+            return;
+        }
+        if (permit.probe()) {
+            probing = false;
+            if (failed || slow) {
+                open("probe " + (failed ? "failed" : "was slow"));
+            } else {
+                reset();
+                transition(State.CLOSED);
+                CLOSED.inc();
+                logger.info("Circuit for {} closed after a successful probe", url);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (recorded == WINDOW) {
+            byte evicted = outcomes[next];
+            failures -= evicted & 1;
+            slowCalls -= (evicted >> 1) & 1;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+        next = (next + 1) % WINDOW;
+        failures += failed ? 1 : 0;
+        slowCalls += slow ? 1 : 0;
+        if (recorded < MIN_CALLS) {
+            return;
+        }
+        if (failures * 100 >= FAILURE_RATE * recorded) {
+            open(failures + "/" + recorded + " calls failed");
+        } else if (slowCalls * 100 >= SLOW_CALL_RATE * recorded) {
+            open(slowCalls + "/" + recorded + " calls slower than " + SLOW_CALL_MS + " ms");
+        }
+    }
+
+    private void open(String reason) {
+        transition(State.OPEN);
+        openedAtNanos = nanoClock.getAsLong();
+        openedAtEpochMs = System.currentTimeMillis();
+        reset();
+        OPENED.inc();
+        logger.warn("Circuit for {} opened ({}); rejecting calls for {} ms", url, reason, OPEN_MS);
+    }
+
+    private void transition(State to) {
+        state = to;
+        generation++;
+    }
+
+    private void reset() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", state.name());
+        snapshot.put("calls", recorded);
+        snapshot.put("failureRate", recorded == 0 ? 0.0 : failures * 100.0 / recorded);
+        snapshot.put("slowCallRate", recorded == 0 ? 0.0 : slowCalls * 100.0 / recorded);
+        if (state != State.CLOSED) {
+            snapshot.put("openedAt", openedAtEpochMs);
+            snapshot.put("nextProbeAt", openedAtEpochMs + OPEN_MS);
+        }
+        return snapshot;
+    }
+
+    State state() {
+        synchronized (this) {
+            return state;
+        }
+    }
+
+    static boolean isFailure(RuntimeException e) {
+        if (e instanceof HttpClientUtil.HttpRequestException httpEx) {
+            int status = httpEx.getStatusCode();
+            return status <= 0 || status >= 500;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,209 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.dao.ClusterDAO;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.model.Server;
+import com.tradeshow.pulse24x7.mcp.utils.ConsistentHashRing;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster membership and server ownership for running several instances against one database. Every node
+ * heartbeats into cluster_nodes every MCP_CLUSTER_HEARTBEAT_SECONDS; nodes silent for longer than
+ * MCP_CLUSTER_NODE_TTL_SECONDS are dead. Servers are sharded over the live nodes with a
+ * {@link ConsistentHashRing}, so a join or leave moves only the servers on the arcs that changed hands.
+ * <p>
+ * The ring says who should own a server; a lease in server_leases says who does. Each sweep a node releases
+ * leases it should no longer hold, renews the ones it should, and takes over leases that expired or whose
+ * holder stopped heartbeating. A server is only monitored under a live lease, so while two nodes briefly
+ * disagree about membership at most one of them checks it, and a dead node's servers move within one sweep
+ * after its heartbeat times out.
+ */
+public final class ClusterMembership {
+    private static final Logger logger = LogManager.getLogger(ClusterMembership.class);
+    private static final boolean ENABLED = EnvUtil.getBoolean("MCP_CLUSTER_ENABLED", true);
+    private static final int HEARTBEAT_SECONDS = Math.max(1, EnvUtil.getInt("MCP_CLUSTER_HEARTBEAT_SECONDS", 10));
+    private static final int NODE_TTL_SECONDS = Math.max(HEARTBEAT_SECONDS * 2,
+            EnvUtil.getInt("MCP_CLUSTER_NODE_TTL_SECONDS", 30));
+    // Outlives a sweep plus a missed heartbeat, so a healthy owner always renews before it lapses.
+    private static final int LEASE_SECONDS = Math.max(MonitoringService.SWEEP_INTERVAL_SECONDS * 2 + NODE_TTL_SECONDS,
+            EnvUtil.getInt("MCP_CLUSTER_LEASE_SECONDS", 0));
+    private static final int VIRTUAL_NODES = Math.max(1, EnvUtil.getInt("MCP_CLUSTER_VIRTUAL_NODES", 128));
+    private static final String LEADER_KEY = "cluster-maintenance";
+    private static final String HOST_NAME = hostName();
+    private static final Counter HEARTBEAT_FAILURES = MetricsRegistry.counter("pulse_cluster_heartbeat_failures_total",
+            "Cluster heartbeats that could not be written");
+    private static final ClusterMembership SHARED = new ClusterMembership(new ClusterDAO(), nodeId());
+
+    static {
+        MetricsRegistry.gauge("pulse_cluster_live_nodes", "Cluster nodes with a recent heartbeat",
+                () -> SHARED.liveNodes.size());
+        MetricsRegistry.gauge("pulse_cluster_owned_servers", "Servers this node holds a monitoring lease on",
+                () -> SHARED.ownedServers);
+    }
+
+    private final ClusterDAO clusterDAO;
+    private final String nodeId;
+    private volatile List<String> liveNodes;
+    private volatile ConsistentHashRing ring;
+    private volatile int ownedServers;
+    private ScheduledExecutorService heartbeats;
+
+    private ClusterMembership(ClusterDAO clusterDAO, String nodeId) {
+        this.clusterDAO = clusterDAO;
+        this.nodeId = nodeId;
+        updateMembership(List.of(nodeId));
+    }
+
+    public static ClusterMembership shared() {
+        return SHARED;
+    }
+
+    /** Starts heartbeating; the first heartbeat is written before this returns. */
+    public synchronized void start() {
+        if (!ENABLED || heartbeats != null) {
+            return;
+        }
+        heartbeat();
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        logger.info("Joined cluster as node {} ({} live nodes)", nodeId, liveNodes.size());
+    }
+
+    /** Leaves the cluster and hands this node's servers back straight away instead of waiting for the TTL. */
+    public synchronized void stop() {
+        if (heartbeats == null) {
+            return;
+        }
+        heartbeats.shutdownNow();
+        heartbeats = null;
+        clusterDAO.leave(nodeId);
+        logger.info("Node {} left the cluster", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Servers from {@code servers} this node should check in this sweep: those the ring assigns to it and
+     * that it holds a lease on. Without clustering, or if the lease table cannot be reached, the ring share
+     * alone is used.
+     */
+    public List<Server> claimServers(List<Server> servers) {
+        if (!ENABLED) {
+            ownedServers = servers.size();
+            return servers;
+        }
+        List<String> nodes = clusterDAO.getLiveNodes(NODE_TTL_SECONDS);
+        if (nodes != null) {
+            updateMembership(nodes);
+        }
+        ConsistentHashRing current = ring;
+        List<Server> assigned = new ArrayList<>();
+        List<Integer> assignedIds = new ArrayList<>();
+        for (Server server : servers) {
+            if (nodeId.equals(current.nodeFor(String.valueOf(server.getServerId())))) {
+                assigned.add(server);
+                assignedIds.add(server.getServerId());
+            }
+        }
+        Set<Integer> held = clusterDAO.claimLeases(nodeId, assignedIds, LEASE_SECONDS, NODE_TTL_SECONDS);
+        if (held != null) {
+            assigned.removeIf(server -> !held.contains(server.getServerId()));
+        }
+        ownedServers = assigned.size();
+        if (assigned.size() < assignedIds.size()) {
+            logger.info("Node {} owns {} of {} servers; {} still leased elsewhere", nodeId, assigned.size(),
+                    servers.size(), assignedIds.size() - assigned.size());
+        }
+        return assigned;
+    }
+
+    /** Nodes with a recent heartbeat, this one included; 1 without clustering. */
+    public int getLiveNodeCount() {
+        return ENABLED ? Math.max(1, liveNodes.size()) : 1;
+    }
+
+    /** Whether this node should run cluster-wide maintenance (retention, reaping) this time round. */
+    public boolean isLeader() {
+        return !ENABLED || nodeId.equals(ring.nodeFor(LEADER_KEY));
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", ENABLED);
+        status.put("nodeId", nodeId);
+        status.put("liveNodes", liveNodes);
+        status.put("leader", isLeader());
+        status.put("ownedServers", ownedServers);
+        return status;
+    }
+
+    private void heartbeat() {
+        try {
+            List<String> nodes = clusterDAO.heartbeat(nodeId, HOST_NAME, NODE_TTL_SECONDS);
+            if (nodes == null) {
+                HEARTBEAT_FAILURES.inc();
+                return;
+            }
+            updateMembership(nodes);
+            // Rows of nodes gone for a long time only clutter the table.
+            clusterDAO.deleteDeadNodes(NODE_TTL_SECONDS * 100);
+        } catch (RuntimeException e) {
+            HEARTBEAT_FAILURES.inc();
+            logger.error("Cluster heartbeat failed", e);
+        }
+    }
+
+    private void updateMembership(List<String> nodes) {
+        // This node counts as live even if its own heartbeat was not visible yet.
+        Set<String> members = new TreeSet<>(nodes);
+        members.add(nodeId);
+        List<String> sorted = List.copyOf(members);
+        if (!sorted.equals(liveNodes)) {
+            if (liveNodes != null) {
+                logger.info("Cluster membership changed: {} -> {}", liveNodes, sorted);
+            }
+            ring = new ConsistentHashRing(sorted, VIRTUAL_NODES);
+            liveNodes = sorted;
+        }
+    }
+
+    private static String nodeId() {
+        String configured = EnvUtil.getString("MCP_NODE_ID", null);
+        if (configured != null && !configured.isBlank()) {
+            return configured.trim();
+        }
+        // A restarted instance is a new node; its old leases simply expire or are taken over.
+        String host = HOST_NAME;
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return (host.length() > 50 ? host.substring(0, 50) : host) + "-" + suffix;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
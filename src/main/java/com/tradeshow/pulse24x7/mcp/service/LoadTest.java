@@ -0,0 +1,261 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.metrics.LatencyRecorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One load-test run against a single tool. Two shapes are supported:
+ * <ul>
+ *   <li>{@link Mode#CLOSED}: {@code concurrency} workers call back to back. With a rate, each worker is
+ *   paced to {@code rate / concurrency} calls per second.</li>
+ *   <li>{@link Mode#OPEN}: calls are issued on a fixed schedule of {@code rate} per second regardless of
+ *   how fast earlier ones finish, with at most {@code concurrency} in flight. Calls that cannot even be
+ *   queued are shed and reported as such.</li>
+ * </ul>
+ * Two latencies are recorded per call: service time from the actual send, and response time from the
+ * moment the call was scheduled to go out. The second corrects for coordinated omission: when the server
+ * stalls, the calls that should have been sent meanwhile are charged for the wait instead of silently not
+ * being issued. Shed calls are charged to response time at the call timeout, since that is the least a
+ * caller would have waited for an answer that never came, so a stall cannot drop out of the percentiles by
+ * overflowing the queue. Without a rate there is no schedule and the two are the same.
+ */
+final class LoadTest {
+    private static final Logger logger = LogManager.getLogger(LoadTest.class);
+    // Error rate is only judged once this many calls have completed.
+    private static final int ABORT_MIN_CALLS = 20;
+
+    enum Mode {
+        CLOSED, OPEN
+    }
+
+    /** One call to the tool; returns the HTTP-style status code of the outcome. */
+    interface Call {
+        int invoke();
+    }
+
+    private final Mode mode;
+    private final int concurrency;
+    private final double ratePerSecond;
+    private final long durationNanos;
+    private final double abortErrorPercent;
+    private final long shedPenaltyNanos;
+    private final LatencyRecorder serviceTime = new LatencyRecorder();
+    private final LatencyRecorder responseTime = new LatencyRecorder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final AtomicLong elapsedNanos = new AtomicLong();
+    private volatile long startNanos;
+    private volatile boolean stopped;
+    private volatile String stopReason;
+
+    LoadTest(Mode mode, int concurrency, double ratePerSecond, long durationMs, double abortErrorPercent,
+             long callTimeoutMs) {
+        this.mode = mode;
+        this.concurrency = concurrency;
+        this.ratePerSecond = ratePerSecond;
+        this.durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMs);
+        this.abortErrorPercent = abortErrorPercent;
+        this.shedPenaltyNanos = TimeUnit.MILLISECONDS.toNanos(callTimeoutMs);
+    }
+
+    /** Runs the test on the calling thread until the duration elapses or {@link #stop} is called. */
+    void run(Call call, String threadName) {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                // Open loop queues up to one second of calls behind the in-flight ones before shedding.
+                new ArrayBlockingQueue<>(mode == Mode.OPEN ? Math.max(1, (int) Math.ceil(ratePerSecond)) : concurrency),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        startNanos = System.nanoTime();
+        try {
+            if (mode == Mode.OPEN) {
+                runOpen(call, workers);
+            } else {
+                runClosed(call, workers);
+            }
+        } finally {
+            workers.shutdown();
+            try {
+                // In-flight calls are bounded by their own timeout.
+                if (!workers.awaitTermination(5, TimeUnit.MINUTES)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            elapsedNanos.set(System.nanoTime() - startNanos);
+        }
+    }
+
+    void stop(String reason) {
+        if (!stopped) {
+            stopReason = reason;
+            stopped = true;
+        }
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    String getStopReason() {
+        return stopReason;
+    }
+
+    private void runClosed(Call call, ThreadPoolExecutor workers) {
+        long deadline = startNanos + durationNanos;
+        long intervalNanos = ratePerSecond > 0 ? (long) (concurrency * 1_000_000_000L / ratePerSecond) : 0L;
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int worker = 0; worker < concurrency; worker++) {
+            // Stagger paced workers so they do not fire in lockstep.
+            long offset = intervalNanos * worker / concurrency;
+            workers.execute(() -> {
+                try {
+                    long intended = startNanos + offset;
+                    while (!stopped && intended < deadline) {
+                        if (intervalNanos > 0) {
+                            sleepUntil(intended);
+                        } else {
+                            intended = System.nanoTime();
+                        }
+                        if (stopped || System.nanoTime() >= deadline) {
+                            break;
+                        }
+                        invoke(call, intended);
+                        intended = intervalNanos > 0 ? intended + intervalNanos : System.nanoTime();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            stop("interrupted");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runOpen(Call call, ThreadPoolExecutor workers) {
+        long deadline = startNanos + durationNanos;
+        double periodNanos = 1_000_000_000.0 / ratePerSecond;
+        for (long i = 0; !stopped; i++) {
+            long intended = startNanos + (long) (i * periodNanos);
+            if (intended >= deadline) {
+                break;
+            }
+            // Behind schedule the loop does not sleep, so missed sends go out at once and carry their delay.
+            sleepUntil(intended);
+            try {
+                workers.execute(() -> invoke(call, intended));
+            } catch (RejectedExecutionException e) {
+                shed.increment();
+                responseTime.recordNanos(Math.max(shedPenaltyNanos, System.nanoTime() - intended));
+            }
+        }
+    }
+
+    private void invoke(Call call, long intendedNanos) {
+        if (stopped) {
+            return;
+        }
+        long sent = System.nanoTime();
+        int status;
+        try {
+            status = call.invoke();
+        } catch (RuntimeException e) {
+            logger.debug("Load test call failed: {}", e.getMessage());
+            status = 502;
+        }
+        long finished = System.nanoTime();
+        serviceTime.recordNanos(finished - sent);
+        responseTime.recordNanos(finished - Math.min(intendedNanos, sent));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        completed.increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+        long calls = completed.sum();
+        if (calls >= ABORT_MIN_CALLS && errors.sum() * 100.0 / calls > abortErrorPercent) {
+            stop(String.format("error rate above %.0f%% after %d calls", abortErrorPercent, calls));
+        }
+    }
+
+    private void sleepUntil(long targetNanos) {
+        long remaining;
+        while (!stopped && (remaining = targetNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                stop("interrupted");
+                return;
+            }
+        }
+    }
+
+    long getCompleted() {
+        return completed.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    long getShed() {
+        return shed.sum();
+    }
+
+    LatencyRecorder getServiceTime() {
+        return serviceTime;
+    }
+
+    LatencyRecorder getResponseTime() {
+        return responseTime;
+    }
+
+    /** Calls by status code, plus "shed" for open-loop calls that were never sent. */
+    Map<String, Long> statusBreakdown() {
+        Map<String, Long> breakdown = new LinkedHashMap<>();
+        new TreeMap<>(statuses).forEach((status, count) -> breakdown.put(String.valueOf(status), count.sum()));
+        if (shed.sum() > 0) {
+            breakdown.put("shed", shed.sum());
+        }
+        return breakdown;
+    }
+
+    /** Completed calls per second, over the run so far or the whole run once finished. */
+    double throughputPerSecond() {
+        long elapsed = elapsedNanos.get();
+        if (elapsed == 0L) {
+            elapsed = startNanos == 0L ? 0L : System.nanoTime() - startNanos;
+        }
+        return elapsed <= 0L ? 0.0 : Math.round(completed.sum() * 1e11 / elapsed) / 100.0;
+    }
+
+    long elapsedMs() {
+        long elapsed = elapsedNanos.get();
+        if (elapsed == 0L && startNanos != 0L) {
+            elapsed = System.nanoTime() - startNanos;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(elapsed);
+    }
+}
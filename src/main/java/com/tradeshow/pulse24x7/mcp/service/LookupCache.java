@@ -0,0 +1,211 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.dao.CacheInvalidationDAO;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.model.Server;
+import com.tradeshow.pulse24x7.mcp.model.Tool;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import com.tradeshow.pulse24x7.mcp.utils.LruCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Read-through cache for the primary-key lookups every request makes: servers by ID (which also answers
+ * ownership, since a server's owner is on the row) and tools by ID. Entries are copies, so callers may
+ * modify what they get back.
+ * <p>
+ * Writers call the {@code *Changed} methods after a successful write. That evicts the local entry at once
+ * and appends a row to cache_invalidations; every node polls that table every MCP_LOOKUP_CACHE_POLL_MS and
+ * evicts what other nodes changed. Entries also expire after MCP_LOOKUP_CACHE_TTL_SECONDS, which bounds
+ * staleness if a change-log row could not be written or read.
+ */
+public final class LookupCache {
+    private static final Logger logger = LogManager.getLogger(LookupCache.class);
+    private static final boolean ENABLED = EnvUtil.getBoolean("MCP_LOOKUP_CACHE_ENABLED", true);
+    private static final long TTL_MILLIS = TimeUnit.SECONDS.toMillis(
+            Math.max(1, EnvUtil.getInt("MCP_LOOKUP_CACHE_TTL_SECONDS", 60)));
+    private static final long POLL_MILLIS = Math.max(100, EnvUtil.getLong("MCP_LOOKUP_CACHE_POLL_MS", 2000));
+    private static final int POLL_BATCH = 500;
+    // Change-log rows only have to outlive the slowest node's poll; keep them long enough to ride out a
+    // database blip, after which the TTL covers anything missed.
+    private static final int RETAIN_SECONDS = 3600;
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final String SERVER = "server";
+    private static final String TOOL = "tool";
+    private static final String SERVER_TOOLS = "server_tools";
+
+    private static final LruCache<Integer, Server> SERVERS =
+            new LruCache<>(EnvUtil.getInt("MCP_LOOKUP_CACHE_MAX_SERVERS", 10000), TTL_MILLIS);
+    private static final LruCache<Integer, Tool> TOOLS =
+            new LruCache<>(EnvUtil.getInt("MCP_LOOKUP_CACHE_MAX_TOOLS", 50000), TTL_MILLIS, Tool::getServerId);
+    private static final Counter SERVER_HITS = MetricsRegistry.counter("pulse_lookup_cache_hits_total",
+            "Lookups answered from the local cache", "cache", SERVER);
+    private static final Counter SERVER_MISSES = MetricsRegistry.counter("pulse_lookup_cache_misses_total",
+            "Lookups that went to the database", "cache", SERVER);
+    private static final Counter TOOL_HITS = MetricsRegistry.counter("pulse_lookup_cache_hits_total",
+            "Lookups answered from the local cache", "cache", TOOL);
+    private static final Counter TOOL_MISSES = MetricsRegistry.counter("pulse_lookup_cache_misses_total",
+            "Lookups that went to the database", "cache", TOOL);
+    private static final Counter LOG_INVALIDATIONS = MetricsRegistry.counter(
+            "pulse_lookup_cache_log_invalidations_total", "Invalidations applied from the shared change log");
+    private static final CacheInvalidationDAO invalidationDAO = new CacheInvalidationDAO();
+
+    private static ScheduledExecutorService poller;
+    private static volatile long lastSeenId = -1;
+    private static long lastPrunedAt;
+
+    static {
+        MetricsRegistry.gauge("pulse_lookup_cache_entries", "Entries held in the lookup cache",
+                SERVERS::size, "cache", SERVER);
+        MetricsRegistry.gauge("pulse_lookup_cache_entries", "Entries held in the lookup cache",
+                TOOLS::size, "cache", TOOL);
+    }
+
+    private LookupCache() {
+    }
+
+    /** Server {@code serverId} via the cache, loading it with {@code loader} on a miss; null if none. */
+    public static Server server(int serverId, IntFunction<Server> loader) {
+        if (!ENABLED) {
+            return loader.apply(serverId);
+        }
+        Server cached = SERVERS.get(serverId);
+        if (cached != null) {
+            SERVER_HITS.inc();
+            return new Server(cached);
+        }
+        SERVER_MISSES.inc();
+        long stamp = SERVERS.stamp();
+        Server loaded = loader.apply(serverId);
+        if (loaded != null) {
+            SERVERS.putIfUnchanged(serverId, new Server(loaded), stamp);
+        }
+        return loaded;
+    }
+
+    /** Tool {@code toolId} via the cache, loading it with {@code loader} on a miss; null if none. */
+    public static Tool tool(int toolId, IntFunction<Tool> loader) {
+        if (!ENABLED) {
+            return loader.apply(toolId);
+        }
+        Tool cached = TOOLS.get(toolId);
+        if (cached != null) {
+            TOOL_HITS.inc();
+            return new Tool(cached);
+        }
+        TOOL_MISSES.inc();
+        long stamp = TOOLS.stamp();
+        Tool loaded = loader.apply(toolId);
+        if (loaded != null) {
+            TOOLS.putIfUnchanged(toolId, new Tool(loaded), stamp);
+        }
+        return loaded;
+    }
+
+    /** A server row was updated or deleted; its tools go with it. */
+    public static void serverChanged(int serverId) {
+        evict(SERVER, serverId);
+        evict(SERVER_TOOLS, serverId);
+        publish(SERVER, serverId);
+    }
+
+    /** Tool rows of {@code serverId} were inserted, updated or disabled. */
+    public static void serverToolsChanged(int serverId) {
+        evict(SERVER_TOOLS, serverId);
+        publish(SERVER_TOOLS, serverId);
+    }
+
+    /**
+     * Request counters of a tool moved. These change on every call, so only the local entry is dropped;
+     * other nodes see the new counters once their entry expires.
+     */
+    public static void toolMetricsChanged(int toolId) {
+        evict(TOOL, toolId);
+    }
+
+    public static synchronized void start() {
+        if (!ENABLED || poller != null) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lookup-cache-invalidations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(LookupCache::poll, 0, POLL_MILLIS, TimeUnit.MILLISECONDS);
+        logger.info("Lookup cache started (ttl {} ms, polling invalidations every {} ms)", TTL_MILLIS, POLL_MILLIS);
+    }
+
+    public static synchronized void stop() {
+        if (poller == null) {
+            return;
+        }
+        poller.shutdownNow();
+        poller = null;
+    }
+
+    private static void evict(String entity, int entityId) {
+        switch (entity) {
+            case SERVER -> SERVERS.invalidate(entityId);
+            case TOOL -> TOOLS.invalidate(entityId);
+            case SERVER_TOOLS -> TOOLS.invalidateGroup(entityId);
+            default -> logger.warn("Ignoring invalidation for unknown cache entity {}", entity);
+        }
+    }
+
+    private static void publish(String entity, int entityId) {
+        if (ENABLED) {
+            invalidationDAO.publish(entity, entityId);
+        }
+    }
+
+    private static void poll() {
+        try {
+            if (lastSeenId < 0) {
+                // Start from the end of the log; anything cached before this point may have missed rows.
+                Long latest = invalidationDAO.getLatestId();
+                if (latest != null) {
+                    SERVERS.clear();
+                    TOOLS.clear();
+                    lastSeenId = latest;
+                }
+                return;
+            }
+            List<CacheInvalidationDAO.Invalidation> batch;
+            do {
+                batch = invalidationDAO.getInvalidationsAfter(lastSeenId, POLL_BATCH);
+                if (batch == null) {
+                    return;
+                }
+                for (CacheInvalidationDAO.Invalidation invalidation : batch) {
+                    evict(invalidation.entity(), invalidation.entityId());
+                    lastSeenId = invalidation.id();
+                }
+                LOG_INVALIDATIONS.add(batch.size());
+            } while (batch.size() == POLL_BATCH);
+            pruneIfDue();
+        } catch (RuntimeException e) {
+            logger.error("Failed to poll cache invalidations", e);
+        }
+    }
+
+    private static void pruneIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastPrunedAt < PRUNE_INTERVAL_MILLIS || !ClusterMembership.shared().isLeader()) {
+            return;
+        }
+        lastPrunedAt = now;
+        int deleted = invalidationDAO.deleteOlderThan(RETAIN_SECONDS, 10000);
+        if (deleted > 0) {
+            logger.debug("Pruned {} cache invalidation rows", deleted);
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.model.HttpResult;
+import com.tradeshow.pulse24x7.mcp.model.McpResponse;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
+import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * MCP Streamable HTTP transport. Each monitored server gets one session, negotiated with
+ * {@code initialize}/{@code notifications/initialized} on first use and reused for every later
+ * {@code ping}, {@code tools/list} and {@code tools/call}. Event-stream responses are handled by
+ * {@link HttpClientUtil}. A 404 on a request carrying a session id means the server dropped the session;
+ * the request is retried once on a freshly negotiated one.
+ * <p>
+ * Servers that reject {@code initialize} are remembered as legacy and get plain JSON-RPC posts, as before. One
+ * that answers it with a 5xx is tried as legacy too, but only kept as such once a plain post succeeds.
+ * Whether a server accepts JSON-RPC batches is likewise learned on first attempt and kept with the session.
+ * <p>
+ * For servers that advertise {@code tools.listChanged}, a GET event stream is held open (up to
+ * MCP_LIST_CHANGED_STREAMS of them) so {@code notifications/tools/list_changed} can mark the cached tool
+ * catalog stale; see {@link #isToolCatalogCurrent(Integer)}.
+ * <p>
+ * Every call goes through the {@link CircuitBreaker} of its server URL, so a host that is known to be down
+ * is refused immediately instead of waiting out the connection timeout. First attempts are counted
+ * towards the {@link RetryPolicy} budget that every retry of an MCP call draws on.
+ */
+public class McpTransportService {
+    private static final Logger logger = LogManager.getLogger(McpTransportService.class);
+    public static final String PROTOCOL_VERSION = "2025-03-26";
+    private static final String PROTOCOL_VERSION_HEADER = "MCP-Protocol-Version";
+    // Batching was dropped from the protocol in this revision, so sessions negotiated at or after it never batch.
+    private static final String BATCHING_REMOVED_IN = "2025-06-18";
+    private static final long BATCH_REPROBE_MS = TimeUnit.HOURS.toMillis(1);
+    private static final String TOOLS_LIST_CHANGED = "notifications/tools/list_changed";
+    private static final int STREAM_IDLE_MS = (int) TimeUnit.SECONDS.toMillis(
+            Math.max(10, EnvUtil.getInt("MCP_LIST_CHANGED_IDLE_SECONDS", 300)));
+    // Even with a live stream the catalog is re-listed this often, in case a notification was lost.
+    private static final long TOOLS_FULL_SYNC_MS = TimeUnit.MINUTES.toMillis(
+            Math.max(1L, EnvUtil.getLong("MCP_TOOLS_FULL_SYNC_MINUTES", 60L)));
+    // A session outlives the server's check interval by this much; servers expire sessions themselves (404).
+    private static final long IDLE_MARGIN_MS = TimeUnit.MINUTES.toMillis(
+            Math.max(1L, EnvUtil.getLong("MCP_SESSION_IDLE_MARGIN_MINUTES", 15L)));
+    // Legacy servers are offered initialize again this often, in case they were upgraded.
+    private static final long LEGACY_REPROBE_MS = TimeUnit.HOURS.toMillis(1);
+    private static final Counter INITIALIZATIONS = MetricsRegistry.counter("pulse_mcp_session_initializations_total",
+            "MCP initialize handshakes performed");
+    private static final Counter EXPIRATIONS = MetricsRegistry.counter("pulse_mcp_session_expirations_total",
+            "MCP sessions the server reported as expired (HTTP 404)");
+    private static final Counter BATCHES = MetricsRegistry.counter("pulse_mcp_batches_total",
+            "JSON-RPC batches by outcome", "outcome", "sent");
+    private static final Counter BATCHES_UNSUPPORTED = MetricsRegistry.counter("pulse_mcp_batches_total",
+            "JSON-RPC batches by outcome", "outcome", "unsupported");
+    private static final Map<Integer, McpSession> sessions = new ConcurrentHashMap<>();
+    private static final Map<Integer, Object> locks = new ConcurrentHashMap<>();
+    private static final Counter LIST_CHANGED = MetricsRegistry.counter("pulse_mcp_tools_list_changed_total",
+            "notifications/tools/list_changed received from servers");
+    // One blocked thread per open stream; when all are taken, further servers are simply re-listed every check.
+    private static final ThreadPoolExecutor listeners = new ThreadPoolExecutor(0,
+            Math.max(1, EnvUtil.getInt("MCP_LIST_CHANGED_STREAMS", 32)), 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "mcp-notifications");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        MetricsRegistry.gauge("pulse_mcp_sessions", "MCP sessions currently held", sessions::size);
+        MetricsRegistry.gauge("pulse_mcp_notification_streams", "Open listChanged notification streams",
+                () -> sessions.values().stream().filter(session -> session.subscribed).count());
+    }
+
+    private static final class McpSession {
+        private final String serverUrl;
+        private final String sessionId;
+        private final String protocolVersion;
+        private final boolean legacy;
+        private final boolean toolsListChanged;
+        private volatile Map<String, String> headers;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastUsedAt = createdAt;
+        private volatile long batchRejectedAt;
+        private volatile boolean subscribed;
+        // Legacy only because initialize failed with a 5xx; dropped again unless a plain post then succeeds.
+        private volatile boolean provisional;
+        private volatile Runnable cancelStream;
+        // Bumped by every list_changed (or possibly missed one); the catalog is current while it equals toolsSyncedVersion.
+        private final AtomicLong toolsVersion = new AtomicLong(1);
+        private volatile long toolsSyncedVersion;
+        private volatile long toolsSyncedAt;
+
+        private McpSession(String serverUrl, String sessionId, String protocolVersion, boolean legacy,
+                           boolean toolsListChanged, Map<String, String> headers) {
+            this.serverUrl = serverUrl;
+            this.sessionId = sessionId;
+            this.protocolVersion = protocolVersion;
+            this.legacy = legacy;
+            this.toolsListChanged = toolsListChanged;
+            this.headers = headers;
+        }
+
+        /**
+         * Whether the session can serve {@code serverId} at {@code url}. Only a session left unused for longer
+         * than the server's check interval (plus a margin) is dropped here, e.g. after another node took the
+         * server over; whether the server still knows the session is left to its 404.
+         */
+        private boolean isReusable(Integer serverId, String url) {
+            long now = System.currentTimeMillis();
+            return serverUrl.equals(url)
+                    && now - lastUsedAt < MonitorSchedule.intervalMs(serverId) + IDLE_MARGIN_MS
+                    && !(legacy && now - createdAt >= LEGACY_REPROBE_MS);
+        }
+
+        private boolean mayBatch() {
+            return System.currentTimeMillis() - batchRejectedAt >= BATCH_REPROBE_MS
+                    && (protocolVersion == null || protocolVersion.compareTo(BATCHING_REMOVED_IN) < 0);
+        }
+    }
+
+    /**
+     * Sends one JSON-RPC request over the server's session. A null serverId uses a one-off session that is
+     * closed again afterwards (connection tests before a server is registered).
+     */
+    public JsonObject send(Integer serverId, String serverUrl, Map<String, String> headers, String jsonPayload,
+                           Integer timeoutMs) {
+        RetryPolicy.shared().recordAttempt();
+        return CircuitBreaker.forUrl(serverUrl).call(() -> sendUnguarded(serverId, serverUrl, headers, jsonPayload, timeoutMs));
+    }
+
+    private JsonObject sendUnguarded(Integer serverId, String serverUrl, Map<String, String> headers, String jsonPayload,
+                                     Integer timeoutMs) {
+        if (serverId == null) {
+            McpSession session = initialize(serverUrl, headers, timeoutMs);
+            try {
+                return exchange(session, headers, jsonPayload, timeoutMs).getBody();
+            } finally {
+                terminate(session, timeoutMs);
+            }
+        }
+
+        return withSession(serverId, serverUrl, headers, timeoutMs,
+                session -> exchange(session, headers, jsonPayload, timeoutMs).getBody());
+    }
+
+    /**
+     * Sends the requests as one JSON-RPC batch and returns their responses in request order, matched by id.
+     * Returns null when the server does not accept batches; the caller should then send the requests one by
+     * one. A rejection is remembered with the session and re-probed hourly.
+     */
+    public List<JsonObject> sendBatch(Integer serverId, String serverUrl, Map<String, String> headers,
+                                      List<JsonObject> requests, Integer timeoutMs) {
+        JsonArray batch = new JsonArray();
+        requests.forEach(batch::add);
+        RetryPolicy.shared().recordAttempt();
+        return CircuitBreaker.forUrl(serverUrl).call(() -> withSession(serverId, serverUrl, headers, timeoutMs, session -> {
+            if (session.provisional || !session.mayBatch()) {
+                return null;
+            }
+            McpResponse response;
+            try {
+                response = exchange(session, headers, batch.toString(), timeoutMs);
+            } catch (HttpClientUtil.HttpRequestException e) {
+                int status = e.getStatusCode();
+                // Auth and session failures apply to any request; other errors may be the batch itself, and the
+                // caller's one-by-one fallback will surface them if the server really is unhealthy.
+                if (status == 401 || status == 403 || status == 404) {
+                    throw e;
+                }
+                return rejectBatch(session, serverUrl, "HTTP " + status);
+            }
+            if (response.getBatch() == null) {
+                return rejectBatch(session, serverUrl, "non-array response");
+            }
+            // Keyed by the id's JSON text; Gson's numeric equality differs between parsed and built numbers.
+            Map<String, JsonObject> byId = new HashMap<>();
+            for (JsonElement element : response.getBatch()) {
+                if (element.isJsonObject() && element.getAsJsonObject().has("id")) {
+                    byId.put(element.getAsJsonObject().get("id").toString(), element.getAsJsonObject());
+                }
+            }
+            List<JsonObject> ordered = new ArrayList<>();
+            for (JsonObject request : requests) {
+                JsonObject matched = byId.get(String.valueOf(request.get("id")));
+                if (matched == null) {
+                    return rejectBatch(session, serverUrl, "missing response for id " + request.get("id"));
+                }
+                ordered.add(matched);
+            }
+            BATCHES.inc();
+            return ordered;
+        }));
+    }
+
+    /**
+     * {@link HttpClientUtil#canPingServer} over the session transport, hedged when MCP_HEDGE_PINGS is on
+     * (see {@link RetryPolicy#hedge}).
+     */
+    public HttpResult ping(Integer serverId, String serverUrl, Map<String, String> headers, String jsonPayload,
+                           Integer timeoutMs) {
+        return RetryPolicy.shared().hedge(serverUrl,
+                () -> pingOnce(serverId, serverUrl, headers, jsonPayload, timeoutMs), HttpResult::isSuccess);
+    }
+
+    private HttpResult pingOnce(Integer serverId, String serverUrl, Map<String, String> headers, String jsonPayload,
+                                Integer timeoutMs) {
+        HttpResult result;
+        try {
+            JsonObject response = send(serverId, serverUrl, headers, jsonPayload, timeoutMs);
+            result = new HttpResult(true, 200, response.toString(), null);
+        } catch (HttpClientUtil.HttpTimeoutException e) {
+            result = new HttpResult(false, 504, null, e.getMessage());
+        } catch (CircuitBreaker.CircuitOpenException e) {
+            result = new HttpResult(false, 503, null, e.getMessage());
+        } catch (RuntimeException e) {
+            result = new HttpResult(false, 400, null, e.getMessage());
+        }
+        result.setTimings(HttpClientUtil.lastTimings());
+        return result;
+    }
+
+    /**
+     * True when the server pushes listChanged notifications over a live stream and none has arrived since
+     * the last full tools/list sync, so a monitoring check can get by with a ping.
+     */
+    public static boolean isToolCatalogCurrent(Integer serverId) {
+        McpSession session = serverId == null ? null : sessions.get(serverId);
+        return session != null
+                && session.subscribed
+                && session.toolsVersion.get() == session.toolsSyncedVersion
+                && System.currentTimeMillis() - session.toolsSyncedAt < TOOLS_FULL_SYNC_MS;
+    }
+
+    /**
+     * Change counter to read before a full tools/list sync and hand back to
+     * {@link #markToolCatalogSynced(Integer, long)} afterwards, so a notification that races the sync is not lost.
+     */
+    public static long toolsChangeVersion(Integer serverId) {
+        McpSession session = serverId == null ? null : sessions.get(serverId);
+        return session == null ? -1L : session.toolsVersion.get();
+    }
+
+    public static void markToolCatalogSynced(Integer serverId, long version) {
+        McpSession session = serverId == null ? null : sessions.get(serverId);
+        if (session != null && version >= 0) {
+            session.toolsSyncedVersion = version;
+            session.toolsSyncedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Drops (and asks the server to end) the session for a server whose URL or credentials changed or
+     * which was deleted.
+     */
+    public static void invalidate(Integer serverId) {
+        McpSession session = serverId == null ? null : sessions.remove(serverId);
+        if (session != null) {
+            closeStream(session);
+            terminate(session, null);
+        }
+    }
+
+    // Sessions are simply forgotten at shutdown; servers expire idle sessions on their own.
+    public static void shutdown() {
+        sessions.values().forEach(McpTransportService::closeStream);
+        sessions.clear();
+        listeners.shutdownNow();
+    }
+
+    /**
+     * Runs the call on the server's session, renegotiating and retrying once if the server reports the
+     * session as gone. A provisional legacy session is dropped if the call fails, so the next check offers
+     * initialize again.
+     */
+    private <T> T withSession(Integer serverId, String serverUrl, Map<String, String> headers, Integer timeoutMs,
+                              Function<McpSession, T> call) {
+        McpSession session = sessionFor(serverId, serverUrl, headers, timeoutMs);
+        try {
+            T result = call.apply(session);
+            if (result != null) {
+                session.provisional = false;
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (session.provisional) {
+                // Neither initialize nor a plain post worked: the server is down rather than legacy.
+                sessions.remove(serverId, session);
+                throw e;
+            }
+            if (!(e instanceof HttpClientUtil.HttpRequestException request) || session.sessionId == null
+                    || request.getStatusCode() != 404) {
+                throw e;
+            }
+            EXPIRATIONS.inc();
+            logger.info("MCP session for server {} expired; negotiating a new one", serverId);
+            if (sessions.remove(serverId, session)) {
+                closeStream(session);
+            }
+            return call.apply(sessionFor(serverId, serverUrl, headers, timeoutMs));
+        }
+    }
+
+    private static <T> T rejectBatch(McpSession session, String serverUrl, String reason) {
+        session.batchRejectedAt = System.currentTimeMillis();
+        BATCHES_UNSUPPORTED.inc();
+        logger.info("MCP server {} does not accept JSON-RPC batches ({}); sending requests individually",
+                serverUrl, reason);
+        return null;
+    }
+
+    private McpSession sessionFor(Integer serverId, String serverUrl, Map<String, String> headers, Integer timeoutMs) {
+        McpSession session = sessions.get(serverId);
+        if (session != null && session.isReusable(serverId, serverUrl)) {
+            return session;
+        }
+        synchronized (locks.computeIfAbsent(serverId, key -> new Object())) {
+            session = sessions.get(serverId);
+            if (session != null && session.isReusable(serverId, serverUrl)) {
+                return session;
+            }
+            McpSession previous = session;
+            session = initialize(serverUrl, headers, timeoutMs);
+            sessions.put(serverId, session);
+            if (previous != null) {
+                closeStream(previous);
+            }
+            if (session.toolsListChanged) {
+                subscribe(serverId, session);
+            }
+            return session;
+        }
+    }
+
+    private static void subscribe(Integer serverId, McpSession session) {
+        try {
+            listeners.execute(() -> listen(serverId, session));
+        } catch (RejectedExecutionException e) {
+            logger.debug("All {} notification streams in use; server {} will be re-listed every check",
+                    listeners.getMaximumPoolSize(), serverId);
+        }
+    }
+
+    /**
+     * Holds the server's GET event stream open for as long as the session is current, reconnecting with
+     * backoff. Any drop other than an idle timeout may have lost a notification, so it marks the catalog stale.
+     */
+    private static void listen(Integer serverId, McpSession session) {
+        long backoffMs = 1000L;
+        while (sessions.get(serverId) == session) {
+            if (!session.isReusable(serverId, session.serverUrl)) {
+                // No longer checked from this node; hand the server its session back rather than hold the stream.
+                if (sessions.remove(serverId, session)) {
+                    terminate(session, null);
+                }
+                return;
+            }
+            boolean idle = false;
+            try {
+                HttpClientUtil.streamEvents(session.serverUrl, sessionHeaders(session, session.headers), STREAM_IDLE_MS,
+                        cancel -> {
+                            session.cancelStream = cancel;
+                            session.subscribed = true;
+                            session.lastUsedAt = System.currentTimeMillis();
+                        },
+                        event -> onStreamEvent(serverId, session, event.getData()));
+            } catch (HttpClientUtil.HttpRequestException e) {
+                int status = e.getStatusCode();
+                if (status != 401 && status != 403 && status < 500) {
+                    logger.info("MCP server {} offers no notification stream ({}); tools will be re-listed every check",
+                            session.serverUrl, status);
+                    session.subscribed = false;
+                    return;
+                }
+            } catch (HttpClientUtil.HttpTimeoutException e) {
+                idle = session.subscribed;
+            } catch (RuntimeException e) {
+                logger.debug("Notification stream for server {} failed: {}", serverId, e.getMessage());
+            }
+            if (!idle) {
+                session.toolsVersion.incrementAndGet();
+            }
+            session.subscribed = false;
+            session.cancelStream = null;
+            if (idle) {
+                backoffMs = 1000L;
+                continue;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, TimeUnit.MINUTES.toMillis(1));
+        }
+    }
+
+    private static void onStreamEvent(Integer serverId, McpSession session, String data) {
+        session.lastUsedAt = System.currentTimeMillis();
+        try {
+            JsonElement element = JsonParser.parseString(data);
+            JsonArray messages = element.isJsonArray() ? element.getAsJsonArray() : new JsonArray();
+            if (element.isJsonObject()) {
+                messages.add(element);
+            }
+            for (JsonElement message : messages) {
+                if (message.isJsonObject()) {
+                    observe(serverId, session, message.getAsJsonObject());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Ignoring unparseable notification from server {}: {}", serverId, data);
+        }
+    }
+
+    private static void observe(Integer serverId, McpSession session, JsonObject message) {
+        if (message.has("method") && TOOLS_LIST_CHANGED.equals(message.get("method").getAsString())) {
+            session.toolsVersion.incrementAndGet();
+            LIST_CHANGED.inc();
+            logger.info("MCP server {} reported a tool list change", serverId == null ? session.serverUrl : serverId);
+        }
+    }
+
+    private static void closeStream(McpSession session) {
+        Runnable cancel = session.cancelStream;
+        if (cancel != null) {
+            cancel.run();
+        }
+    }
+
+    private McpSession initialize(String serverUrl, Map<String, String> headers, Integer timeoutMs) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("protocolVersion", PROTOCOL_VERSION);
+        params.put("capabilities", Map.of());
+        params.put("clientInfo", Map.of("name", "Pulse24x7", "version", "1.0"));
+        JsonObject request = JsonUtil.createMCPRequest("initialize", params);
+
+        INITIALIZATIONS.inc();
+        McpResponse response;
+        try {
+            response = HttpClientUtil.doPostMcp(serverUrl, headers, request.toString(), timeoutMs);
+        } catch (HttpClientUtil.HttpRequestException e) {
+            int status = e.getStatusCode();
+            // Auth failures must reach the caller's token refresh; anything else in 4xx means no initialize support.
+            if (status == 401 || status == 403 || status < 400) {
+                throw e;
+            }
+            McpSession legacy = new McpSession(serverUrl, null, null, true, false, headers);
+            if (status >= 500) {
+                // Some legacy servers fail unknown methods with a 5xx; the plain post that follows tells.
+                logger.info("MCP server {} failed initialize ({}); trying plain JSON-RPC posts", serverUrl, status);
+                legacy.provisional = true;
+                return legacy;
+            }
+            logger.info("MCP server {} rejected initialize ({}); using plain JSON-RPC posts", serverUrl, status);
+            return legacy;
+        }
+
+        JsonObject body = response.getBody();
+        if (body == null || !body.has("result") || !body.get("result").isJsonObject()) {
+            logger.info("MCP server {} did not answer initialize; using plain JSON-RPC posts", serverUrl);
+            return new McpSession(serverUrl, null, null, true, false, headers);
+        }
+        JsonObject result = body.getAsJsonObject("result");
+        String protocolVersion = result.has("protocolVersion") && !result.get("protocolVersion").isJsonNull()
+                ? result.get("protocolVersion").getAsString()
+                : PROTOCOL_VERSION;
+        McpSession session = new McpSession(serverUrl, response.getSessionId(), protocolVersion, false,
+                advertisesToolsListChanged(result), headers);
+
+        JsonObject initialized = new JsonObject();
+        initialized.addProperty("jsonrpc", "2.0");
+        initialized.addProperty("method", "notifications/initialized");
+        try {
+            HttpClientUtil.doPostMcp(serverUrl, sessionHeaders(session, headers), initialized.toString(), timeoutMs);
+        } catch (RuntimeException e) {
+            logger.warn("MCP server {} did not accept notifications/initialized: {}", serverUrl, e.getMessage());
+        }
+        logger.info("Negotiated MCP session with {} (protocol {}, session {})",
+                serverUrl, protocolVersion, session.sessionId == null ? "none" : "issued");
+        return session;
+    }
+
+    private static boolean advertisesToolsListChanged(JsonObject initializeResult) {
+        JsonObject capabilities = initializeResult.has("capabilities") && initializeResult.get("capabilities").isJsonObject()
+                ? initializeResult.getAsJsonObject("capabilities") : null;
+        JsonObject tools = capabilities != null && capabilities.has("tools") && capabilities.get("tools").isJsonObject()
+                ? capabilities.getAsJsonObject("tools") : null;
+        return tools != null && tools.has("listChanged") && tools.get("listChanged").isJsonPrimitive()
+                && tools.get("listChanged").getAsBoolean();
+    }
+
+    private McpResponse exchange(McpSession session, Map<String, String> headers, String jsonPayload, Integer timeoutMs) {
+        session.lastUsedAt = System.currentTimeMillis();
+        session.headers = headers;
+        Map<String, String> effectiveHeaders = session.legacy ? headers : sessionHeaders(session, headers);
+        McpResponse response = HttpClientUtil.doPostMcp(session.serverUrl, effectiveHeaders, jsonPayload, timeoutMs);
+        // Servers may also slip notifications into a POST's event stream.
+        for (JsonObject notification : response.getNotifications()) {
+            observe(null, session, notification);
+        }
+        return response;
+    }
+
+    private static Map<String, String> sessionHeaders(McpSession session, Map<String, String> headers) {
+        Map<String, String> merged = new HashMap<>();
+        if (headers != null) {
+            merged.putAll(headers);
+        }
+        if (session.sessionId != null) {
+            merged.put(HttpClientUtil.MCP_SESSION_HEADER, session.sessionId);
+        }
+        if (session.protocolVersion != null) {
+            merged.put(PROTOCOL_VERSION_HEADER, session.protocolVersion);
+        }
+        return merged;
+    }
+
+    private static void terminate(McpSession session, Integer timeoutMs) {
+        if (session.legacy || session.sessionId == null) {
+            return;
+        }
+        int status = HttpClientUtil.doDelete(session.serverUrl, sessionHeaders(session, session.headers), timeoutMs);
+        logger.debug("Closed MCP session with {} (status {})", session.serverUrl, status);
+    }
+}
@@ -0,0 +1,142 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.dao.ServerHistoryDAO;
+import com.tradeshow.pulse24x7.mcp.model.Server;
+import com.tradeshow.pulse24x7.mcp.model.ServerHistory;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when each server is next due for a check. Servers use their configured
+ * {@code monitor_interval_minutes} unless they opted into {@code adaptive_interval}; adaptive servers are
+ * checked at the floor while down, at half their interval just after a state change, and at a doubling
+ * interval (up to the ceiling) for every MCP_ADAPTIVE_STABLE_CHECKS consecutive healthy checks.
+ * <p>
+ * Due times are kept in memory after the first look at {@code server_history}, so a sweep does not query
+ * the database for servers that are not due.
+ */
+public class MonitorSchedule {
+    private static final long FLOOR_MS = TimeUnit.SECONDS.toMillis(
+            Math.max(10, EnvUtil.getInt("MCP_ADAPTIVE_FLOOR_SECONDS", 60)));
+    private static final long CEILING_MS = TimeUnit.MINUTES.toMillis(
+            Math.max(1, EnvUtil.getInt("MCP_ADAPTIVE_CEILING_MINUTES", 240)));
+    private static final int STABLE_CHECKS = Math.max(1, EnvUtil.getInt("MCP_ADAPTIVE_STABLE_CHECKS", 6));
+    private static final int HISTORY_WINDOW = Math.max(STABLE_CHECKS * 4, 24);
+    private static final int DEFAULT_INTERVAL_MINUTES = 30;
+    private static final Map<Integer, Slot> slots = new ConcurrentHashMap<>();
+
+    private final ServerHistoryDAO serverHistoryDAO;
+
+    private static final class Slot {
+        private final long intervalMs;
+        private final long lastCheckedAt;
+
+        private Slot(long intervalMs, long lastCheckedAt) {
+            this.intervalMs = intervalMs;
+            this.lastCheckedAt = lastCheckedAt;
+        }
+    }
+
+    public MonitorSchedule() {
+        this.serverHistoryDAO = new ServerHistoryDAO();
+    }
+
+    public boolean isDue(Server server, long nowMs) {
+        return overdueRatio(server, nowMs) >= 1.0;
+    }
+
+    /** Time since the last check as a multiple of the effective interval; 1.0 or more means due. */
+    public double overdueRatio(Server server, long nowMs) {
+        Slot slot = slotFor(server);
+        if (slot.lastCheckedAt <= 0L) {
+            return Double.MAX_VALUE;
+        }
+        return (double) (nowMs - slot.lastCheckedAt) / slot.intervalMs;
+    }
+
+    /**
+     * Re-evaluates the server's interval from its history once a check finished. A check that ended before
+     * writing history still counts as made at {@code checkedAtMs}, so it is not retried on every sweep.
+     */
+    public void recordCheck(Server server, long checkedAtMs) {
+        Slot slot = load(server);
+        slots.put(server.getServerId(), new Slot(slot.intervalMs, Math.max(slot.lastCheckedAt, checkedAtMs)));
+    }
+
+    public static long effectiveIntervalSeconds(Server server) {
+        Slot slot = slots.get(server.getServerId());
+        long intervalMs = slot != null ? slot.intervalMs : configuredIntervalMs(server);
+        return TimeUnit.MILLISECONDS.toSeconds(intervalMs);
+    }
+
+    /**
+     * Effective interval of a server this node has scheduled, or the adaptive ceiling for one it has not,
+     * so a caller sizing something to the check cadence never undershoots it.
+     */
+    public static long intervalMs(Integer serverId) {
+        Slot slot = serverId == null ? null : slots.get(serverId);
+        return slot != null ? slot.intervalMs : CEILING_MS;
+    }
+
+    /** Drops the cached schedule, e.g. after the server's interval settings changed or it was deleted. */
+    public static void forget(Integer serverId) {
+        if (serverId != null) {
+            slots.remove(serverId);
+        }
+    }
+
+    private Slot slotFor(Server server) {
+        Slot slot = slots.get(server.getServerId());
+        if (slot == null) {
+            slot = load(server);
+            slots.put(server.getServerId(), slot);
+        }
+        return slot;
+    }
+
+    private Slot load(Server server) {
+        boolean adaptive = Boolean.TRUE.equals(server.getAdaptiveInterval());
+        List<ServerHistory> history = serverHistoryDAO.getServerHistory(server.getServerId(), adaptive ? HISTORY_WINDOW : 1);
+        long lastCheckedAt = history.isEmpty() || history.get(0).getCheckedAt() == null
+                ? 0L : history.get(0).getCheckedAt().getTime();
+        long intervalMs = adaptive
+                ? adaptiveIntervalMs(configuredIntervalMs(server), history)
+                : configuredIntervalMs(server);
+        return new Slot(intervalMs, lastCheckedAt);
+    }
+
+    private static long configuredIntervalMs(Server server) {
+        Integer minutes = server.getMonitorIntervalMinutes();
+        return TimeUnit.MINUTES.toMillis(Math.max(1, minutes == null ? DEFAULT_INTERVAL_MINUTES : minutes));
+    }
+
+    /**
+     * Interval for an adaptive server given its most recent checks, newest first. The result never goes
+     * below the floor or above the ceiling, unless the configured interval itself lies outside them.
+     */
+    static long adaptiveIntervalMs(long configuredMs, List<ServerHistory> newestFirst) {
+        if (newestFirst.isEmpty()) {
+            return configuredMs;
+        }
+        long floor = Math.min(FLOOR_MS, configuredMs);
+        long ceiling = Math.max(CEILING_MS, configuredMs);
+        boolean latestUp = Boolean.TRUE.equals(newestFirst.get(0).getServerUp());
+        if (!latestUp) {
+            return floor;
+        }
+        int streak = 0;
+        while (streak < newestFirst.size() && Boolean.TRUE.equals(newestFirst.get(streak).getServerUp())) {
+            streak++;
+        }
+        boolean changedRecently = streak < newestFirst.size() && streak < STABLE_CHECKS;
+        if (changedRecently) {
+            return Math.max(floor, configuredMs / 2);
+        }
+        int doublings = Math.min(20, streak / STABLE_CHECKS);
+        return Math.min(ceiling, configuredMs << doublings);
+    }
+}
@@ -4,22 +4,66 @@ import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.dao.ServerHistoryDAO;
 import com.tradeshow.pulse24x7.mcp.dao.ToolDAO;
 import com.tradeshow.pulse24x7.mcp.dao.ToolHistoryDAO;
+import com.tradeshow.pulse24x7.mcp.db.QueryScope;
+import com.tradeshow.pulse24x7.mcp.jfr.JfrContext;
+import com.tradeshow.pulse24x7.mcp.jfr.MonitoringCycleEvent;
+import com.tradeshow.pulse24x7.mcp.jfr.ServerCheckEvent;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.Histogram;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
 import com.tradeshow.pulse24x7.mcp.model.AuthToken;
 import com.tradeshow.pulse24x7.mcp.model.HttpResult;
 import com.tradeshow.pulse24x7.mcp.model.Server;
 import com.tradeshow.pulse24x7.mcp.model.Tool;
+import com.tradeshow.pulse24x7.mcp.model.ToolProbe;
 import com.tradeshow.pulse24x7.mcp.utils.AuthHeaderUtil;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
 import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
+import com.tradeshow.pulse24x7.mcp.utils.TokenBucket;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.sql.Timestamp;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 public class MonitoringService {
     private static final Logger logger = LogManager.getLogger(MonitoringService.class);
+    private static final Histogram MONITOR_SECONDS = MetricsRegistry.histogram("pulse_monitor_server_seconds",
+            "Duration of one server monitoring pass");
+    private static final Histogram SWEEP_SECONDS = MetricsRegistry.histogram("pulse_monitor_sweep_seconds",
+            "Duration of a monitorAllServers sweep");
+    private static final Counter SERVER_UP = MetricsRegistry.counter("pulse_monitor_checks_total",
+            "Server monitoring results", "result", "up");
+    private static final Counter SERVER_DOWN = MetricsRegistry.counter("pulse_monitor_checks_total",
+            "Server monitoring results", "result", "down");
+    private static final Counter MONITOR_ERRORS = MetricsRegistry.counter("pulse_monitor_checks_total",
+            "Server monitoring results", "result", "error");
+    private static final AtomicLong lastSweepEpochMs = new AtomicLong();
+    private static final boolean BATCH_ENABLED = EnvUtil.getBoolean("MCP_BATCH_ENABLED", true);
+    public static final int SWEEP_INTERVAL_SECONDS = Math.max(10, EnvUtil.getInt("MCP_MONITOR_SWEEP_SECONDS", 60));
+    // Budget for the whole cluster; each node takes an equal share of it, resized as nodes join and leave.
+    private static final int MAX_CHECKS_PER_SECOND = EnvUtil.getInt("MCP_MONITOR_MAX_CHECKS_PER_SECOND", 5);
+    private static volatile CheckBudget checkBudget = CheckBudget.forNodes(1);
+    private static final Counter CHECKS_DEFERRED = MetricsRegistry.counter("pulse_monitor_checks_deferred_total",
+            "Due server checks pushed to the next sweep by MCP_MONITOR_MAX_CHECKS_PER_SECOND");
+    // After a restart every overdue server is due at once; the first sweeps each take on one more share.
+    private static final int STARTUP_RAMP_SWEEPS = Math.max(1, EnvUtil.getInt("MCP_STARTUP_RAMP_SWEEPS", 3));
+    private static final AtomicInteger sweepsSinceStart = new AtomicInteger();
+
+    static {
+        MetricsRegistry.gauge("pulse_monitor_last_sweep_timestamp_seconds",
+                "Completion time of the last monitorAllServers sweep", () -> lastSweepEpochMs.get() / 1000.0);
+    }
     
     private final ServerService serverService;
     private final ToolService toolService;
@@ -29,27 +73,51 @@ public class MonitoringService {
     private final ToolHistoryDAO toolHistoryDAO;
     private final NotificationService notificationService;
     private final RequestLogService requestLogService;
+    private final McpTransportService transportService;
+    private final MonitorSchedule schedule;
+    private final RetryPolicy retryPolicy;
+    private final ToolProbeService probeService;
+    private final ClusterMembership cluster;
 
-    public MonitoringService() {
-        this.serverService = new ServerService();
-        this.toolService = new ToolService();
-        this.authTokenService = new AuthTokenService();
+    public MonitoringService(ServerService serverService, ToolService toolService, AuthTokenService authTokenService,
+                             NotificationService notificationService, RequestLogService requestLogService,
+                             McpTransportService transportService, ToolProbeService probeService) {
+        this.serverService = serverService;
+        this.toolService = toolService;
+        this.authTokenService = authTokenService;
         this.serverHistoryDAO = new ServerHistoryDAO();
         this.toolDAO = new ToolDAO();
         this.toolHistoryDAO = new ToolHistoryDAO();
-        this.notificationService = new NotificationService();
-        this.requestLogService = new RequestLogService();
+        this.notificationService = notificationService;
+        this.requestLogService = requestLogService;
+        this.transportService = transportService;
+        this.schedule = new MonitorSchedule();
+        this.retryPolicy = RetryPolicy.shared();
+        this.probeService = probeService;
+        this.cluster = ClusterMembership.shared();
     }
 
     public void monitorServer(Integer serverId) {
         logger.info("Starting server monitoring for server ID: {}", serverId);
-        
+        long start = System.nanoTime();
+        long startedAtMs = System.currentTimeMillis();
+        ServerCheckEvent event = new ServerCheckEvent();
+        event.begin();
+        event.serverId = serverId;
+        event.outcome = "error";
+        Integer previousServer = JfrContext.enterServer(serverId);
+        // One check is the unit of work: statements repeated across servers of a sweep are not N+1.
+        QueryScope queryScope = QueryScope.begin("monitor server " + serverId);
+        Server monitored = null;
+
         try {
             Server server = serverService.getServerByIdGlobal(serverId);
             if (server == null) {
                 logger.error("Server not found: " + serverId);
+                event.outcome = "missing";
                 return;
             }
+            monitored = server;
 
             AuthToken authToken = authTokenService.getToken(serverId);
             String accessToken = authTokenService.ensureValidAccessToken(serverId);
@@ -58,40 +126,41 @@ public class MonitoringService {
             Integer connectionTimeoutMs = server.getConnectionTimeoutMs();
             boolean autoReconnect = Boolean.TRUE.equals(server.getAutoReconnect());
 
-            HttpResult pingResult = pingAndLog(
-                    serverId,
-                    server.getServerUrl(),
-                    AuthHeaderUtil.withAuthHeaders(Map.of("Content-Type", "application/json"), headerType, accessToken),
-                    "primary",
-                    connectionTimeoutMs
-            );
-            if (!pingResult.isSuccess() && autoReconnect && pingResult.getStatusCode() == 504) {
-                try {
-                    Thread.sleep(250L);
-                } catch (InterruptedException ignored) {
-                    Thread.currentThread().interrupt();
-                }
-                pingResult = pingAndLog(
-                        serverId,
-                        server.getServerUrl(),
-                        AuthHeaderUtil.withAuthHeaders(Map.of("Content-Type", "application/json"), headerType, accessToken),
-                        "reconnect_retry",
-                        connectionTimeoutMs
-                );
+            Map<String, String> headers =
+                    AuthHeaderUtil.withAuthHeaders(Map.of("Content-Type", "application/json"), headerType, accessToken);
+            // With a live listChanged stream and no change since the last sync, a ping is all the check needs.
+            boolean toolsCurrent = McpTransportService.isToolCatalogCurrent(serverId);
+            BatchedCheck batched = BATCH_ENABLED && !toolsCurrent
+                    ? pingWithToolsListAndLog(serverId, server.getServerUrl(), headers, connectionTimeoutMs)
+                    : null;
+            HttpResult pingResult = batched != null
+                    ? batched.ping
+                    : pingAndLog(serverId, server.getServerUrl(), headers, "primary", connectionTimeoutMs);
+            if (autoReconnect) {
+                pingResult = retryPolicy.retryWhile("ping of server " + serverId, pingResult,
+                        result -> !result.isSuccess() && result.getStatusCode() == 504,
+                        () -> pingAndLog(
+                                serverId,
+                                server.getServerUrl(),
+                                AuthHeaderUtil.withAuthHeaders(Map.of("Content-Type", "application/json"), headerType, accessToken),
+                                "reconnect_retry",
+                                connectionTimeoutMs
+                        ));
             }
             if (!pingResult.isSuccess()
                     && accessToken != null
                     && !accessToken.isBlank()
-                    && shouldAttemptTokenRefresh(serverId, pingResult)) {
+                    && shouldAttemptTokenRefresh(serverId, pingResult)
+                    && retryPolicy.grant("token refresh for server " + serverId)) {
                 try {
                     String refreshedToken = authTokenService.refreshAccessToken(serverId);
-                    pingResult = pingAndLog(
+                    pingResult = retryPolicy.asRetry(() -> pingAndLog(
                             serverId,
                             server.getServerUrl(),
                             AuthHeaderUtil.withAuthHeaders(Map.of("Content-Type", "application/json"), headerType, refreshedToken),
                             "after_refresh",
                             connectionTimeoutMs
-                    );
+                    ));
                 } catch (Exception ignored) {
                     // keep original ping failure
                 }
@@ -102,14 +171,20 @@ public class MonitoringService {
             int toolCount = 0;
             
             if (serverUp) {
-                // Fetch and update tools
-                List<Tool> tools = toolService.fetchAndUpdateTools(
-                        serverId, 
-                        server.getServerUrl(), 
-                        accessToken,
-                        headerType,
-                        connectionTimeoutMs
-                );
+                // Fetch and update tools (continuing from the first page if it came back in the ping batch);
+                // a batched tools/list that failed leaves the stored catalog as it is until the next check.
+                boolean keepCatalog = toolsCurrent && McpTransportService.isToolCatalogCurrent(serverId)
+                        || batched != null && batched.toolsListFailed;
+                List<Tool> tools = keepCatalog
+                        ? activeTools(serverId)
+                        : toolService.fetchAndUpdateTools(
+                                serverId,
+                                server.getServerUrl(),
+                                accessToken,
+                                headerType,
+                                connectionTimeoutMs,
+                                batched == null ? null : batched.toolsList
+                        );
                 toolCount = tools.size();
 
                 // Record tool history for each tool
@@ -124,6 +199,10 @@ public class MonitoringService {
             }
 
             serverHistoryDAO.insertHistory(serverId, serverUp, toolCount);
+            (serverUp ? SERVER_UP : SERVER_DOWN).inc();
+            event.up = serverUp;
+            event.toolCount = toolCount;
+            event.outcome = serverUp ? "up" : "down";
 
             if (previousStatus == null || previousStatus != serverUp) {
                 notificationService.notify(
@@ -139,6 +218,7 @@ public class MonitoringService {
             
         } catch (Exception e) {
             logger.error("Failed to monitor server ID: {}", serverId, e);
+            MONITOR_ERRORS.inc();
             serverHistoryDAO.insertHistory(serverId, false, 0);
             try {
                 Server server = serverService.getServerByIdGlobal(serverId);
@@ -153,6 +233,18 @@ public class MonitoringService {
             } catch (Exception notifyError) {
                 logger.error("Failed to create notification for monitoring exception serverId={}", serverId, notifyError);
             }
+        } finally {
+            if (monitored != null) {
+                try {
+                    schedule.recordCheck(monitored, startedAtMs);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to reschedule server ID: {}", serverId, e);
+                }
+            }
+            MONITOR_SECONDS.observeSince(start);
+            queryScope.close();
+            JfrContext.restoreServer(previousServer);
+            event.commit();
         }
     }
 
@@ -162,15 +254,21 @@ public class MonitoringService {
             logger.warn("Skipping monitoring because server {} was not found", serverId);
             return false;
         }
-        if (!force && !shouldMonitorNow(server)) {
-            int intervalMinutes = Math.max(1, server.getMonitorIntervalMinutes() == null ? 30 : server.getMonitorIntervalMinutes());
-            logger.info("Skipping monitor for server {} because configured interval ({} minutes) has not elapsed", serverId, intervalMinutes);
+        if (!force && !schedule.isDue(server, System.currentTimeMillis())) {
+            logger.info("Skipping monitor for server {} because its interval ({} seconds) has not elapsed",
+                    serverId, MonitorSchedule.effectiveIntervalSeconds(server));
             return false;
         }
         monitorServer(serverId);
         return true;
     }
 
+    private List<Tool> activeTools(Integer serverId) {
+        return toolDAO.getToolsByServer(serverId).stream()
+                .filter(tool -> Boolean.TRUE.equals(tool.getIsAvailability()))
+                .collect(Collectors.toList());
+    }
+
     private boolean shouldAttemptTokenRefresh(Integer serverId, HttpResult pingResult) {
         if (pingResult == null) {
             return false;
@@ -188,23 +286,98 @@ public class MonitoringService {
     public void monitorAllServers() {
         logger.info("Starting monitoring for all servers");
         
-        List<Server> servers = serverService.getAllServersGlobal();
-        logger.info("Found {} servers to monitor", servers.size());
-        
+        long start = System.nanoTime();
+        MonitoringCycleEvent cycle = new MonitoringCycleEvent();
+        cycle.begin();
+        // With several instances each one only checks the servers it holds a lease on.
+        List<Server> servers = cluster.claimServers(serverService.getAllServersGlobal());
+        logger.info("Found {} servers to monitor on node {}", servers.size(), cluster.getNodeId());
+        cycle.servers = servers.size();
+        CheckBudget budget = resizeCheckBudget();
+
+        // Most overdue first, so servers left over when the check budget runs out are the least late.
+        long now = System.currentTimeMillis();
+        int sweep = sweepsSinceStart.incrementAndGet();
+        Map<Server, Double> overdue = new IdentityHashMap<>();
         for (Server server : servers) {
+            if (!inStartupRamp(server.getServerId(), sweep, STARTUP_RAMP_SWEEPS)) {
+                continue;
+            }
             try {
-                if (!shouldMonitorNow(server)) {
-                    continue;
+                double ratio = schedule.overdueRatio(server, now);
+                if (ratio >= 1.0) {
+                    overdue.put(server, ratio);
                 }
+            } catch (Exception e) {
+                logger.error("Failed to schedule server ID: {}", server.getServerId(), e);
+            }
+        }
+        List<Server> due = new ArrayList<>(overdue.keySet());
+        due.sort(Comparator.comparing(overdue::get, Comparator.reverseOrder()));
+
+        long sweepDeadline = now + TimeUnit.SECONDS.toMillis(SWEEP_INTERVAL_SECONDS);
+        for (int i = 0; i < due.size(); i++) {
+            Server server = due.get(i);
+            if (!awaitCheckBudget(budget, sweepDeadline)) {
+                int deferred = due.size() - i;
+                CHECKS_DEFERRED.add(deferred);
+                logger.warn("Check budget of {}/s exhausted; deferring {} due servers to the next sweep",
+                        budget.perSecond(), deferred);
+                break;
+            }
+            try {
+                cycle.checked++;
                 monitorServer(server.getServerId());
             } catch (Exception e) {
                 logger.error("Failed to monitor server ID: {}", server.getServerId(), e);
             }
         }
+
+        if (ToolProbeService.ENABLED) {
+            Set<Integer> owned = new HashSet<>();
+            servers.forEach(server -> owned.add(server.getServerId()));
+            runDueProbes(budget, sweepDeadline, owned);
+        }
         
+        cycle.commit();
+        SWEEP_SECONDS.observeSince(start);
+        lastSweepEpochMs.set(System.currentTimeMillis());
         logger.info("Completed monitoring for all servers");
     }
 
+    /**
+     * Whether {@code serverId} takes part in the {@code sweep}th sweep since startup: the first sweep looks at
+     * one of {@code rampSweeps} shares of the servers, the next at two, and from sweep {@code rampSweeps} on
+     * at all of them. Deferred servers simply stay due.
+     */
+    static boolean inStartupRamp(int serverId, int sweep, int rampSweeps) {
+        return sweep >= rampSweeps || Math.floorMod(serverId, rampSweeps) < sweep;
+    }
+
+    /**
+     * Synthetic tool probes share the server check budget; probes left over stay due for the next sweep. Only
+     * probes of servers this node owns are run.
+     */
+    private void runDueProbes(CheckBudget budget, long sweepDeadline, Set<Integer> ownedServers) {
+        List<ToolProbe> due = probeService.getDueProbes(ownedServers);
+        for (int i = 0; i < due.size(); i++) {
+            ToolProbe probe = due.get(i);
+            if (!awaitCheckBudget(budget, sweepDeadline)) {
+                logger.warn("Check budget of {}/s exhausted; deferring {} due tool probes to the next sweep",
+                        budget.perSecond(), due.size() - i);
+                break;
+            }
+            Integer previousServer = JfrContext.enterServer(probe.getServerId());
+            try {
+                probeService.runProbe(probe);
+            } catch (Exception e) {
+                logger.error("Failed to run probe ID: {}", probe.getProbeId(), e);
+            } finally {
+                JfrContext.restoreServer(previousServer);
+            }
+        }
+    }
+
     public void checkToolAvailability(Integer serverId) {
         logger.info("Checking tool availability for server ID: {}", serverId);
         
@@ -232,16 +405,85 @@ public class MonitoringService {
         requestPayload.addProperty("source", "monitoring");
         requestPayload.addProperty("stage", stage);
 
-        long start = System.currentTimeMillis();
-        HttpResult result = HttpClientUtil.canPingServer(serverUrl, headers, requestPayload.toString(), timeoutMs);
-        long latency = Math.max(0L, System.currentTimeMillis() - start);
+        long start = System.nanoTime();
+        HttpResult result = transportService.ping(serverId, serverUrl, headers, requestPayload.toString(), timeoutMs);
+        recordMonitorLog(serverId, "__MONITOR_PING__", requestPayload, result, start);
+        return result;
+    }
+
+    private static final class BatchedCheck {
+        private final HttpResult ping;
+        private final JsonObject toolsList;
+        private final boolean toolsListFailed;
+
+        private BatchedCheck(HttpResult ping, JsonObject toolsList, boolean toolsListFailed) {
+            this.ping = ping;
+            this.toolsList = toolsList;
+            this.toolsListFailed = toolsListFailed;
+        }
+    }
+
+    /**
+     * Sends ping and tools/list as one JSON-RPC batch. Returns null when the server does not accept batches,
+     * in which case the caller falls back to separate requests. A failed batch comes back as a failed ping
+     * without a tools list; a tools/list answered with a JSON-RPC error is logged as failed and flagged, so the
+     * stored catalog is left alone.
+     */
+    private BatchedCheck pingWithToolsListAndLog(Integer serverId, String serverUrl, Map<String, String> headers,
+                                                 Integer timeoutMs) {
+        JsonObject pingPayload = JsonUtil.createMCPRequest("ping", Map.of());
+        pingPayload.addProperty("mcpServerUrl", serverUrl);
+        pingPayload.addProperty("source", "monitoring");
+        pingPayload.addProperty("stage", "primary");
+        JsonObject toolsPayload = JsonUtil.createMCPRequest("tools/list", Map.of());
+
+        long start = System.nanoTime();
+        List<JsonObject> responses = null;
+        HttpResult result;
+        try {
+            responses = transportService.sendBatch(serverId, serverUrl, headers, List.of(pingPayload, toolsPayload), timeoutMs);
+            if (responses == null) {
+                return null;
+            }
+            result = new HttpResult(true, 200, responses.get(0).toString(), null);
+        } catch (HttpClientUtil.HttpTimeoutException e) {
+            result = new HttpResult(false, 504, null, e.getMessage());
+        } catch (CircuitBreaker.CircuitOpenException e) {
+            result = new HttpResult(false, 503, null, e.getMessage());
+        } catch (RuntimeException e) {
+            result = new HttpResult(false, 400, null, e.getMessage());
+        }
+        result.setTimings(HttpClientUtil.lastTimings());
+        recordMonitorLog(serverId, "__MONITOR_PING__", pingPayload, result, start);
+        if (responses == null) {
+            return new BatchedCheck(result, null, false);
+        }
+
+        JsonObject toolsList = responses.get(1);
+        String toolsError = toolService.extractMcpErrorMessage(toolsList);
+        toolsPayload.addProperty("mcpServerUrl", serverUrl);
+        HttpResult toolsResult = toolsError == null
+                ? new HttpResult(true, 200, toolsList.toString(), null)
+                : new HttpResult(false, 502, toolsList.toString(), toolsError);
+        toolsResult.setTimings(result.getTimings());
+        recordMonitorLog(serverId, "tools/list", toolsPayload, toolsResult, start);
+        if (toolsError != null) {
+            logger.warn("Batched tools/list failed for server {}: {}", serverId, toolsError);
+            return new BatchedCheck(result, null, true);
+        }
+        return new BatchedCheck(result, toolsList, false);
+    }
+
+    private void recordMonitorLog(Integer serverId, String method, JsonObject requestPayload, HttpResult result,
+                                  long startNanos) {
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
         int statusCode = result.getStatusCode() > 0 ? result.getStatusCode() : (result.isSuccess() ? 200 : 502);
 
         requestLogService.record(
                 requestLogService.buildRequestLog(
                         serverId,
                         null,
-                        "__MONITOR_PING__",
+                        method,
                         "POST",
                         statusCode,
                         result.isSuccess() ? "OK" : "ERR",
@@ -249,10 +491,10 @@ public class MonitoringService {
                         requestPayload,
                         parseOrWrapJson(result.getResponseBody(), result.getErrorMessage()),
                         result.isSuccess() ? null : result.getErrorMessage(),
-                        "Pulse24x7-Monitor"
+                        "Pulse24x7-Monitor",
+                        result.getTimings()
                 )
         );
-        return result;
     }
 
     private JsonObject parseOrWrapJson(String body, String errorMessage) {
@@ -275,14 +517,32 @@ public class MonitoringService {
         }
     }
 
-    private boolean shouldMonitorNow(Server server) {
-        int intervalMinutes = Math.max(1, server.getMonitorIntervalMinutes() == null ? 30 : server.getMonitorIntervalMinutes());
-        com.tradeshow.pulse24x7.mcp.model.ServerHistory lastHistory = serverHistoryDAO.getLastHistory(server.getServerId());
-        if (lastHistory == null || lastHistory.getCheckedAt() == null) {
-            return true;
+    private CheckBudget resizeCheckBudget() {
+        int nodes = cluster.getLiveNodeCount();
+        CheckBudget budget = checkBudget;
+        if (budget.nodes() != nodes) {
+            budget = CheckBudget.forNodes(nodes);
+            checkBudget = budget;
+            logger.info("Check budget is {}/s on this node ({}/s across {} live nodes)", budget.perSecond(),
+                    MAX_CHECKS_PER_SECOND, nodes);
+        }
+        return budget;
+    }
+
+    private static boolean awaitCheckBudget(CheckBudget budget, long deadlineMs) {
+        try {
+            return budget.bucket().acquire(deadlineMs - System.currentTimeMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** This node's share of MCP_MONITOR_MAX_CHECKS_PER_SECOND when {@code nodes} nodes split the servers. */
+    private record CheckBudget(int nodes, double perSecond, TokenBucket bucket) {
+        static CheckBudget forNodes(int nodes) {
+            double perSecond = (double) MAX_CHECKS_PER_SECOND / nodes;
+            return new CheckBudget(nodes, perSecond, new TokenBucket(perSecond, Math.max(1.0, perSecond)));
         }
-        Timestamp lastChecked = lastHistory.getCheckedAt();
-        long elapsedMillis = System.currentTimeMillis() - lastChecked.getTime();
-        return elapsedMillis >= intervalMinutes * 60_000L;
     }
 }
@@ -1,5 +1,9 @@
 package com.tradeshow.pulse24x7.mcp.service;
 
+import com.tradeshow.pulse24x7.mcp.jfr.EmailSendEvent;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.Histogram;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
 import com.tradeshow.pulse24x7.mcp.model.Notification;
 import com.tradeshow.pulse24x7.mcp.model.NotificationRecipient;
 import com.tradeshow.pulse24x7.mcp.model.UserEmailSettings;
@@ -24,6 +28,12 @@ import java.util.Properties;
 
 public class NotificationEmailService {
     private static final Logger logger = LogManager.getLogger(NotificationEmailService.class);
+    private static final Histogram SEND_SECONDS = MetricsRegistry.histogram("pulse_email_send_seconds",
+            "SMTP send duration");
+    private static final Counter SENT = MetricsRegistry.counter("pulse_email_sends_total",
+            "Emails handed to SMTP by outcome", "outcome", "sent");
+    private static final Counter SEND_FAILED = MetricsRegistry.counter("pulse_email_sends_total",
+            "Emails handed to SMTP by outcome", "outcome", "failed");
     private static final Properties localMailConfig = loadLocalMailConfig();
     private static final DateTimeFormatter EMAIL_TIME_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z", Locale.ROOT).withZone(ZoneId.systemDefault());
@@ -389,6 +399,10 @@ public class NotificationEmailService {
     }
 
     private boolean sendHtml(String toEmail, String personalName, String subject, String htmlBody, MailboxProfile mailbox) {
+        long start = System.nanoTime();
+        EmailSendEvent event = new EmailSendEvent();
+        event.begin();
+        event.host = mailbox.host;
         try {
             Session session = Session.getInstance(mailbox.smtpProperties(), new Authenticator() {
                 @Override
@@ -402,10 +416,16 @@ public class NotificationEmailService {
             message.setSubject(subject);
             message.setContent(htmlBody, "text/html; charset=UTF-8");
             Transport.send(message);
+            SENT.inc();
+            event.success = true;
             return true;
         } catch (Exception ex) {
+            SEND_FAILED.inc();
             logger.error("Failed to send email to {}", toEmail, ex);
             return false;
+        } finally {
+            SEND_SECONDS.observeSince(start);
+            event.commit();
         }
     }
 
@@ -18,11 +18,12 @@ public class NotificationService {
     private final UserEmailSettingsService userEmailSettingsService;
     private final NotificationEmailService notificationEmailService;
 
-    public NotificationService() {
+    public NotificationService(UserEmailSettingsService userEmailSettingsService,
+                               NotificationEmailService notificationEmailService) {
         this.notificationDAO = new NotificationDAO();
         this.userDAO = new UserDAO();
-        this.userEmailSettingsService = new UserEmailSettingsService();
-        this.notificationEmailService = new NotificationEmailService();
+        this.userEmailSettingsService = userEmailSettingsService;
+        this.notificationEmailService = notificationEmailService;
     }
 
     public boolean notify(Integer serverId, String category, String severity, String title, String message) {
@@ -116,6 +117,15 @@ public class NotificationService {
         return deleted;
     }
 
+    public void sendDeletionEmails(List<Notification> notifications) {
+        if (notifications == null) {
+            return;
+        }
+        for (Notification notification : notifications) {
+            dispatchDeleteEmailIfEligible(notification);
+        }
+    }
+
     private void dispatchEmailIfEligible(Notification notification) {
         try {
             NotificationRecipient recipient = resolveRecipient(notification);
@@ -0,0 +1,135 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.dao.PartitionDAO;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class PartitionMaintenanceService {
+    private static final Logger logger = LogManager.getLogger(PartitionMaintenanceService.class);
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    private static final int MAX_NEW_PARTITIONS = 120;
+
+    private final PartitionDAO partitionDAO;
+    private final boolean daily;
+    private final int periodsAhead;
+    private final int payloadChunkSize;
+
+    public PartitionMaintenanceService() {
+        this.partitionDAO = new PartitionDAO();
+        this.daily = "DAILY".equals(EnvUtil.getString("MCP_PARTITION_GRANULARITY", "MONTHLY").toUpperCase(Locale.ROOT));
+        this.periodsAhead = Math.max(1, EnvUtil.getInt("MCP_PARTITION_PERIODS_AHEAD", daily ? 7 : 3));
+        this.payloadChunkSize = Math.max(100, EnvUtil.getInt("MCP_RETENTION_CHUNK_SIZE", 500));
+    }
+
+    public Map<String, Object> runMaintenance() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("request_logs", maintain("request_logs",
+                EnvUtil.getInt("MCP_RETENTION_REQUEST_LOG_DAYS", 90)));
+        report.put("server_history", maintain("server_history",
+                EnvUtil.getInt("MCP_PARTITION_SERVER_HISTORY_DAYS", 365)));
+        logger.info("Partition maintenance finished: {}", report);
+        return report;
+    }
+
+    private Map<String, Object> maintain(String table, int retentionDays) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Map<String, LocalDateTime> partitions = partitionDAO.getPartitions(table);
+        result.put("partitioned", !partitions.isEmpty());
+        if (partitions.isEmpty()) {
+            return result;
+        }
+        if (!partitions.containsKey("pmax")) {
+            logger.warn("Table {} has no pmax partition; skipping partition maintenance", table);
+            result.put("error", "pmax partition missing");
+            return result;
+        }
+
+        LocalDate cutoff = LocalDate.now().minusDays(Math.max(1, retentionDays));
+        Map<String, LocalDateTime> added = planFuturePartitions(partitions, cutoff);
+        boolean addedOk = partitionDAO.addPartitions(table, added);
+        result.put("added", addedOk ? new ArrayList<>(added.keySet()) : List.of());
+
+        List<String> expired = new ArrayList<>();
+        for (Map.Entry<String, LocalDateTime> entry : partitions.entrySet()) {
+            LocalDateTime bound = entry.getValue();
+            if (bound != null && !bound.isAfter(cutoff.atStartOfDay())) {
+                expired.add(entry.getKey());
+            }
+        }
+        if (!expired.isEmpty() && "request_logs".equals(table)) {
+            // request_log_payloads is not partitioned; clear payloads of the dropped range first.
+            if (!purgePayloadsFor(table, expired)) {
+                result.put("dropped", List.of());
+                result.put("error", "payload purge failed");
+                return result;
+            }
+        }
+        boolean droppedOk = partitionDAO.dropPartitions(table, expired);
+        result.put("dropped", droppedOk ? expired : List.of());
+        return result;
+    }
+
+    private Map<String, LocalDateTime> planFuturePartitions(Map<String, LocalDateTime> partitions, LocalDate cutoff) {
+        LocalDate lastBound = null;
+        for (LocalDateTime bound : partitions.values()) {
+            if (bound != null && (lastBound == null || bound.toLocalDate().isAfter(lastBound))) {
+                lastBound = bound.toLocalDate();
+            }
+        }
+        LocalDate cursor = periodStart(cutoff);
+        if (lastBound != null && lastBound.isAfter(cursor)) {
+            cursor = lastBound;
+        }
+        LocalDate target = nextPeriod(periodStart(LocalDate.now()), periodsAhead + 1);
+
+        Map<String, LocalDateTime> planned = new LinkedHashMap<>();
+        while (cursor.isBefore(target) && planned.size() < MAX_NEW_PARTITIONS) {
+            LocalDate next = nextPeriod(periodStart(cursor), 1);
+            planned.put(cursor.format(PARTITION_NAME), next.atStartOfDay());
+            cursor = next;
+        }
+        return planned;
+    }
+
+    private boolean purgePayloadsFor(String table, List<String> partitionNames) {
+        long maxId = -1L;
+        for (String partition : partitionNames) {
+            Long partitionMax = partitionDAO.getMaxIdInPartition(table, partition);
+            if (partitionMax != null) {
+                maxId = Math.max(maxId, partitionMax);
+            }
+        }
+        if (maxId < 0) {
+            return true;
+        }
+        try {
+            int deleted;
+            do {
+                deleted = partitionDAO.deleteRequestLogPayloadsUpTo(maxId, payloadChunkSize);
+            } while (deleted >= payloadChunkSize && !Thread.currentThread().isInterrupted());
+            return true;
+        } catch (SQLException e) {
+            logger.error("Failed to purge payloads up to request_log_id={}", maxId, e);
+            return false;
+        }
+    }
+
+    private LocalDate periodStart(LocalDate date) {
+        return daily ? date : date.withDayOfMonth(1);
+    }
+
+    private LocalDate nextPeriod(LocalDate start, int periods) {
+        return daily ? start.plusDays(periods) : start.plusMonths(periods);
+    }
+}
@@ -2,6 +2,7 @@ package com.tradeshow.pulse24x7.mcp.service;
 
 import com.google.gson.JsonObject;
 import com.tradeshow.pulse24x7.mcp.dao.RequestLogDAO;
+import com.tradeshow.pulse24x7.mcp.model.HttpTimings;
 import com.tradeshow.pulse24x7.mcp.model.RequestLog;
 
 import java.time.LocalDateTime;
@@ -22,6 +23,10 @@ public class RequestLogService {
         requestLogDAO.insert(requestLog);
     }
 
+    public void recordAll(List<RequestLog> requestLogs) {
+        requestLogDAO.insertBatch(requestLogs);
+    }
+
     public List<RequestLog> getLogs(Integer serverId, String search, String status, String tool,
                                     int hours, int limit, int offset) {
         Integer statusMin = null;
@@ -109,4 +114,21 @@ public class RequestLogService {
         requestLog.setUserAgent(userAgent);
         return requestLog;
     }
+
+    public RequestLog buildRequestLog(Integer serverId, Integer toolId, String toolName, String method,
+                                      int statusCode, String statusText, long latencyMs,
+                                      JsonObject requestPayload, JsonObject responseBody,
+                                      String errorMessage, String userAgent, HttpTimings timings) {
+        RequestLog requestLog = buildRequestLog(serverId, toolId, toolName, method, statusCode, statusText, latencyMs,
+                requestPayload, responseBody, errorMessage, userAgent);
+        if (timings != null) {
+            requestLog.setLeaseWaitUs(timings.getLeaseWaitUs());
+            requestLog.setDnsUs(timings.getDnsUs());
+            requestLog.setConnectUs(timings.getConnectUs());
+            requestLog.setTlsUs(timings.getTlsUs());
+            requestLog.setTtfbUs(timings.getTtfbUs());
+            requestLog.setBodyReadUs(timings.getBodyReadUs());
+        }
+        return requestLog;
+    }
 }
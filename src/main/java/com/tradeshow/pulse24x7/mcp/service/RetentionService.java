@@ -0,0 +1,347 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.tradeshow.pulse24x7.mcp.dao.RetentionDAO;
+import com.tradeshow.pulse24x7.mcp.model.RetentionPolicy;
+import com.tradeshow.pulse24x7.mcp.utils.ArchiveSegmentUtil;
+import com.tradeshow.pulse24x7.mcp.utils.DBQueries;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class RetentionService {
+    private static final Logger logger = LogManager.getLogger(RetentionService.class);
+    private static final String RETENTION_AT = "retention_at";
+    private static final Pattern COLUMN_NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    private final RetentionDAO retentionDAO;
+    private final List<RetentionPolicy> policies;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final int maxChunksPerPolicy;
+    private final Path archiveDir;
+
+    public RetentionService() {
+        this.retentionDAO = new RetentionDAO();
+        this.policies = defaultPolicies();
+        this.chunkSize = Math.max(50, Math.min(EnvUtil.getInt("MCP_RETENTION_CHUNK_SIZE", 500), 5000));
+        this.pauseMs = Math.max(0L, EnvUtil.getLong("MCP_RETENTION_PAUSE_MS", 200L));
+        this.maxChunksPerPolicy = Math.max(1, EnvUtil.getInt("MCP_RETENTION_MAX_CHUNKS", 2000));
+        String dir = EnvUtil.getString("MCP_RETENTION_ARCHIVE_DIR", null);
+        this.archiveDir = dir == null ? null : Paths.get(dir);
+    }
+
+    public Map<String, Object> runRetention() {
+        long start = System.currentTimeMillis();
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (RetentionPolicy policy : policies) {
+            if (policy.getRetentionDays() <= 0) {
+                continue;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                logger.warn("Retention run interrupted before {}", policy.getTable());
+                break;
+            }
+            report.put(policy.getTable(), applyPolicy(policy));
+        }
+        report.put("durationMs", System.currentTimeMillis() - start);
+        logger.info("Retention run finished: {}", report);
+        return report;
+    }
+
+    public List<RetentionPolicy> getPolicies() {
+        return policies;
+    }
+
+    private Map<String, Object> applyPolicy(RetentionPolicy policy) {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(policy.getRetentionDays(), ChronoUnit.DAYS));
+        Map<String, List<Object>> lastKeptState = new HashMap<>();
+        // Compaction keeps rows, so it resumes after the last ID an earlier run finished with instead of
+        // re-reading the compacted prefix; DELETE removes its prefix and simply starts from the beginning.
+        boolean compact = policy.getMode() == RetentionPolicy.Mode.COMPACT;
+        long watermark = 0L;
+        long cursor = 0L;
+        long scanned = 0L;
+        long deleted = 0L;
+        long archived = 0L;
+        int chunks = 0;
+        String error = null;
+
+        try {
+            if (compact) {
+                watermark = retentionDAO.getWatermark(policy.getTable());
+                cursor = watermark;
+            }
+            while (chunks < maxChunksPerPolicy) {
+                List<Map<String, Object>> rows = retentionDAO.selectChunk(policy.getSelectChunkSql(), cursor, chunkSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                chunks++;
+                if (compact && watermark > 0) {
+                    seedKeptState(policy, watermark, rows, lastKeptState);
+                }
+
+                List<Map<String, Object>> expired = new ArrayList<>();
+                boolean reachedCutoff = false;
+                for (Map<String, Object> row : rows) {
+                    Timestamp rowTime = toTimestamp(row.get(RETENTION_AT));
+                    if (rowTime == null || !rowTime.before(cutoff)) {
+                        // ids grow with insertion time, so the first row past the cutoff ends the scan
+                        reachedCutoff = true;
+                        break;
+                    }
+                    scanned++;
+                    cursor = toLong(row.get(policy.getIdColumn()));
+                    if (policy.getMode() == RetentionPolicy.Mode.DELETE || isRedundantState(policy, row, lastKeptState)) {
+                        row.remove(RETENTION_AT);
+                        expired.add(row);
+                    }
+                }
+
+                if (!expired.isEmpty()) {
+                    List<Long> ids = expired.stream()
+                            .map(row -> toLong(row.get(policy.getIdColumn())))
+                            .collect(Collectors.toList());
+                    if (archiveDir != null) {
+                        ArchiveSegmentUtil.writeSegment(archiveDir, policy.getTable(), ids.get(0), ids.get(ids.size() - 1), expired);
+                        archived += expired.size();
+                    }
+                    if (policy.getDependentDeleteSql() != null) {
+                        retentionDAO.deleteByIds(policy.getDependentDeleteSql(), ids);
+                    }
+                    deleted += retentionDAO.deleteByIds(policy.getDeleteSql(), ids);
+                }
+                if (compact && cursor > 0) {
+                    retentionDAO.saveWatermark(policy.getTable(), cursor);
+                }
+
+                if (reachedCutoff || rows.size() < chunkSize) {
+                    break;
+                }
+                if (!pause()) {
+                    break;
+                }
+            }
+        } catch (SQLException | IOException e) {
+            logger.error("Retention aborted for {} after {} chunks", policy.getTable(), chunks, e);
+            error = e.getMessage();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", policy.getMode().name());
+        result.put("retentionDays", policy.getRetentionDays());
+        result.put("scanned", scanned);
+        result.put("deleted", deleted);
+        result.put("archived", archived);
+        result.put("chunks", chunks);
+        if (compact) {
+            result.put("resumedAfterId", watermark);
+            result.put("compactedThroughId", cursor);
+        }
+        if (error != null) {
+            result.put("error", error);
+        }
+        return result;
+    }
+
+    private boolean isRedundantState(RetentionPolicy policy, Map<String, Object> row,
+                                     Map<String, List<Object>> lastKeptState) {
+        String key = compactKey(policy, row);
+        List<Object> state = compactState(policy, row);
+        List<Object> previous = lastKeptState.get(key);
+        if (previous != null && Objects.equals(previous, state)) {
+            return true;
+        }
+        lastKeptState.put(key, state);
+        return false;
+    }
+
+    /**
+     * Loads, for keys in {@code rows} not seen yet this run, the state kept at or below the watermark, so the
+     * first row after it is compared against what survived the earlier run instead of always being kept.
+     */
+    private void seedKeptState(RetentionPolicy policy, long watermark, List<Map<String, Object>> rows,
+                               Map<String, List<Object>> lastKeptState) throws SQLException {
+        if (policy.getCompactSeedSql() == null || policy.getCompactKeyColumns().length != 1) {
+            return;
+        }
+        String keyColumn = policy.getCompactKeyColumns()[0];
+        Map<String, Object> unseen = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            String key = compactKey(policy, row);
+            if (!lastKeptState.containsKey(key)) {
+                unseen.putIfAbsent(key, row.get(keyColumn));
+            }
+        }
+        if (unseen.isEmpty()) {
+            return;
+        }
+        for (Map<String, Object> seed : retentionDAO.selectSeedRows(policy.getCompactSeedSql(), watermark,
+                new ArrayList<>(unseen.values()))) {
+            lastKeptState.put(compactKey(policy, seed), compactState(policy, seed));
+        }
+    }
+
+    private String compactKey(RetentionPolicy policy, Map<String, Object> row) {
+        return Arrays.stream(policy.getCompactKeyColumns())
+                .map(column -> String.valueOf(row.get(column)))
+                .collect(Collectors.joining("|"));
+    }
+
+    private List<Object> compactState(RetentionPolicy policy, Map<String, Object> row) {
+        return Arrays.stream(policy.getCompactStateColumns())
+                .map(row::get)
+                .collect(Collectors.toList());
+    }
+
+    public int importSegment(Path segment) throws IOException {
+        String table = resolveTable(segment);
+        List<JsonObject> rows = ArchiveSegmentUtil.readSegment(segment);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        for (String column : columns) {
+            if (!COLUMN_NAME.matcher(column).matches()) {
+                throw new IOException("Invalid column in archive segment: " + column);
+            }
+        }
+
+        int inserted = 0;
+        List<List<Object>> batch = new ArrayList<>();
+        for (JsonObject row : rows) {
+            List<Object> values = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                values.add(toJdbcValue(row.get(column)));
+            }
+            batch.add(values);
+            if (batch.size() >= chunkSize) {
+                inserted += retentionDAO.insertIgnore(table, columns, batch);
+                batch = new ArrayList<>();
+            }
+        }
+        inserted += retentionDAO.insertIgnore(table, columns, batch);
+        logger.info("Re-imported {} of {} rows from {}", inserted, rows.size(), segment);
+        return inserted;
+    }
+
+    private String resolveTable(Path segment) throws IOException {
+        String fileName = segment.getFileName().toString();
+        for (RetentionPolicy policy : policies) {
+            if (fileName.startsWith(policy.getTable() + "-") && fileName.endsWith(ArchiveSegmentUtil.SEGMENT_SUFFIX)) {
+                return policy.getTable();
+            }
+        }
+        throw new IOException("Not a retention archive segment: " + fileName);
+    }
+
+    private Object toJdbcValue(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                return primitive.getAsBoolean();
+            }
+            if (primitive.isNumber()) {
+                return primitive.getAsBigDecimal();
+            }
+            return primitive.getAsString();
+        }
+        return element.toString();
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Timestamp toTimestamp(Object value) {
+        if (value instanceof Timestamp ts) {
+            return ts;
+        }
+        if (value instanceof java.time.LocalDateTime ldt) {
+            return Timestamp.valueOf(ldt);
+        }
+        return null;
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    private static List<RetentionPolicy> defaultPolicies() {
+        List<RetentionPolicy> list = new ArrayList<>();
+        list.add(new RetentionPolicy("request_log_payloads", "request_log_id",
+                DBQueries.SELECT_RETENTION_CHUNK_REQUEST_LOG_PAYLOADS, DBQueries.DELETE_RETENTION_REQUEST_LOG_PAYLOADS,
+                EnvUtil.getInt("MCP_RETENTION_PAYLOAD_DAYS", 7), RetentionPolicy.Mode.DELETE, null, null));
+        RetentionPolicy requestLogs = new RetentionPolicy("request_logs", "id",
+                DBQueries.SELECT_RETENTION_CHUNK_REQUEST_LOGS, DBQueries.DELETE_RETENTION_REQUEST_LOGS,
+                EnvUtil.getInt("MCP_RETENTION_REQUEST_LOG_DAYS", 90), RetentionPolicy.Mode.DELETE, null, null);
+        // partitioned request_logs has no FK cascade to its payloads
+        requestLogs.setDependentDeleteSql(DBQueries.DELETE_RETENTION_REQUEST_LOG_PAYLOADS);
+        list.add(requestLogs);
+        RetentionPolicy serverHistory = new RetentionPolicy("server_history", "id",
+                DBQueries.SELECT_RETENTION_CHUNK_SERVER_HISTORY, DBQueries.DELETE_RETENTION_SERVER_HISTORY,
+                EnvUtil.getInt("MCP_RETENTION_HISTORY_COMPACT_DAYS", 30), RetentionPolicy.Mode.COMPACT,
+                new String[]{"server_id"}, new String[]{"server_up", "tool_count"});
+        serverHistory.setCompactSeedSql(DBQueries.SELECT_RETENTION_SEED_SERVER_HISTORY);
+        list.add(serverHistory);
+        RetentionPolicy toolsHistory = new RetentionPolicy("tools_history", "id",
+                DBQueries.SELECT_RETENTION_CHUNK_TOOLS_HISTORY, DBQueries.DELETE_RETENTION_TOOLS_HISTORY,
+                EnvUtil.getInt("MCP_RETENTION_HISTORY_COMPACT_DAYS", 30), RetentionPolicy.Mode.COMPACT,
+                new String[]{"tool_id"}, new String[]{"is_available"});
+        toolsHistory.setCompactSeedSql(DBQueries.SELECT_RETENTION_SEED_TOOLS_HISTORY);
+        list.add(toolsHistory);
+        list.add(new RetentionPolicy("notifications", "id",
+                DBQueries.SELECT_RETENTION_CHUNK_NOTIFICATIONS, DBQueries.DELETE_RETENTION_NOTIFICATIONS,
+                EnvUtil.getInt("MCP_RETENTION_NOTIFICATION_DAYS", 90), RetentionPolicy.Mode.DELETE, null, null));
+        return list;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: RetentionService <segment.ndjson.gz>...");
+            System.exit(1);
+        }
+        RetentionService service = new RetentionService();
+        for (String arg : args) {
+            Path segment = Paths.get(arg);
+            if (!Files.isRegularFile(segment)) {
+                System.err.println("Skipping missing segment " + segment);
+                continue;
+            }
+            System.out.println(segment + ": " + service.importSegment(segment) + " rows re-imported");
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.jfr.JfrContext;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import com.tradeshow.pulse24x7.mcp.utils.TokenBucket;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Retry rules shared by every MCP call site. Retries draw on a fleet-wide budget: each first attempt made
+ * through {@link McpTransportService} deposits MCP_RETRY_BUDGET_PERCENT of a retry, each retry withdraws a
+ * whole one, and MCP_RETRY_MIN_PER_SECOND retries are always allowed on top so a quiet fleet can still
+ * retry. During a partial outage retries therefore stay a fixed share of normal traffic instead of
+ * multiplying it. Waits between retries use exponential backoff with full jitter.
+ * <p>
+ * With MCP_HEDGE_PINGS enabled, {@link #hedge} sends a second attempt once the first has been outstanding
+ * for the URL's recent p95 latency and returns whichever answers first. Hedges are paid from the same budget.
+ */
+public final class RetryPolicy {
+    private static final Logger logger = LogManager.getLogger(RetryPolicy.class);
+    private static final int LATENCY_WINDOW = 64;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final long ONE_RETRY = 1000L;
+    private static final Counter GRANTED = MetricsRegistry.counter("pulse_mcp_retries_total",
+            "MCP retries and hedges by budget decision", "outcome", "granted");
+    private static final Counter DENIED = MetricsRegistry.counter("pulse_mcp_retries_total",
+            "MCP retries and hedges by budget decision", "outcome", "denied");
+    private static final Counter HEDGES_SENT = MetricsRegistry.counter("pulse_mcp_hedges_total",
+            "Hedged MCP pings", "outcome", "sent");
+    private static final Counter HEDGES_WON = MetricsRegistry.counter("pulse_mcp_hedges_total",
+            "Hedged MCP pings", "outcome", "won");
+    private static final ThreadLocal<Boolean> RETRYING = new ThreadLocal<>();
+    // Both attempts of a hedged call run here so the caller can wait on whichever finishes first.
+    private static final ThreadPoolExecutor hedgers = new ThreadPoolExecutor(0,
+            Math.max(2, EnvUtil.getInt("MCP_HEDGE_THREADS", 16)), 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "mcp-hedge");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final RetryPolicy SHARED = new RetryPolicy(
+            Math.max(0, EnvUtil.getInt("MCP_RETRY_BUDGET_PERCENT", 10)) / 100.0,
+            Math.max(0, EnvUtil.getInt("MCP_RETRY_MIN_PER_SECOND", 1)),
+            Math.max(1, EnvUtil.getInt("MCP_RETRY_MAX", 2)),
+            Math.max(1L, EnvUtil.getLong("MCP_RETRY_BASE_BACKOFF_MS", 250L)),
+            Math.max(1L, EnvUtil.getLong("MCP_RETRY_MAX_BACKOFF_MS", 5_000L)),
+            EnvUtil.getBoolean("MCP_HEDGE_PINGS", false),
+            Math.max(1L, EnvUtil.getLong("MCP_HEDGE_MIN_DELAY_MS", 50L)));
+
+    static {
+        MetricsRegistry.gauge("pulse_mcp_retry_budget", "Retries currently available from the fleet-wide budget",
+                () -> (long) SHARED.balance());
+    }
+
+    // The balance is kept in thousandths of a retry so a 10% share of 100 attempts is exactly 10 retries.
+    private final long depositPerAttempt;
+    private final long maxBalance;
+    private final TokenBucket reserve;
+    private final boolean reserveEnabled;
+    private final int maxRetries;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final boolean hedging;
+    private final long hedgeMinDelayMs;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private long balance;
+
+    RetryPolicy(double budgetRatio, double minRetriesPerSecond, int maxRetries, long baseBackoffMs,
+                long maxBackoffMs, boolean hedging, long hedgeMinDelayMs) {
+        this.depositPerAttempt = Math.round(budgetRatio * ONE_RETRY);
+        // At most a hundred attempts' worth of deposits, so a quiet spell cannot bank retries for an outage.
+        this.maxBalance = Math.max(ONE_RETRY, depositPerAttempt * 100);
+        this.reserveEnabled = minRetriesPerSecond > 0;
+        this.reserve = new TokenBucket(minRetriesPerSecond, minRetriesPerSecond);
+        this.maxRetries = maxRetries;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = Math.max(baseBackoffMs, maxBackoffMs);
+        this.hedging = hedging;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+    }
+
+    public static RetryPolicy shared() {
+        return SHARED;
+    }
+
+    /** Stops the hedge threads; hedged calls made afterwards simply run on the caller's thread. */
+    public static void shutdown() {
+        hedgers.shutdownNow();
+    }
+
+    /** Counts a first attempt towards the budget; calls made inside {@link #asRetry} are not first attempts. */
+    public void recordAttempt() {
+        if (RETRYING.get() != null) {
+            return;
+        }
+        synchronized (this) {
+            balance = Math.min(maxBalance, balance + depositPerAttempt);
+        }
+    }
+
+    /** Takes one retry from the budget. A false result means the caller should give up with what it has. */
+    public boolean grant(String reason) {
+        boolean granted;
+        synchronized (this) {
+            granted = balance >= ONE_RETRY;
+            if (granted) {
+                balance -= ONE_RETRY;
+            }
+        }
+        if (!granted && reserveEnabled) {
+            granted = reserve.tryAcquire();
+        }
+        (granted ? GRANTED : DENIED).inc();
+        if (!granted) {
+            logger.debug("Retry budget exhausted; not retrying {}", reason);
+        }
+        return granted;
+    }
+
+    /** Runs a retry so the calls it makes do not count as first attempts. */
+    public <T> T asRetry(Supplier<T> attempt) {
+        Boolean previous = RETRYING.get();
+        RETRYING.set(Boolean.TRUE);
+        try {
+            return attempt.get();
+        } finally {
+            if (previous == null) {
+                RETRYING.remove();
+            }
+        }
+    }
+
+    /**
+     * Retries while {@code retryable} holds for the latest result, up to MCP_RETRY_MAX times, backing off
+     * between attempts. Stops early, returning the latest result, when the budget runs dry or the thread is
+     * interrupted.
+     */
+    public <T> T retryWhile(String reason, T result, Predicate<T> retryable, Supplier<T> attempt) {
+        T latest = result;
+        for (int retry = 1; retry <= maxRetries && retryable.test(latest); retry++) {
+            if (!grant(reason) || !backoff(retry)) {
+                break;
+            }
+            latest = asRetry(attempt);
+        }
+        return latest;
+    }
+
+    /** Sleeps a random time up to {@code base * 2^(retry-1)}, capped; false if interrupted. */
+    public boolean backoff(int retry) {
+        try {
+            Thread.sleep(backoffMs(retry));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    long backoffMs(int retry) {
+        long ceiling = baseBackoffMs << Math.min(20, Math.max(0, retry - 1));
+        return ThreadLocalRandom.current().nextLong(Math.min(maxBackoffMs, ceiling) + 1);
+    }
+
+    /**
+     * Runs a latency-sensitive call with an optional hedge. Once enough latencies are known for {@code key},
+     * a second attempt is sent if the first is still outstanding after their p95, and the first result that
+     * passes {@code accept} wins; if neither does, the first attempt's result is returned. Without hedging,
+     * or when no hedge thread is free, the call simply runs on the current thread.
+     */
+    public <T> T hedge(String key, Supplier<T> attempt, Predicate<T> accept) {
+        if (!hedging) {
+            return attempt.get();
+        }
+        LatencyWindow window = latencies.computeIfAbsent(key == null ? "" : key, ignored -> new LatencyWindow());
+        long delayMs = window.p95Ms();
+        if (delayMs < 0) {
+            return timed(window, attempt, accept).get();
+        }
+        Integer serverId = JfrContext.currentServerId() == 0 ? null : JfrContext.currentServerId();
+        CompletionService<T> race = new ExecutorCompletionService<>(hedgers);
+        Future<T> primary;
+        try {
+            primary = race.submit(() -> onServer(serverId, timed(window, attempt, accept)));
+        } catch (RejectedExecutionException e) {
+            return timed(window, attempt, accept).get();
+        }
+        try {
+            Future<T> first = race.poll(Math.max(hedgeMinDelayMs, delayMs), TimeUnit.MILLISECONDS);
+            if (first != null || !grant("hedge " + key)) {
+                return unwrap(first != null ? first : primary);
+            }
+            Future<T> hedged;
+            try {
+                hedged = race.submit(() -> onServer(serverId, () -> asRetry(timed(window, attempt, accept))));
+            } catch (RejectedExecutionException e) {
+                return unwrap(primary);
+            }
+            HEDGES_SENT.inc();
+            Future<T> winner = race.take();
+            T result = unwrap(winner);
+            if (!accept.test(result)) {
+                Future<T> other = race.take();
+                T otherResult = unwrap(other);
+                if (accept.test(otherResult)) {
+                    winner = other;
+                    result = otherResult;
+                } else {
+                    return unwrap(primary);
+                }
+            }
+            if (winner == hedged) {
+                HEDGES_WON.inc();
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return unwrap(primary);
+        }
+    }
+
+    private static <T> T onServer(Integer serverId, Supplier<T> call) {
+        Integer previous = JfrContext.enterServer(serverId);
+        try {
+            return call.get();
+        } finally {
+            JfrContext.restoreServer(previous);
+        }
+    }
+
+    private static <T> Supplier<T> timed(LatencyWindow window, Supplier<T> attempt, Predicate<T> accept) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = attempt.get();
+            if (accept.test(result)) {
+                window.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return result;
+        };
+    }
+
+    private static <T> T unwrap(Future<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    synchronized double balance() {
+        return (double) balance / ONE_RETRY;
+    }
+
+    /** Latencies of the last LATENCY_WINDOW accepted attempts for one key. */
+    private static final class LatencyWindow {
+        private final long[] samples = new long[LATENCY_WINDOW];
+        private int recorded;
+        private int next;
+
+        private synchronized void record(long latencyMs) {
+            samples[next] = latencyMs;
+            next = (next + 1) % LATENCY_WINDOW;
+            recorded = Math.min(LATENCY_WINDOW, recorded + 1);
+        }
+
+        /** p95 in milliseconds, or -1 until enough samples are known. */
+        private synchronized long p95Ms() {
+            if (recorded < MIN_LATENCY_SAMPLES) {
+                return -1L;
+            }
+            long[] sorted = Arrays.copyOf(samples, recorded);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(recorded * 0.95) - 1];
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.dao.RetentionDAO;
+import com.tradeshow.pulse24x7.mcp.dao.ServerDAO;
+import com.tradeshow.pulse24x7.mcp.model.Notification;
+import com.tradeshow.pulse24x7.mcp.model.Server;
+import com.tradeshow.pulse24x7.mcp.utils.DBQueries;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class ServerReaperService {
+    private static final Logger logger = LogManager.getLogger(ServerReaperService.class);
+    private static final long PROGRESS_TTL_MS = 60 * 60 * 1000L;
+    private static final Map<Integer, Map<String, Object>> progress = new ConcurrentHashMap<>();
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "server-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ServerDAO serverDAO;
+    private final RetentionDAO retentionDAO;
+    private final NotificationService notificationService;
+    private final int batchSize;
+    private final long pauseMs;
+
+    public ServerReaperService(NotificationService notificationService) {
+        this.serverDAO = new ServerDAO();
+        this.retentionDAO = new RetentionDAO();
+        this.notificationService = notificationService;
+        this.batchSize = Math.max(50, Math.min(EnvUtil.getInt("MCP_REAPER_BATCH_SIZE", 1000), 10000));
+        this.pauseMs = Math.max(0L, EnvUtil.getLong("MCP_REAPER_PAUSE_MS", 100L));
+    }
+
+    public Map<String, Object> submit(Integer serverId, Long userId) {
+        evictFinished();
+        Map<String, Object> state = new ConcurrentHashMap<>();
+        state.put("serverId", serverId);
+        state.put("userId", userId);
+        state.put("status", "QUEUED");
+        state.put("deleted", new ConcurrentHashMap<String, Long>());
+        state.put("queuedAt", System.currentTimeMillis());
+        Map<String, Object> existing = progress.putIfAbsent(serverId, state);
+        if (existing != null && !isFinished(existing)) {
+            return snapshot(existing);
+        }
+        if (existing != null) {
+            progress.put(serverId, state);
+        }
+        executor.submit(() -> reap(serverId, state));
+        return snapshot(state);
+    }
+
+    public void reapPending() {
+        for (Server server : serverDAO.getTombstonedServers()) {
+            Map<String, Object> state = progress.get(server.getServerId());
+            if (state == null || "FAILED".equals(state.get("status"))) {
+                submit(server.getServerId(), server.getUserId());
+            }
+        }
+    }
+
+    public Map<String, Object> getProgress(Integer serverId, Long userId) {
+        Map<String, Object> state = progress.get(serverId);
+        if (state == null || !state.get("userId").equals(userId)) {
+            return null;
+        }
+        return snapshot(state);
+    }
+
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void reap(Integer serverId, Map<String, Object> state) {
+        state.put("status", "RUNNING");
+        state.put("startedAt", System.currentTimeMillis());
+        logger.info("Reaping dependent rows of tombstoned server {}", serverId);
+        try {
+            reapRequestLogs(serverId, state);
+            reapByIds(serverId, state, "tools_history",
+                    DBQueries.SELECT_TOOLS_HISTORY_IDS_BY_SERVER, DBQueries.DELETE_RETENTION_TOOLS_HISTORY);
+            reapByServer(serverId, state, "tool_validity", DBQueries.DELETE_TOOL_VALIDITY_BY_SERVER);
+            reapByServer(serverId, state, "tools", DBQueries.DELETE_TOOLS_BY_SERVER);
+            reapByServer(serverId, state, "server_history", DBQueries.DELETE_SERVER_HISTORY_BY_SERVER);
+            reapByServer(serverId, state, "auth_token", DBQueries.DELETE_AUTH_TOKEN_BY_SERVER);
+            reapNotifications(serverId, state);
+
+            state.put("phase", "servers");
+            if (!serverDAO.deleteTombstonedServer(serverId)) {
+                throw new SQLException("Server row was not removed");
+            }
+            state.put("status", "COMPLETED");
+            logger.info("Server {} fully deleted: {}", serverId, state.get("deleted"));
+        } catch (SQLException e) {
+            state.put("status", "FAILED");
+            state.put("error", e.getMessage());
+            logger.error("Reaping server {} failed in phase {}; will retry on next sweep", serverId, state.get("phase"), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state.put("status", "FAILED");
+            state.put("error", "interrupted");
+        } finally {
+            state.put("finishedAt", System.currentTimeMillis());
+        }
+    }
+
+    private void reapRequestLogs(Integer serverId, Map<String, Object> state) throws SQLException, InterruptedException {
+        state.put("phase", "request_logs");
+        List<Long> ids;
+        do {
+            ids = serverDAO.getIdsByServer(DBQueries.SELECT_REQUEST_LOG_IDS_BY_SERVER, serverId, batchSize);
+            // partitioned request_logs has no FK cascade to its payloads
+            count(state, "request_log_payloads", retentionDAO.deleteByIds(DBQueries.DELETE_RETENTION_REQUEST_LOG_PAYLOADS, ids));
+            count(state, "request_logs", retentionDAO.deleteByIds(DBQueries.DELETE_RETENTION_REQUEST_LOGS, ids));
+            pause();
+        } while (ids.size() >= batchSize);
+    }
+
+    private void reapByIds(Integer serverId, Map<String, Object> state, String table, String selectSql, String deleteSql)
+            throws SQLException, InterruptedException {
+        state.put("phase", table);
+        List<Long> ids;
+        do {
+            ids = serverDAO.getIdsByServer(selectSql, serverId, batchSize);
+            count(state, table, retentionDAO.deleteByIds(deleteSql, ids));
+            pause();
+        } while (ids.size() >= batchSize);
+    }
+
+    private void reapByServer(Integer serverId, Map<String, Object> state, String table, String deleteSql)
+            throws SQLException, InterruptedException {
+        state.put("phase", table);
+        int deleted;
+        do {
+            deleted = serverDAO.deleteByServerId(deleteSql, serverId, batchSize);
+            count(state, table, deleted);
+            pause();
+        } while (deleted >= batchSize);
+    }
+
+    private void reapNotifications(Integer serverId, Map<String, Object> state) throws SQLException, InterruptedException {
+        state.put("phase", "notifications");
+        List<Notification> batch;
+        do {
+            batch = notificationService.getRecentByServer(serverId, batchSize, 0);
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            List<Long> ids = batch.stream().map(Notification::getId).collect(Collectors.toList());
+            int deleted = retentionDAO.deleteByIds(DBQueries.DELETE_RETENTION_NOTIFICATIONS, ids);
+            count(state, "notifications", deleted);
+            // Send deletion emails for notification rows as they are removed.
+            notificationService.sendDeletionEmails(batch);
+            pause();
+        } while (batch.size() >= batchSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void count(Map<String, Object> state, String table, int deleted) {
+        if (deleted > 0) {
+            ((Map<String, Long>) state.get("deleted")).merge(table, (long) deleted, Long::sum);
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+        if (pauseMs > 0) {
+            TimeUnit.MILLISECONDS.sleep(pauseMs);
+        }
+    }
+
+    private static boolean isFinished(Map<String, Object> state) {
+        Object status = state.get("status");
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+
+    private static void evictFinished() {
+        long now = System.currentTimeMillis();
+        progress.values().removeIf(state -> isFinished(state) && state.get("finishedAt") instanceof Long finishedAt
+                && now - finishedAt > PROGRESS_TTL_MS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> snapshot(Map<String, Object> state) {
+        Map<String, Object> copy = new LinkedHashMap<>(state);
+        copy.remove("userId");
+        copy.put("deleted", new LinkedHashMap<>((Map<String, Long>) state.get("deleted")));
+        return copy;
+    }
+}
@@ -9,21 +9,22 @@ import org.apache.logging.log4j.Logger;
 
 import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
 
 public class ServerService {
     private static final Logger logger = LogManager.getLogger(ServerService.class);
     private final ServerDAO serverDAO;
     private final ServerHistoryDAO serverHistoryDAO;
-    private final NotificationService notificationService;
+    private final ServerReaperService serverReaperService;
 
-    public ServerService() {
+    public ServerService(ServerReaperService serverReaperService) {
         this.serverDAO = new ServerDAO();
         this.serverHistoryDAO = new ServerHistoryDAO();
-        this.notificationService = new NotificationService();
+        this.serverReaperService = serverReaperService;
     }
 
     public Integer registerServer(Long userId, String serverName, String serverUrl, Integer monitorIntervalMinutes,
-                                  Integer connectionTimeoutMs, Boolean autoReconnect) {
+                                  Integer connectionTimeoutMs, Boolean autoReconnect, Boolean adaptiveInterval) {
         logger.info("Registering new server for userId={}: {} - {}", userId, serverName, serverUrl);
         if (userId == null || userId <= 0) {
             logger.error("Invalid userId: {}", userId);
@@ -53,7 +54,8 @@ public class ServerService {
             return null;
         }
 
-        return serverDAO.insertServer(userId, serverName, serverUrl, monitorIntervalMinutes, connectionTimeoutMs, autoReconnect);
+        return serverDAO.insertServer(userId, serverName, serverUrl, monitorIntervalMinutes, connectionTimeoutMs,
+                autoReconnect, adaptiveInterval);
     }
 
     public Server getServerById(Integer serverId, Long userId) {
@@ -65,7 +67,11 @@ public class ServerService {
             logger.error("Invalid userId: {}", userId);
             return null;
         }
-        return serverDAO.getServerById(serverId, userId);
+        Server server = LookupCache.server(serverId, serverDAO::getServerByIdGlobal);
+        if (server == null || !userId.equals(server.getUserId())) {
+            return null;
+        }
+        return withEffectiveInterval(server);
     }
 
     public Server getServerByIdGlobal(Integer serverId) {
@@ -73,7 +79,7 @@ public class ServerService {
             logger.error("Invalid server ID: {}", serverId);
             return null;
         }
-        return serverDAO.getServerByIdGlobal(serverId);
+        return LookupCache.server(serverId, serverDAO::getServerByIdGlobal);
     }
 
     public Server getServerByUrl(String serverUrl, Long userId) {
@@ -93,7 +99,9 @@ public class ServerService {
             logger.error("Invalid userId: {}", userId);
             return List.of();
         }
-        return serverDAO.getAllServers(userId);
+        List<Server> servers = serverDAO.getAllServers(userId);
+        servers.forEach(this::withEffectiveInterval);
+        return servers;
     }
 
     public List<Server> getAllServersGlobal() {
@@ -115,7 +123,33 @@ public class ServerService {
             return false;
         }
         
-        return serverDAO.updateServer(serverId, userId, serverName, serverUrl, monitorIntervalMinutes);
+        boolean updated = serverDAO.updateServer(serverId, userId, serverName, serverUrl, monitorIntervalMinutes);
+        if (updated) {
+            LookupCache.serverChanged(serverId);
+            McpTransportService.invalidate(serverId);
+            MonitorSchedule.forget(serverId);
+        }
+        return updated;
+    }
+
+    public boolean setAdaptiveInterval(Integer serverId, Long userId, boolean adaptiveInterval) {
+        if (serverId == null || serverId <= 0 || userId == null || userId <= 0) {
+            logger.error("Invalid parameters for adaptive interval: serverId={}, userId={}", serverId, userId);
+            return false;
+        }
+        boolean updated = serverDAO.updateAdaptiveInterval(serverId, userId, adaptiveInterval);
+        if (updated) {
+            LookupCache.serverChanged(serverId);
+            MonitorSchedule.forget(serverId);
+        }
+        return updated;
+    }
+
+    private Server withEffectiveInterval(Server server) {
+        if (server != null) {
+            server.setEffectiveIntervalSeconds(MonitorSchedule.effectiveIntervalSeconds(server));
+        }
+        return server;
     }
 
     public boolean deleteServer(Integer serverId, Long userId) {
@@ -127,9 +161,22 @@ public class ServerService {
             logger.error("Invalid userId: {}", userId);
             return false;
         }
-        // Send deletion emails for notification rows before server and dependencies are removed.
-        notificationService.clearAllByUser(userId, serverId);
-        return serverDAO.deleteServer(serverId, userId);
+        // Hide the server immediately; dependent rows are removed in batches by the reaper.
+        if (!serverDAO.markServerDeleted(serverId, userId)) {
+            return false;
+        }
+        LookupCache.serverChanged(serverId);
+        McpTransportService.invalidate(serverId);
+        MonitorSchedule.forget(serverId);
+        serverReaperService.submit(serverId, userId);
+        return true;
+    }
+
+    public Map<String, Object> getDeletionProgress(Integer serverId, Long userId) {
+        if (serverId == null || userId == null) {
+            return null;
+        }
+        return serverReaperService.getProgress(serverId, userId);
     }
 
     public boolean isServerOwnedByUser(Integer serverId, Long userId) {
@@ -0,0 +1,169 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
+import jakarta.servlet.ServletContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Application-scoped container holding the one shared instance of each service, built once at startup in
+ * dependency order. Services keep no per-request state, so servlets and scheduled jobs share them freely.
+ * <p>
+ * {@link #start()} starts the background components and the {@link StartupOrchestrator} warm-up;
+ * {@link #stop()} stops them writers first (load tests, the reaper, cluster leases) and connection and worker
+ * pools last, so nothing still running needs a pool that is already gone. Stop the scheduler before calling
+ * it so no job starts against a stopping registry.
+ */
+public final class ServiceRegistry {
+    public static final String ATTRIBUTE = ServiceRegistry.class.getName();
+    private static final Logger logger = LogManager.getLogger(ServiceRegistry.class);
+
+    private final NotificationEmailService notificationEmailService;
+    private final UserAuthService userAuthService;
+    private final UserEmailSettingsService userEmailSettingsService;
+    private final NotificationService notificationService;
+    private final RequestLogService requestLogService;
+    private final AuthTokenService authTokenService;
+    private final McpTransportService transportService;
+    private final ServerReaperService serverReaperService;
+    private final ServerService serverService;
+    private final ToolService toolService;
+    private final ToolProbeService toolProbeService;
+    private final ToolLoadTestService toolLoadTestService;
+    private final MonitoringService monitoringService;
+    private final RetentionService retentionService;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final StartupOrchestrator startupOrchestrator;
+    private boolean started;
+
+    public ServiceRegistry() {
+        notificationEmailService = new NotificationEmailService();
+        userAuthService = new UserAuthService(notificationEmailService);
+        userEmailSettingsService = new UserEmailSettingsService(userAuthService);
+        notificationService = new NotificationService(userEmailSettingsService, notificationEmailService);
+        requestLogService = new RequestLogService();
+        authTokenService = new AuthTokenService(requestLogService);
+        transportService = new McpTransportService();
+        serverReaperService = new ServerReaperService(notificationService);
+        serverService = new ServerService(serverReaperService);
+        toolService = new ToolService(authTokenService, requestLogService, notificationService, serverService,
+                transportService);
+        toolProbeService = new ToolProbeService(toolService, serverService, authTokenService, notificationService);
+        toolLoadTestService = new ToolLoadTestService(toolService, authTokenService);
+        monitoringService = new MonitoringService(serverService, toolService, authTokenService, notificationService,
+                requestLogService, transportService, toolProbeService);
+        retentionService = new RetentionService();
+        partitionMaintenanceService = new PartitionMaintenanceService();
+        startupOrchestrator = new StartupOrchestrator(serverService, toolService);
+    }
+
+    /** The registry the application listener stored in {@code context}. */
+    public static ServiceRegistry from(ServletContext context) {
+        Object registry = context.getAttribute(ATTRIBUTE);
+        if (!(registry instanceof ServiceRegistry services)) {
+            throw new IllegalStateException("Service registry has not been started");
+        }
+        return services;
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        ClusterMembership.shared().start();
+        LookupCache.start();
+        startupOrchestrator.start();
+        started = true;
+        logger.info("Service registry started");
+    }
+
+    public synchronized void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        // Writers: stop producing new rows, then hand leases back while the database is still reachable.
+        stopQuietly("load tests", ToolLoadTestService::shutdown);
+        stopQuietly("server reaper", ServerReaperService::shutdown);
+        stopQuietly("lookup cache", LookupCache::stop);
+        stopQuietly("cluster membership", ClusterMembership.shared()::stop);
+        // Pools: nothing above needs them any more.
+        stopQuietly("MCP sessions and notification streams", McpTransportService::shutdown);
+        stopQuietly("hedged calls", RetryPolicy::shutdown);
+        stopQuietly("HTTP connection pool", HttpClientUtil::shutdown);
+        stopQuietly("bulkheads", Bulkhead::shutdown);
+        logger.info("Service registry stopped");
+    }
+
+    private static void stopQuietly(String component, Runnable stop) {
+        try {
+            stop.run();
+        } catch (RuntimeException e) {
+            logger.error("Failed to stop {}", component, e);
+        }
+    }
+
+    public NotificationEmailService getNotificationEmailService() {
+        return notificationEmailService;
+    }
+
+    public UserAuthService getUserAuthService() {
+        return userAuthService;
+    }
+
+    public UserEmailSettingsService getUserEmailSettingsService() {
+        return userEmailSettingsService;
+    }
+
+    public NotificationService getNotificationService() {
+        return notificationService;
+    }
+
+    public RequestLogService getRequestLogService() {
+        return requestLogService;
+    }
+
+    public AuthTokenService getAuthTokenService() {
+        return authTokenService;
+    }
+
+    public McpTransportService getTransportService() {
+        return transportService;
+    }
+
+    public ServerReaperService getServerReaperService() {
+        return serverReaperService;
+    }
+
+    public ServerService getServerService() {
+        return serverService;
+    }
+
+    public ToolService getToolService() {
+        return toolService;
+    }
+
+    public ToolProbeService getToolProbeService() {
+        return toolProbeService;
+    }
+
+    public ToolLoadTestService getToolLoadTestService() {
+        return toolLoadTestService;
+    }
+
+    public MonitoringService getMonitoringService() {
+        return monitoringService;
+    }
+
+    public RetentionService getRetentionService() {
+        return retentionService;
+    }
+
+    public PartitionMaintenanceService getPartitionMaintenanceService() {
+        return partitionMaintenanceService;
+    }
+
+    public StartupOrchestrator getStartupOrchestrator() {
+        return startupOrchestrator;
+    }
+}
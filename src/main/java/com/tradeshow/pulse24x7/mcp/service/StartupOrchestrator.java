@@ -0,0 +1,295 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.db.DBConnection;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.model.Server;
+import com.tradeshow.pulse24x7.mcp.model.ServerHistory;
+import com.tradeshow.pulse24x7.mcp.model.Tool;
+import com.tradeshow.pulse24x7.mcp.model.ToolHistory;
+import com.tradeshow.pulse24x7.mcp.model.ToolProbe;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
+import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
+import com.tradeshow.pulse24x7.mcp.utils.JwtUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Warms the application up before it reports ready, so the first requests after a deploy do not pay for
+ * class loading, Gson type adapters, JDBC driver and TLS initialisation, or DNS lookups.
+ * <p>
+ * Warm-up runs in stages on a background thread: database, JSON and JWT first, then the server and tool
+ * lookups (which also fill the {@link LookupCache}), then a pooled TCP/TLS connection to each of the MCP
+ * hosts that serve the most servers. Phases in a stage run in parallel. A phase that fails or runs out
+ * of time is recorded and skipped; readiness never waits longer than MCP_WARMUP_TIMEOUT_SECONDS.
+ * Phase timings are logged, shown under "startup" in /health and exported as pulse_startup_phase_seconds.
+ */
+public final class StartupOrchestrator {
+    private static final Logger logger = LogManager.getLogger(StartupOrchestrator.class);
+    private static final boolean ENABLED = EnvUtil.getBoolean("MCP_WARMUP_ENABLED", true);
+    private static final long TIMEOUT_MS = TimeUnit.SECONDS.toMillis(
+            Math.max(1, EnvUtil.getInt("MCP_WARMUP_TIMEOUT_SECONDS", 60)));
+    private static final int MAX_HOSTS = Math.max(0, EnvUtil.getInt("MCP_WARMUP_MAX_HOSTS", 16));
+    private static final int CONNECT_TIMEOUT_MS = Math.max(100, EnvUtil.getInt("MCP_WARMUP_CONNECT_TIMEOUT_MS", 2000));
+    private static final int WARM_LOOKUPS = 50;
+
+    record Phase(String name, Callable<String> work) {
+    }
+
+    private final ServerService serverService;
+    private final ToolService toolService;
+    private final Map<String, Map<String, Object>> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private final long createdAtNanos = System.nanoTime();
+    private volatile long readyAfterMs = -1;
+
+    public StartupOrchestrator(ServerService serverService, ToolService toolService) {
+        this.serverService = serverService;
+        this.toolService = toolService;
+        MetricsRegistry.gauge("pulse_startup_ready", "1 once startup warm-up has finished",
+                () -> isReady() ? 1 : 0);
+    }
+
+    /** Starts warm-up in the background; completes immediately when MCP_WARMUP_ENABLED is false. */
+    public void start() {
+        if (!ENABLED) {
+            markReady();
+            return;
+        }
+        Thread thread = new Thread(() -> run(warmUpStages()), "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isReady() {
+        return ready.isDone();
+    }
+
+    /** Completes once warm-up has finished, successfully or not. */
+    public CompletableFuture<Void> whenReady() {
+        return ready.copy();
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("ready", isReady());
+        status.put("readyAfterMs", isReady() ? readyAfterMs : null);
+        synchronized (phases) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            phases.forEach((name, phase) -> copy.put(name, new LinkedHashMap<>(phase)));
+            status.put("phases", copy);
+        }
+        return status;
+    }
+
+    /** Runs {@code stages} one after another, the phases of each stage in parallel, then reports ready. */
+    void run(List<List<Phase>> stages) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        int threads = stages.stream().mapToInt(List::size).max().orElse(1);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "startup-phase");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (List<Phase> stage : stages) {
+                Map<Phase, Future<String>> running = new LinkedHashMap<>();
+                for (Phase phase : stage) {
+                    running.put(phase, pool.submit(() -> timed(phase)));
+                }
+                for (Map.Entry<Phase, Future<String>> entry : running.entrySet()) {
+                    await(entry.getKey(), entry.getValue(), deadline);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            markReady();
+        }
+    }
+
+    private String timed(Phase phase) throws Exception {
+        long start = System.nanoTime();
+        record(phase.name(), "RUNNING", null, null);
+        try {
+            String detail = phase.work().call();
+            record(phase.name(), "DONE", elapsedMs(start), detail);
+            return detail;
+        } catch (Exception e) {
+            record(phase.name(), "FAILED", elapsedMs(start), e.getMessage());
+            throw e;
+        }
+    }
+
+    private void await(Phase phase, Future<String> future, long deadline) {
+        try {
+            future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            record(phase.name(), "TIMED_OUT", null, "warm-up deadline reached");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        } catch (Exception e) {
+            logger.warn("Startup phase {} failed: {}", phase.name(), e.getMessage());
+        }
+    }
+
+    private void record(String name, String status, Long millis, String detail) {
+        Map<String, Object> previous = phases.get(name);
+        if (previous != null && "TIMED_OUT".equals(previous.get("status"))) {
+            // The phase was abandoned; whatever its interrupted thread reports afterwards is noise.
+            return;
+        }
+        Map<String, Object> phase = new LinkedHashMap<>();
+        phase.put("status", status);
+        if (millis != null) {
+            phase.put("millis", millis);
+            MetricsRegistry.gauge("pulse_startup_phase_seconds", "Duration of each startup warm-up phase",
+                    () -> millis / 1000.0, "phase", name);
+            logger.info("Startup phase {} {} in {} ms{}", name, status.toLowerCase(), millis,
+                    detail == null ? "" : " (" + detail + ")");
+        }
+        if (detail != null) {
+            phase.put("detail", detail);
+        }
+        phases.put(name, phase);
+    }
+
+    private void markReady() {
+        if (ready.isDone()) {
+            return;
+        }
+        readyAfterMs = elapsedMs(createdAtNanos);
+        ready.complete(null);
+        logger.info("Startup warm-up finished; ready after {} ms", readyAfterMs);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private List<List<Phase>> warmUpStages() {
+        AtomicReference<List<Server>> servers = new AtomicReference<>(List.of());
+        return List.of(
+                List.of(new Phase("database", StartupOrchestrator::warmDatabase),
+                        new Phase("json", StartupOrchestrator::warmJson),
+                        new Phase("jwt", StartupOrchestrator::warmJwt)),
+                List.of(new Phase("dao", () -> warmLookups(servers))),
+                List.of(new Phase("mcp_hosts", () -> preconnect(servers.get()))));
+    }
+
+    private static String warmDatabase() throws Exception {
+        try (Connection connection = DBConnection.getInstance().getConnection()) {
+            if (!connection.isValid(2)) {
+                throw new IllegalStateException("connection not valid");
+            }
+        }
+        return null;
+    }
+
+    private static String warmJson() {
+        List<Object> samples = List.of(new Server(), new Tool(), new ServerHistory(), new ToolHistory(), new ToolProbe());
+        for (Object sample : samples) {
+            String json = JsonUtil.createSuccessResponse(sample).toString();
+            JsonUtil.fromJson(JsonUtil.toJson(sample), sample.getClass());
+            JsonUtil.parseObject(json);
+        }
+        JsonUtil.parseObject(JsonUtil.createMCPRequest("tools/list", Map.of()).toString());
+        return samples.size() + " types";
+    }
+
+    private static String warmJwt() {
+        String token = JwtUtil.generateToken(0L, "warmup@localhost", "USER", 60);
+        if (JwtUtil.verify(token) == null) {
+            throw new IllegalStateException("generated token did not verify");
+        }
+        return null;
+    }
+
+    private String warmLookups(AtomicReference<List<Server>> servers) {
+        List<Server> all = serverService.getAllServersGlobal();
+        servers.set(all);
+        int warmed = Math.min(WARM_LOOKUPS, all.size());
+        for (int i = 0; i < warmed; i++) {
+            serverService.getServerByIdGlobal(all.get(i).getServerId());
+        }
+        if (!all.isEmpty()) {
+            toolService.getToolsByServer(all.get(0).getServerId());
+        }
+        return all.size() + " servers";
+    }
+
+    /**
+     * Opens pooled connections to the hosts serving the most servers, so the first checks reuse them instead
+     * of resolving and handshaking; returns how many were reached.
+     */
+    private String preconnect(List<Server> servers) throws InterruptedException {
+        List<URI> hosts = topHosts(servers, MAX_HOSTS);
+        if (hosts.isEmpty()) {
+            return "0 hosts";
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(hosts.size(), 8), runnable -> {
+            Thread thread = new Thread(runnable, "startup-preconnect");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Callable<Boolean>> connects = new ArrayList<>();
+            hosts.forEach(host -> connects.add(() -> HttpClientUtil.preconnect(host, CONNECT_TIMEOUT_MS)));
+            int reached = 0;
+            for (Future<Boolean> result : pool.invokeAll(connects, CONNECT_TIMEOUT_MS * 2L, TimeUnit.MILLISECONDS)) {
+                try {
+                    if (!result.isCancelled() && result.get()) {
+                        reached++;
+                    }
+                } catch (Exception ignored) {
+                    // an unreachable host is only a missed warm-up
+                }
+            }
+            return reached + "/" + hosts.size() + " hosts";
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Distinct scheme://host:port of {@code servers}, most shared first, at most {@code limit}. */
+    static List<URI> topHosts(List<Server> servers, int limit) {
+        Map<URI, Integer> counts = new LinkedHashMap<>();
+        for (Server server : servers) {
+            try {
+                URI url = URI.create(server.getServerUrl());
+                if (url.getHost() == null || url.getScheme() == null) {
+                    continue;
+                }
+                boolean https = "https".equalsIgnoreCase(url.getScheme());
+                int port = url.getPort() > 0 ? url.getPort() : https ? 443 : 80;
+                counts.merge(new URI(url.getScheme().toLowerCase(), null, url.getHost().toLowerCase(), port,
+                        null, null, null), 1, Integer::sum);
+            } catch (Exception ignored) {
+                // malformed URLs are reported by the monitoring checks themselves
+            }
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<URI, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
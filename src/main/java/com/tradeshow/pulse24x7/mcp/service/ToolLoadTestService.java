@@ -0,0 +1,341 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tradeshow.pulse24x7.mcp.dao.LoadTestDAO;
+import com.tradeshow.pulse24x7.mcp.jfr.JfrContext;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.model.AuthToken;
+import com.tradeshow.pulse24x7.mcp.model.LoadTestRun;
+import com.tradeshow.pulse24x7.mcp.model.Server;
+import com.tradeshow.pulse24x7.mcp.model.Tool;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
+import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Load tests of a single tool through {@link ToolService#executeTool}. Safety limits are enforced per
+ * server: one run per server at a time, at most MCP_LOADTEST_MAX_RUNNING runs overall, and caps on
+ * concurrency, rate and duration. A run stops early when its error rate passes
+ * MCP_LOADTEST_ABORT_ERROR_PERCENT, which also covers the server's circuit breaker opening under the load.
+ * Load-test calls are kept out of the tool's request metrics and request logs so they do not skew them;
+ * results are stored in tool_load_tests for later comparison.
+ */
+public class ToolLoadTestService {
+    private static final Logger logger = LogManager.getLogger(ToolLoadTestService.class);
+    private static final boolean ENABLED = EnvUtil.getBoolean("MCP_LOADTEST_ENABLED", true);
+    static final int MAX_CONCURRENCY = Math.max(1, EnvUtil.getInt("MCP_LOADTEST_MAX_CONCURRENCY", 16));
+    static final double MAX_RATE = Math.max(1, EnvUtil.getInt("MCP_LOADTEST_MAX_RATE_PER_SECOND", 50));
+    static final int MAX_DURATION_SECONDS = Math.max(1, EnvUtil.getInt("MCP_LOADTEST_MAX_DURATION_SECONDS", 300));
+    private static final int MAX_RUNNING = Math.max(1, EnvUtil.getInt("MCP_LOADTEST_MAX_RUNNING", 2));
+    private static final double ABORT_ERROR_PERCENT = Math.max(0, Math.min(100,
+            EnvUtil.getInt("MCP_LOADTEST_ABORT_ERROR_PERCENT", 50)));
+    private static final Counter RUNS_COMPLETED = MetricsRegistry.counter("pulse_tool_load_tests_total",
+            "Tool load tests by final status", "status", "completed");
+    private static final Counter RUNS_STOPPED = MetricsRegistry.counter("pulse_tool_load_tests_total",
+            "Tool load tests by final status", "status", "stopped");
+    private static final Counter RUNS_FAILED = MetricsRegistry.counter("pulse_tool_load_tests_total",
+            "Tool load tests by final status", "status", "failed");
+    // Keyed by server id: the per-server limit is "one run at a time".
+    private static final Map<Integer, Active> active = new ConcurrentHashMap<>();
+    private static final AtomicBoolean staleRunsChecked = new AtomicBoolean(false);
+    private static final ExecutorService runners = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-loadtest");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        MetricsRegistry.gauge("pulse_tool_load_tests_running", "Tool load tests in progress", () -> active.size());
+    }
+
+    private record Active(LoadTestRun run, LoadTest test) {
+    }
+
+    private final LoadTestDAO loadTestDAO;
+    private final ToolService toolService;
+    private final AuthTokenService authTokenService;
+
+    public ToolLoadTestService(ToolService toolService, AuthTokenService authTokenService) {
+        this.loadTestDAO = new LoadTestDAO();
+        this.toolService = toolService;
+        this.authTokenService = authTokenService;
+    }
+
+    public static void shutdown() {
+        active.values().forEach(entry -> entry.test().stop("server shutting down"));
+        runners.shutdownNow();
+    }
+
+    /**
+     * Validates the settings against the safety limits and starts the run in the background.
+     *
+     * @throws IllegalArgumentException if the settings are invalid or exceed a limit
+     * @throws IllegalStateException if the server or the instance is already running a load test
+     */
+    public LoadTestRun start(Server server, Tool tool, String mode, int concurrency, Double ratePerSecond,
+                             int durationSeconds, int timeoutMs, String inputParams, Long userId) {
+        if (!ENABLED) {
+            throw new IllegalStateException("Load testing is disabled");
+        }
+        LoadTest.Mode loadMode = parseMode(mode);
+        if (concurrency < 1 || concurrency > MAX_CONCURRENCY) {
+            throw new IllegalArgumentException("concurrency must be between 1 and " + MAX_CONCURRENCY);
+        }
+        double rate = ratePerSecond == null ? 0.0 : ratePerSecond;
+        if (loadMode == LoadTest.Mode.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("ratePerSecond is required for an open-loop test");
+        }
+        if (rate < 0 || rate > MAX_RATE) {
+            throw new IllegalArgumentException("ratePerSecond must be at most " + (long) MAX_RATE);
+        }
+        if (durationSeconds < 1 || durationSeconds > MAX_DURATION_SECONDS) {
+            throw new IllegalArgumentException("durationSeconds must be between 1 and " + MAX_DURATION_SECONDS);
+        }
+        JsonObject input = parseInput(inputParams);
+        if (CircuitBreaker.State.OPEN.name().equals(CircuitBreaker.describe(server.getServerUrl()).get("state"))) {
+            throw new IllegalStateException("Server is currently failing; load test not started");
+        }
+        interruptStaleRuns();
+
+        LoadTestRun run = new LoadTestRun();
+        run.setServerId(server.getServerId());
+        run.setToolId(tool.getToolId());
+        run.setToolName(tool.getToolName());
+        run.setMode(loadMode.name().toLowerCase(Locale.ROOT));
+        run.setConcurrency(concurrency);
+        run.setRatePerSecond(rate > 0 ? rate : null);
+        run.setDurationSeconds(durationSeconds);
+        run.setTimeoutMs(timeoutMs);
+        run.setInputParams(input.toString());
+        run.setStatus("running");
+        run.setStartedBy(userId);
+        run.setStartedAt(new Timestamp(System.currentTimeMillis()));
+        LoadTest test = new LoadTest(loadMode, concurrency, rate, TimeUnit.SECONDS.toMillis(durationSeconds),
+                ABORT_ERROR_PERCENT, timeoutMs);
+
+        Active entry = new Active(run, test);
+        synchronized (active) {
+            if (active.containsKey(server.getServerId())) {
+                throw new IllegalStateException("A load test is already running against this server");
+            }
+            if (active.size() >= MAX_RUNNING) {
+                throw new IllegalStateException("Too many load tests running; try again later");
+            }
+            active.put(server.getServerId(), entry);
+        }
+        Long runId = loadTestDAO.insertRun(run);
+        if (runId == null) {
+            active.remove(server.getServerId());
+            throw new IllegalStateException("Failed to store load test");
+        }
+        run.setRunId(runId);
+        try {
+            runners.execute(() -> execute(entry, server, input));
+        } catch (RejectedExecutionException e) {
+            active.remove(server.getServerId());
+            throw new IllegalStateException("Load testing is shutting down");
+        }
+        logger.info("Started {} load test {} of tool {} on server {}: concurrency={}, rate={}/s, duration={}s",
+                run.getMode(), runId, tool.getToolName(), server.getServerId(), concurrency, rate, durationSeconds);
+        return run;
+    }
+
+    /** Stops a running test early; its results up to now are kept. */
+    public boolean stop(Long runId) {
+        for (Active entry : active.values()) {
+            if (runId.equals(entry.run().getRunId())) {
+                entry.test().stop("stopped by user");
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public LoadTestRun getRun(Long runId) {
+        for (Active entry : active.values()) {
+            if (runId.equals(entry.run().getRunId())) {
+                return withProgress(entry);
+            }
+        }
+        return loadTestDAO.getRunById(runId);
+    }
+
+    public List<LoadTestRun> getRuns(Integer serverId, Integer toolId, int limit) {
+        interruptStaleRuns();
+        List<LoadTestRun> runs = loadTestDAO.getRunsByServer(serverId, toolId, limit);
+        Active entry = active.get(serverId);
+        if (entry != null) {
+            runs.replaceAll(run -> run.getRunId().equals(entry.run().getRunId()) ? withProgress(entry) : run);
+        }
+        return runs;
+    }
+
+    /** Run as JSON with the stored result columns inlined rather than as strings. */
+    public Map<String, Object> describe(LoadTestRun run) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("runId", run.getRunId());
+        view.put("serverId", run.getServerId());
+        view.put("toolId", run.getToolId());
+        view.put("toolName", run.getToolName());
+        view.put("mode", run.getMode());
+        view.put("concurrency", run.getConcurrency());
+        view.put("ratePerSecond", run.getRatePerSecond());
+        view.put("durationSeconds", run.getDurationSeconds());
+        view.put("timeoutMs", run.getTimeoutMs());
+        view.put("inputParams", parseJson(run.getInputParams()));
+        view.put("status", run.getStatus());
+        view.put("stopReason", run.getStopReason());
+        view.put("totalCalls", run.getTotalCalls());
+        view.put("errorCount", run.getErrorCount());
+        view.put("shedCount", run.getShedCount());
+        view.put("throughputPerSecond", run.getThroughputPerSecond());
+        view.put("statusBreakdown", parseJson(run.getStatusBreakdownJson()));
+        view.put("serviceTimeMs", parseJson(run.getServiceTimeJson()));
+        view.put("responseTimeMs", parseJson(run.getResponseTimeJson()));
+        if (run.getHistogramJson() != null) {
+            view.put("histogram", parseJson(run.getHistogramJson()));
+        }
+        view.put("startedAt", run.getStartedAt());
+        view.put("finishedAt", run.getFinishedAt());
+        return view;
+    }
+
+    private void execute(Active entry, Server server, JsonObject input) {
+        LoadTestRun run = entry.run();
+        LoadTest test = entry.test();
+        AuthToken authToken = authTokenService.getToken(server.getServerId());
+        String accessToken = authTokenService.ensureValidAccessToken(server.getServerId());
+        String headerType = authToken != null ? authToken.getHeaderType() : null;
+        String status = "failed";
+        try {
+            test.run(() -> callTool(server, headerType, accessToken, run, input), "mcp-loadtest-" + run.getRunId());
+            status = test.isStopped() ? "stopped" : "completed";
+        } catch (RuntimeException e) {
+            logger.error("Load test {} failed", run.getRunId(), e);
+            test.stop(e.getMessage());
+        } finally {
+            fillResults(run, test);
+            run.setStatus(status);
+            run.setStopReason(test.getStopReason());
+            run.setFinishedAt(new Timestamp(System.currentTimeMillis()));
+            run.setHistogramJson(JsonUtil.toJson(Map.of(
+                    "serviceTime", test.getServiceTime().buckets(),
+                    "responseTime", test.getResponseTime().buckets())));
+            loadTestDAO.finishRun(run);
+            active.remove(server.getServerId(), entry);
+            ("completed".equals(status) ? RUNS_COMPLETED : "stopped".equals(status) ? RUNS_STOPPED : RUNS_FAILED).inc();
+            logger.info("Load test {} {}: {} calls, {} errors, {}/s", run.getRunId(), status,
+                    run.getTotalCalls(), run.getErrorCount(), run.getThroughputPerSecond());
+        }
+    }
+
+    private int callTool(Server server, String headerType, String accessToken, LoadTestRun run, JsonObject input) {
+        Integer previousServer = JfrContext.enterServer(server.getServerId());
+        try {
+            JsonObject response = toolService.executeTool(server.getServerId(), server.getServerUrl(), headerType,
+                    accessToken, run.getToolName(), input.deepCopy(), run.getTimeoutMs());
+            return toolService.extractMcpErrorMessage(response) == null ? 200 : 400;
+        } catch (HttpClientUtil.HttpTimeoutException e) {
+            return 504;
+        } catch (HttpClientUtil.HttpRequestException e) {
+            return e.getStatusCode() > 0 ? e.getStatusCode() : 502;
+        } finally {
+            JfrContext.restoreServer(previousServer);
+        }
+    }
+
+    private LoadTestRun withProgress(Active entry) {
+        LoadTestRun source = entry.run();
+        LoadTestRun run = new LoadTestRun();
+        run.setRunId(source.getRunId());
+        run.setServerId(source.getServerId());
+        run.setToolId(source.getToolId());
+        run.setToolName(source.getToolName());
+        run.setMode(source.getMode());
+        run.setConcurrency(source.getConcurrency());
+        run.setRatePerSecond(source.getRatePerSecond());
+        run.setDurationSeconds(source.getDurationSeconds());
+        run.setTimeoutMs(source.getTimeoutMs());
+        run.setInputParams(source.getInputParams());
+        run.setStatus(source.getStatus());
+        run.setStartedBy(source.getStartedBy());
+        run.setStartedAt(source.getStartedAt());
+        fillResults(run, entry.test());
+        return run;
+    }
+
+    private static void fillResults(LoadTestRun run, LoadTest test) {
+        run.setTotalCalls(test.getCompleted());
+        run.setErrorCount(test.getErrors());
+        run.setShedCount(test.getShed());
+        run.setThroughputPerSecond(test.throughputPerSecond());
+        run.setServiceTimeJson(JsonUtil.toJson(test.getServiceTime().summaryMillis()));
+        run.setResponseTimeJson(JsonUtil.toJson(test.getResponseTime().summaryMillis()));
+        run.setStatusBreakdownJson(JsonUtil.toJson(test.statusBreakdown()));
+    }
+
+    private void interruptStaleRuns() {
+        if (staleRunsChecked.compareAndSet(false, true)) {
+            // Anything still "running" that started before this process could have started it is orphaned.
+            long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(MAX_DURATION_SECONDS + 60L);
+            int interrupted = loadTestDAO.interruptStaleRuns(new Timestamp(cutoff));
+            if (interrupted > 0) {
+                logger.warn("Marked {} orphaned load tests as interrupted", interrupted);
+            }
+        }
+    }
+
+    private static LoadTest.Mode parseMode(String mode) {
+        if (mode == null || mode.isBlank()) {
+            return LoadTest.Mode.CLOSED;
+        }
+        try {
+            return LoadTest.Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("mode must be 'closed' or 'open'");
+        }
+    }
+
+    private static JsonObject parseInput(String inputParams) {
+        if (inputParams == null || inputParams.isBlank()) {
+            return new JsonObject();
+        }
+        try {
+            JsonElement parsed = JsonParser.parseString(inputParams);
+            if (parsed.isJsonObject()) {
+                return parsed.getAsJsonObject();
+            }
+        } catch (RuntimeException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("inputParams must be a JSON object");
+    }
+
+    private static Object parseJson(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return JsonParser.parseString(json);
+        } catch (RuntimeException e) {
+            return json;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tradeshow.pulse24x7.mcp.dao.ToolProbeDAO;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.Histogram;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
+import com.tradeshow.pulse24x7.mcp.model.AuthToken;
+import com.tradeshow.pulse24x7.mcp.model.Server;
+import com.tradeshow.pulse24x7.mcp.model.ToolProbe;
+import com.tradeshow.pulse24x7.mcp.model.ToolProbeResult;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
+import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
+import com.tradeshow.pulse24x7.mcp.utils.ProbeExpectation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic tool probes: a stored {@code tools/call} input plus an expected-result predicate, run on its own
+ * interval by the monitoring sweep. Each run goes through {@link ToolService#executeTool} and
+ * {@link ToolService#trackToolRequest}, so probes show up in the tool's request metrics like real traffic,
+ * and is kept in tool_probe_results. The rolling window of the last MCP_PROBE_SLO_WINDOW runs is compared
+ * with the probe's p95 latency and error-rate SLOs; a notification is raised when it starts breaching and
+ * again when it recovers.
+ */
+public class ToolProbeService {
+    private static final Logger logger = LogManager.getLogger(ToolProbeService.class);
+    public static final boolean ENABLED = EnvUtil.getBoolean("MCP_PROBES_ENABLED", true);
+    static final int SLO_WINDOW = Math.max(1, EnvUtil.getInt("MCP_PROBE_SLO_WINDOW", 20));
+    static final int SLO_MIN_SAMPLES = Math.max(1, Math.min(SLO_WINDOW, EnvUtil.getInt("MCP_PROBE_SLO_MIN_SAMPLES", 5)));
+    private static final int MAX_PER_SWEEP = Math.max(1, EnvUtil.getInt("MCP_PROBE_MAX_PER_SWEEP", 50));
+    private static final int RESULT_RETENTION_DAYS = Math.max(1, EnvUtil.getInt("MCP_PROBE_RESULT_RETENTION_DAYS", 30));
+    private static final int DEFAULT_INTERVAL_MINUTES = 15;
+    private static final int DEFAULT_TIMEOUT_MS = 15_000;
+    private static final int PRUNE_BATCH = 5_000;
+    private static final long PRUNE_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+    private static final Counter PROBES_PASSED = MetricsRegistry.counter("pulse_tool_probes_total",
+            "Synthetic tool probe runs", "outcome", "pass");
+    private static final Counter PROBES_FAILED = MetricsRegistry.counter("pulse_tool_probes_total",
+            "Synthetic tool probe runs", "outcome", "fail");
+    private static final Counter SLO_BREACHES = MetricsRegistry.counter("pulse_tool_probe_slo_breaches_total",
+            "Tool probes that started breaching their SLO");
+    private static final Histogram PROBE_SECONDS = MetricsRegistry.histogram("pulse_tool_probe_seconds",
+            "Latency of synthetic tool probe calls");
+    private static final AtomicLong lastPruneMs = new AtomicLong();
+
+    /** Rolling SLO view of a probe over its most recent runs. */
+    record SloStatus(int samples, long p95Ms, double errorRatePercent, boolean breached, String reason) {
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("samples", samples);
+            map.put("p95Ms", p95Ms);
+            map.put("errorRatePercent", errorRatePercent);
+            map.put("breached", breached);
+            if (reason != null) {
+                map.put("reason", reason);
+            }
+            return map;
+        }
+    }
+
+    private final ToolProbeDAO probeDAO;
+    private final ToolService toolService;
+    private final ServerService serverService;
+    private final AuthTokenService authTokenService;
+    private final NotificationService notificationService;
+
+    public ToolProbeService(ToolService toolService, ServerService serverService, AuthTokenService authTokenService,
+                            NotificationService notificationService) {
+        this.probeDAO = new ToolProbeDAO();
+        this.toolService = toolService;
+        this.serverService = serverService;
+        this.authTokenService = authTokenService;
+        this.notificationService = notificationService;
+    }
+
+    public List<ToolProbe> getProbesByServer(Integer serverId) {
+        return probeDAO.getProbesByServer(serverId);
+    }
+
+    public ToolProbe getProbe(Integer probeId) {
+        return probeDAO.getProbeById(probeId);
+    }
+
+    /**
+     * Validates and stores a new probe, filling in defaults.
+     *
+     * @throws IllegalArgumentException if the input or the expected result is malformed
+     */
+    public Integer createProbe(ToolProbe probe) {
+        normalize(probe);
+        return probeDAO.insertProbe(probe);
+    }
+
+    public boolean updateProbe(ToolProbe probe) {
+        normalize(probe);
+        return probeDAO.updateProbe(probe);
+    }
+
+    public boolean deleteProbe(Integer probeId) {
+        return probeDAO.deleteProbe(probeId);
+    }
+
+    /** Results of the last {@code hours} hours, oldest first, with the current rolling SLO status. */
+    public Map<String, Object> getProbeSeries(ToolProbe probe, int hours) {
+        Timestamp since = new Timestamp(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(hours));
+        Map<String, Object> series = new LinkedHashMap<>();
+        series.put("probe", probe);
+        series.put("results", probeDAO.getResultsSince(probe.getProbeId(), since));
+        series.put("slo", evaluate(probeDAO.getRecentResults(probe.getProbeId(), SLO_WINDOW),
+                probe.getSloP95Ms(), probe.getSloErrorRatePercent()).toMap());
+        return series;
+    }
+
+    /** Probes of {@code serverIds} whose interval has elapsed, least recently run first. */
+    public List<ToolProbe> getDueProbes(Collection<Integer> serverIds) {
+        pruneOldResults();
+        return probeDAO.getDueProbes(serverIds, MAX_PER_SWEEP);
+    }
+
+    /**
+     * Runs one probe and records it. Probes of a server whose circuit breaker is open are left due, so they
+     * run once the server recovers instead of piling failures onto an outage that is already reported.
+     * Returns the stored result, or null if the probe was skipped.
+     */
+    public ToolProbeResult runProbe(ToolProbe probe) {
+        Server server = serverService.getServerByIdGlobal(probe.getServerId());
+        if (server == null) {
+            return null;
+        }
+        if (CircuitBreaker.State.OPEN.name().equals(CircuitBreaker.describe(server.getServerUrl()).get("state"))) {
+            logger.debug("Skipping probe {} while the breaker for {} is open", probe.getProbeId(), server.getServerUrl());
+            return null;
+        }
+
+        AuthToken authToken = authTokenService.getToken(server.getServerId());
+        String accessToken = authTokenService.ensureValidAccessToken(server.getServerId());
+        String headerType = authToken != null ? authToken.getHeaderType() : null;
+
+        int statusCode = 200;
+        String error = null;
+        long start = System.nanoTime();
+        try {
+            ProbeExpectation expectation = ProbeExpectation.parse(probe.getExpectedResult());
+            JsonObject response = toolService.executeTool(server.getServerId(), server.getServerUrl(), headerType,
+                    accessToken, probe.getToolName(), parseInput(probe.getInputParams()), probe.getTimeoutMs());
+            String mcpError = toolService.extractMcpErrorMessage(response);
+            if (mcpError != null) {
+                statusCode = 400;
+                error = mcpError;
+            } else {
+                String failure = expectation.firstFailure(response);
+                if (failure != null) {
+                    statusCode = 422;
+                    error = "Unexpected result: " + failure;
+                }
+            }
+        } catch (HttpClientUtil.HttpTimeoutException e) {
+            statusCode = 504;
+            error = e.getMessage();
+        } catch (HttpClientUtil.HttpRequestException e) {
+            statusCode = e.getStatusCode() > 0 ? e.getStatusCode() : 502;
+            error = e.getMessage();
+        } catch (RuntimeException e) {
+            statusCode = 502;
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        PROBE_SECONDS.observeSince(start);
+        boolean success = statusCode >= 200 && statusCode < 300;
+        (success ? PROBES_PASSED : PROBES_FAILED).inc();
+
+        toolService.trackToolRequest(probe.getToolId(), statusCode, latencyMs);
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        ToolProbeResult result = new ToolProbeResult();
+        result.setProbeId(probe.getProbeId());
+        result.setToolId(probe.getToolId());
+        result.setSuccess(success);
+        result.setLatencyMs(latencyMs);
+        result.setStatusCode(statusCode);
+        result.setErrorMessage(error);
+        result.setCheckedAt(now);
+        probeDAO.insertResult(result);
+
+        SloStatus slo = evaluate(probeDAO.getRecentResults(probe.getProbeId(), SLO_WINDOW),
+                probe.getSloP95Ms(), probe.getSloErrorRatePercent());
+        boolean wasBreached = Boolean.TRUE.equals(probe.getSloBreached());
+        if (slo.breached() && !wasBreached) {
+            SLO_BREACHES.inc();
+            notificationService.notify(server.getServerId(), "tools", "warning",
+                    "Tool SLO breached: " + probe.getToolName(),
+                    "Probe of " + probe.getToolName() + " on " + server.getServerName() + " is outside its SLO: "
+                            + slo.reason() + " over the last " + slo.samples() + " runs.");
+        } else if (!slo.breached() && wasBreached) {
+            notificationService.notify(server.getServerId(), "tools", "info",
+                    "Tool SLO recovered: " + probe.getToolName(),
+                    "Probe of " + probe.getToolName() + " on " + server.getServerName() + " is back within its SLO"
+                            + " (p95 " + slo.p95Ms() + " ms, error rate "
+                            + String.format("%.1f", slo.errorRatePercent()) + "%).");
+        }
+        probeDAO.markRun(probe.getProbeId(), now, slo.breached());
+        return result;
+    }
+
+    /**
+     * Compares the most recent runs (newest first) with the SLOs. Nothing is judged before
+     * MCP_PROBE_SLO_MIN_SAMPLES runs exist, so a single slow first call cannot page anyone.
+     */
+    static SloStatus evaluate(List<ToolProbeResult> recent, Long sloP95Ms, Double sloErrorRatePercent) {
+        int samples = recent.size();
+        if (samples == 0) {
+            return new SloStatus(0, 0L, 0.0, false, null);
+        }
+        long[] latencies = new long[samples];
+        int failures = 0;
+        for (int i = 0; i < samples; i++) {
+            ToolProbeResult result = recent.get(i);
+            latencies[i] = result.getLatencyMs() == null ? 0L : result.getLatencyMs();
+            if (!Boolean.TRUE.equals(result.getSuccess())) {
+                failures++;
+            }
+        }
+        long p95 = p95(latencies);
+        double errorRate = failures * 100.0 / samples;
+        if (samples < SLO_MIN_SAMPLES) {
+            return new SloStatus(samples, p95, errorRate, false, null);
+        }
+        StringBuilder reason = new StringBuilder();
+        if (sloP95Ms != null && sloP95Ms > 0 && p95 > sloP95Ms) {
+            reason.append("p95 ").append(p95).append(" ms exceeds ").append(sloP95Ms).append(" ms");
+        }
+        if (sloErrorRatePercent != null && sloErrorRatePercent >= 0 && errorRate > sloErrorRatePercent) {
+            if (reason.length() > 0) {
+                reason.append(", ");
+            }
+            reason.append(String.format("error rate %.1f%% exceeds %.1f%%", errorRate, sloErrorRatePercent));
+        }
+        return new SloStatus(samples, p95, errorRate, reason.length() > 0,
+                reason.length() > 0 ? reason.toString() : null);
+    }
+
+    /** Nearest-rank 95th percentile. */
+    static long p95(long[] latencies) {
+        if (latencies.length == 0) {
+            return 0L;
+        }
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(0.95 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private void normalize(ToolProbe probe) {
+        parseInput(probe.getInputParams());
+        ProbeExpectation.parse(probe.getExpectedResult());
+        if (probe.getIntervalMinutes() == null || probe.getIntervalMinutes() <= 0) {
+            probe.setIntervalMinutes(DEFAULT_INTERVAL_MINUTES);
+        }
+        if (probe.getTimeoutMs() == null || probe.getTimeoutMs() <= 0) {
+            probe.setTimeoutMs(DEFAULT_TIMEOUT_MS);
+        }
+        if (probe.getSloP95Ms() != null && probe.getSloP95Ms() <= 0) {
+            probe.setSloP95Ms(null);
+        }
+        if (probe.getSloErrorRatePercent() != null
+                && (probe.getSloErrorRatePercent() < 0 || probe.getSloErrorRatePercent() > 100)) {
+            throw new IllegalArgumentException("sloErrorRatePercent must be between 0 and 100");
+        }
+        if (probe.getEnabled() == null) {
+            probe.setEnabled(true);
+        }
+    }
+
+    private static JsonObject parseInput(String inputParams) {
+        if (inputParams == null || inputParams.isBlank()) {
+            return new JsonObject();
+        }
+        JsonElement parsed;
+        try {
+            parsed = JsonParser.parseString(inputParams);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("inputParams is not valid JSON");
+        }
+        if (!parsed.isJsonObject()) {
+            throw new IllegalArgumentException("inputParams must be a JSON object");
+        }
+        return parsed.getAsJsonObject();
+    }
+
+    private void pruneOldResults() {
+        long now = System.currentTimeMillis();
+        long last = lastPruneMs.get();
+        if (now - last < PRUNE_INTERVAL_MS || !lastPruneMs.compareAndSet(last, now)) {
+            return;
+        }
+        Timestamp cutoff = new Timestamp(now - TimeUnit.DAYS.toMillis(RESULT_RETENTION_DAYS));
+        int deleted = probeDAO.deleteResultsBefore(cutoff, PRUNE_BATCH);
+        if (deleted > 0) {
+            logger.info("Pruned {} probe results older than {} days", deleted, RESULT_RETENTION_DAYS);
+        }
+    }
+}
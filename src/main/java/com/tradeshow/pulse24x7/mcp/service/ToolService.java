@@ -6,76 +6,171 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.tradeshow.pulse24x7.mcp.dao.ToolDAO;
 import com.tradeshow.pulse24x7.mcp.dao.ToolHistoryDAO;
+import com.tradeshow.pulse24x7.mcp.jfr.JfrContext;
+import com.tradeshow.pulse24x7.mcp.model.HttpTimings;
 import com.tradeshow.pulse24x7.mcp.model.Server;
 import com.tradeshow.pulse24x7.mcp.model.Tool;
 import com.tradeshow.pulse24x7.mcp.model.ToolHistory;
 import com.tradeshow.pulse24x7.mcp.utils.AuthHeaderUtil;
+import com.tradeshow.pulse24x7.mcp.utils.EnvUtil;
 import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
 import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
+import com.tradeshow.pulse24x7.mcp.utils.SchemaFingerprint;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class ToolService {
     private static final Logger logger = LogManager.getLogger(ToolService.class);
+    private static final String[] INPUT_SCHEMA_KEYS = {"inputSchema", "input_schema", "parameters"};
+    private static final String[] OUTPUT_SCHEMA_KEYS = {"outputSchema", "output_schema"};
+    private static final int MAX_TOOL_PAGES = Math.max(1, EnvUtil.getInt("MCP_TOOLS_MAX_PAGES", 500));
     private final ToolDAO toolDAO;
     private final ToolHistoryDAO toolHistoryDAO;
     private final AuthTokenService authTokenService;
     private final RequestLogService requestLogService;
     private final NotificationService notificationService;
     private final ServerService serverService;
+    private final McpTransportService transportService;
+    private final RetryPolicy retryPolicy;
 
-    public ToolService() {
-        this.toolDAO = new ToolDAO();
-        this.toolHistoryDAO = new ToolHistoryDAO();
-        this.authTokenService = new AuthTokenService();
-        this.requestLogService = new RequestLogService();
-        this.notificationService = new NotificationService();
-        this.serverService = new ServerService();
+    public ToolService(AuthTokenService authTokenService, RequestLogService requestLogService,
+                       NotificationService notificationService, ServerService serverService,
+                       McpTransportService transportService) {
+        this(new ToolDAO(), new ToolHistoryDAO(), authTokenService, requestLogService, notificationService,
+                serverService, transportService);
+    }
+
+    ToolService(ToolDAO toolDAO, ToolHistoryDAO toolHistoryDAO, AuthTokenService authTokenService,
+                RequestLogService requestLogService, NotificationService notificationService,
+                ServerService serverService, McpTransportService transportService) {
+        this.toolDAO = toolDAO;
+        this.toolHistoryDAO = toolHistoryDAO;
+        this.authTokenService = authTokenService;
+        this.requestLogService = requestLogService;
+        this.notificationService = notificationService;
+        this.serverService = serverService;
+        this.transportService = transportService;
+        this.retryPolicy = RetryPolicy.shared();
     }
 
     public List<Tool> fetchAndUpdateTools(Integer serverId, String serverUrl, String accessToken, String headerType, Integer timeoutMs) {
+        return fetchAndUpdateTools(serverId, serverUrl, accessToken, headerType, timeoutMs, null);
+    }
+
+    /**
+     * Walks tools/list page by page (following nextCursor), then reconciles the complete catalog with the
+     * database. {@code firstPage} is a first page that was already fetched, e.g. in a monitoring batch.
+     * A catalog that cannot be read completely, including one whose first page is a JSON-RPC error, leaves
+     * the stored tools untouched and the catalog due for another sync.
+     */
+    public List<Tool> fetchAndUpdateTools(Integer serverId, String serverUrl, String accessToken, String headerType,
+                                          Integer timeoutMs, JsonObject firstPage) {
         logger.info("Fetching tools from server ID: {}", serverId);
+        long catalogVersion = McpTransportService.toolsChangeVersion(serverId);
 
         try {
-            Map<String, Object> params = new HashMap<>();
-            JsonObject request = JsonUtil.createMCPRequest("tools/list", params);
+            List<Tool> newTools = new ArrayList<>();
+            Map<Tool, JsonObject> definitions = new IdentityHashMap<>();
+            Set<String> seenCursors = new HashSet<>();
+            JsonObject page = firstPage;
+            String cursor = null;
+            int pages = 0;
+            do {
+                if (page == null) {
+                    Map<String, Object> params = new HashMap<>();
+                    if (cursor != null) {
+                        params.put("cursor", cursor);
+                    }
+                    JsonObject request = JsonUtil.createMCPRequest("tools/list", params);
+                    page = doPostWithRefresh(serverId, serverUrl, headerType, accessToken, request, true, timeoutMs);
+                }
+                if (page.has("error")) {
+                    logger.error("tools/list page {} failed for server ID {}: {}", pages + 1, serverId, page.get("error"));
+                    return List.of();
+                }
+                newTools.addAll(parseToolsFromResponse(page, serverId, definitions));
+                cursor = nextCursor(page);
+                page = null;
+                pages++;
+            } while (cursor != null && pages < MAX_TOOL_PAGES && seenCursors.add(cursor));
+
+            if (cursor != null) {
+                logger.error("Stopped listing tools for server ID {} after {} pages (limit or repeated cursor)",
+                        serverId, pages);
+                return List.of();
+            }
+            if (pages > 1) {
+                logger.info("Listed {} tools in {} pages from server ID: {}", newTools.size(), pages, serverId);
+            }
+            List<Tool> synced = reconcileTools(serverId, newTools, definitions);
+            McpTransportService.markToolCatalogSynced(serverId, catalogVersion);
+            return synced;
+        } catch (Exception e) {
+            logger.error("Failed to fetch tools from server ID: {}", serverId, e);
+            return List.of();
+        }
+    }
 
-            JsonObject response = doPostWithRefresh(serverId, serverUrl, headerType, accessToken, request, true, timeoutMs);
+    private String nextCursor(JsonObject response) {
+        JsonObject result = response.has("result") && response.get("result").isJsonObject()
+                ? response.getAsJsonObject("result") : null;
+        String cursor = result == null ? null : getString(result, "nextCursor");
+        return cursor == null || cursor.isBlank() ? null : cursor;
+    }
 
+    /**
+     * Writes added and changed tools. Schemas are compared by fingerprint; only tools that changed have
+     * their schema text built from {@code definitions} for the upsert.
+     */
+    private List<Tool> reconcileTools(Integer serverId, List<Tool> newTools, Map<Tool, JsonObject> definitions) {
+        try {
             List<Tool> oldTools = getToolsByServer(serverId);
+            Map<Integer, String> backfill = fillMissingFingerprints(oldTools);
             Set<String> previousActiveTools = oldTools.stream()
                     .filter(tool -> Boolean.TRUE.equals(tool.getIsAvailability()))
                     .map(Tool::getToolName)
                     .filter(name -> name != null && !name.isBlank())
                     .collect(Collectors.toSet());
-            List<Tool> newTools = parseToolsFromResponse(response, serverId);
             Set<String> currentTools = newTools.stream()
                     .map(Tool::getToolName)
                     .filter(name -> name != null && !name.isBlank())
                     .collect(Collectors.toSet());
             List<Tool> changedOrAddedTools = getChangedOrAddedTools(oldTools, newTools);
             if (!changedOrAddedTools.isEmpty()) {
+                changedOrAddedTools.forEach(tool -> materializeSchemas(tool, definitions.get(tool)));
                 updateToolsInDatabase(serverId, changedOrAddedTools);
             }
-            if (newTools.isEmpty()) {
-                toolDAO.disableAllToolsByServer(serverId);
-            } else {
-                toolDAO.disableMissingTools(serverId, newTools);
+            toolDAO.backfillSchemaFingerprints(backfill);
+            int disabled = newTools.isEmpty()
+                    ? toolDAO.disableAllToolsByServer(serverId)
+                    : toolDAO.disableMissingTools(serverId, newTools);
+            if (!changedOrAddedTools.isEmpty() || !backfill.isEmpty() || disabled > 0) {
+                LookupCache.serverToolsChanged(serverId);
             }
+            Set<String> versionedChanges = new HashSet<>();
+            changedOrAddedTools.forEach(tool -> versionedChanges.add(tool.getToolName()));
+            previousActiveTools.stream()
+                    .filter(name -> !currentTools.contains(name))
+                    .forEach(versionedChanges::add);
+            toolDAO.syncToolVersions(serverId, versionedChanges, Timestamp.from(Instant.now()));
             notifyToolChanges(serverId, previousActiveTools, currentTools);
             return newTools;
         } catch (Exception e) {
-            logger.error("Failed to fetch tools from server ID: {}", serverId, e);
+            logger.error("Failed to update tools for server ID: {}", serverId, e);
             return List.of();
         }
     }
@@ -92,18 +187,20 @@ public class ToolService {
 
     private JsonObject doPostWithRefresh(Integer serverId, String serverUrl, String headerType,
                                          String accessToken, JsonObject request, boolean recordInRequestLogs, Integer timeoutMs) {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         JsonObject requestPayload = request == null ? new JsonObject() : request.deepCopy();
         requestPayload.addProperty("mcpServerUrl", serverUrl);
         String mcpMethod = resolveMcpMethod(requestPayload);
+        Integer previousServer = JfrContext.enterServer(serverId);
         try {
-            JsonObject response = HttpClientUtil.doPost(serverUrl, buildHeaders(accessToken, headerType), request.toString(), timeoutMs);
+            JsonObject response = transportService.send(serverId, serverUrl, buildHeaders(accessToken, headerType), request.toString(), timeoutMs);
             if (recordInRequestLogs) {
                 recordMcpRequestLog(serverId, mcpMethod, start, requestPayload, response, null, 200);
             }
             return response;
         } catch (RuntimeException ex) {
-            if (!shouldRefreshToken(serverId, ex)) {
+            // tools/call need not be idempotent, so only an auth failure is retried, and only within budget.
+            if (!shouldRefreshToken(serverId, ex) || !retryPolicy.grant("token refresh for server " + serverId)) {
                 if (recordInRequestLogs) {
                     recordMcpRequestLog(serverId, mcpMethod, start, requestPayload, wrapError(ex), ex.getMessage(), resolveStatusCode(ex));
                 }
@@ -111,7 +208,8 @@ public class ToolService {
             }
             String refreshed = authTokenService.refreshAccessToken(serverId);
             try {
-                JsonObject response = HttpClientUtil.doPost(serverUrl, buildHeaders(refreshed, headerType), request.toString(), timeoutMs);
+                JsonObject response = retryPolicy.asRetry(() -> transportService.send(
+                        serverId, serverUrl, buildHeaders(refreshed, headerType), request.toString(), timeoutMs));
                 if (recordInRequestLogs) {
                     recordMcpRequestLog(serverId, mcpMethod, start, requestPayload, response, null, 200);
                 }
@@ -122,12 +220,16 @@ public class ToolService {
                 }
                 throw retryEx;
             }
+        } finally {
+            JfrContext.restoreServer(previousServer);
         }
     }
 
-    private void recordMcpRequestLog(Integer serverId, String mcpMethod, long startMillis,
+    private void recordMcpRequestLog(Integer serverId, String mcpMethod, long startNanos,
                                      JsonObject requestPayload, JsonObject responseBody, String errorMessage, int statusCode) {
-        long latency = Math.max(0L, System.currentTimeMillis() - startMillis);
+        // The phases cover only the MCP exchange itself; latency still spans any OAuth refresh in between.
+        HttpTimings timings = HttpClientUtil.lastTimings();
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
         requestLogService.record(
                 requestLogService.buildRequestLog(
                         serverId,
@@ -140,7 +242,8 @@ public class ToolService {
                         requestPayload,
                         responseBody == null ? new JsonObject() : responseBody,
                         errorMessage,
-                        "Pulse24x7-Backend"
+                        "Pulse24x7-Backend",
+                        timings
                 )
         );
     }
@@ -211,7 +314,15 @@ public class ToolService {
         return AuthHeaderUtil.withAuthHeaders(headers, headerType, accessToken);
     }
 
-    private List<Tool> parseToolsFromResponse(JsonObject response, Integer serverId) {
+    List<Tool> parseToolsFromResponse(JsonObject response, Integer serverId) {
+        return parseToolsFromResponse(response, serverId, new IdentityHashMap<>());
+    }
+
+    /**
+     * Parses tools with their schema fingerprints but without schema text; each tool's JSON definition is
+     * kept in {@code definitions} so the text can be produced later if the tool turns out to have changed.
+     */
+    private List<Tool> parseToolsFromResponse(JsonObject response, Integer serverId, Map<Tool, JsonObject> definitions) {
         List<Tool> tools = new ArrayList<>();
 
         try {
@@ -246,10 +357,11 @@ public class ToolService {
                 tool.setToolName(name);
                 tool.setToolDescription(getString(toolObj, "description"));
                 tool.setToolType(resolveToolType(toolObj));
-                tool.setInputSchema(resolveJsonString(toolObj, "inputSchema", "input_schema", "parameters"));
-                tool.setOutputSchema(resolveJsonString(toolObj, "outputSchema", "output_schema"));
+                tool.setSchemaFingerprint(SchemaFingerprint.of(
+                        resolveJson(toolObj, INPUT_SCHEMA_KEYS), resolveJson(toolObj, OUTPUT_SCHEMA_KEYS)));
                 tool.setServerId(serverId);
                 tool.setIsAvailability(true);
+                definitions.put(tool, toolObj);
                 tools.add(tool);
             }
 
@@ -269,16 +381,45 @@ public class ToolService {
         return "ACTION";
     }
 
-    private String resolveJsonString(JsonObject source, String... keys) {
+    private JsonElement resolveJson(JsonObject source, String... keys) {
         for (String key : keys) {
             if (source.has(key) && !source.get(key).isJsonNull()) {
-                return source.get(key).toString();
+                return source.get(key);
             }
         }
         return null;
     }
 
-    private List<Tool> getChangedOrAddedTools(List<Tool> oldTools, List<Tool> newTools) {
+    private void materializeSchemas(Tool tool, JsonObject definition) {
+        if (definition == null) {
+            return;
+        }
+        JsonElement inputSchema = resolveJson(definition, INPUT_SCHEMA_KEYS);
+        JsonElement outputSchema = resolveJson(definition, OUTPUT_SCHEMA_KEYS);
+        tool.setInputSchema(inputSchema == null ? null : inputSchema.toString());
+        tool.setOutputSchema(outputSchema == null ? null : outputSchema.toString());
+    }
+
+    private Map<Integer, String> fillMissingFingerprints(List<Tool> storedTools) {
+        Map<Integer, String> filled = new HashMap<>();
+        for (Tool tool : storedTools) {
+            if (tool.getSchemaFingerprint() == null) {
+                tool.setSchemaFingerprint(SchemaFingerprint.ofStored(tool.getInputSchema(), tool.getOutputSchema()));
+                if (tool.getToolId() > 0) {
+                    filled.put(tool.getToolId(), tool.getSchemaFingerprint());
+                }
+            }
+        }
+        return filled;
+    }
+
+    private String fingerprintOf(Tool tool) {
+        String fingerprint = tool.getSchemaFingerprint();
+        return fingerprint != null ? fingerprint
+                : SchemaFingerprint.ofStored(tool.getInputSchema(), tool.getOutputSchema());
+    }
+
+    List<Tool> getChangedOrAddedTools(List<Tool> oldTools, List<Tool> newTools) {
         Map<String, Tool> oldByName = new LinkedHashMap<>();
         for (Tool oldTool : oldTools) {
             if (oldTool.getToolName() != null) {
@@ -298,22 +439,10 @@ public class ToolService {
     private boolean isToolDifferent(Tool oldTool, Tool newTool) {
         return !safeEquals(oldTool.getToolDescription(), newTool.getToolDescription())
                 || !safeEquals(oldTool.getToolType(), newTool.getToolType())
-                || !safeEquals(normalizeJson(oldTool.getInputSchema()), normalizeJson(newTool.getInputSchema()))
-                || !safeEquals(normalizeJson(oldTool.getOutputSchema()), normalizeJson(newTool.getOutputSchema()))
+                || !fingerprintOf(oldTool).equals(fingerprintOf(newTool))
                 || !Boolean.TRUE.equals(oldTool.getIsAvailability());
     }
 
-    private String normalizeJson(String raw) {
-        if (raw == null || raw.isBlank()) {
-            return "";
-        }
-        try {
-            return JsonParser.parseString(raw).toString();
-        } catch (Exception e) {
-            return raw.trim();
-        }
-    }
-
     private boolean safeEquals(String left, String right) {
         if (left == null) {
             return right == null;
@@ -342,6 +471,7 @@ public class ToolService {
                     tool.getToolType(),
                     tool.getInputSchema(),
                     tool.getOutputSchema(),
+                    fingerprintOf(tool),
                     serverId
             );
         }
@@ -371,12 +501,62 @@ public class ToolService {
         return toolDAO.getToolsByServerSnapshot(serverId, snapshotAt);
     }
 
+    public Map<String, Object> diffToolsByServer(Integer serverId, Timestamp from, Timestamp to) {
+        Map<Integer, Tool> before = new LinkedHashMap<>();
+        for (Tool tool : getToolsByServerSnapshot(serverId, from)) {
+            before.put(tool.getToolId(), tool);
+        }
+        List<Tool> added = new ArrayList<>();
+        List<Map<String, Object>> changed = new ArrayList<>();
+        for (Tool after : getToolsByServerSnapshot(serverId, to)) {
+            Tool previous = before.remove(after.getToolId());
+            if (previous == null) {
+                added.add(after);
+                continue;
+            }
+            List<String> fields = new ArrayList<>();
+            if (!safeEquals(previous.getToolDescription(), after.getToolDescription())) {
+                fields.add("toolDescription");
+            }
+            if (!safeEquals(previous.getToolType(), after.getToolType())) {
+                fields.add("toolType");
+            }
+            if (!SchemaFingerprint.ofStored(previous.getInputSchema()).equals(SchemaFingerprint.ofStored(after.getInputSchema()))) {
+                fields.add("inputSchema");
+            }
+            if (!SchemaFingerprint.ofStored(previous.getOutputSchema()).equals(SchemaFingerprint.ofStored(after.getOutputSchema()))) {
+                fields.add("outputSchema");
+            }
+            if (Boolean.TRUE.equals(previous.getIsAvailability()) != Boolean.TRUE.equals(after.getIsAvailability())) {
+                fields.add("isAvailability");
+            }
+            if (!fields.isEmpty()) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("toolId", after.getToolId());
+                entry.put("toolName", after.getToolName());
+                entry.put("changedFields", fields);
+                entry.put("before", previous);
+                entry.put("after", after);
+                changed.add(entry);
+            }
+        }
+
+        Map<String, Object> diff = new HashMap<>();
+        diff.put("serverId", serverId);
+        diff.put("from", from);
+        diff.put("to", to);
+        diff.put("added", added);
+        diff.put("removed", new ArrayList<>(before.values()));
+        diff.put("changed", changed);
+        return diff;
+    }
+
     public Tool getToolById(Integer toolId) {
         if (toolId == null || toolId <= 0) {
             logger.error("Invalid tool ID: {}", toolId);
             return null;
         }
-        return toolDAO.getToolById(toolId);
+        return LookupCache.tool(toolId, toolDAO::getToolById);
     }
 
     public List<ToolHistory> getToolHistory(Integer toolId, int limit) {
@@ -435,7 +615,11 @@ public class ToolService {
 
     public boolean trackToolRequest(Integer toolId, int statusCode, long latencyMs) {
         boolean success = statusCode >= 200 && statusCode < 300;
-        return toolDAO.updateToolRequestMetrics(toolId, success, statusCode, latencyMs);
+        boolean updated = toolDAO.updateToolRequestMetrics(toolId, success, statusCode, latencyMs);
+        if (updated) {
+            LookupCache.toolMetricsChanged(toolId);
+        }
+        return updated;
     }
 
     public JsonObject parseJsonObjectSafely(String rawJson) {
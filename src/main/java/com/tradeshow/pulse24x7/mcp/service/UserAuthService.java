@@ -43,10 +43,10 @@ public class UserAuthService {
     private final UserEmailSettingsDAO userEmailSettingsDAO;
     private final SecureRandom secureRandom;
 
-    public UserAuthService() {
+    public UserAuthService(NotificationEmailService notificationEmailService) {
         this.userDAO = new UserDAO();
         this.passwordResetCodeDAO = new PasswordResetCodeDAO();
-        this.notificationEmailService = new NotificationEmailService();
+        this.notificationEmailService = notificationEmailService;
         this.userEmailSettingsDAO = new UserEmailSettingsDAO();
         this.secureRandom = new SecureRandom();
     }
@@ -15,9 +15,9 @@ public class UserEmailSettingsService {
     private final UserAuthService userAuthService;
     private static final Pattern SIMPLE_EMAIL = Pattern.compile("^[^\\s@]+@[^\\s@]+\\.[^\\s@]+$");
 
-    public UserEmailSettingsService() {
+    public UserEmailSettingsService(UserAuthService userAuthService) {
         this.userEmailSettingsDAO = new UserEmailSettingsDAO();
-        this.userAuthService = new UserAuthService();
+        this.userAuthService = userAuthService;
     }
 
     public UserEmailSettings getByUserId(Long userId) {
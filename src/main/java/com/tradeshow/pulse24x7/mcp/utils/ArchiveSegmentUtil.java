@@ -0,0 +1,135 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public final class ArchiveSegmentUtil {
+    public static final String SEGMENT_SUFFIX = ".ndjson.gz";
+    public static final String CHECKSUM_SUFFIX = ".sha256";
+    private static final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    private ArchiveSegmentUtil() {
+    }
+
+    public static Path writeSegment(Path baseDir, String table, long firstId, long lastId,
+                                    List<Map<String, Object>> rows) throws IOException {
+        Path tableDir = baseDir.resolve(table);
+        Files.createDirectories(tableDir);
+        String fileName = table + "-" + firstId + "-" + lastId + "-" + System.currentTimeMillis() + SEGMENT_SUFFIX;
+        Path target = tableDir.resolve(fileName);
+        Path temp = tableDir.resolve(fileName + ".tmp");
+
+        MessageDigest digest = sha256();
+        try (FileOutputStream fos = new FileOutputStream(temp.toFile())) {
+            DigestOutputStream digestOut = new DigestOutputStream(fos, digest);
+            GZIPOutputStream gzip = new GZIPOutputStream(digestOut, 64 * 1024);
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+            for (Map<String, Object> row : rows) {
+                writer.write(gson.toJson(toJson(row)));
+                writer.newLine();
+            }
+            writer.flush();
+            gzip.finish();
+            digestOut.flush();
+            fos.getFD().sync();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        Files.writeString(tableDir.resolve(fileName + CHECKSUM_SUFFIX),
+                checksum + "  " + fileName + "\n", StandardCharsets.UTF_8);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    public static List<JsonObject> readSegment(Path segment) throws IOException {
+        Path checksumFile = segment.resolveSibling(segment.getFileName() + CHECKSUM_SUFFIX);
+        if (!Files.exists(checksumFile)) {
+            throw new IOException("Missing checksum file for segment " + segment);
+        }
+        String expected = Files.readString(checksumFile, StandardCharsets.UTF_8).trim().split("\\s+")[0];
+        String actual = checksum(segment);
+        if (!expected.equalsIgnoreCase(actual)) {
+            throw new IOException("Checksum mismatch for segment " + segment);
+        }
+
+        List<JsonObject> rows = new ArrayList<>();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(segment), 64 * 1024);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    rows.add(JsonParser.parseString(line).getAsJsonObject());
+                }
+            }
+        }
+        return rows;
+    }
+
+    public static String checksum(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static JsonObject toJson(Map<String, Object> row) {
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                json.add(entry.getKey(), null);
+            } else if (value instanceof Number number) {
+                json.addProperty(entry.getKey(), number);
+            } else if (value instanceof Boolean bool) {
+                json.addProperty(entry.getKey(), bool);
+            } else if (value instanceof Timestamp ts) {
+                json.addProperty(entry.getKey(), ts.toString());
+            } else if (value instanceof byte[] bytes) {
+                json.addProperty(entry.getKey(), new String(bytes, StandardCharsets.UTF_8));
+            } else {
+                json.addProperty(entry.getKey(), value.toString());
+            }
+        }
+        return json;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
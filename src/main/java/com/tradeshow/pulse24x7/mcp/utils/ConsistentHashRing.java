@@ -0,0 +1,55 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring with virtual nodes. Each node is placed at {@code virtualNodes} points on a 64-bit
+ * ring and a key belongs to the first node point at or after its hash, so when a node joins or leaves only
+ * the keys on the arcs it gains or loses move (about 1/n of them) and every other key keeps its owner.
+ * Placement depends only on the node ids, so every cluster member computes the same ring from the same
+ * membership.
+ */
+public final class ConsistentHashRing {
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the rare collision the lexically smaller id wins, keeping the ring identical everywhere.
+                ring.merge(hash(node + "#" + i), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    /** Owner of {@code key}, or null when the ring has no nodes. */
+    public String nodeFor(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /** 64-bit FNV-1a with a murmur3 finalizer, so near-identical keys still spread over the ring. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -12,62 +12,71 @@ public class DBQueries {
 
         // Server Queries
         public static final String INSERT_SERVER =
-                "INSERT INTO servers (user_id, server_name, server_url, monitor_interval_minutes, connection_timeout_ms, auto_reconnect) " +
-                        "VALUES (?, ?, ?, ?, ?, ?)";
+                "INSERT INTO servers (user_id, server_name, server_url, monitor_interval_minutes, connection_timeout_ms, auto_reconnect, " +
+                        "adaptive_interval) VALUES (?, ?, ?, ?, ?, ?, ?)";
 
         public static final String GET_SERVER_BY_ID =
-                "SELECT * FROM servers WHERE server_id = ? AND user_id = ?";
+                "SELECT * FROM servers WHERE server_id = ? AND user_id = ? AND deleted_at IS NULL";
 
         public static final String GET_SERVER_BY_ID_GLOBAL =
-                "SELECT * FROM servers WHERE server_id = ?";
+                "SELECT * FROM servers WHERE server_id = ? AND deleted_at IS NULL";
 
         public static final String GET_SERVER_BY_URL =
-                "SELECT * FROM servers WHERE server_url = ? AND user_id = ?";
+                "SELECT * FROM servers WHERE server_url = ? AND user_id = ? AND deleted_at IS NULL";
 
         public static final String GET_ALL_SERVERS =
-                "SELECT * FROM servers WHERE user_id = ? ORDER BY created_at DESC";
+                "SELECT * FROM servers WHERE user_id = ? AND deleted_at IS NULL ORDER BY created_at DESC";
 
         public static final String GET_ALL_SERVERS_GLOBAL =
-                "SELECT * FROM servers ORDER BY created_at DESC";
+                "SELECT * FROM servers WHERE deleted_at IS NULL ORDER BY created_at DESC";
 
         public static final String UPDATE_SERVER =
-                "UPDATE servers SET server_name = ?, server_url = ?, monitor_interval_minutes = ? WHERE server_id = ? AND user_id = ?";
-
-        public static final String DELETE_SERVER =
-                "DELETE FROM servers WHERE server_id = ? AND user_id = ?";
-        public static final String DELETE_SERVER_HISTORY_BY_SERVER =
-                "DELETE FROM server_history WHERE server_id = ?";
-        public static final String DELETE_AUTH_TOKEN_BY_SERVER =
-                "DELETE FROM auth_token WHERE server_id = ?";
-        public static final String DELETE_NOTIFICATIONS_BY_SERVER =
-                "DELETE FROM notifications WHERE server_id = ?";
-        public static final String DELETE_ORPHAN_NOTIFICATIONS =
-                "DELETE FROM notifications WHERE server_id IS NULL";
-        public static final String DELETE_REQUEST_LOG_PAYLOADS_BY_SERVER =
-                "DELETE rlp FROM request_log_payloads rlp " +
-                        "INNER JOIN request_logs rl ON rl.id = rlp.request_log_id " +
-                        "WHERE rl.server_id = ?";
-        public static final String DELETE_REQUEST_LOGS_BY_SERVER =
-                "DELETE FROM request_logs WHERE server_id = ?";
-        public static final String DELETE_TOOLS_HISTORY_BY_SERVER =
-                "DELETE th FROM tools_history th " +
+                "UPDATE servers SET server_name = ?, server_url = ?, monitor_interval_minutes = ? WHERE server_id = ? AND user_id = ? AND deleted_at IS NULL";
+
+        public static final String UPDATE_SERVER_ADAPTIVE_INTERVAL =
+                "UPDATE servers SET adaptive_interval = ? WHERE server_id = ? AND user_id = ? AND deleted_at IS NULL";
+
+        public static final String TOMBSTONE_SERVER =
+                "UPDATE servers SET deleted_at = NOW() WHERE server_id = ? AND user_id = ? AND deleted_at IS NULL";
+        public static final String GET_TOMBSTONED_SERVERS =
+                "SELECT * FROM servers WHERE deleted_at IS NOT NULL ORDER BY deleted_at";
+        public static final String DELETE_TOMBSTONED_SERVER =
+                "DELETE FROM servers WHERE server_id = ? AND deleted_at IS NOT NULL";
+        public static final String SELECT_REQUEST_LOG_IDS_BY_SERVER =
+                "SELECT id FROM request_logs WHERE server_id = ? ORDER BY id LIMIT ?";
+        public static final String SELECT_TOOLS_HISTORY_IDS_BY_SERVER =
+                "SELECT th.id FROM tools_history th " +
                         "INNER JOIN tools t ON t.tool_id = th.tool_id " +
-                        "WHERE t.server_id = ?";
+                        "WHERE t.server_id = ? ORDER BY th.id LIMIT ?";
+        public static final String DELETE_TOOL_VALIDITY_BY_SERVER =
+                "DELETE FROM tool_validity WHERE server_id = ? LIMIT ?";
         public static final String DELETE_TOOLS_BY_SERVER =
-                "DELETE FROM tools WHERE server_id = ?";
+                "DELETE FROM tools WHERE server_id = ? LIMIT ?";
+        public static final String DELETE_SERVER_HISTORY_BY_SERVER =
+                "DELETE FROM server_history WHERE server_id = ? LIMIT ?";
+        public static final String DELETE_AUTH_TOKEN_BY_SERVER =
+                "DELETE FROM auth_token WHERE server_id = ? LIMIT ?";
 
         // Tool Queries
         public static final String INSERT_TOOL =
-                "INSERT INTO tools (tool_name, tool_description, tool_type, input_schema, output_schema, server_id) " +
-                        "VALUES (?, ?, ?, ?, ?, ?) " +
+                "INSERT INTO tools (tool_name, tool_description, tool_type, input_schema, output_schema, " +
+                        "schema_fingerprint, server_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
                         "ON DUPLICATE KEY UPDATE " +
                         "    tool_description = VALUES(tool_description), " +
                         "    tool_type = VALUES(tool_type), " +
                         "    input_schema = VALUES(input_schema), " +
                         "    output_schema = VALUES(output_schema), " +
+                        "    schema_fingerprint = VALUES(schema_fingerprint), " +
                         "    is_availability = TRUE, " +
                         "    last_modify = CURRENT_TIMESTAMP";
 
+        public static final String ADD_TOOL_SCHEMA_FINGERPRINT_COLUMN =
+                "ALTER TABLE tools ADD COLUMN schema_fingerprint CHAR(64) NULL";
+
+        public static final String BACKFILL_TOOL_SCHEMA_FINGERPRINT =
+                "UPDATE tools SET schema_fingerprint = ? WHERE tool_id = ? AND schema_fingerprint IS NULL";
+
         public static final String GET_TOOL_BY_ID =
                 "SELECT * FROM tools WHERE tool_id = ?";
 
@@ -75,7 +84,7 @@ public class DBQueries {
                 "SELECT * FROM tools WHERE server_id = ? ORDER BY create_at DESC";
         public static final String GET_TOOLS_BY_SERVER_SNAPSHOT =
                 "SELECT t.tool_id, t.tool_name, t.tool_description, t.tool_type, t.input_schema, t.output_schema, " +
-                        "COALESCE(last_hist.is_available, CASE WHEN t.last_modify <= ? THEN t.is_availability ELSE TRUE END) AS is_availability, " +
+                        "t.schema_fingerprint, COALESCE(last_hist.is_available, CASE WHEN t.last_modify <= ? THEN t.is_availability ELSE TRUE END) AS is_availability, " +
                         "t.total_requests, t.success_requests, t.last_status_code, t.last_latency_ms, t.create_at, t.last_modify, t.server_id " +
                         "FROM tools t " +
                         "LEFT JOIN (" +
@@ -118,6 +127,59 @@ public class DBQueries {
         public static final String GET_TOOL_ID_BY_NAME_AND_SERVER =
                 "SELECT tool_id FROM tools WHERE tool_name = ? AND server_id = ?";
 
+        // Tool Validity Queries (valid_from inclusive, valid_to exclusive; open rows carry TOOL_VALIDITY_OPEN)
+        public static final String TOOL_VALIDITY_OPEN = "9999-12-31 23:59:59.999";
+
+        public static final String CREATE_TOOL_VALIDITY_TABLE =
+                "CREATE TABLE IF NOT EXISTS tool_validity (" +
+                        "    id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+                        "    tool_id INT NOT NULL, " +
+                        "    server_id INT NOT NULL, " +
+                        "    tool_name VARCHAR(120) NOT NULL, " +
+                        "    tool_description TEXT NULL, " +
+                        "    tool_type VARCHAR(30) NULL, " +
+                        "    input_schema LONGTEXT NULL, " +
+                        "    output_schema LONGTEXT NULL, " +
+                        "    is_available BOOLEAN NOT NULL, " +
+                        "    valid_from DATETIME(3) NOT NULL, " +
+                        "    valid_to DATETIME(3) NOT NULL DEFAULT '" + TOOL_VALIDITY_OPEN + "', " +
+                        "    CONSTRAINT fk_tool_validity_tool FOREIGN KEY (tool_id) REFERENCES tools(tool_id) ON DELETE CASCADE, " +
+                        "    INDEX idx_tool_validity_server_range (server_id, valid_to, valid_from), " +
+                        "    INDEX idx_tool_validity_tool_open (tool_id, valid_to)" +
+                        ")";
+
+        public static final String CLOSE_TOOL_VERSIONS =
+                "UPDATE tool_validity SET valid_to = ? " +
+                        "WHERE server_id = ? AND valid_to = '" + TOOL_VALIDITY_OPEN + "' AND tool_name IN (%s)";
+
+        public static final String OPEN_MISSING_TOOL_VERSIONS =
+                "INSERT INTO tool_validity (tool_id, server_id, tool_name, tool_description, tool_type, " +
+                        "input_schema, output_schema, is_available, valid_from) " +
+                        "SELECT t.tool_id, t.server_id, t.tool_name, t.tool_description, t.tool_type, " +
+                        "t.input_schema, t.output_schema, COALESCE(t.is_availability, TRUE), " +
+                        // Reopened tools start now; tools added once the server is versioned start when created;
+                        // the first sync starts now too, as earlier states live in tools_history.
+                        "CASE WHEN EXISTS (SELECT 1 FROM tool_validity p WHERE p.tool_id = t.tool_id) THEN ? " +
+                        "     WHEN EXISTS (SELECT 1 FROM tool_validity s WHERE s.server_id = t.server_id) " +
+                        "     THEN LEAST(COALESCE(t.create_at, ?), ?) ELSE ? END " +
+                        "FROM tools t " +
+                        "WHERE t.server_id = ? AND NOT EXISTS (" +
+                        "   SELECT 1 FROM tool_validity o " +
+                        "   WHERE o.tool_id = t.tool_id AND o.valid_to = '" + TOOL_VALIDITY_OPEN + "'" +
+                        ")";
+
+        public static final String GET_FIRST_TOOL_VERSION_BY_SERVER =
+                "SELECT MIN(valid_from) AS first_valid_from FROM tool_validity WHERE server_id = ?";
+
+        public static final String GET_TOOLS_BY_SERVER_AS_OF =
+                "SELECT v.tool_id, v.tool_name, v.tool_description, v.tool_type, v.input_schema, v.output_schema, " +
+                        "NULL AS schema_fingerprint, v.is_available AS is_availability, t.total_requests, t.success_requests, t.last_status_code, " +
+                        "t.last_latency_ms, t.create_at, t.last_modify, v.server_id " +
+                        "FROM tool_validity v " +
+                        "INNER JOIN tools t ON t.tool_id = v.tool_id " +
+                        "WHERE v.server_id = ? AND v.valid_to > ? AND v.valid_from <= ? " +
+                        "ORDER BY t.create_at DESC";
+
         // Server History Queries
         public static final String INSERT_SERVER_HISTORY =
                 "INSERT INTO server_history (server_id, server_up, tool_count) " +
@@ -165,6 +227,240 @@ public class DBQueries {
                         "WHERE server_id = ? AND checked_at >= ? " +
                         "ORDER BY checked_at DESC";
 
+        // Cluster Queries
+        public static final String CREATE_CLUSTER_NODES_TABLE =
+                "CREATE TABLE IF NOT EXISTS cluster_nodes (" +
+                        "    node_id VARCHAR(64) PRIMARY KEY, " +
+                        "    host_name VARCHAR(255) NULL, " +
+                        "    started_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), " +
+                        "    heartbeat_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), " +
+                        "    INDEX idx_cluster_nodes_heartbeat (heartbeat_at)" +
+                        ")";
+
+        public static final String CREATE_SERVER_LEASES_TABLE =
+                "CREATE TABLE IF NOT EXISTS server_leases (" +
+                        "    server_id INT PRIMARY KEY, " +
+                        "    node_id VARCHAR(64) NOT NULL, " +
+                        "    lease_until TIMESTAMP(3) NOT NULL, " +
+                        "    CONSTRAINT fk_server_leases_server FOREIGN KEY (server_id) REFERENCES servers(server_id) ON DELETE CASCADE, " +
+                        "    INDEX idx_server_leases_node (node_id)" +
+                        ")";
+
+        public static final String UPSERT_CLUSTER_NODE =
+                "INSERT INTO cluster_nodes (node_id, host_name, started_at, heartbeat_at) " +
+                        "VALUES (?, ?, CURRENT_TIMESTAMP(3), CURRENT_TIMESTAMP(3)) " +
+                        "ON DUPLICATE KEY UPDATE host_name = VALUES(host_name), heartbeat_at = CURRENT_TIMESTAMP(3)";
+
+        public static final String GET_LIVE_CLUSTER_NODES =
+                "SELECT node_id FROM cluster_nodes " +
+                        "WHERE heartbeat_at >= TIMESTAMPADD(SECOND, -?, CURRENT_TIMESTAMP(3)) " +
+                        "ORDER BY node_id";
+
+        public static final String DELETE_CLUSTER_NODE =
+                "DELETE FROM cluster_nodes WHERE node_id = ?";
+
+        public static final String DELETE_DEAD_CLUSTER_NODES =
+                "DELETE FROM cluster_nodes WHERE heartbeat_at < TIMESTAMPADD(SECOND, -?, CURRENT_TIMESTAMP(3))";
+
+        public static final String GET_NODE_SERVER_LEASES =
+                "SELECT server_id FROM server_leases WHERE node_id = ?";
+
+        public static final String GET_HELD_SERVER_LEASES =
+                "SELECT server_id FROM server_leases WHERE node_id = ? AND lease_until > CURRENT_TIMESTAMP(3)";
+
+        // Renews our own lease, or takes one over once it expired or its holder stopped heartbeating.
+        public static final String TAKE_SERVER_LEASE =
+                "UPDATE server_leases SET node_id = ?, lease_until = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP(3)) " +
+                        "WHERE server_id = ? AND (node_id = ? OR lease_until < CURRENT_TIMESTAMP(3) " +
+                        "OR node_id NOT IN (SELECT node_id FROM cluster_nodes " +
+                        "WHERE heartbeat_at >= TIMESTAMPADD(SECOND, -?, CURRENT_TIMESTAMP(3))))";
+
+        public static final String INSERT_SERVER_LEASE =
+                "INSERT IGNORE INTO server_leases (server_id, node_id, lease_until) " +
+                        "VALUES (?, ?, TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP(3)))";
+
+        public static final String RELEASE_SERVER_LEASE =
+                "DELETE FROM server_leases WHERE server_id = ? AND node_id = ?";
+
+        public static final String RELEASE_NODE_SERVER_LEASES =
+                "DELETE FROM server_leases WHERE node_id = ?";
+
+        // Cache Invalidation Queries
+        public static final String CREATE_CACHE_INVALIDATIONS_TABLE =
+                "CREATE TABLE IF NOT EXISTS cache_invalidations (" +
+                        "    id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+                        "    entity VARCHAR(32) NOT NULL, " +
+                        "    entity_id INT NOT NULL, " +
+                        "    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), " +
+                        "    INDEX idx_cache_invalidations_created (created_at)" +
+                        ")";
+
+        public static final String INSERT_CACHE_INVALIDATION =
+                "INSERT INTO cache_invalidations (entity, entity_id) VALUES (?, ?)";
+
+        public static final String GET_CACHE_INVALIDATIONS_AFTER =
+                "SELECT id, entity, entity_id FROM cache_invalidations WHERE id > ? ORDER BY id LIMIT ?";
+
+        public static final String GET_LATEST_CACHE_INVALIDATION_ID =
+                "SELECT COALESCE(MAX(id), 0) AS max_id FROM cache_invalidations";
+
+        public static final String DELETE_CACHE_INVALIDATIONS_BEFORE =
+                "DELETE FROM cache_invalidations WHERE created_at < TIMESTAMPADD(SECOND, -?, CURRENT_TIMESTAMP(3)) LIMIT ?";
+
+        // Tool Probe Queries
+        public static final String CREATE_TOOL_PROBES_TABLE =
+                "CREATE TABLE IF NOT EXISTS tool_probes (" +
+                        "    probe_id INT PRIMARY KEY AUTO_INCREMENT, " +
+                        "    tool_id INT NOT NULL, " +
+                        "    server_id INT NOT NULL, " +
+                        "    input_params LONGTEXT NULL, " +
+                        "    expected_result TEXT NULL, " +
+                        "    interval_minutes INT NOT NULL DEFAULT 15, " +
+                        "    timeout_ms INT NOT NULL DEFAULT 15000, " +
+                        "    slo_p95_ms BIGINT NULL, " +
+                        "    slo_error_rate_percent DOUBLE NULL, " +
+                        "    enabled BOOLEAN NOT NULL DEFAULT TRUE, " +
+                        "    slo_breached BOOLEAN NOT NULL DEFAULT FALSE, " +
+                        "    last_run_at TIMESTAMP NULL, " +
+                        "    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                        "    CONSTRAINT fk_tool_probes_tool FOREIGN KEY (tool_id) REFERENCES tools(tool_id) ON DELETE CASCADE, " +
+                        "    CONSTRAINT fk_tool_probes_server FOREIGN KEY (server_id) REFERENCES servers(server_id) ON DELETE CASCADE, " +
+                        "    INDEX idx_tool_probes_server (server_id), " +
+                        "    INDEX idx_tool_probes_due (enabled, last_run_at)" +
+                        ")";
+
+        public static final String CREATE_TOOL_PROBE_RESULTS_TABLE =
+                "CREATE TABLE IF NOT EXISTS tool_probe_results (" +
+                        "    id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+                        "    probe_id INT NOT NULL, " +
+                        "    tool_id INT NOT NULL, " +
+                        "    success BOOLEAN NOT NULL, " +
+                        "    latency_ms BIGINT NOT NULL DEFAULT 0, " +
+                        "    status_code INT NOT NULL, " +
+                        "    error_message TEXT NULL, " +
+                        "    checked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                        "    CONSTRAINT fk_tool_probe_results_probe FOREIGN KEY (probe_id) REFERENCES tool_probes(probe_id) ON DELETE CASCADE, " +
+                        "    INDEX idx_tool_probe_results_probe_checked (probe_id, checked_at), " +
+                        "    INDEX idx_tool_probe_results_checked (checked_at)" +
+                        ")";
+
+        public static final String INSERT_TOOL_PROBE =
+                "INSERT INTO tool_probes (tool_id, server_id, input_params, expected_result, interval_minutes, " +
+                        "timeout_ms, slo_p95_ms, slo_error_rate_percent, enabled) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        public static final String UPDATE_TOOL_PROBE =
+                "UPDATE tool_probes SET input_params = ?, expected_result = ?, interval_minutes = ?, timeout_ms = ?, " +
+                        "slo_p95_ms = ?, slo_error_rate_percent = ?, enabled = ? " +
+                        "WHERE probe_id = ?";
+
+        public static final String DELETE_TOOL_PROBE =
+                "DELETE FROM tool_probes WHERE probe_id = ?";
+
+        public static final String GET_TOOL_PROBE_BY_ID =
+                "SELECT p.*, t.tool_name FROM tool_probes p " +
+                        "JOIN tools t ON t.tool_id = p.tool_id " +
+                        "WHERE p.probe_id = ?";
+
+        public static final String GET_TOOL_PROBES_BY_SERVER =
+                "SELECT p.*, t.tool_name FROM tool_probes p " +
+                        "JOIN tools t ON t.tool_id = p.tool_id " +
+                        "WHERE p.server_id = ? " +
+                        "ORDER BY t.tool_name, p.probe_id";
+
+        // %s: placeholders for the server ids the caller owns.
+        public static final String GET_DUE_TOOL_PROBES =
+                "SELECT p.*, t.tool_name FROM tool_probes p " +
+                        "JOIN tools t ON t.tool_id = p.tool_id " +
+                        "JOIN servers s ON s.server_id = p.server_id AND s.deleted_at IS NULL " +
+                        "WHERE p.enabled = TRUE AND t.is_availability = TRUE AND p.server_id IN (%s) " +
+                        "AND (p.last_run_at IS NULL " +
+                        "OR TIMESTAMPADD(MINUTE, p.interval_minutes, p.last_run_at) <= CURRENT_TIMESTAMP) " +
+                        "ORDER BY p.last_run_at IS NOT NULL, p.last_run_at " +
+                        "LIMIT ?";
+
+        public static final String UPDATE_TOOL_PROBE_RUN =
+                "UPDATE tool_probes SET last_run_at = ?, slo_breached = ? WHERE probe_id = ?";
+
+        public static final String INSERT_TOOL_PROBE_RESULT =
+                "INSERT INTO tool_probe_results (probe_id, tool_id, success, latency_ms, status_code, error_message, checked_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        public static final String GET_RECENT_TOOL_PROBE_RESULTS =
+                "SELECT * FROM tool_probe_results " +
+                        "WHERE probe_id = ? " +
+                        "ORDER BY checked_at DESC, id DESC " +
+                        "LIMIT ?";
+
+        public static final String GET_TOOL_PROBE_RESULTS_SINCE =
+                "SELECT * FROM tool_probe_results " +
+                        "WHERE probe_id = ? AND checked_at >= ? " +
+                        "ORDER BY checked_at ASC, id ASC";
+
+        public static final String DELETE_TOOL_PROBE_RESULTS_BEFORE =
+                "DELETE FROM tool_probe_results WHERE checked_at < ? LIMIT ?";
+
+        // Tool Load Test Queries
+        public static final String CREATE_TOOL_LOAD_TESTS_TABLE =
+                "CREATE TABLE IF NOT EXISTS tool_load_tests (" +
+                        "    run_id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+                        "    server_id INT NOT NULL, " +
+                        "    tool_id INT NOT NULL, " +
+                        "    tool_name VARCHAR(120) NOT NULL, " +
+                        "    mode VARCHAR(10) NOT NULL, " +
+                        "    concurrency INT NOT NULL, " +
+                        "    rate_per_second DOUBLE NULL, " +
+                        "    duration_seconds INT NOT NULL, " +
+                        "    timeout_ms INT NOT NULL, " +
+                        "    input_params LONGTEXT NULL, " +
+                        "    status VARCHAR(20) NOT NULL, " +
+                        "    stop_reason VARCHAR(255) NULL, " +
+                        "    total_calls BIGINT NOT NULL DEFAULT 0, " +
+                        "    error_count BIGINT NOT NULL DEFAULT 0, " +
+                        "    shed_count BIGINT NOT NULL DEFAULT 0, " +
+                        "    throughput_per_second DOUBLE NULL, " +
+                        "    service_time_ms TEXT NULL, " +
+                        "    response_time_ms TEXT NULL, " +
+                        "    status_breakdown TEXT NULL, " +
+                        "    histogram LONGTEXT NULL, " +
+                        "    started_by BIGINT NULL, " +
+                        "    started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                        "    finished_at TIMESTAMP NULL, " +
+                        "    CONSTRAINT fk_tool_load_tests_tool FOREIGN KEY (tool_id) REFERENCES tools(tool_id) ON DELETE CASCADE, " +
+                        "    CONSTRAINT fk_tool_load_tests_server FOREIGN KEY (server_id) REFERENCES servers(server_id) ON DELETE CASCADE, " +
+                        "    INDEX idx_tool_load_tests_tool_started (tool_id, started_at), " +
+                        "    INDEX idx_tool_load_tests_server_started (server_id, started_at)" +
+                        ")";
+
+        public static final String INSERT_TOOL_LOAD_TEST =
+                "INSERT INTO tool_load_tests (server_id, tool_id, tool_name, mode, concurrency, rate_per_second, " +
+                        "duration_seconds, timeout_ms, input_params, status, started_by, started_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        public static final String FINISH_TOOL_LOAD_TEST =
+                "UPDATE tool_load_tests SET status = ?, stop_reason = ?, total_calls = ?, error_count = ?, shed_count = ?, " +
+                        "throughput_per_second = ?, service_time_ms = ?, response_time_ms = ?, status_breakdown = ?, " +
+                        "histogram = ?, finished_at = ? " +
+                        "WHERE run_id = ?";
+
+        public static final String GET_TOOL_LOAD_TEST_BY_ID =
+                "SELECT * FROM tool_load_tests WHERE run_id = ?";
+
+        // The histogram is left out of listings; it is only needed for a single run.
+        public static final String GET_TOOL_LOAD_TESTS_BY_SERVER =
+                "SELECT run_id, server_id, tool_id, tool_name, mode, concurrency, rate_per_second, duration_seconds, " +
+                        "timeout_ms, input_params, status, stop_reason, total_calls, error_count, shed_count, " +
+                        "throughput_per_second, service_time_ms, response_time_ms, status_breakdown, started_by, " +
+                        "started_at, finished_at " +
+                        "FROM tool_load_tests " +
+                        "WHERE server_id = ? AND (? IS NULL OR tool_id = ?) " +
+                        "ORDER BY started_at DESC, run_id DESC " +
+                        "LIMIT ?";
+
+        public static final String INTERRUPT_STALE_TOOL_LOAD_TESTS =
+                "UPDATE tool_load_tests SET status = 'interrupted', finished_at = CURRENT_TIMESTAMP " +
+                        "WHERE status = 'running' AND started_at < ?";
+
         // Tool History Queries
         public static final String INSERT_TOOL_HISTORY =
                 "INSERT INTO tools_history (tool_id, is_available) " +
@@ -222,8 +518,14 @@ public class DBQueries {
         // Request Logs Queries
         public static final String INSERT_REQUEST_LOG =
                 "INSERT INTO request_logs (server_id, tool_id, tool_name, method, status_code, status_text, latency_ms, " +
-                        "error_message, response_size_bytes, user_agent) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                        "error_message, response_size_bytes, user_agent, lease_wait_us, dns_us, connect_us, tls_us, " +
+                        "ttfb_us, body_read_us) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        public static final String ADD_REQUEST_LOG_PHASE_COLUMNS =
+                "ALTER TABLE request_logs ADD COLUMN lease_wait_us BIGINT NULL, ADD COLUMN dns_us BIGINT NULL, " +
+                        "ADD COLUMN connect_us BIGINT NULL, ADD COLUMN tls_us BIGINT NULL, " +
+                        "ADD COLUMN ttfb_us BIGINT NULL, ADD COLUMN body_read_us BIGINT NULL";
 
         public static final String INSERT_REQUEST_LOG_PAYLOAD =
                 "INSERT INTO request_log_payloads (request_log_id, request_payload, response_body) VALUES (?, ?, ?)";
@@ -236,6 +538,7 @@ public class DBQueries {
         public static final String SELECT_REQUEST_LOGS_WITH_PAYLOAD_BASE =
                 "SELECT rl.id, rl.server_id, rl.tool_id, rl.tool_name, rl.method, rl.status_code, rl.status_text, rl.latency_ms, " +
                         "rl.error_message, rl.response_size_bytes, rl.user_agent, rl.created_at, " +
+                        "rl.lease_wait_us, rl.dns_us, rl.connect_us, rl.tls_us, rl.ttfb_us, rl.body_read_us, " +
                         "COALESCE(rp.request_payload, '{}') AS request_payload, COALESCE(rp.response_body, '{}') AS response_body " +
                         "FROM request_logs rl " +
                         "LEFT JOIN request_log_payloads rp ON rp.request_log_id = rl.id";
@@ -269,7 +572,7 @@ public class DBQueries {
                         "AVG(latency_ms) avg_latency, " +
                         "(SUM(CASE WHEN status_code >= 200 AND status_code < 300 THEN 1 ELSE 0 END) / COUNT(*)) * 100 success_percent " +
                         "FROM request_logs " +
-                        "WHERE server_id = ? AND " + TOOL_ANALYTICS_FILTER + " " +
+                        "WHERE server_id = ? AND created_at >= ? AND " + TOOL_ANALYTICS_FILTER + " " +
                         "GROUP BY tool_name " +
                         "ORDER BY total_calls DESC " +
                         "LIMIT ?";
@@ -291,30 +594,30 @@ public class DBQueries {
                 "SELECT n.id, n.server_id, n.category, n.severity, n.title, n.message, n.is_read, n.created_at " +
                         "FROM notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
-                        "WHERE n.id = ? AND s.user_id = ?";
+                        "WHERE n.id = ? AND s.user_id = ? AND s.deleted_at IS NULL";
         public static final String SELECT_NOTIFICATIONS_BY_USER =
                 "SELECT n.id, n.server_id, n.category, n.severity, n.title, n.message, n.is_read, n.created_at " +
                         "FROM notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
-                        "WHERE s.user_id = ? " +
+                        "WHERE s.user_id = ? AND s.deleted_at IS NULL " +
                         "ORDER BY n.created_at DESC LIMIT ? OFFSET ?";
         public static final String SELECT_NOTIFICATIONS_BY_USER_AND_SERVER =
                 "SELECT n.id, n.server_id, n.category, n.severity, n.title, n.message, n.is_read, n.created_at " +
                         "FROM notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
-                        "WHERE s.user_id = ? AND n.server_id = ? " +
+                        "WHERE s.user_id = ? AND s.deleted_at IS NULL AND n.server_id = ? " +
                         "ORDER BY n.created_at DESC LIMIT ? OFFSET ?";
         public static final String SELECT_NOTIFICATIONS_BY_USER_ALL =
                 "SELECT n.id, n.server_id, n.category, n.severity, n.title, n.message, n.is_read, n.created_at " +
                         "FROM notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
-                        "WHERE s.user_id = ? " +
+                        "WHERE s.user_id = ? AND s.deleted_at IS NULL " +
                         "ORDER BY n.created_at DESC";
         public static final String SELECT_NOTIFICATIONS_BY_USER_AND_SERVER_ALL =
                 "SELECT n.id, n.server_id, n.category, n.severity, n.title, n.message, n.is_read, n.created_at " +
                         "FROM notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
-                        "WHERE s.user_id = ? AND n.server_id = ? " +
+                        "WHERE s.user_id = ? AND s.deleted_at IS NULL AND n.server_id = ? " +
                         "ORDER BY n.created_at DESC";
 
         public static final String DELETE_NOTIFICATION =
@@ -327,7 +630,7 @@ public class DBQueries {
         public static final String DELETE_NOTIFICATION_BY_USER =
                 "DELETE n FROM notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
-                        "WHERE n.id = ? AND s.user_id = ?";
+                        "WHERE n.id = ? AND s.user_id = ? AND s.deleted_at IS NULL";
         public static final String DELETE_ALL_NOTIFICATIONS_BY_USER =
                 "DELETE n FROM notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
@@ -351,7 +654,7 @@ public class DBQueries {
                 "UPDATE notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
                         "SET n.is_read = TRUE " +
-                        "WHERE n.id = ? AND s.user_id = ?";
+                        "WHERE n.id = ? AND s.user_id = ? AND s.deleted_at IS NULL";
 
         public static final String MARK_ALL_NOTIFICATIONS_READ =
                 "UPDATE notifications SET is_read = TRUE WHERE is_read = FALSE";
@@ -361,12 +664,12 @@ public class DBQueries {
                 "UPDATE notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
                         "SET n.is_read = TRUE " +
-                        "WHERE n.is_read = FALSE AND s.user_id = ?";
+                        "WHERE n.is_read = FALSE AND s.user_id = ? AND s.deleted_at IS NULL";
         public static final String MARK_ALL_NOTIFICATIONS_READ_BY_USER_AND_SERVER =
                 "UPDATE notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
                         "SET n.is_read = TRUE " +
-                        "WHERE n.is_read = FALSE AND s.user_id = ? AND n.server_id = ?";
+                        "WHERE n.is_read = FALSE AND s.user_id = ? AND s.deleted_at IS NULL AND n.server_id = ?";
 
         public static final String COUNT_UNREAD_NOTIFICATIONS =
                 "SELECT COUNT(*) unread_count FROM notifications WHERE is_read = FALSE";
@@ -375,11 +678,11 @@ public class DBQueries {
         public static final String COUNT_UNREAD_NOTIFICATIONS_BY_USER =
                 "SELECT COUNT(*) unread_count FROM notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
-                        "WHERE n.is_read = FALSE AND s.user_id = ?";
+                        "WHERE n.is_read = FALSE AND s.user_id = ? AND s.deleted_at IS NULL";
         public static final String COUNT_UNREAD_NOTIFICATIONS_BY_USER_AND_SERVER =
                 "SELECT COUNT(*) unread_count FROM notifications n " +
                         "INNER JOIN servers s ON s.server_id = n.server_id " +
-                        "WHERE n.is_read = FALSE AND s.user_id = ? AND n.server_id = ?";
+                        "WHERE n.is_read = FALSE AND s.user_id = ? AND s.deleted_at IS NULL AND n.server_id = ?";
 
         // User Email Settings Queries
         public static final String UPSERT_USER_EMAIL_SETTINGS =
@@ -434,6 +737,87 @@ public class DBQueries {
         public static final String UPDATE_USER_EMAIL =
                 "UPDATE users SET email = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
 
+        // Retention Queries (chunks are walked in primary-key order; retention_at carries the row age)
+        public static final String SELECT_RETENTION_CHUNK_REQUEST_LOG_PAYLOADS =
+                "SELECT p.request_log_id, p.request_payload, p.response_body, rl.created_at AS retention_at " +
+                        "FROM request_log_payloads p " +
+                        "INNER JOIN request_logs rl ON rl.id = p.request_log_id " +
+                        "WHERE p.request_log_id > ? ORDER BY p.request_log_id LIMIT ?";
+        public static final String DELETE_RETENTION_REQUEST_LOG_PAYLOADS =
+                "DELETE FROM request_log_payloads WHERE request_log_id IN (%s)";
+
+        public static final String SELECT_RETENTION_CHUNK_REQUEST_LOGS =
+                "SELECT rl.*, rl.created_at AS retention_at FROM request_logs rl " +
+                        "WHERE rl.id > ? ORDER BY rl.id LIMIT ?";
+        public static final String DELETE_RETENTION_REQUEST_LOGS =
+                "DELETE FROM request_logs WHERE id IN (%s)";
+
+        public static final String SELECT_RETENTION_CHUNK_SERVER_HISTORY =
+                "SELECT h.*, h.checked_at AS retention_at FROM server_history h " +
+                        "WHERE h.id > ? ORDER BY h.id LIMIT ?";
+        public static final String DELETE_RETENTION_SERVER_HISTORY =
+                "DELETE FROM server_history WHERE id IN (%s)";
+
+        public static final String SELECT_RETENTION_CHUNK_TOOLS_HISTORY =
+                "SELECT h.*, h.checked_at AS retention_at FROM tools_history h " +
+                        "WHERE h.id > ? ORDER BY h.id LIMIT ?";
+        public static final String DELETE_RETENTION_TOOLS_HISTORY =
+                "DELETE FROM tools_history WHERE id IN (%s)";
+
+        public static final String SELECT_RETENTION_CHUNK_NOTIFICATIONS =
+                "SELECT n.*, n.created_at AS retention_at FROM notifications n " +
+                        "WHERE n.id > ? ORDER BY n.id LIMIT ?";
+        public static final String DELETE_RETENTION_NOTIFICATIONS =
+                "DELETE FROM notifications WHERE id IN (%s)";
+
+        // Last state kept per key at or below a compaction watermark; %s is the key placeholders
+        public static final String SELECT_RETENTION_SEED_SERVER_HISTORY =
+                "SELECT h.* FROM server_history h " +
+                        "INNER JOIN (" +
+                        "   SELECT MAX(id) AS id FROM server_history " +
+                        "   WHERE id <= ? AND server_id IN (%s) GROUP BY server_id" +
+                        ") m ON m.id = h.id";
+        public static final String SELECT_RETENTION_SEED_TOOLS_HISTORY =
+                "SELECT h.* FROM tools_history h " +
+                        "INNER JOIN (" +
+                        "   SELECT MAX(id) AS id FROM tools_history " +
+                        "   WHERE id <= ? AND tool_id IN (%s) GROUP BY tool_id" +
+                        ") m ON m.id = h.id";
+
+        public static final String CREATE_RETENTION_WATERMARKS_TABLE =
+                "CREATE TABLE IF NOT EXISTS retention_watermarks (" +
+                        "    table_name VARCHAR(64) PRIMARY KEY, " +
+                        "    last_id BIGINT NOT NULL, " +
+                        "    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+                        ")";
+        public static final String GET_RETENTION_WATERMARK =
+                "SELECT last_id FROM retention_watermarks WHERE table_name = ?";
+        public static final String UPSERT_RETENTION_WATERMARK =
+                "INSERT INTO retention_watermarks (table_name, last_id) VALUES (?, ?) " +
+                        "ON DUPLICATE KEY UPDATE last_id = GREATEST(last_id, VALUES(last_id))";
+
+        public static final String INSERT_IGNORE_ARCHIVED_ROW =
+                "INSERT IGNORE INTO %s (%s) VALUES (%s)";
+
+        // Partition Maintenance Queries
+        public static final String SELECT_TABLE_PARTITIONS =
+                "SELECT PARTITION_NAME, " +
+                        "CASE WHEN PARTITION_DESCRIPTION = 'MAXVALUE' THEN NULL " +
+                        "     ELSE DATE_FORMAT(FROM_UNIXTIME(PARTITION_DESCRIPTION), '%Y-%m-%d %H:%i:%s') END AS upper_bound " +
+                        "FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                        "ORDER BY PARTITION_ORDINAL_POSITION";
+        public static final String REORGANIZE_MAX_PARTITION_TEMPLATE =
+                "ALTER TABLE %s REORGANIZE PARTITION pmax INTO (%s, PARTITION pmax VALUES LESS THAN MAXVALUE)";
+        public static final String PARTITION_DEFINITION_TEMPLATE =
+                "PARTITION %s VALUES LESS THAN (UNIX_TIMESTAMP('%s'))";
+        public static final String DROP_PARTITIONS_TEMPLATE =
+                "ALTER TABLE %s DROP PARTITION %s";
+        public static final String SELECT_MAX_ID_IN_PARTITION_TEMPLATE =
+                "SELECT MAX(id) AS max_id FROM %s PARTITION (%s)";
+        public static final String DELETE_REQUEST_LOG_PAYLOADS_UP_TO =
+                "DELETE FROM request_log_payloads WHERE request_log_id <= ? ORDER BY request_log_id LIMIT ?";
+
         private DBQueries() {
         }
 }
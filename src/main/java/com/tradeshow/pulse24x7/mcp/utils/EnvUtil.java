@@ -0,0 +1,50 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+public final class EnvUtil {
+
+    private EnvUtil() {
+    }
+
+    public static String getString(String key, String fallback) {
+        String value = System.getenv(key);
+        if (value == null || value.isBlank()) {
+            value = System.getProperty(key);
+        }
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        return value.trim();
+    }
+
+    public static int getInt(String key, int fallback) {
+        String value = getString(key, null);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    public static long getLong(String key, long fallback) {
+        String value = getString(key, null);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean fallback) {
+        String value = getString(key, null);
+        if (value == null) {
+            return fallback;
+        }
+        return Boolean.parseBoolean(value);
+    }
+}
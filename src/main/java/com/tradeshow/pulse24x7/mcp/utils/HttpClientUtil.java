@@ -1,32 +1,92 @@
 package com.tradeshow.pulse24x7.mcp.utils;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.tradeshow.pulse24x7.mcp.jfr.JfrContext;
+import com.tradeshow.pulse24x7.mcp.jfr.McpCallEvent;
+import com.tradeshow.pulse24x7.mcp.metrics.Counter;
+import com.tradeshow.pulse24x7.mcp.metrics.Histogram;
+import com.tradeshow.pulse24x7.mcp.metrics.MetricsRegistry;
 import com.tradeshow.pulse24x7.mcp.model.HttpResult;
+import com.tradeshow.pulse24x7.mcp.model.HttpTimings;
+import com.tradeshow.pulse24x7.mcp.model.McpResponse;
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.core5.http.*;
+import org.apache.hc.core5.http.config.RegistryBuilder;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.hc.core5.util.Timeout;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.URI;
+import java.net.UnknownHostException;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class HttpClientUtil {
     private static final Logger logger = LogManager.getLogger(HttpClientUtil.class);
     private static final int DEFAULT_TIMEOUT_MS = 10000;
+    public static final String MCP_SESSION_HEADER = "Mcp-Session-Id";
+    // Streamable HTTP servers may answer a POST with either; sending both lets them pick.
+    private static final String MCP_ACCEPT = "application/json, text/event-stream";
+    // Instrumentation per request kind, looked up by the "method" label of pulse_http_client_* metrics.
+    private static final Map<String, RequestMetrics> REQUEST_METRICS = Map.of(
+            "POST", RequestMetrics.of("POST"),
+            "GET", RequestMetrics.of("GET"),
+            "FORM", RequestMetrics.of("FORM"));
+    private static final ThreadLocal<HttpTimings> LAST_TIMINGS = new ThreadLocal<>();
+    // Timings of the exchange in flight on this thread. The classic client leases, resolves, connects and
+    // handshakes on the calling thread, so the pool hooks below charge their phase to it.
+    private static final ThreadLocal<HttpTimings> ACTIVE_TIMINGS = new ThreadLocal<>();
+    private static final int MAX_CONNECTIONS = Math.max(1, EnvUtil.getInt("MCP_HTTP_MAX_CONNECTIONS", 200));
+    private static final int MAX_CONNECTIONS_PER_ROUTE = Math.max(1, EnvUtil.getInt("MCP_HTTP_MAX_CONNECTIONS_PER_ROUTE", 20));
+    private static final TimeValue IDLE_EVICT = TimeValue.ofSeconds(Math.max(1, EnvUtil.getInt("MCP_HTTP_IDLE_SECONDS", 120)));
+    private static CloseableHttpClient sharedClient;
+    private static PoolingHttpClientConnectionManager sharedPool;
 
     public static class HttpRequestException extends RuntimeException {
         private final int statusCode;
@@ -71,53 +131,146 @@ public class HttpClientUtil {
     }
 
     public static JsonObject doPost(String url, Map<String, String> headers, String jsonPayload, Integer timeoutMs) {
-        logger.info("Initiating POST request to: " + url);
-        
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            int effectiveTimeoutMs = normalizeTimeoutMs(timeoutMs, DEFAULT_TIMEOUT_MS);
-            URI uri = new URI(url);
-            HttpHost target = new HttpHost(uri.getScheme(), uri.getHost(), uri.getPort());
+        return doPostMcp(url, headers, jsonPayload, timeoutMs).getBody();
+    }
+
+    /**
+     * Same as {@link #doPost(String, Map, String, Integer)} but also returns the response metadata the MCP
+     * transport needs (the Mcp-Session-Id header and whether the body arrived as an event stream). When the
+     * payload is a JSON-RPC batch and the server answers with an array, it is returned in
+     * {@link McpResponse#getBatch()}.
+     */
+    public static McpResponse doPostMcp(String url, Map<String, String> headers, String jsonPayload, Integer timeoutMs) {
+        return execute("POST", url, uri -> {
             HttpPost httpPost = new HttpPost(uri);
-            httpPost.setConfig(RequestConfig.custom()
-                    .setConnectTimeout(Timeout.ofMilliseconds(effectiveTimeoutMs))
-                    .setResponseTimeout(Timeout.ofMilliseconds(effectiveTimeoutMs))
-                    .build());
+            httpPost.setHeader(HttpHeaders.ACCEPT, MCP_ACCEPT);
+            if (jsonPayload != null && !jsonPayload.isEmpty()) {
+                httpPost.setEntity(new StringEntity(jsonPayload, ContentType.APPLICATION_JSON));
+            }
+            return httpPost;
+        }, headers, jsonPayload, timeoutMs, raw -> {
+            JsonArray batch = isBatch(jsonPayload) ? parseBatch(raw.body()) : null;
+            McpResponse mcpResponse = new McpResponse(raw.statusCode(),
+                    batch == null ? parseToJson(raw.body()) : new JsonObject(), raw.sessionId(), raw.eventStream());
+            mcpResponse.setBatch(batch);
+            mcpResponse.setNotifications(raw.notifications());
+            return mcpResponse;
+        });
+    }
+
+    /** Status, body and MCP metadata of a 2xx answer, before it is turned into the caller's result type. */
+    private record RawResponse(int statusCode, String body, boolean eventStream, String sessionId,
+                               List<JsonObject> notifications) {
+    }
+
+    private record RequestMetrics(Histogram seconds, Counter ok, Counter httpError, Counter timeout, Counter failed) {
+        private static RequestMetrics of(String method) {
+            return new RequestMetrics(
+                    MetricsRegistry.histogram("pulse_http_client_request_seconds", "Outbound HTTP request duration",
+                            "method", method),
+                    outcomeCounter(method, "ok"),
+                    outcomeCounter(method, "http_error"),
+                    outcomeCounter(method, "timeout"),
+                    outcomeCounter(method, "failed"));
+        }
+
+        private static Counter outcomeCounter(String method, String outcome) {
+            return MetricsRegistry.counter("pulse_http_client_requests_total", "Outbound HTTP requests by outcome",
+                    "method", method, "outcome", outcome);
+        }
+    }
+
+    /**
+     * Sends one request through the shared client with metrics, phase timings and a JFR event, under the
+     * {@code kind} label (POST, GET or FORM). A non-2xx answer throws {@link HttpRequestException}, a timeout
+     * {@link HttpTimeoutException}. A 2xx event stream is read up to the responses of {@code jsonPayload}'s
+     * requests; only MCP posts pass a payload.
+     */
+    private static <T> T execute(String kind, String url, Function<URI, HttpUriRequestBase> newRequest,
+                                 Map<String, String> headers, String jsonPayload, Integer timeoutMs,
+                                 Function<RawResponse, T> convert) {
+        RequestMetrics metrics = REQUEST_METRICS.get(kind);
+        long start = System.nanoTime();
+        McpCallEvent event = new McpCallEvent();
+        event.begin();
+        String httpMethod = "GET".equals(kind) ? "GET" : "POST";
+        String outcome = "failed";
+        int statusCode = 0;
+        try {
+            RawResponse raw = send(kind, url, newRequest, headers, jsonPayload, timeoutMs);
+            statusCode = raw.statusCode();
+            T result = convert.apply(raw);
+            metrics.ok().inc();
+            outcome = "ok";
+            return result;
+        } catch (HttpRequestException e) {
+            metrics.httpError().inc();
+            outcome = "http_error";
+            statusCode = e.getStatusCode();
+            throw e;
+        } catch (HttpTimeoutException e) {
+            metrics.timeout().inc();
+            outcome = "timeout";
+            throw e;
+        } catch (RuntimeException e) {
+            metrics.failed().inc();
+            throw e;
+        } finally {
+            metrics.seconds().observeSince(start);
+            finishTimings();
+            commitCallEvent(event, httpMethod, url, jsonPayload, outcome, statusCode);
+        }
+    }
 
-            // Add headers
+    private static RawResponse send(String kind, String url, Function<URI, HttpUriRequestBase> newRequest,
+                                    Map<String, String> headers, String jsonPayload, Integer timeoutMs) {
+        logger.info("Initiating {} request to: {}", kind, url);
+        HttpTimings timings = startTimings();
+        int effectiveTimeoutMs = normalizeTimeoutMs(timeoutMs, DEFAULT_TIMEOUT_MS);
+        try {
+            URI uri = new URI(url);
+            HttpHost target = new HttpHost(uri.getScheme(), uri.getHost(), uri.getPort());
+            HttpUriRequestBase request = newRequest.apply(uri);
+            request.setConfig(requestConfig(effectiveTimeoutMs));
             if (headers != null) {
-                headers.forEach((key, value) -> {
-                    httpPost.addHeader(key, value);
-                    logger.debug("Added header: " + key +" = "+ value);
-                });
+                headers.forEach(request::setHeader);
             }
-
-            // Add JSON payload
             if (jsonPayload != null && !jsonPayload.isEmpty()) {
-                httpPost.setEntity(new StringEntity(jsonPayload, ContentType.APPLICATION_JSON));
                 logger.debug("Request payload: {}", jsonPayload);
             }
 
-            HttpClientContext context = HttpClientContext.create();
-
-            try (ClassicHttpResponse response = client.executeOpen(target, httpPost, context)) {
+            try (ClassicHttpResponse response = sharedClient().executeOpen(target, request, HttpClientContext.create())) {
+                timings.markHeadersReceived();
                 int statusCode = response.getCode();
-                HttpEntity responseEntity = response.getEntity();
-                String responseBody = (responseEntity != null)
-                        ? EntityUtils.toString(responseEntity, StandardCharsets.UTF_8)
-                        : "{}";
-
-                logger.info("POST response status: {}", statusCode);
-                logger.debug("POST response body: {}", responseBody);
-
-                if (statusCode >= 200 && statusCode < 300) {
-                    return parseToJson(responseBody);
+                HttpEntity entity = response.getEntity();
+                boolean success = statusCode >= 200 && statusCode < 300;
+                boolean eventStream = success && jsonPayload != null && isEventStream(entity);
+                List<JsonObject> notifications = new ArrayList<>();
+                long bodyStart = System.nanoTime();
+                String responseBody;
+                if (entity == null) {
+                    responseBody = "{}";
+                } else if (eventStream) {
+                    responseBody = readEventStream(entity, request, jsonPayload, notifications);
                 } else {
-                    logger.error("POST failed | Status: {} | Body: {}", statusCode, responseBody);
-                    String errorMessage = extractErrorMessage(responseBody, statusCode);
-                    throw new HttpRequestException(statusCode, errorMessage, responseBody);
+                    responseBody = EntityUtils.toString(entity, StandardCharsets.UTF_8);
                 }
+                timings.addBodyRead(System.nanoTime() - bodyStart);
+
+                logger.info("{} response status: {}", kind, statusCode);
+                if (!success) {
+                    // Form posts go to token endpoints; their bodies are not logged.
+                    if ("FORM".equals(kind)) {
+                        logger.error("{} failed | Status: {}", kind, statusCode);
+                    } else {
+                        logger.error("{} failed | Status: {} | Body: {}", kind, statusCode, responseBody);
+                    }
+                    throw new HttpRequestException(statusCode, extractErrorMessage(responseBody, statusCode), responseBody);
+                }
+                Header sessionHeader = response.getFirstHeader(MCP_SESSION_HEADER);
+                return new RawResponse(statusCode, responseBody, eventStream,
+                        sessionHeader == null ? null : sessionHeader.getValue(), notifications);
             }
-
         } catch (ParseException e) {
             logger.error("Failed to parse response body", e);
             throw new RuntimeException("Failed to parse response body", e);
@@ -126,72 +279,203 @@ public class HttpClientUtil {
             throw new RuntimeException("Invalid URL: " + url, e);
         } catch (IOException e) {
             if (isTimeoutException(e)) {
-                throw new HttpTimeoutException(url, normalizeTimeoutMs(timeoutMs, DEFAULT_TIMEOUT_MS), e);
+                throw new HttpTimeoutException(url, effectiveTimeoutMs, e);
             }
-            logger.error("POST request failed for URL: {}", url, e);
-            throw new RuntimeException("POST request failed for URL: " + url + ": " + e.getMessage(), e);
+            logger.error("{} request failed for URL: {}", kind, url, e);
+            throw new RuntimeException(kind + " request failed for URL: " + url + ": " + e.getMessage(), e);
         }
     }
 
-    public static JsonObject doGet(String url, Map<String, String> headers) {
-        return doGet(url, headers, null);
+    private static RequestConfig requestConfig(int timeoutMs) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .setConnectTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .build();
     }
 
-    public static JsonObject doGet(String url, Map<String, String> headers, Integer timeoutMs) {
-        logger.info("Initiating GET request to: {}", url);
-        
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            int effectiveTimeoutMs = normalizeTimeoutMs(timeoutMs, DEFAULT_TIMEOUT_MS);
-            URI uri = new URI(url);
-            HttpHost target = new HttpHost(uri.getScheme(), uri.getHost(), uri.getPort());
-            HttpGet httpGet = new HttpGet(uri);
-            httpGet.setConfig(RequestConfig.custom()
-                    .setConnectTimeout(Timeout.ofMilliseconds(effectiveTimeoutMs))
-                    .setResponseTimeout(Timeout.ofMilliseconds(effectiveTimeoutMs))
-                    .build());
+    private static boolean isEventStream(HttpEntity entity) {
+        String contentType = entity == null ? null : entity.getContentType();
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/event-stream");
+    }
 
-            // Add headers
-            if (headers != null) {
-                headers.forEach((key, value) -> {
-                    httpGet.addHeader(key, value);
-                    logger.debug("Added header: {} = {}", key, value);
-                });
+    /**
+     * Reads SSE events until the JSON-RPC responses to every request in the payload have arrived (one event
+     * may carry a single message or an array). Notifications sent ahead of them are collected; server requests
+     * are skipped. Servers may keep the stream open afterwards, so the exchange is cancelled instead of
+     * draining the body to EOF.
+     */
+    private static String readEventStream(HttpEntity entity, HttpUriRequestBase request, String jsonPayload,
+                                          List<JsonObject> notifications) throws IOException {
+        boolean batchRequest = isBatch(jsonPayload);
+        Set<String> pending = new HashSet<>(requestIdsOf(jsonPayload));
+        List<JsonObject> responses = new ArrayList<>();
+        boolean complete = false;
+        try (InputStream in = entity.getContent()) {
+            SseEventReader reader = new SseEventReader(in);
+            SseEventReader.Event event;
+            while (!complete && (event = reader.next()) != null) {
+                for (JsonObject message : parseMessages(event.getData())) {
+                    if (!message.has("result") && !message.has("error")) {
+                        if (!message.has("id")) {
+                            notifications.add(message);
+                        }
+                        logger.debug("Skipping SSE event '{}' while waiting for response: {}", event.getType(), message);
+                        continue;
+                    }
+                    if (pending.isEmpty() || pending.remove(String.valueOf(message.get("id")))) {
+                        responses.add(message);
+                    }
+                    if (pending.isEmpty()) {
+                        complete = true;
+                        request.cancel();
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Closing a cancelled exchange can surface as a socket error; the responses were already read.
+            if (!complete) {
+                throw e;
             }
+        }
+        if (!complete) {
+            throw new IOException("Event stream ended before the response to request(s) " + pending + " arrived");
+        }
+        if (!batchRequest) {
+            return responses.get(0).toString();
+        }
+        JsonArray batch = new JsonArray();
+        responses.forEach(batch::add);
+        return batch.toString();
+    }
 
-            HttpClientContext context = HttpClientContext.create();
+    private static List<JsonObject> parseMessages(String data) {
+        List<JsonObject> messages = new ArrayList<>();
+        if (data == null || data.isBlank()) {
+            return messages;
+        }
+        try {
+            JsonElement element = JsonParser.parseString(data);
+            if (element.isJsonObject()) {
+                messages.add(element.getAsJsonObject());
+            } else if (element.isJsonArray()) {
+                for (JsonElement item : element.getAsJsonArray()) {
+                    if (item.isJsonObject()) {
+                        messages.add(item.getAsJsonObject());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Ignoring non-JSON SSE data: {}", data);
+        }
+        return messages;
+    }
 
-            try (ClassicHttpResponse response = client.executeOpen(target, httpGet, context)) {
-                int statusCode = response.getCode();
-                HttpEntity responseEntity = response.getEntity();
-                String responseBody = (responseEntity != null)
-                        ? EntityUtils.toString(responseEntity, StandardCharsets.UTF_8)
-                        : "{}";
+    // Ids are compared in their JSON form: Gson's numeric equality differs between parsed and built numbers.
+    private static List<String> requestIdsOf(String jsonPayload) {
+        List<String> ids = new ArrayList<>();
+        for (JsonObject request : parseMessages(jsonPayload)) {
+            if (request.has("id") && !request.get("id").isJsonNull()) {
+                ids.add(request.get("id").toString());
+            }
+        }
+        return ids;
+    }
 
-                logger.info("GET response status: {}", statusCode);
-                logger.debug("GET response body: {}", responseBody);
+    private static boolean isBatch(String jsonPayload) {
+        return jsonPayload != null && jsonPayload.trim().startsWith("[");
+    }
 
-                if (statusCode >= 200 && statusCode < 300) {
-                    return parseToJson(responseBody);
-                } else {
-                    logger.error("GET failed | Status: {} | Body: {}", statusCode, responseBody);
-                    String errorMessage = extractErrorMessage(responseBody, statusCode);
-                    throw new HttpRequestException(statusCode, errorMessage, responseBody);
+    private static JsonArray parseBatch(String body) {
+        if (body == null || !body.trim().startsWith("[")) {
+            return null;
+        }
+        try {
+            JsonElement element = JsonParser.parseString(body);
+            return element.isJsonArray() ? element.getAsJsonArray() : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Opens a long-lived GET event stream and hands each event to {@code onEvent} until the server ends the
+     * stream, {@code idleTimeoutMs} passes without data, or the cancel action given to {@code onOpen} is run.
+     * Non-2xx answers, and 2xx answers that are not event streams, throw {@link HttpRequestException}.
+     */
+    public static void streamEvents(String url, Map<String, String> headers, int idleTimeoutMs,
+                                    Consumer<Runnable> onOpen, Consumer<SseEventReader.Event> onEvent) {
+        HttpGet httpGet = new HttpGet(url);
+        httpGet.setConfig(RequestConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(DEFAULT_TIMEOUT_MS))
+                .setResponseTimeout(Timeout.ofMilliseconds(Math.max(1000, idleTimeoutMs)))
+                .build());
+        if (headers != null) {
+            headers.forEach(httpGet::addHeader);
+        }
+        httpGet.setHeader(HttpHeaders.ACCEPT, "text/event-stream");
+        // Streams hold their connection for as long as the session lives, so they get their own client rather
+        // than pinning connections of the shared pool.
+        try (CloseableHttpClient client = HttpClients.createDefault();
+             ClassicHttpResponse response = client.executeOpen(HttpHost.create(URI.create(url)), httpGet,
+                     HttpClientContext.create())) {
+            int statusCode = response.getCode();
+            HttpEntity entity = response.getEntity();
+            if (statusCode < 200 || statusCode >= 300 || !isEventStream(entity)) {
+                String body = entity == null ? "" : EntityUtils.toString(entity, StandardCharsets.UTF_8);
+                throw new HttpRequestException(statusCode, "No event stream at " + url + " (status " + statusCode + ")", body);
+            }
+            onOpen.accept(httpGet::cancel);
+            try (InputStream in = entity.getContent()) {
+                SseEventReader reader = new SseEventReader(in);
+                SseEventReader.Event event;
+                while ((event = reader.next()) != null) {
+                    onEvent.accept(event);
                 }
             }
-
+        } catch (HttpRequestException e) {
+            throw e;
         } catch (ParseException e) {
-            logger.error("Failed to parse response body", e);
-            throw new RuntimeException("Failed to parse response body", e);
-        } catch (URISyntaxException e) {
-            logger.error("Invalid URL: {}", url, e);
-            throw new RuntimeException("Invalid URL: " + url, e);
+            throw new RuntimeException("Failed to read event stream from " + url, e);
         } catch (IOException e) {
+            if (httpGet.isCancelled()) {
+                return;
+            }
             if (isTimeoutException(e)) {
-                throw new HttpTimeoutException(url, normalizeTimeoutMs(timeoutMs, DEFAULT_TIMEOUT_MS), e);
+                throw new HttpTimeoutException(url, idleTimeoutMs, e);
             }
-            logger.error("GET request failed for URL: {}", url, e);
-            throw new RuntimeException("GET request failed for URL: " + url + ": " + e.getMessage(), e);
+            throw new RuntimeException("Event stream from " + url + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Best-effort DELETE used to end MCP sessions. Returns the status code, or -1 if the request failed.
+     */
+    public static int doDelete(String url, Map<String, String> headers, Integer timeoutMs) {
+        int effectiveTimeoutMs = normalizeTimeoutMs(timeoutMs, DEFAULT_TIMEOUT_MS);
+        HttpDelete httpDelete = new HttpDelete(url);
+        httpDelete.setConfig(requestConfig(effectiveTimeoutMs));
+        if (headers != null) {
+            headers.forEach(httpDelete::addHeader);
         }
+        try {
+            return sharedClient().execute(httpDelete, response -> {
+                EntityUtils.consume(response.getEntity());
+                return response.getCode();
+            });
+        } catch (IOException | RuntimeException e) {
+            logger.debug("DELETE failed for URL: {}", url, e);
+            return -1;
+        }
+    }
+
+    public static JsonObject doGet(String url, Map<String, String> headers) {
+        return doGet(url, headers, null);
+    }
+
+    public static JsonObject doGet(String url, Map<String, String> headers, Integer timeoutMs) {
+        return execute("GET", url, HttpGet::new, headers, null, timeoutMs, raw -> parseToJson(raw.body()));
     }
 
     public static JsonObject doPostForm(String url, Map<String, String> headers, Map<String, String> formFields) {
@@ -203,46 +487,16 @@ public class HttpClientUtil {
                 .filter(e -> e.getValue() != null)
                 .map(e -> urlEncode(e.getKey()) + "=" + urlEncode(e.getValue()))
                 .collect(Collectors.joining("&"));
-
         Map<String, String> finalHeaders = new java.util.HashMap<>();
         finalHeaders.put("Content-Type", "application/x-www-form-urlencoded");
         if (headers != null) {
             finalHeaders.putAll(headers);
         }
-
-        logger.info("Initiating FORM POST request to: {}", url);
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            int effectiveTimeoutMs = normalizeTimeoutMs(timeoutMs, DEFAULT_TIMEOUT_MS);
-            URI uri = new URI(url);
-            HttpHost target = new HttpHost(uri.getScheme(), uri.getHost(), uri.getPort());
+        return execute("FORM", url, uri -> {
             HttpPost httpPost = new HttpPost(uri);
-            httpPost.setConfig(RequestConfig.custom()
-                    .setConnectTimeout(Timeout.ofMilliseconds(effectiveTimeoutMs))
-                    .setResponseTimeout(Timeout.ofMilliseconds(effectiveTimeoutMs))
-                    .build());
-            finalHeaders.forEach(httpPost::addHeader);
             httpPost.setEntity(new StringEntity(formBody, ContentType.APPLICATION_FORM_URLENCODED));
-
-            HttpClientContext context = HttpClientContext.create();
-            try (ClassicHttpResponse response = client.executeOpen(target, httpPost, context)) {
-                int statusCode = response.getCode();
-                String responseBody = response.getEntity() != null
-                        ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8)
-                        : "{}";
-                if (statusCode >= 200 && statusCode < 300) {
-                    return parseToJson(responseBody);
-                }
-                String errorMessage = extractErrorMessage(responseBody, statusCode);
-                throw new HttpRequestException(statusCode, errorMessage, responseBody);
-            }
-        } catch (HttpRequestException e) {
-            throw e;
-        } catch (Exception e) {
-            if (e instanceof IOException ioEx && isTimeoutException(ioEx)) {
-                throw new HttpTimeoutException(url, normalizeTimeoutMs(timeoutMs, DEFAULT_TIMEOUT_MS), ioEx);
-            }
-            throw new RuntimeException("FORM POST request failed for URL: " + url, e);
-        }
+            return httpPost;
+        }, finalHeaders, null, timeoutMs, raw -> parseToJson(raw.body()));
     }
 
     public static boolean isServerReachable(String url) {
@@ -260,14 +514,244 @@ public class HttpClientUtil {
     }
 
     public static HttpResult canPingServer(String url, Map<String, String> headers, String jsonBody, Integer timeoutMs) {
+        HttpResult result;
         try {
             JsonObject response = doPost(url, headers, jsonBody, timeoutMs);
-            return new HttpResult(true, 200, response.toString(), null);
+            result = new HttpResult(true, 200, response.toString(), null);
         } catch (HttpTimeoutException e) {
-            return new HttpResult(false, 504, null, e.getMessage());
+            result = new HttpResult(false, 504, null, e.getMessage());
+        } catch (RuntimeException e) {
+            result = new HttpResult(false, 400, null, e.getMessage());
+        }
+        result.setTimings(lastTimings());
+        return result;
+    }
+
+    /**
+     * Phase timings of the most recent doPost/doGet/doPostForm made on the calling thread, or null if the
+     * request never got as far as opening a client (for example an invalid URL).
+     */
+    public static HttpTimings lastTimings() {
+        return LAST_TIMINGS.get();
+    }
+
+    /** Forgets the calling thread's last timings, for calls that were refused before reaching the network. */
+    public static void clearTimings() {
+        LAST_TIMINGS.remove();
+    }
+
+    private static HttpTimings startTimings() {
+        HttpTimings timings = new HttpTimings();
+        LAST_TIMINGS.set(timings);
+        ACTIVE_TIMINGS.set(timings);
+        return timings;
+    }
+
+    private static void finishTimings() {
+        ACTIVE_TIMINGS.remove();
+        HttpTimings timings = LAST_TIMINGS.get();
+        if (timings != null) {
+            timings.finish();
+        }
+    }
+
+    private static void recordPhase(long startNanos, BiConsumer<HttpTimings, Long> phase) {
+        HttpTimings timings = ACTIVE_TIMINGS.get();
+        if (timings != null) {
+            phase.accept(timings, System.nanoTime() - startNanos);
+        }
+    }
+
+    private static void commitCallEvent(McpCallEvent event, String httpMethod, String url, String jsonPayload,
+                                        String outcome, int statusCode) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.serverId = JfrContext.currentServerId();
+        event.httpMethod = httpMethod;
+        event.mcpMethod = extractMcpMethod(jsonPayload);
+        event.url = url;
+        event.outcome = outcome;
+        event.statusCode = statusCode;
+        HttpTimings timings = LAST_TIMINGS.get();
+        if (timings != null) {
+            event.leaseWait = timings.getLeaseWaitUs();
+            event.dns = timings.getDnsUs();
+            event.connect = timings.getConnectUs();
+            event.tls = timings.getTlsUs();
+            event.ttfb = timings.getTtfbUs();
+            event.bodyRead = timings.getBodyReadUs();
+        }
+        event.commit();
+    }
+
+    private static String extractMcpMethod(String jsonPayload) {
+        if (jsonPayload == null || jsonPayload.isBlank()) {
+            return null;
+        }
+        if (isBatch(jsonPayload)) {
+            return "batch";
+        }
+        try {
+            JsonObject json = JsonParser.parseString(jsonPayload).getAsJsonObject();
+            return json.has("method") && !json.get("method").isJsonNull() ? json.get("method").getAsString() : null;
         } catch (RuntimeException e) {
-            return new HttpResult(false, 400, null, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Opens a connection to {@code target} (scheme://host:port) through the shared pool and returns it idle, so
+     * the next request to that host skips DNS, connect and the TLS handshake. Returns false if it failed.
+     */
+    public static boolean preconnect(URI target, int timeoutMs) {
+        sharedClient();
+        PoolingHttpClientConnectionManager pool;
+        synchronized (HttpClientUtil.class) {
+            pool = sharedPool;
+        }
+        HttpHost host = new HttpHost(target.getScheme(), target.getHost(), target.getPort());
+        HttpRoute route = new HttpRoute(host, null, "https".equalsIgnoreCase(target.getScheme()));
+        Timeout timeout = Timeout.ofMilliseconds(timeoutMs);
+        ConnectionEndpoint endpoint = null;
+        try {
+            endpoint = pool.lease("preconnect", route, timeout, null).get(timeout);
+            if (!endpoint.isConnected()) {
+                pool.connect(endpoint, timeout, HttpClientContext.create());
+            }
+            pool.release(endpoint, null, TimeValue.NEG_ONE_MILLISECOND);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | IOException | RuntimeException e) {
+            logger.debug("Pre-connect to {} failed: {}", target, e.getMessage());
         }
+        if (endpoint != null) {
+            endpoint.close(CloseMode.IMMEDIATE);
+            pool.release(endpoint, null, TimeValue.ZERO_MILLISECONDS);
+        }
+        return false;
+    }
+
+    /** Closes the shared connection pool; the next request opens a new one. */
+    public static synchronized void shutdown() {
+        if (sharedClient != null) {
+            sharedClient.close(CloseMode.GRACEFUL);
+            sharedClient = null;
+            sharedPool = null;
+        }
+    }
+
+    /**
+     * The one pooled client every request goes through, so TLS context setup happens once and connections
+     * to a host are kept alive between checks. Cookies are not stored: the client is shared across users.
+     */
+    private static synchronized CloseableHttpClient sharedClient() {
+        if (sharedClient == null) {
+            sharedPool = createTimedPool();
+            sharedClient = HttpClients.custom()
+                    .setConnectionManager(sharedPool)
+                    .disableCookieManagement()
+                    .evictExpiredConnections()
+                    .evictIdleConnections(IDLE_EVICT)
+                    .build();
+        }
+        return sharedClient;
+    }
+
+    private static PoolingHttpClientConnectionManager createTimedPool() {
+        DnsResolver dnsResolver = new DnsResolver() {
+            @Override
+            public InetAddress[] resolve(String host) throws UnknownHostException {
+                long start = System.nanoTime();
+                try {
+                    return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+                } finally {
+                    recordPhase(start, HttpTimings::addDns);
+                }
+            }
+
+            @Override
+            public String resolveCanonicalHostname(String host) throws UnknownHostException {
+                return SystemDefaultDnsResolver.INSTANCE.resolveCanonicalHostname(host);
+            }
+        };
+
+        ConnectionSocketFactory plain = new PlainConnectionSocketFactory() {
+            @Override
+            public Socket connectSocket(TimeValue connectTimeout, Socket socket, HttpHost host,
+                                        InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                        HttpContext context) throws IOException {
+                long start = System.nanoTime();
+                try {
+                    return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+                } finally {
+                    recordPhase(start, HttpTimings::addConnect);
+                }
+            }
+        };
+
+        ConnectionSocketFactory tls = new SSLConnectionSocketFactory(SSLContexts.createDefault()) {
+            @Override
+            protected void connectSocket(Socket sock, InetSocketAddress remoteAddress, Timeout connectTimeout,
+                                         HttpContext context) throws IOException {
+                long start = System.nanoTime();
+                try {
+                    super.connectSocket(sock, remoteAddress, connectTimeout, context);
+                } finally {
+                    recordPhase(start, HttpTimings::addConnect);
+                }
+            }
+
+            @Override
+            public Socket createLayeredSocket(Socket socket, String target, int port, Object attachment,
+                                              HttpContext context) throws IOException {
+                long start = System.nanoTime();
+                try {
+                    return super.createLayeredSocket(socket, target, port, attachment, context);
+                } finally {
+                    recordPhase(start, HttpTimings::addTls);
+                }
+            }
+        };
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", plain)
+                        .register("https", tls)
+                        .build(),
+                PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, TimeValue.NEG_ONE_MILLISECOND,
+                null, dnsResolver, null) {
+            @Override
+            public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+                LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+                return new LeaseRequest() {
+                    @Override
+                    public ConnectionEndpoint get(Timeout timeout)
+                            throws InterruptedException, ExecutionException, TimeoutException {
+                        long start = System.nanoTime();
+                        try {
+                            return delegate.get(timeout);
+                        } finally {
+                            recordPhase(start, HttpTimings::addLeaseWait);
+                        }
+                    }
+
+                    @Override
+                    public boolean cancel() {
+                        return delegate.cancel();
+                    }
+                };
+            }
+        };
+        connectionManager.setMaxTotal(MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build());
+        return connectionManager;
     }
 
     private static JsonObject parseToJson(String body) {
@@ -283,7 +767,7 @@ public class HttpClientUtil {
         }
     }
 
-    private static String extractErrorMessage(String responseBody, int statusCode) {
+    static String extractErrorMessage(String responseBody, int statusCode) {
         if (responseBody == null || responseBody.isBlank()) {
             return "Request failed with status " + statusCode;
         }
@@ -9,12 +9,16 @@ import com.google.gson.JsonSyntaxException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class JsonUtil {
     private static final Logger logger = LogManager.getLogger(JsonUtil.class);
     private static final Gson gson = new GsonBuilder()
             .setDateFormat("yyyy-MM-dd HH:mm:ss")
             .setPrettyPrinting()
             .create();
+    // JSON-RPC ids must be unique per request so batched responses can be matched back to their calls.
+    private static final AtomicLong REQUEST_IDS = new AtomicLong();
 
     public static String toJson(Object object) {
         try {
@@ -51,7 +55,7 @@ public class JsonUtil {
     public static JsonObject createMCPRequest(String method, Object params) {
         JsonObject request = new JsonObject();
         request.addProperty("jsonrpc", "2.0");
-        request.addProperty("id", 1);
+        request.addProperty("id", REQUEST_IDS.incrementAndGet());
         request.addProperty("method", method);
         request.add("params", gson.toJsonTree(params));
         return request;
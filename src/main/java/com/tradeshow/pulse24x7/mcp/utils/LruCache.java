@@ -0,0 +1,173 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe, size-bounded LRU cache whose entries also expire {@code ttlMillis} after they were stored.
+ * Entries may belong to a group (for example the server a tool belongs to), which can be invalidated as a
+ * whole without scanning the cache.
+ * <p>
+ * Read-through callers take {@link #stamp()} before loading and store with {@link #putIfUnchanged}, so a
+ * value loaded before an invalidation of its key or group cannot be stored after it and outlive the write
+ * it missed. Invalidations are tracked per key and per group, so writes to other keys do not keep a busy
+ * key from being cached.
+ */
+public class LruCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Function<? super V, ?> groupOf;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final Map<Object, Set<K>> groups = new HashMap<>();
+    // Sequence number of the last invalidation of each key and group, oldest first. Dropping the oldest
+    // raises the floor below which every stamp is treated as stale.
+    private final LinkedHashMap<Object, Long> tombstones;
+    private long sequence;
+    private long floor;
+
+    public LruCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, null);
+    }
+
+    public LruCache(int maxSize, long ttlMillis, Function<? super V, ?> groupOf) {
+        this(maxSize, ttlMillis, groupOf, System::nanoTime);
+    }
+
+    LruCache(int maxSize, long ttlMillis, Function<? super V, ?> groupOf, LongSupplier clock) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, ttlMillis));
+        this.groupOf = groupOf;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= LruCache.this.maxSize) {
+                    return false;
+                }
+                unindex(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+        this.tombstones = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Long> eldest) {
+                if (size() <= LruCache.this.maxSize) {
+                    return false;
+                }
+                floor = Math.max(floor, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /** Cached value for {@code key}, or null when absent or expired. */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() - entry.storedAt() >= ttlNanos) {
+            remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /** Take before loading a value and pass to {@link #putIfUnchanged}. */
+    public synchronized long stamp() {
+        return sequence;
+    }
+
+    /**
+     * Stores {@code value} unless its key or group was invalidated since {@code stamp} was read. Returns
+     * whether the value was stored.
+     */
+    public synchronized boolean putIfUnchanged(K key, V value, long stamp) {
+        if (value == null || stamp < floor || invalidatedAfter(new KeyMark(key), stamp)) {
+            return false;
+        }
+        Object group = groupOf == null ? null : groupOf.apply(value);
+        if (group != null && invalidatedAfter(new GroupMark(group), stamp)) {
+            return false;
+        }
+        remove(key);
+        entries.put(key, new Entry<>(value, group, clock.getAsLong()));
+        if (group != null) {
+            groups.computeIfAbsent(group, g -> new HashSet<>()).add(key);
+        }
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        mark(new KeyMark(key));
+        remove(key);
+    }
+
+    /** Drops every entry in {@code group}; returns how many were dropped. */
+    public synchronized int invalidateGroup(Object group) {
+        mark(new GroupMark(group));
+        Set<K> keys = groups.remove(group);
+        if (keys == null) {
+            return 0;
+        }
+        keys.forEach(entries::remove);
+        return keys.size();
+    }
+
+    public synchronized void clear() {
+        sequence++;
+        floor = sequence;
+        tombstones.clear();
+        entries.clear();
+        groups.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean invalidatedAfter(Object mark, long stamp) {
+        Long invalidatedAt = tombstones.get(mark);
+        return invalidatedAt != null && invalidatedAt > stamp;
+    }
+
+    private void mark(Object mark) {
+        sequence++;
+        // Re-insert so the tombstone moves to the young end.
+        tombstones.remove(mark);
+        tombstones.put(mark, sequence);
+    }
+
+    private void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(K key, Entry<V> entry) {
+        if (entry.group() == null) {
+            return;
+        }
+        Set<K> keys = groups.get(entry.group());
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            groups.remove(entry.group());
+        }
+    }
+
+    private record Entry<V>(V value, Object group, long storedAt) {
+    }
+
+    private record KeyMark(Object key) {
+    }
+
+    private record GroupMark(Object group) {
+    }
+}
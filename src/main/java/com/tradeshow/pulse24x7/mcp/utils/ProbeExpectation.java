@@ -0,0 +1,215 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Expected-result predicate of a synthetic tool probe, checked against the JSON-RPC response of
+ * {@code tools/call}. The stored form is one rule or an array of rules, all of which must hold:
+ * <pre>
+ * {"path": "result.content[0].text", "contains": "ok"}
+ * [{"path": "result.structuredContent.status", "equals": "green"}, {"path": "result.meta", "exists": false}]
+ * </pre>
+ * Supported operators are {@code equals} (JSON equality), {@code contains} (substring of the value's text),
+ * {@code matches} (regex found in the value's text) and {@code exists}. Every probe, with or without rules,
+ * fails on a JSON-RPC error or a result flagged {@code isError}.
+ */
+public final class ProbeExpectation {
+    private static final Pattern SEGMENT = Pattern.compile("([^.\\[\\]]*)((?:\\[\\d+\\])*)");
+    private static final Pattern INDEX = Pattern.compile("\\[(\\d+)\\]");
+    private static final ProbeExpectation NONE = new ProbeExpectation(Collections.emptyList());
+
+    private record Rule(String path, List<Object> steps, String operator, JsonElement operand, Pattern regex) {
+    }
+
+    private final List<Rule> rules;
+
+    private ProbeExpectation(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Parses a stored predicate; blank means "no rules".
+     *
+     * @throws IllegalArgumentException if the predicate is malformed
+     */
+    public static ProbeExpectation parse(String json) {
+        if (json == null || json.isBlank()) {
+            return NONE;
+        }
+        JsonElement root;
+        try {
+            root = JsonParser.parseString(json);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("expectedResult is not valid JSON");
+        }
+        List<Rule> rules = new ArrayList<>();
+        if (root.isJsonArray()) {
+            for (JsonElement element : root.getAsJsonArray()) {
+                rules.add(parseRule(element));
+            }
+        } else {
+            rules.add(parseRule(root));
+        }
+        return new ProbeExpectation(rules);
+    }
+
+    /** Returns null when the response satisfies the predicate, otherwise a short reason. */
+    public String firstFailure(JsonObject response) {
+        if (response == null) {
+            return "empty response";
+        }
+        if (response.has("error") && !response.get("error").isJsonNull()) {
+            return "JSON-RPC error";
+        }
+        JsonElement result = response.get("result");
+        if (result != null && result.isJsonObject()) {
+            JsonElement isError = result.getAsJsonObject().get("isError");
+            if (isError != null && isError.isJsonPrimitive() && isError.getAsBoolean()) {
+                return "result.isError is true";
+            }
+        }
+        for (Rule rule : rules) {
+            String failure = check(rule, resolve(response, rule.steps()));
+            if (failure != null) {
+                return rule.path() + " " + failure;
+            }
+        }
+        return null;
+    }
+
+    private static Rule parseRule(JsonElement element) {
+        if (element == null || !element.isJsonObject()) {
+            throw new IllegalArgumentException("each expectation must be a JSON object");
+        }
+        JsonObject object = element.getAsJsonObject();
+        String path = object.has("path") && object.get("path").isJsonPrimitive()
+                ? object.get("path").getAsString().trim() : "";
+        String operator = null;
+        for (String candidate : new String[]{"equals", "contains", "matches", "exists"}) {
+            if (object.has(candidate)) {
+                if (operator != null) {
+                    throw new IllegalArgumentException("expectation on '" + path + "' has more than one operator");
+                }
+                operator = candidate;
+            }
+        }
+        if (operator == null) {
+            throw new IllegalArgumentException("expectation on '" + path + "' needs equals, contains, matches or exists");
+        }
+        JsonElement operand = object.get(operator);
+        Pattern regex = null;
+        if ("matches".equals(operator)) {
+            try {
+                regex = Pattern.compile(text(operand));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("invalid regex for '" + path + "': " + e.getDescription());
+            }
+        } else if ("exists".equals(operator)
+                && !(operand.isJsonPrimitive() && operand.getAsJsonPrimitive().isBoolean())) {
+            throw new IllegalArgumentException("exists must be true or false");
+        }
+        return new Rule(path.isEmpty() ? "response" : path, steps(path), operator, operand, regex);
+    }
+
+    private static List<Object> steps(String path) {
+        List<Object> steps = new ArrayList<>();
+        if (path.isEmpty()) {
+            return steps;
+        }
+        for (String segment : path.split("\\.", -1)) {
+            Matcher matcher = SEGMENT.matcher(segment);
+            if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                throw new IllegalArgumentException("invalid path '" + path + "'");
+            }
+            if (!matcher.group(1).isEmpty()) {
+                steps.add(matcher.group(1));
+            }
+            Matcher index = INDEX.matcher(matcher.group(2));
+            while (index.find()) {
+                steps.add(Integer.parseInt(index.group(1)));
+            }
+        }
+        return steps;
+    }
+
+    private static JsonElement resolve(JsonElement root, List<Object> steps) {
+        JsonElement current = root;
+        for (Object step : steps) {
+            if (current == null || current.isJsonNull()) {
+                return null;
+            }
+            if (step instanceof Integer index) {
+                if (!current.isJsonArray()) {
+                    return null;
+                }
+                JsonArray array = current.getAsJsonArray();
+                current = index < array.size() ? array.get(index) : null;
+            } else {
+                if (!current.isJsonObject()) {
+                    return null;
+                }
+                current = current.getAsJsonObject().get((String) step);
+            }
+        }
+        return current;
+    }
+
+    private static String check(Rule rule, JsonElement value) {
+        boolean present = value != null && !value.isJsonNull();
+        switch (rule.operator()) {
+            case "exists":
+                boolean expected = rule.operand().getAsBoolean();
+                return present == expected ? null : (expected ? "is missing" : "is present");
+            case "equals":
+                if (present && equalsJson(value, rule.operand())) {
+                    return null;
+                }
+                return "expected " + rule.operand() + " but was " + (present ? abbreviate(value.toString()) : "missing");
+            case "contains":
+                if (present && text(value).contains(text(rule.operand()))) {
+                    return null;
+                }
+                return "does not contain " + rule.operand();
+            case "matches":
+                if (present && rule.regex().matcher(text(value)).find()) {
+                    return null;
+                }
+                return "does not match " + rule.operand();
+            default:
+                return "has unknown operator " + rule.operator();
+        }
+    }
+
+    private static boolean equalsJson(JsonElement actual, JsonElement expected) {
+        if (actual.isJsonPrimitive() && expected.isJsonPrimitive()) {
+            JsonPrimitive a = actual.getAsJsonPrimitive();
+            JsonPrimitive b = expected.getAsJsonPrimitive();
+            if (a.isNumber() && b.isNumber()) {
+                return a.getAsBigDecimal().compareTo(b.getAsBigDecimal()) == 0;
+            }
+        }
+        return actual.equals(expected);
+    }
+
+    private static String text(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return "";
+        }
+        return element.isJsonPrimitive() ? element.getAsString() : element.toString();
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() <= 80 ? value : value.substring(0, 77) + "...";
+    }
+}
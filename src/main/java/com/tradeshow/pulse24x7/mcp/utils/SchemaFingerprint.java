@@ -0,0 +1,200 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Canonical SHA-256 of tool schemas. Object keys are hashed in sorted order and numbers by value
+ * ({@code 1}, {@code 1.0} and {@code 1E+0} are equal), so two schemas fingerprint alike exactly when they
+ * are the same JSON. A parsed tree and its stored text produce the same fingerprint; stored text is read
+ * with a streaming {@link JsonReader} and never built into a tree.
+ */
+public final class SchemaFingerprint {
+    private static final byte ABSENT = 'a';
+    private static final byte RAW = 'r';
+    private static final byte NULL = 'n';
+    private static final byte TRUE = 't';
+    private static final byte FALSE = 'f';
+    private static final byte NUMBER = 'd';
+    private static final byte STRING = 's';
+    private static final byte ARRAY = '[';
+    private static final byte ARRAY_END = ']';
+    private static final byte OBJECT = '{';
+    private static final byte OBJECT_END = '}';
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private SchemaFingerprint() {
+    }
+
+    /** Fingerprint of a tool's schemas as they arrive in tools/list; null entries mean "not declared". */
+    public static String of(JsonElement... schemas) {
+        MessageDigest digest = sha256();
+        for (JsonElement schema : schemas) {
+            if (schema == null || schema.isJsonNull()) {
+                digest.update(ABSENT);
+            } else {
+                digest.update(hash(schema));
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    /** Fingerprint of schemas stored as JSON text; matches {@link #of(JsonElement...)} for the same JSON. */
+    public static String ofStored(String... schemas) {
+        MessageDigest digest = sha256();
+        for (String schema : schemas) {
+            if (schema == null || schema.isBlank() || "null".equals(schema.trim())) {
+                digest.update(ABSENT);
+            } else {
+                digest.update(hashStored(schema));
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static byte[] hash(JsonElement element) {
+        MessageDigest digest = sha256();
+        write(digest, element);
+        return digest.digest();
+    }
+
+    private static void write(MessageDigest digest, JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            digest.update(NULL);
+        } else if (element.isJsonArray()) {
+            digest.update(ARRAY);
+            for (JsonElement item : (JsonArray) element) {
+                write(digest, item);
+            }
+            digest.update(ARRAY_END);
+        } else if (element.isJsonObject()) {
+            Map<String, byte[]> members = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> member : ((JsonObject) element).entrySet()) {
+                members.put(member.getKey(), hash(member.getValue()));
+            }
+            writeMembers(digest, members);
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                digest.update(primitive.getAsBoolean() ? TRUE : FALSE);
+            } else if (primitive.isNumber()) {
+                writeText(digest, NUMBER, canonicalNumber(primitive.getAsNumber().toString()));
+            } else {
+                writeText(digest, STRING, primitive.getAsString());
+            }
+        }
+    }
+
+    private static byte[] hashStored(String schema) {
+        MessageDigest digest = sha256();
+        try (JsonReader reader = new JsonReader(new StringReader(schema))) {
+            reader.setLenient(true);
+            write(digest, reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new IOException("Trailing content after schema");
+            }
+            return digest.digest();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // Not JSON: fall back to the trimmed text, as the old string comparison did.
+            digest.reset();
+            writeText(digest, RAW, schema.trim());
+            return digest.digest();
+        }
+    }
+
+    private static void write(MessageDigest digest, JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                digest.update(ARRAY);
+                while (reader.hasNext()) {
+                    write(digest, reader);
+                }
+                reader.endArray();
+                digest.update(ARRAY_END);
+                break;
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                Map<String, byte[]> members = new TreeMap<>();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    MessageDigest member = sha256();
+                    write(member, reader);
+                    members.put(name, member.digest());
+                }
+                reader.endObject();
+                writeMembers(digest, members);
+                break;
+            case BOOLEAN:
+                digest.update(reader.nextBoolean() ? TRUE : FALSE);
+                break;
+            case NUMBER:
+                writeText(digest, NUMBER, canonicalNumber(reader.nextString()));
+                break;
+            case NULL:
+                reader.nextNull();
+                digest.update(NULL);
+                break;
+            default:
+                writeText(digest, STRING, reader.nextString());
+                break;
+        }
+    }
+
+    private static void writeMembers(MessageDigest digest, Map<String, byte[]> members) {
+        digest.update(OBJECT);
+        for (Map.Entry<String, byte[]> member : members.entrySet()) {
+            writeText(digest, STRING, member.getKey());
+            digest.update(member.getValue());
+        }
+        digest.update(OBJECT_END);
+    }
+
+    private static void writeText(MessageDigest digest, byte tag, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        digest.update(tag);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static String canonicalNumber(String literal) {
+        try {
+            return new BigDecimal(literal).stripTrailingZeros().toString();
+        } catch (NumberFormatException e) {
+            return literal;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
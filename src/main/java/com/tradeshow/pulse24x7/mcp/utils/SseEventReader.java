@@ -0,0 +1,94 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Incremental reader for {@code text/event-stream} bodies. Each call to {@link #next()} blocks only until the
+ * next complete event has arrived, so a caller can stop reading as soon as it has what it needs.
+ */
+public class SseEventReader {
+    private final BufferedReader reader;
+    private String lastEventId;
+
+    public static class Event {
+        private final String type;
+        private final String id;
+        private final String data;
+
+        Event(String type, String id, String data) {
+            this.type = type;
+            this.id = id;
+            this.data = data;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getData() {
+            return data;
+        }
+    }
+
+    public SseEventReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the next dispatched event, or null once the stream ends. A trailing event that was never
+     * terminated by a blank line is discarded, as the SSE spec requires.
+     */
+    public Event next() throws IOException {
+        StringBuilder data = null;
+        String type = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (data != null) {
+                    return new Event(type == null ? "message" : type, lastEventId, data.toString());
+                }
+                type = null;
+                continue;
+            }
+            if (line.startsWith(":")) {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            switch (field) {
+                case "data":
+                    if (data == null) {
+                        data = new StringBuilder();
+                    } else {
+                        data.append('\n');
+                    }
+                    data.append(value);
+                    break;
+                case "event":
+                    type = value;
+                    break;
+                case "id":
+                    if (value.indexOf('\0') < 0) {
+                        lastEventId = value;
+                    }
+                    break;
+                default:
+                    // "retry" only matters for long-lived GET streams, which this client never opens.
+                    break;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe token bucket: refills at {@code ratePerSecond} up to {@code burst} tokens. A rate of zero or
+ * less disables the limit.
+ */
+public class TokenBucket {
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double ratePerSecond, double burst) {
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1.0, burst);
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public boolean isUnlimited() {
+        return ratePerNano <= 0;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (isUnlimited()) {
+            return true;
+        }
+        refill(System.nanoTime());
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes a token, waiting for the refill if needed. Returns false without taking one when the wait would
+     * exceed {@code maxWaitMs}.
+     */
+    public boolean acquire(long maxWaitMs) throws InterruptedException {
+        if (isUnlimited()) {
+            return true;
+        }
+        long waitNanos;
+        synchronized (this) {
+            refill(System.nanoTime());
+            tokens -= 1.0;
+            if (tokens >= 0.0) {
+                return true;
+            }
+            waitNanos = (long) Math.ceil(-tokens / ratePerNano);
+            if (waitNanos > TimeUnit.MILLISECONDS.toNanos(Math.max(0L, maxWaitMs))) {
+                tokens += 1.0;
+                return false;
+            }
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+        return true;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+        refilledAt = now;
+    }
+}
@@ -20,7 +20,9 @@ CREATE TABLE servers (
     monitor_interval_minutes INT NOT NULL DEFAULT 30,
     connection_timeout_ms INT NOT NULL DEFAULT 5000,
     auto_reconnect BOOLEAN NOT NULL DEFAULT TRUE,
+    adaptive_interval BOOLEAN NOT NULL DEFAULT FALSE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP NULL DEFAULT NULL,
     CONSTRAINT fk_servers_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     CONSTRAINT uk_servers_user_url UNIQUE (user_id, server_url),
     INDEX idx_servers_user_created (user_id, created_at)
@@ -47,6 +49,7 @@ CREATE TABLE tools (
     tool_type VARCHAR(30) DEFAULT 'ACTION',
     input_schema LONGTEXT NULL,
     output_schema LONGTEXT NULL,
+    schema_fingerprint CHAR(64) NULL,
     is_availability BOOLEAN DEFAULT TRUE,
     total_requests BIGINT DEFAULT 0,
     success_requests BIGINT DEFAULT 0,
@@ -59,6 +62,30 @@ CREATE TABLE tools (
     CONSTRAINT fk_tool_server FOREIGN KEY (server_id) REFERENCES servers(server_id) ON DELETE CASCADE
 );
 
+CREATE TABLE cluster_nodes (
+    node_id VARCHAR(64) PRIMARY KEY,
+    host_name VARCHAR(255) NULL,
+    started_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    heartbeat_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_cluster_nodes_heartbeat (heartbeat_at)
+);
+
+CREATE TABLE server_leases (
+    server_id INT PRIMARY KEY,
+    node_id VARCHAR(64) NOT NULL,
+    lease_until TIMESTAMP(3) NOT NULL,
+    CONSTRAINT fk_server_leases_server FOREIGN KEY (server_id) REFERENCES servers(server_id) ON DELETE CASCADE,
+    INDEX idx_server_leases_node (node_id)
+);
+
+CREATE TABLE cache_invalidations (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity VARCHAR(32) NOT NULL,
+    entity_id INT NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_cache_invalidations_created (created_at)
+);
+
 CREATE TABLE server_history (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     server_id INT NOT NULL,
@@ -78,6 +105,93 @@ CREATE TABLE tools_history (
     INDEX idx_tools_history_tool_checked (tool_id, checked_at)
 );
 
+CREATE TABLE retention_watermarks (
+    table_name VARCHAR(64) PRIMARY KEY,
+    last_id BIGINT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE tool_validity (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    tool_id INT NOT NULL,
+    server_id INT NOT NULL,
+    tool_name VARCHAR(120) NOT NULL,
+    tool_description TEXT NULL,
+    tool_type VARCHAR(30) NULL,
+    input_schema LONGTEXT NULL,
+    output_schema LONGTEXT NULL,
+    is_available BOOLEAN NOT NULL,
+    valid_from DATETIME(3) NOT NULL,
+    valid_to DATETIME(3) NOT NULL DEFAULT '9999-12-31 23:59:59.999',
+    CONSTRAINT fk_tool_validity_tool FOREIGN KEY (tool_id) REFERENCES tools(tool_id) ON DELETE CASCADE,
+    INDEX idx_tool_validity_server_range (server_id, valid_to, valid_from),
+    INDEX idx_tool_validity_tool_open (tool_id, valid_to)
+);
+
+CREATE TABLE tool_probes (
+    probe_id INT PRIMARY KEY AUTO_INCREMENT,
+    tool_id INT NOT NULL,
+    server_id INT NOT NULL,
+    input_params LONGTEXT NULL,
+    expected_result TEXT NULL,
+    interval_minutes INT NOT NULL DEFAULT 15,
+    timeout_ms INT NOT NULL DEFAULT 15000,
+    slo_p95_ms BIGINT NULL,
+    slo_error_rate_percent DOUBLE NULL,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    slo_breached BOOLEAN NOT NULL DEFAULT FALSE,
+    last_run_at TIMESTAMP NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_tool_probes_tool FOREIGN KEY (tool_id) REFERENCES tools(tool_id) ON DELETE CASCADE,
+    CONSTRAINT fk_tool_probes_server FOREIGN KEY (server_id) REFERENCES servers(server_id) ON DELETE CASCADE,
+    INDEX idx_tool_probes_server (server_id),
+    INDEX idx_tool_probes_due (enabled, last_run_at)
+);
+
+CREATE TABLE tool_probe_results (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    probe_id INT NOT NULL,
+    tool_id INT NOT NULL,
+    success BOOLEAN NOT NULL,
+    latency_ms BIGINT NOT NULL DEFAULT 0,
+    status_code INT NOT NULL,
+    error_message TEXT NULL,
+    checked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_tool_probe_results_probe FOREIGN KEY (probe_id) REFERENCES tool_probes(probe_id) ON DELETE CASCADE,
+    INDEX idx_tool_probe_results_probe_checked (probe_id, checked_at),
+    INDEX idx_tool_probe_results_checked (checked_at)
+);
+
+CREATE TABLE tool_load_tests (
+    run_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    server_id INT NOT NULL,
+    tool_id INT NOT NULL,
+    tool_name VARCHAR(120) NOT NULL,
+    mode VARCHAR(10) NOT NULL,
+    concurrency INT NOT NULL,
+    rate_per_second DOUBLE NULL,
+    duration_seconds INT NOT NULL,
+    timeout_ms INT NOT NULL,
+    input_params LONGTEXT NULL,
+    status VARCHAR(20) NOT NULL,
+    stop_reason VARCHAR(255) NULL,
+    total_calls BIGINT NOT NULL DEFAULT 0,
+    error_count BIGINT NOT NULL DEFAULT 0,
+    shed_count BIGINT NOT NULL DEFAULT 0,
+    throughput_per_second DOUBLE NULL,
+    service_time_ms TEXT NULL,
+    response_time_ms TEXT NULL,
+    status_breakdown TEXT NULL,
+    histogram LONGTEXT NULL,
+    started_by BIGINT NULL,
+    started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP NULL,
+    CONSTRAINT fk_tool_load_tests_tool FOREIGN KEY (tool_id) REFERENCES tools(tool_id) ON DELETE CASCADE,
+    CONSTRAINT fk_tool_load_tests_server FOREIGN KEY (server_id) REFERENCES servers(server_id) ON DELETE CASCADE,
+    INDEX idx_tool_load_tests_tool_started (tool_id, started_at),
+    INDEX idx_tool_load_tests_server_started (server_id, started_at)
+);
+
 CREATE TABLE request_logs (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     server_id INT NOT NULL,
@@ -90,6 +204,12 @@ CREATE TABLE request_logs (
     error_message TEXT NULL,
     response_size_bytes BIGINT NOT NULL DEFAULT 0,
     user_agent VARCHAR(255) NULL,
+    lease_wait_us BIGINT NULL,
+    dns_us BIGINT NULL,
+    connect_us BIGINT NULL,
+    tls_us BIGINT NULL,
+    ttfb_us BIGINT NULL,
+    body_read_us BIGINT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT fk_request_logs_server FOREIGN KEY (server_id) REFERENCES servers(server_id) ON DELETE CASCADE,
     CONSTRAINT fk_request_logs_tool FOREIGN KEY (tool_id) REFERENCES tools(tool_id) ON DELETE SET NULL,
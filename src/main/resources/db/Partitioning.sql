@@ -0,0 +1,35 @@
+-- Optional migration: RANGE-partition request_logs and server_history on their time column.
+-- MySQL does not support foreign keys on partitioned tables, so the FKs touching these tables are dropped.
+-- ServerDAO.deleteServer and the retention job delete dependent rows explicitly.
+-- After running this, the scheduled maintenance job (PartitionMaintenanceService) splits pmax into
+-- daily/monthly partitions ahead of time and drops partitions past their retention window.
+
+ALTER TABLE request_log_payloads DROP FOREIGN KEY fk_request_log_payloads_request_log;
+
+ALTER TABLE request_logs
+    DROP FOREIGN KEY fk_request_logs_server,
+    DROP FOREIGN KEY fk_request_logs_tool;
+
+ALTER TABLE request_logs
+    MODIFY created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE request_logs
+    PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+        PARTITION p_start VALUES LESS THAN (UNIX_TIMESTAMP('2000-01-01 00:00:00')),
+        PARTITION pmax VALUES LESS THAN MAXVALUE
+    );
+
+ALTER TABLE server_history DROP FOREIGN KEY fk_server_history_server;
+
+ALTER TABLE server_history
+    MODIFY checked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, checked_at);
+
+ALTER TABLE server_history
+    PARTITION BY RANGE (UNIX_TIMESTAMP(checked_at)) (
+        PARTITION p_start VALUES LESS THAN (UNIX_TIMESTAMP('2000-01-01 00:00:00')),
+        PARTITION pmax VALUES LESS THAN MAXVALUE
+    );
@@ -135,6 +135,29 @@ export default function RequestDetailsPanel({ request, selectedServer, onClose }
                     </div>
                 </section>
 
+                {/* Timing Breakdown */}
+                {request.phases ? (
+                    <section className={RequestLogsStyles.panelSection}>
+                        <h3>TIMING BREAKDOWN</h3>
+                        <div className={RequestLogsStyles.metadataGrid}>
+                            {request.phases.map((phase) => (
+                                <div key={phase.key} className={RequestLogsStyles.phaseItem}>
+                                    <div className={RequestLogsStyles.phaseLabel}>
+                                        <label>{phase.label}</label>
+                                        <span>{formatMicros(phase.micros)}</span>
+                                    </div>
+                                    <div className={RequestLogsStyles.phaseTrack}>
+                                        <div
+                                            className={RequestLogsStyles.phaseFill}
+                                            style={{ width: `${phaseShare(request.phases, phase.micros)}%` }}
+                                        />
+                                    </div>
+                                </div>
+                            ))}
+                        </div>
+                    </section>
+                ) : null}
+
                 {/* Action Button */}
                 <section className={RequestLogsStyles.panelSection}>
                     <button className={RequestLogsStyles.replayBtn} onClick={handleReplay} disabled={replaying}>
@@ -151,3 +174,15 @@ export default function RequestDetailsPanel({ request, selectedServer, onClose }
         </aside>
     );
 }
+
+function formatMicros(micros) {
+    if (micros >= 1000) {
+        return `${Math.round(micros / 100) / 10}ms`;
+    }
+    return `${micros}\u00b5s`;
+}
+
+function phaseShare(phases, micros) {
+    const total = phases.reduce((sum, phase) => sum + phase.micros, 0);
+    return total > 0 ? Math.max(1, Math.round((micros / total) * 100)) : 0;
+}
@@ -335,10 +335,26 @@ function mapRequestLog(row) {
         requestPayload,
         responseBody,
         userAgent: row.userAgent,
+        phases: mapPhases(row),
         rawCreatedAt: row.createdAt || row.created_at
     };
 }
 
+function mapPhases(row) {
+    const phases = [
+        { key: 'leaseWaitUs', label: 'Pool Lease Wait' },
+        { key: 'dnsUs', label: 'DNS Lookup' },
+        { key: 'connectUs', label: 'TCP Connect' },
+        { key: 'tlsUs', label: 'TLS Handshake' },
+        { key: 'ttfbUs', label: 'Time To First Byte' },
+        { key: 'bodyReadUs', label: 'Body Read' }
+    ];
+    if (phases.every((phase) => row[phase.key] === null || row[phase.key] === undefined)) {
+        return null;
+    }
+    return phases.map((phase) => ({ ...phase, micros: Number(row[phase.key]) || 0 }));
+}
+
 function getStatusText(statusCode) {
     const code = Number(statusCode) || 0;
     if (code >= 200 && code < 300) return 'SUCCESS';
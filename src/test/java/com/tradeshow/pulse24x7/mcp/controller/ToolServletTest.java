@@ -0,0 +1,294 @@
+package com.tradeshow.pulse24x7.mcp.controller;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tradeshow.pulse24x7.mcp.model.AuthToken;
+import com.tradeshow.pulse24x7.mcp.model.RequestLog;
+import com.tradeshow.pulse24x7.mcp.model.Server;
+import com.tradeshow.pulse24x7.mcp.service.AuthTokenService;
+import com.tradeshow.pulse24x7.mcp.service.Bulkhead;
+import com.tradeshow.pulse24x7.mcp.service.RequestLogService;
+import com.tradeshow.pulse24x7.mcp.service.ServerService;
+import com.tradeshow.pulse24x7.mcp.service.ToolService;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import junit.framework.TestCase;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ToolServletTest extends TestCase {
+    private static final String SLOW_URL = "http://batch-slow.test/mcp";
+    private static final String FAST_URL = "http://batch-fast.test/mcp";
+    private static final String BUSY_URL = "http://batch-busy.test/mcp";
+    private static final String LANE_URL = "http://batch-lane.test/mcp";
+
+    private final FakeToolService toolService = new FakeToolService();
+    private final List<RequestLog> recordedLogs = new CopyOnWriteArrayList<>();
+    private ToolServlet servlet;
+
+    @Override
+    protected void setUp() {
+        RequestLogService requestLogService = new RequestLogService() {
+            @Override
+            public void recordAll(List<RequestLog> requestLogs) {
+                recordedLogs.addAll(requestLogs);
+            }
+        };
+        ServerService serverService = new ServerService(null) {
+            @Override
+            public Server getServerById(Integer serverId, Long userId) {
+                return switch (serverId) {
+                    case 1 -> server(1, SLOW_URL);
+                    case 2 -> server(2, FAST_URL);
+                    case 3 -> server(3, BUSY_URL);
+                    case 4 -> server(4, LANE_URL);
+                    default -> null;
+                };
+            }
+        };
+        AuthTokenService authTokenService = new AuthTokenService(requestLogService) {
+            @Override
+            public AuthToken getToken(Integer serverId) {
+                return null;
+            }
+
+            @Override
+            public String ensureValidAccessToken(Integer serverId) {
+                return "token";
+            }
+        };
+        servlet = new ToolServlet(toolService, serverService, authTokenService, requestLogService);
+    }
+
+    public void testResultsStreamAsEachCallFinishesFollowedByASummary() throws Exception {
+        toolService.gates.put(SLOW_URL, new CountDownLatch(1));
+        Exchange exchange = post("{\"calls\":["
+                + "{\"serverId\":1,\"toolName\":\"slow\"},"
+                + "{\"serverId\":2,\"toolName\":\"fast\"},"
+                + "{\"serverId\":2,\"toolName\":\"fast\"},"
+                + "{\"serverId\":9,\"toolName\":\"missing\"},"
+                + "{\"serverId\":2}]}");
+
+        waitFor(() -> exchange.lines().size() >= 4);
+        List<JsonObject> early = exchange.lines();
+        assertFalse("the batch must wait for the slow call", exchange.completed.await(50, TimeUnit.MILLISECONDS));
+        assertEquals(4, early.size());
+        assertEquals(List.of(1, 2, 3, 4), sortedIndexes(early));
+
+        toolService.gates.get(SLOW_URL).countDown();
+        assertTrue(exchange.completed.await(5, TimeUnit.SECONDS));
+
+        List<JsonObject> lines = exchange.lines();
+        assertEquals(6, lines.size());
+        assertEquals(0, lines.get(4).get("index").getAsInt());
+        assertEquals(200, lines.get(4).get("status").getAsInt());
+        assertEquals(404, statusOf(lines, 3));
+        assertEquals(400, statusOf(lines, 4));
+        JsonObject summary = lines.get(5);
+        assertTrue(summary.get("done").getAsBoolean());
+        assertEquals(5, summary.get("total").getAsInt());
+        assertEquals(3, summary.get("succeeded").getAsInt());
+        assertEquals(2, summary.get("failed").getAsInt());
+        assertEquals("only executed calls are logged", 3, recordedLogs.size());
+        assertEquals("application/x-ndjson", exchange.contentType);
+    }
+
+    public void testCallsToOneServerAreFedThroughALaneOfFour() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        toolService.gates.put(LANE_URL, gate);
+        StringBuilder calls = new StringBuilder("{\"calls\":[");
+        for (int i = 0; i < 20; i++) {
+            calls.append(i == 0 ? "" : ",").append("{\"serverId\":4,\"toolName\":\"held\"}");
+        }
+        Exchange exchange = post(calls.append("]}").toString());
+
+        waitFor(() -> toolService.inFlight.get() == 4);
+        Thread.sleep(50);
+        assertEquals(4, toolService.inFlight.get());
+        assertTrue("the lane must leave the server's bulkhead queue to other traffic",
+                Bulkhead.forUrl(LANE_URL).submit(() -> { }, () -> { }));
+        gate.countDown();
+
+        assertTrue(exchange.completed.await(10, TimeUnit.SECONDS));
+        List<JsonObject> lines = exchange.lines();
+        assertEquals(21, lines.size());
+        for (JsonObject line : lines.subList(0, 20)) {
+            assertEquals(200, line.get("status").getAsInt());
+        }
+        assertEquals(20, lines.get(20).get("succeeded").getAsInt());
+        assertEquals(4, toolService.maxInFlight.get());
+    }
+
+    public void testSaturatedBulkheadAnswers429ForEveryCallOfThatServer() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Bulkhead bulkhead = Bulkhead.forUrl(BUSY_URL);
+        int guard = 0;
+        while (bulkhead.submit(() -> awaitQuietly(release), () -> { }) && guard++ < 1000) {
+            // fill the running slots and the queue
+        }
+        try {
+            Exchange exchange = post("{\"calls\":["
+                    + "{\"serverId\":3,\"toolName\":\"a\"},"
+                    + "{\"serverId\":3,\"toolName\":\"b\"},"
+                    + "{\"serverId\":2,\"toolName\":\"c\"}]}");
+
+            assertTrue(exchange.completed.await(5, TimeUnit.SECONDS));
+            List<JsonObject> lines = exchange.lines();
+            assertEquals(4, lines.size());
+            assertEquals(429, statusOf(lines, 0));
+            assertEquals(429, statusOf(lines, 1));
+            assertEquals(200, statusOf(lines, 2));
+            assertEquals(1, lines.get(3).get("succeeded").getAsInt());
+            assertEquals(0, toolService.callsTo(BUSY_URL));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    public void testEmptyBatchIsRejectedBeforeGoingAsync() throws Exception {
+        Exchange exchange = post("{\"calls\":[]}");
+
+        assertEquals(400, exchange.status);
+        assertFalse(exchange.asyncStarted);
+        assertTrue(exchange.body.toString().contains("calls must be a non-empty array"));
+    }
+
+    private Exchange post(String body) throws Exception {
+        Exchange exchange = new Exchange();
+        ClassLoader loader = ToolServletTest.class.getClassLoader();
+        AsyncContext async = (AsyncContext) Proxy.newProxyInstance(loader, new Class<?>[]{AsyncContext.class},
+                (proxy, method, args) -> {
+                    if ("complete".equals(method.getName())) {
+                        exchange.completed.countDown();
+                    }
+                    return null;
+                });
+        HttpServletResponse resp = (HttpServletResponse) Proxy.newProxyInstance(loader,
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getWriter" -> exchange.writer;
+                    case "setStatus" -> {
+                        exchange.status = (Integer) args[0];
+                        yield null;
+                    }
+                    case "setContentType" -> {
+                        exchange.contentType = (String) args[0];
+                        yield null;
+                    }
+                    default -> null;
+                });
+        HttpServletRequest req = (HttpServletRequest) Proxy.newProxyInstance(loader,
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getPathInfo" -> "/batch";
+                    case "getAttribute" -> "userId".equals(args[0]) ? 7L : null;
+                    case "getReader" -> new BufferedReader(new StringReader(body));
+                    case "startAsync" -> {
+                        exchange.asyncStarted = true;
+                        yield async;
+                    }
+                    default -> null;
+                });
+        servlet.doPost(req, resp);
+        return exchange;
+    }
+
+    private static Server server(int serverId, String url) {
+        Server server = new Server();
+        server.setServerId(serverId);
+        server.setServerUrl(url);
+        return server;
+    }
+
+    private static int statusOf(List<JsonObject> lines, int index) {
+        return lines.stream().filter(line -> line.has("index") && line.get("index").getAsInt() == index)
+                .findFirst().orElseThrow().get("status").getAsInt();
+    }
+
+    private static List<Integer> sortedIndexes(List<JsonObject> lines) {
+        return lines.stream().map(line -> line.get("index").getAsInt()).sorted().toList();
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("timed out waiting for batch output", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Exchange {
+        private final StringWriter body = new StringWriter();
+        private final PrintWriter writer = new PrintWriter(body);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile int status = 200;
+        private volatile String contentType;
+        private volatile boolean asyncStarted;
+
+        private List<JsonObject> lines() {
+            List<JsonObject> lines = new ArrayList<>();
+            for (String line : body.toString().split("\n")) {
+                if (!line.isBlank()) {
+                    lines.add(JsonParser.parseString(line).getAsJsonObject());
+                }
+            }
+            return lines;
+        }
+    }
+
+    /** Answers every tools/call itself, holding calls to a server while its gate is closed. */
+    private static final class FakeToolService extends ToolService {
+        private final Map<String, CountDownLatch> gates = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private FakeToolService() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public JsonObject executeTool(Integer serverId, String serverUrl, String headerType, String accessToken,
+                                      String toolName, JsonObject inputParams, Integer timeoutMs) {
+            calls.computeIfAbsent(serverUrl, url -> new AtomicInteger()).incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                CountDownLatch gate = gates.get(serverUrl);
+                if (gate != null) {
+                    gate.await(10, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            JsonObject result = new JsonObject();
+            result.addProperty("tool", toolName);
+            return result;
+        }
+
+        private int callsTo(String url) {
+            AtomicInteger count = calls.get(url);
+            return count == null ? 0 : count.get();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.tradeshow.pulse24x7.mcp.db;
+
+import junit.framework.TestCase;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+public class SqlStatsTest extends TestCase {
+
+    @Override
+    protected void setUp() {
+        SqlStats.reset();
+    }
+
+    public void testNormalizeCollapsesLiteralsAndLists() {
+        assertEquals("SELECT * FROM tools WHERE server_id = ? AND tool_name = ? AND id IN (?...)",
+                SqlStats.normalize("SELECT *  FROM tools\n WHERE server_id = 42 AND tool_name = 'x''y' AND id IN (?, ?, ?)"));
+        assertEquals("INSERT INTO t (a, b) VALUES (?, ?), ...",
+                SqlStats.normalize("INSERT INTO t (a, b) VALUES (?, ?), (?, ?), (?, ?)"));
+    }
+
+    public void testExecutionsAggregateAndRowsAreCounted() throws Exception {
+        Connection connection = JdbcInstrumentation.wrap(fakeConnection(3));
+        for (int i = 0; i < 2; i++) {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT id FROM tools WHERE server_id = ?")) {
+                ps.setInt(1, i);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getLong(1);
+                    }
+                }
+            }
+        }
+
+        List<Map<String, Object>> snapshot = SqlStats.snapshot(10);
+        assertEquals(1, snapshot.size());
+        assertEquals("SELECT id FROM tools WHERE server_id = ?", snapshot.get(0).get("sql"));
+        assertEquals(2L, snapshot.get(0).get("count"));
+        assertEquals(6L, snapshot.get(0).get("rows"));
+    }
+
+    public void testRepeatedStatementInScopeIsFlagged() throws Exception {
+        Connection connection = JdbcInstrumentation.wrap(fakeConnection(0));
+        try (QueryScope ignored = QueryScope.begin("test")) {
+            for (int i = 0; i < 11; i++) {
+                try (PreparedStatement ps = connection.prepareStatement("SELECT * FROM auth_token WHERE server_id = ?")) {
+                    ps.executeQuery().close();
+                }
+            }
+        }
+        assertEquals(1L, SqlStats.snapshot(1).get(0).get("nPlusOneDetections"));
+    }
+
+    private static Connection fakeConnection(int rows) {
+        ClassLoader loader = SqlStatsTest.class.getClassLoader();
+        return (Connection) Proxy.newProxyInstance(loader, new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            if ("prepareStatement".equals(method.getName())) {
+                return Proxy.newProxyInstance(loader, new Class<?>[]{PreparedStatement.class}, (ps, m, a) -> {
+                    if ("executeQuery".equals(m.getName())) {
+                        int[] remaining = {rows};
+                        return Proxy.newProxyInstance(loader, new Class<?>[]{ResultSet.class}, (rs, rm, ra) ->
+                                "next".equals(rm.getName()) ? remaining[0]-- > 0 : defaultValue(rm.getReturnType()));
+                    }
+                    return defaultValue(m.getReturnType());
+                });
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
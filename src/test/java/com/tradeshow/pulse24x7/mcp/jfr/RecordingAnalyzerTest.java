@@ -0,0 +1,52 @@
+package com.tradeshow.pulse24x7.mcp.jfr;
+
+import jdk.jfr.Recording;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class RecordingAnalyzerTest extends TestCase {
+
+    public void testSummarisesServersCallsAndStatements() throws Exception {
+        Path file = Files.createTempFile("pulse24x7", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ServerCheckEvent.class);
+            recording.enable(McpCallEvent.class);
+            recording.enable(DaoStatementEvent.class);
+            recording.start();
+
+            for (int serverId = 1; serverId <= 2; serverId++) {
+                ServerCheckEvent check = new ServerCheckEvent();
+                check.begin();
+                Thread.sleep(serverId * 10L);
+                check.serverId = serverId;
+                check.outcome = serverId == 2 ? "down" : "up";
+                check.commit();
+
+                McpCallEvent call = new McpCallEvent();
+                call.serverId = serverId;
+                call.outcome = "ok";
+                call.ttfb = 4_000L;
+                call.commit();
+            }
+            DaoStatementEvent statement = new DaoStatementEvent();
+            statement.sql = "SELECT * FROM tools WHERE server_id = ?";
+            statement.commit();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        try {
+            RecordingAnalyzer.Summary summary = RecordingAnalyzer.analyze(file);
+            assertEquals(2, summary.getServers().size());
+            assertEquals("server 2", summary.getServers().get(0).getKey());
+            assertEquals(1L, summary.getServers().get(0).getFailures());
+            assertEquals(2, summary.getMcpCalls().size());
+            assertEquals("SELECT * FROM tools WHERE server_id = ?", summary.getStatements().get(0).getKey());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
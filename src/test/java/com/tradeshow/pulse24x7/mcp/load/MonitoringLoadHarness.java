@@ -0,0 +1,325 @@
+package com.tradeshow.pulse24x7.mcp.load;
+
+import com.tradeshow.pulse24x7.mcp.dao.UserDAO;
+import com.tradeshow.pulse24x7.mcp.db.DBConnection;
+import com.tradeshow.pulse24x7.mcp.model.User;
+import com.tradeshow.pulse24x7.mcp.service.AuthTokenService;
+import com.tradeshow.pulse24x7.mcp.service.MonitoringService;
+import com.tradeshow.pulse24x7.mcp.service.ServerService;
+import com.tradeshow.pulse24x7.mcp.service.ServiceRegistry;
+import com.tradeshow.pulse24x7.mcp.stub.StubEndpoint;
+import com.tradeshow.pulse24x7.mcp.stub.StubMcpServer;
+import com.tradeshow.pulse24x7.mcp.utils.JwtUtil;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * End-to-end load run against {@link StubMcpServer}: registers synthetic servers for a throwaway user,
+ * drives {@code MonitoringService} (and optionally the deployed servlets) at a target rate, then reports
+ * throughput, latency percentiles, MySQL statement counts and heap use. Everything stays on localhost.
+ * <pre>
+ * MCP_DB_URL=jdbc:mysql://localhost:3306/pulse24x7_load mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.tradeshow.pulse24x7.mcp.load.MonitoringLoadHarness
+ * </pre>
+ * Use a scratch schema: the full sweep also monitors every other server in the database.
+ * Knobs: MCP_LOAD_SERVERS, MCP_LOAD_RATE (monitor runs/s), MCP_LOAD_DURATION_SECONDS, MCP_LOAD_THREADS,
+ * MCP_LOAD_MIX (profile:weight,...), MCP_LOAD_FULL_SWEEP, MCP_LOAD_APP_URL and MCP_LOAD_SERVLET_RATE
+ * (servlet requests/s against a running deployment), MCP_LOAD_CLEANUP.
+ */
+public class MonitoringLoadHarness {
+    private static final String DEFAULT_MIX = "healthy:70,slow:10,flaky:8,secured:5,expired:3,oversized:2,hang:2";
+    private static final String STUB_TOKEN = "stub-token";
+
+    public static void main(String[] args) throws Exception {
+        // The full sweep measures raw throughput, so lift the production check budget unless one is given.
+        if (env("MCP_MONITOR_MAX_CHECKS_PER_SECOND", null) == null
+                && System.getProperty("MCP_MONITOR_MAX_CHECKS_PER_SECOND") == null) {
+            System.setProperty("MCP_MONITOR_MAX_CHECKS_PER_SECOND", "0");
+        }
+        int serverCount = Integer.parseInt(env("MCP_LOAD_SERVERS", "2000"));
+        double rate = Double.parseDouble(env("MCP_LOAD_RATE", "50"));
+        int durationSeconds = Integer.parseInt(env("MCP_LOAD_DURATION_SECONDS", "60"));
+        int threads = Integer.parseInt(env("MCP_LOAD_THREADS", "32"));
+        boolean fullSweep = Boolean.parseBoolean(env("MCP_LOAD_FULL_SWEEP", "true"));
+        boolean cleanup = Boolean.parseBoolean(env("MCP_LOAD_CLEANUP", "true"));
+        String appUrl = env("MCP_LOAD_APP_URL", null);
+        double servletRate = Double.parseDouble(env("MCP_LOAD_SERVLET_RATE", "100"));
+
+        try (StubMcpServer stub = new StubMcpServer(Integer.parseInt(env("MCP_LOAD_STUB_PORT", "0")))) {
+            stub.endpoint("healthy", StubEndpoint.healthy().logNormalLatency(20, 0.4).toolCount(15))
+                    .endpoint("slow", StubEndpoint.healthy().uniformLatency(800, 2500).toolCount(15))
+                    .endpoint("flaky", StubEndpoint.healthy().logNormalLatency(40, 0.8).errorRate(0.3))
+                    .endpoint("secured", StubEndpoint.healthy().fixedLatency(15).requireToken(STUB_TOKEN))
+                    .endpoint("expired", StubEndpoint.healthy().fixedLatency(15).expiredToken(STUB_TOKEN))
+                    .endpoint("oversized", StubEndpoint.healthy().fixedLatency(50).toolCount(400).schemaPaddingBytes(4096))
+                    .endpoint("hang", StubEndpoint.healthy().hangRate(0.5).hangMs(120_000))
+                    .start();
+
+            // The same service graph the webapp builds; not started, so no warm-up or leases skew the numbers.
+            ServiceRegistry services = new ServiceRegistry();
+            Snapshot before = Snapshot.take();
+            User user = new UserDAO().createUser("Load Harness", "load-" + System.currentTimeMillis() + "@pulse24x7.local", "x");
+            if (user == null) {
+                throw new IllegalStateException("Could not create the synthetic user; check MCP_DB_URL");
+            }
+            List<Integer> serverIds = registerServers(services, stub, user.getId(), serverCount,
+                    parseMix(env("MCP_LOAD_MIX", DEFAULT_MIX)));
+            System.out.printf("Registered %d synthetic servers for userId=%d against stub port %d%n",
+                    serverIds.size(), user.getId(), stub.getPort());
+
+            MonitoringService monitoringService = services.getMonitoringService();
+            Recorder monitor = new Recorder("monitorServer");
+            runAtRate(rate, durationSeconds, threads, monitor,
+                    i -> monitoringService.monitorServer(serverIds.get(i % serverIds.size())));
+
+            Recorder servlets = null;
+            if (appUrl != null) {
+                servlets = new Recorder("servlets");
+                driveServlets(appUrl, user, serverIds, servletRate, durationSeconds, threads, servlets);
+            }
+
+            long sweepMs = -1L;
+            if (fullSweep) {
+                long start = System.nanoTime();
+                monitoringService.monitorAllServers();
+                sweepMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+            Snapshot after = Snapshot.take();
+
+            System.out.println();
+            monitor.print();
+            if (servlets != null) {
+                servlets.print();
+            }
+            if (sweepMs >= 0) {
+                System.out.printf("monitorAllServers full sweep: %d ms for %d servers%n", sweepMs, serverIds.size());
+            }
+            after.printDelta(before);
+            System.out.println("stub counters: " + stub.getCounters());
+
+            if (cleanup) {
+                ServerService serverService = services.getServerService();
+                serverIds.forEach(id -> serverService.deleteServer(id, user.getId()));
+                System.out.println("Tombstoned synthetic servers; the reaper removes their rows in the background.");
+            }
+        }
+    }
+
+    private static List<Integer> registerServers(ServiceRegistry services, StubMcpServer stub, long userId, int count,
+                                                 Map<String, Integer> mix) {
+        List<String> wheel = new ArrayList<>();
+        mix.forEach((profile, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(profile);
+            }
+        });
+        ServerService serverService = services.getServerService();
+        AuthTokenService authTokenService = services.getAuthTokenService();
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String profile = wheel.get(i % wheel.size());
+            Integer serverId = serverService.registerServer(userId, "load-" + profile + "-" + i,
+                    stub.urlFor(profile, i), 1, 5000, false, false);
+            if (serverId == null) {
+                continue;
+            }
+            if ("secured".equals(profile)) {
+                authTokenService.saveToken(serverId, "Bearer", STUB_TOKEN, null, null);
+            } else if ("expired".equals(profile)) {
+                authTokenService.saveToken(serverId, "Bearer", STUB_TOKEN, "stub-refresh",
+                        Timestamp.from(Instant.now().minusSeconds(60)), "stub-client", "stub-secret",
+                        stub.tokenEndpoint(profile), null);
+            }
+            ids.add(serverId);
+        }
+        return ids;
+    }
+
+    private static void driveServlets(String appUrl, User user, List<Integer> serverIds, double rate,
+                                      int durationSeconds, int threads, Recorder recorder) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String jwt = JwtUtil.generateToken(user.getId(), user.getEmail(), "ADMIN", 3600);
+        String base = appUrl.endsWith("/") ? appUrl.substring(0, appUrl.length() - 1) : appUrl;
+        String[] paths = {"/server/all", "/dashboard/stats", "/tool/all?serverId=%d", "/request-log?serverId=%d",
+                "/notification?serverId=%d"};
+        runAtRate(rate, durationSeconds, threads, recorder, i -> {
+            String path = String.format(paths[i % paths.length], serverIds.get(i % serverIds.size()));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Authorization", "Bearer " + jwt)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    throw new IllegalStateException(path + " -> " + response.statusCode());
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // Open-loop pacing: latency is measured from the intended start, so a stalled pool shows up in the tail.
+    private static void runAtRate(double rate, int durationSeconds, int threads, Recorder recorder, IntConsumer task)
+            throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        ScheduledExecutorService pacer = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger sequence = new AtomicInteger();
+        long periodNanos = (long) (1_000_000_000L / Math.max(0.01, rate));
+        long begin = System.nanoTime();
+        pacer.scheduleAtFixedRate(() -> {
+            int i = sequence.getAndIncrement();
+            long intended = begin + i * periodNanos;
+            workers.execute(() -> {
+                try {
+                    task.accept(i);
+                    recorder.record(System.nanoTime() - intended, true);
+                } catch (Exception e) {
+                    recorder.record(System.nanoTime() - intended, false);
+                }
+            });
+        }, 0L, periodNanos, TimeUnit.NANOSECONDS);
+
+        pacer.awaitTermination(durationSeconds, TimeUnit.SECONDS);
+        pacer.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(5, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+        recorder.finish(System.nanoTime() - begin, sequence.get());
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+        return weights;
+    }
+
+    private static String env(String key, String fallback) {
+        String value = System.getenv(key);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+
+    private static final class Recorder {
+        private final String name;
+        private final List<Long> samples = new ArrayList<>();
+        private final AtomicLong failures = new AtomicLong();
+        private long elapsedNanos;
+        private int scheduled;
+
+        Recorder(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long nanos, boolean ok) {
+            samples.add(nanos);
+            if (!ok) {
+                failures.incrementAndGet();
+            }
+        }
+
+        void finish(long elapsedNanos, int scheduled) {
+            this.elapsedNanos = elapsedNanos;
+            this.scheduled = scheduled;
+        }
+
+        synchronized void print() {
+            long[] sorted = samples.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("%s: scheduled=%d completed=%d failed=%d throughput=%.1f/s%n",
+                    name, scheduled, sorted.length, failures.get(), sorted.length / Math.max(0.001, seconds));
+            System.out.printf("  latency ms p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        private double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    private static final class Snapshot {
+        private static final String[] STATUS_KEYS = {"Questions", "Com_select", "Com_insert", "Com_update", "Com_delete",
+                "Connections", "Innodb_row_lock_waits"};
+        private final Map<String, Long> dbStatus = new LinkedHashMap<>();
+        private long heapUsed;
+        private long gcCount;
+        private long gcMillis;
+
+        static Snapshot take() {
+            Snapshot snapshot = new Snapshot();
+            try (Connection con = DBConnection.getInstance().getConnection();
+                 PreparedStatement ps = con.prepareStatement("SHOW GLOBAL STATUS WHERE Variable_name IN ("
+                         + String.join(",", java.util.Collections.nCopies(STATUS_KEYS.length, "?")) + ")")) {
+                for (int i = 0; i < STATUS_KEYS.length; i++) {
+                    ps.setString(i + 1, STATUS_KEYS[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        snapshot.dbStatus.put(rs.getString(1), rs.getLong(2));
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Could not read MySQL status counters: " + e.getMessage());
+            }
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            snapshot.heapUsed = memory.getHeapMemoryUsage().getUsed();
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                snapshot.gcCount += Math.max(0L, gc.getCollectionCount());
+                snapshot.gcMillis += Math.max(0L, gc.getCollectionTime());
+            }
+            return snapshot;
+        }
+
+        void printDelta(Snapshot before) {
+            StringBuilder db = new StringBuilder("db statements (server-wide delta):");
+            for (String key : STATUS_KEYS) {
+                Long now = dbStatus.get(key);
+                Long then = before.dbStatus.get(key);
+                if (now != null && then != null) {
+                    db.append(' ').append(key).append('=').append(now - then);
+                }
+            }
+            System.out.println(db);
+            System.out.printf("heap used: before=%d MB after=%d MB max=%d MB; gc: %d collections, %d ms%n",
+                    before.heapUsed >> 20, heapUsed >> 20,
+                    ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax() >> 20,
+                    gcCount - before.gcCount, gcMillis - before.gcMillis);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tradeshow.pulse24x7.mcp.metrics;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+
+public class LatencyRecorderTest extends TestCase {
+
+    public void testBucketsAreContiguousAndWithinPrecision() {
+        int previous = -1;
+        for (long value = 0; value < 1_000_000L; value += (value < 1_000 ? 1 : 97)) {
+            int index = LatencyRecorder.bucketIndex(value);
+            assertTrue("index must not go backwards at " + value, index >= previous);
+            long upper = LatencyRecorder.highestEquivalent(index);
+            assertTrue(value + " above its bucket bound " + upper, value <= upper);
+            assertTrue(value + " too far from " + upper, upper - value <= Math.max(1L, value / 64));
+            previous = index;
+        }
+    }
+
+    public void testPercentilesOfUniformDistribution() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            recorder.recordMicros(micros * 100);
+        }
+        assertEquals(10_000L, recorder.getCount());
+        assertEquals(1_000_000L, recorder.getMaxMicros());
+        assertNear(500_000L, recorder.percentileMicros(50.0));
+        assertNear(990_000L, recorder.percentileMicros(99.0));
+        assertEquals(1_000_000L, recorder.percentileMicros(100.0));
+
+        Map<String, Object> summary = recorder.summaryMillis();
+        assertTrue(summary.containsKey("p99_9"));
+        assertEquals(1000.0, summary.get("max"));
+        List<long[]> buckets = recorder.buckets();
+        long total = 0;
+        for (long[] bucket : buckets) {
+            total += bucket[1];
+        }
+        assertEquals(10_000L, total);
+    }
+
+    public void testEmptyRecorderReportsZeros() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertEquals(0L, recorder.percentileMicros(99.0));
+        assertEquals(0.0, recorder.getMeanMicros());
+        assertTrue(recorder.buckets().isEmpty());
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue("expected ~" + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 50);
+    }
+}
@@ -0,0 +1,61 @@
+package com.tradeshow.pulse24x7.mcp.metrics;
+
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+
+public class MetricsRegistryTest extends TestCase {
+
+    public void testCounterExposition() throws Exception {
+        Counter ok = MetricsRegistry.counter("test_requests_total", "Test requests", "outcome", "ok");
+        Counter failed = MetricsRegistry.counter("test_requests_total", "Test requests", "outcome", "failed");
+        ok.add(3);
+        failed.inc();
+
+        String text = scrape();
+        assertEquals(1, occurrences(text, "# TYPE test_requests_total counter"));
+        assertTrue(text.contains("test_requests_total{outcome=\"ok\"} 3\n"));
+        assertTrue(text.contains("test_requests_total{outcome=\"failed\"} 1\n"));
+    }
+
+    public void testHistogramBucketsAreCumulative() throws Exception {
+        Histogram histogram = MetricsRegistry.histogram("test_latency_seconds", "Test latency",
+                new double[]{0.01, 0.1}, "route", "x");
+        histogram.observeNanos(5_000_000L);
+        histogram.observeNanos(50_000_000L);
+        histogram.observeNanos(2_000_000_000L);
+
+        String text = scrape();
+        assertTrue(text.contains("test_latency_seconds_bucket{route=\"x\",le=\"0.01\"} 1\n"));
+        assertTrue(text.contains("test_latency_seconds_bucket{route=\"x\",le=\"0.1\"} 2\n"));
+        assertTrue(text.contains("test_latency_seconds_bucket{route=\"x\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("test_latency_seconds_count{route=\"x\"} 3\n"));
+        assertTrue(text.contains("test_latency_seconds_sum{route=\"x\"} 2.055\n"));
+    }
+
+    public void testTypeConflictIsRejected() {
+        MetricsRegistry.counter("test_conflict", "Conflict");
+        try {
+            MetricsRegistry.histogram("test_conflict", "Conflict");
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private String scrape() throws Exception {
+        StringWriter out = new StringWriter();
+        MetricsRegistry.writePrometheus(out);
+        return out.toString();
+    }
+
+    private int occurrences(String text, String needle) {
+        int count = 0;
+        int index = text.indexOf(needle);
+        while (index >= 0) {
+            count++;
+            index = text.indexOf(needle, index + needle.length());
+        }
+        return count;
+    }
+}
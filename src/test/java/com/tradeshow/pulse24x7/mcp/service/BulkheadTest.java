@@ -0,0 +1,132 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BulkheadTest extends TestCase {
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @Override
+    protected void tearDown() {
+        executor.shutdownNow();
+    }
+
+    public void testLimitsConcurrencyQueuesAndRejects() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("http://slow.invalid/mcp", 2, 1, 60_000L, executor);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Runnable slow = () -> {
+            peak.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.decrementAndGet();
+                done.countDown();
+            }
+        };
+
+        assertTrue(bulkhead.submit(slow, done::countDown));
+        assertTrue(bulkhead.submit(slow, done::countDown));
+        assertTrue("third call waits in the queue", bulkhead.submit(slow, done::countDown));
+        assertFalse("fourth call is refused", bulkhead.submit(slow, done::countDown));
+        assertEquals(1, bulkhead.queued());
+        long started = System.currentTimeMillis();
+        while (concurrent.get() < 2 && System.currentTimeMillis() - started < 5_000L) {
+            Thread.sleep(5L);
+        }
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, peak.get());
+        assertEquals(0, bulkhead.queued());
+        assertTrue(waitForIdle(bulkhead));
+    }
+
+    public void testQueuedTaskPastMaxWaitIsExpiredInsteadOfRun() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("http://slow.invalid/mcp", 1, 1, 1L, executor);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        List<String> outcomes = new ArrayList<>();
+
+        bulkhead.submit(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        }, finished::countDown);
+        bulkhead.submit(() -> {
+            synchronized (outcomes) {
+                outcomes.add("ran");
+            }
+            finished.countDown();
+        }, () -> {
+            synchronized (outcomes) {
+                outcomes.add("expired");
+            }
+            finished.countDown();
+        });
+
+        Thread.sleep(20L);
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        synchronized (outcomes) {
+            assertEquals(List.of("expired"), outcomes);
+        }
+    }
+
+    public void testQueuedTaskExpiresWithoutWaitingForTheRunningCall() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("http://slow.invalid/mcp", 1, 1, 20L, executor);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch expired = new CountDownLatch(1);
+
+        assertTrue(bulkhead.submit(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, () -> { }));
+        assertTrue(bulkhead.submit(() -> fail("expired task must not run"), expired::countDown));
+
+        assertTrue("refused while the first call is still running", expired.await(2, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.queued());
+        release.countDown();
+        assertTrue(waitForIdle(bulkhead));
+    }
+
+    public void testRefusedWhenNoWorkerIsFree() {
+        Bulkhead bulkhead = new Bulkhead("http://busy.invalid/mcp", 2, 1, 60_000L, task -> {
+            throw new RejectedExecutionException("pool full");
+        });
+
+        assertFalse(bulkhead.submit(() -> fail("must not run"), () -> { }));
+        assertEquals(0, bulkhead.running());
+    }
+
+    private static boolean waitForIdle(Bulkhead bulkhead) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while (bulkhead.running() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        return bulkhead.running() == 0;
+    }
+}
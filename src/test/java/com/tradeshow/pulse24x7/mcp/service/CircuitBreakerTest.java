@@ -0,0 +1,115 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CircuitBreakerTest extends TestCase {
+    private static final String URL = "http://dead.invalid/mcp";
+
+    @Override
+    protected void tearDown() {
+        CircuitBreaker.forget(URL);
+    }
+
+    public void testOpensOnFailuresAndRejectsWithoutCalling() {
+        CircuitBreaker breaker = CircuitBreaker.forUrl(URL);
+        AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            try {
+                breaker.call(() -> {
+                    attempts.incrementAndGet();
+                    throw new HttpClientUtil.HttpTimeoutException(URL, 5000, null);
+                });
+                fail("timeout expected");
+            } catch (HttpClientUtil.HttpTimeoutException expected) {
+                // counted as a failure
+            }
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        try {
+            breaker.call(attempts::incrementAndGet);
+            fail("open circuit should reject the call");
+        } catch (CircuitBreaker.CircuitOpenException expected) {
+            assertEquals(503, expected.getStatusCode());
+        }
+        assertEquals(5, attempts.get());
+        assertEquals("OPEN", CircuitBreaker.describe(URL).get("state"));
+    }
+
+    public void testClientErrorsDoNotOpen() {
+        CircuitBreaker breaker = CircuitBreaker.forUrl(URL);
+        for (int i = 0; i < 10; i++) {
+            try {
+                breaker.call(() -> {
+                    throw new HttpClientUtil.HttpRequestException(401, "Unauthorized", null);
+                });
+            } catch (HttpClientUtil.HttpRequestException expected) {
+                // the host answered
+            }
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    public void testSlowCallsOpen() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(URL, clock::get);
+        for (int i = 0; i < CircuitBreaker.MIN_CALLS; i++) {
+            breaker.call(() -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(CircuitBreaker.SLOW_CALL_MS)));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    public void testOnlyOneProbeIsAdmittedWhileHalfOpen() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(URL, clock::get);
+        open(breaker);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(CircuitBreaker.OPEN_MS));
+
+        CircuitBreaker.Permit probe = breaker.acquirePermission();
+        assertTrue(probe.probe());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        try {
+            breaker.acquirePermission();
+            fail("a second probe must wait for the first");
+        } catch (CircuitBreaker.CircuitOpenException expected) {
+            // still probing
+        }
+
+        breaker.record(probe, false, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    public void testLateCallFromClosedStateDoesNotDecideHalfOpen() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(URL, clock::get);
+        CircuitBreaker.Permit lateCall = breaker.acquirePermission();
+        open(breaker);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(CircuitBreaker.OPEN_MS));
+        CircuitBreaker.Permit probe = breaker.acquirePermission();
+
+        breaker.record(lateCall, false, false);
+        assertEquals("a call admitted while closed must not close the breaker",
+                CircuitBreaker.State.HALF_OPEN, breaker.state());
+        try {
+            breaker.acquirePermission();
+            fail("the probe is still running");
+        } catch (CircuitBreaker.CircuitOpenException expected) {
+            // the late call did not free the probe slot
+        }
+
+        breaker.record(probe, true, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private static void open(CircuitBreaker breaker) {
+        for (int i = 0; i < CircuitBreaker.MIN_CALLS; i++) {
+            breaker.record(breaker.acquirePermission(), true, false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
@@ -0,0 +1,73 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadTestTest extends TestCase {
+
+    public void testClosedLoopKeepsConcurrencyBusyAndCountsStatuses() {
+        LoadTest test = new LoadTest(LoadTest.Mode.CLOSED, 4, 0.0, 300L, 100.0, 1_000L);
+        AtomicInteger calls = new AtomicInteger();
+        test.run(() -> {
+            sleep(5L);
+            return calls.incrementAndGet() % 10 == 0 ? 500 : 200;
+        }, "load-test");
+
+        assertEquals(calls.get(), test.getCompleted());
+        assertTrue("expected many calls, got " + calls.get(), calls.get() > 40);
+        assertEquals(test.getCompleted(), test.getServiceTime().getCount());
+        assertEquals(calls.get() / 10, test.getErrors());
+        assertEquals(Long.valueOf(test.getErrors()), test.statusBreakdown().get("500"));
+        assertTrue(test.throughputPerSecond() > 0);
+    }
+
+    public void testOpenLoopChargesStallToScheduledCalls() {
+        // 100 calls/s with one call in flight: a 300 ms stall delays the ~30 calls scheduled behind it.
+        LoadTest test = new LoadTest(LoadTest.Mode.OPEN, 1, 100.0, 1_000L, 100.0, 1_000L);
+        AtomicInteger calls = new AtomicInteger();
+        test.run(() -> {
+            sleep(calls.incrementAndGet() == 10 ? 300L : 1L);
+            return 200;
+        }, "load-test");
+
+        long serviceP90 = test.getServiceTime().percentileMicros(90.0);
+        long responseP90 = test.getResponseTime().percentileMicros(90.0);
+        assertTrue("service time hides the stall: " + serviceP90, serviceP90 < 50_000L);
+        assertTrue("response time shows it: " + responseP90, responseP90 > 100_000L);
+        assertEquals(calls.get(), test.getCompleted());
+    }
+
+    public void testShedCallsCountTowardsResponseTime() {
+        // 20 calls/s with one in flight and a 20-call queue: a 1.2 s stall overflows the queue.
+        LoadTest test = new LoadTest(LoadTest.Mode.OPEN, 1, 20.0, 1_500L, 100.0, 5_000L);
+        AtomicInteger calls = new AtomicInteger();
+        test.run(() -> {
+            sleep(calls.incrementAndGet() == 1 ? 1_200L : 1L);
+            return 200;
+        }, "load-test");
+
+        assertTrue("expected shed calls", test.getShed() > 0);
+        assertEquals(test.getCompleted() + test.getShed(), test.getResponseTime().getCount());
+        assertEquals(test.getCompleted(), test.getServiceTime().getCount());
+        assertTrue(test.getResponseTime().getMaxMicros() >= 5_000_000L);
+    }
+
+    public void testStopsWhenErrorRateExceedsLimit() {
+        LoadTest test = new LoadTest(LoadTest.Mode.CLOSED, 2, 0.0, 5_000L, 50.0, 1_000L);
+        long start = System.currentTimeMillis();
+        test.run(() -> 503, "load-test");
+
+        assertTrue(test.isStopped());
+        assertTrue(test.getStopReason(), test.getStopReason().startsWith("error rate above 50%"));
+        assertTrue("should stop well before the duration", System.currentTimeMillis() - start < 4_000L);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.model.ServerHistory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class MonitorScheduleTest extends TestCase {
+    private static final long THIRTY_MINUTES = TimeUnit.MINUTES.toMillis(30);
+
+    public void testStableServerStretchesUpToCeiling() {
+        assertEquals(THIRTY_MINUTES, MonitorSchedule.adaptiveIntervalMs(THIRTY_MINUTES, history("up", 5)));
+        assertEquals(2 * THIRTY_MINUTES, MonitorSchedule.adaptiveIntervalMs(THIRTY_MINUTES, history("up", 6)));
+        assertEquals(TimeUnit.MINUTES.toMillis(240), MonitorSchedule.adaptiveIntervalMs(THIRTY_MINUTES, history("up", 24)));
+    }
+
+    public void testFailingOrFlappingServerShrinksTowardFloor() {
+        assertEquals(TimeUnit.SECONDS.toMillis(60), MonitorSchedule.adaptiveIntervalMs(THIRTY_MINUTES, history("down", 10)));
+
+        List<ServerHistory> recovered = history("up", 2);
+        recovered.addAll(history("down", 3));
+        assertEquals(THIRTY_MINUTES / 2, MonitorSchedule.adaptiveIntervalMs(THIRTY_MINUTES, recovered));
+    }
+
+    private static List<ServerHistory> history(String state, int checks) {
+        List<ServerHistory> history = new ArrayList<>();
+        for (int i = 0; i < checks; i++) {
+            history.add(new ServerHistory(1, "up".equals(state), 0, null));
+        }
+        return history;
+    }
+}
@@ -0,0 +1,93 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RetryPolicyTest extends TestCase {
+
+    public void testRetriesStayWithinShareOfFirstAttempts() {
+        RetryPolicy policy = new RetryPolicy(0.1, 0, 3, 1L, 1L, false, 1L);
+        assertFalse("no first attempts, no retries", policy.grant("test"));
+
+        for (int i = 0; i < 100; i++) {
+            policy.recordAttempt();
+        }
+        int granted = 0;
+        while (policy.grant("test")) {
+            granted++;
+        }
+        assertEquals(10, granted);
+    }
+
+    public void testRetriedCallsDoNotRefillBudget() {
+        RetryPolicy policy = new RetryPolicy(0.5, 0, 3, 1L, 1L, false, 1L);
+        policy.asRetry(() -> {
+            for (int i = 0; i < 10; i++) {
+                policy.recordAttempt();
+            }
+            return null;
+        });
+        assertEquals(0.0, policy.balance());
+    }
+
+    public void testRetryWhileStopsOnSuccessOrExhaustedBudget() {
+        RetryPolicy policy = new RetryPolicy(1.0, 0, 5, 1L, 1L, false, 1L);
+        policy.recordAttempt();
+        policy.recordAttempt();
+        AtomicInteger calls = new AtomicInteger();
+
+        int result = policy.retryWhile("test", 0, value -> value < 10, calls::incrementAndGet);
+        assertEquals("two retries in budget", 2, result);
+        assertEquals(2, calls.get());
+
+        policy.recordAttempt();
+        policy.recordAttempt();
+        result = policy.retryWhile("test", 0, value -> value == 0, () -> 7);
+        assertEquals(7, result);
+        assertEquals("success leaves the rest of the budget", 1.0, policy.balance());
+    }
+
+    public void testBackoffIsJitteredAndCapped() {
+        RetryPolicy policy = new RetryPolicy(0.1, 0, 3, 100L, 300L, false, 1L);
+        for (int i = 0; i < 200; i++) {
+            assertTrue(policy.backoffMs(1) <= 100L);
+            assertTrue(policy.backoffMs(2) <= 200L);
+            assertTrue(policy.backoffMs(10) <= 300L);
+            assertTrue(policy.backoffMs(10) >= 0L);
+        }
+    }
+
+    public void testHedgeAnswersFromSecondAttemptWhenFirstStalls() {
+        RetryPolicy policy = new RetryPolicy(1.0, 0, 3, 1L, 1L, true, 1L);
+        for (int i = 0; i < 50; i++) {
+            policy.recordAttempt();
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals("fast", policy.hedge("url", () -> "fast", "fast"::equals));
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.nanoTime();
+        String result = policy.hedge("url", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(3_000L);
+                return "slow";
+            }
+            return "hedged";
+        }, value -> !value.isEmpty());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertEquals("hedged", result);
+        assertEquals(2, attempts.get());
+        assertTrue("hedge should not wait for the stalled attempt: " + elapsedMs + " ms", elapsedMs < 2_000L);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
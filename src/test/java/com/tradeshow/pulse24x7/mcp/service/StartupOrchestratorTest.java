@@ -0,0 +1,79 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.model.Server;
+import junit.framework.TestCase;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class StartupOrchestratorTest extends TestCase {
+
+    @SuppressWarnings("unchecked")
+    public void testStagesRunInOrderAndFailuresDoNotBlockReadiness() {
+        StartupOrchestrator orchestrator = new StartupOrchestrator(null, null);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        assertFalse(orchestrator.isReady());
+
+        orchestrator.run(List.of(
+                List.of(new StartupOrchestrator.Phase("first", () -> {
+                            order.add("first");
+                            return "ok";
+                        }),
+                        new StartupOrchestrator.Phase("broken", () -> {
+                            throw new IllegalStateException("boom");
+                        })),
+                List.of(new StartupOrchestrator.Phase("second", () -> {
+                    order.add("second");
+                    return null;
+                }))));
+
+        assertTrue(orchestrator.isReady());
+        assertTrue(orchestrator.whenReady().isDone());
+        assertEquals(List.of("first", "second"), order);
+        Map<String, Object> phases = (Map<String, Object>) orchestrator.describe().get("phases");
+        assertEquals("DONE", ((Map<String, Object>) phases.get("first")).get("status"));
+        assertEquals("ok", ((Map<String, Object>) phases.get("first")).get("detail"));
+        assertEquals("FAILED", ((Map<String, Object>) phases.get("broken")).get("status"));
+        assertEquals("boom", ((Map<String, Object>) phases.get("broken")).get("detail"));
+        assertEquals("DONE", ((Map<String, Object>) phases.get("second")).get("status"));
+    }
+
+    public void testTopHostsGroupsByOriginMostSharedFirst() {
+        List<Server> servers = List.of(
+                server("http://a.example/mcp"),
+                server("https://B.example/one"),
+                server("https://b.example:443/two"),
+                server("not a url"),
+                server("https://b.example/three"),
+                server("http://a.example:8080/mcp"),
+                server("http://a.example:80/other"));
+
+        assertEquals(List.of(URI.create("https://b.example:443"), URI.create("http://a.example:80")),
+                StartupOrchestrator.topHosts(servers, 2));
+        assertEquals(3, StartupOrchestrator.topHosts(servers, 10).size());
+    }
+
+    public void testStartupRampAdmitsOneMoreShareEachSweep() {
+        int[] admitted = new int[4];
+        for (int sweep = 1; sweep <= 4; sweep++) {
+            for (int serverId = 0; serverId < 30; serverId++) {
+                if (MonitoringService.inStartupRamp(serverId, sweep, 3)) {
+                    admitted[sweep - 1]++;
+                }
+            }
+        }
+        assertEquals(10, admitted[0]);
+        assertEquals(20, admitted[1]);
+        assertEquals(30, admitted[2]);
+        assertEquals(30, admitted[3]);
+    }
+
+    private static Server server(String url) {
+        Server server = new Server();
+        server.setServerUrl(url);
+        return server;
+    }
+}
@@ -0,0 +1,46 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.tradeshow.pulse24x7.mcp.model.ToolProbeResult;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ToolProbeServiceTest extends TestCase {
+
+    public void testP95UsesNearestRank() {
+        long[] latencies = new long[20];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = (i + 1) * 10L;
+        }
+        assertEquals(190L, ToolProbeService.p95(latencies));
+        assertEquals(7L, ToolProbeService.p95(new long[]{7L}));
+        assertEquals(0L, ToolProbeService.p95(new long[0]));
+    }
+
+    public void testBreachOnLatencyOrErrorRateOnceEnoughSamples() {
+        List<ToolProbeResult> results = new ArrayList<>();
+        for (int i = 0; i < ToolProbeService.SLO_MIN_SAMPLES - 1; i++) {
+            results.add(result(true, 5_000L));
+        }
+        assertFalse("too few samples to judge", ToolProbeService.evaluate(results, 1_000L, null).breached());
+
+        results.add(result(true, 5_000L));
+        ToolProbeService.SloStatus slow = ToolProbeService.evaluate(results, 1_000L, null);
+        assertTrue(slow.breached());
+        assertTrue(slow.reason(), slow.reason().startsWith("p95 5000 ms"));
+        assertFalse("no SLO configured", ToolProbeService.evaluate(results, null, null).breached());
+
+        results.set(0, result(false, 100L));
+        ToolProbeService.SloStatus errors = ToolProbeService.evaluate(results, null, 10.0);
+        assertTrue(errors.breached());
+        assertEquals(100.0 / results.size(), errors.errorRatePercent(), 0.001);
+    }
+
+    private static ToolProbeResult result(boolean success, long latencyMs) {
+        ToolProbeResult result = new ToolProbeResult();
+        result.setSuccess(success);
+        result.setLatencyMs(latencyMs);
+        return result;
+    }
+}
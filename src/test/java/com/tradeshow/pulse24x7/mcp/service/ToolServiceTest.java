@@ -0,0 +1,48 @@
+package com.tradeshow.pulse24x7.mcp.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tradeshow.pulse24x7.mcp.dao.ToolDAO;
+import com.tradeshow.pulse24x7.mcp.model.Tool;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ToolServiceTest extends TestCase {
+
+    public void testErrorOnFirstPageLeavesStoredToolsUntouched() {
+        RecordingToolDAO toolDAO = new RecordingToolDAO();
+        ToolService service = new ToolService(toolDAO, null, null, null, null, null, null);
+        JsonObject error = JsonParser.parseString(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":-32603,\"message\":\"backend unavailable\"}}")
+                .getAsJsonObject();
+
+        List<Tool> tools = service.fetchAndUpdateTools(7, "http://127.0.0.1:1/mcp", null, null, 1000, error);
+
+        assertTrue(tools.isEmpty());
+        assertEquals("the stored catalog must not be read, disabled or rewritten", List.of(), toolDAO.calls);
+    }
+
+    private static final class RecordingToolDAO extends ToolDAO {
+        private final List<String> calls = new ArrayList<>();
+
+        @Override
+        public List<Tool> getToolsByServer(Integer serverId) {
+            calls.add("getToolsByServer");
+            return List.of();
+        }
+
+        @Override
+        public int disableAllToolsByServer(Integer serverId) {
+            calls.add("disableAllToolsByServer");
+            return 0;
+        }
+
+        @Override
+        public int disableMissingTools(Integer serverId, List<Tool> activeTools) {
+            calls.add("disableMissingTools");
+            return 0;
+        }
+    }
+}
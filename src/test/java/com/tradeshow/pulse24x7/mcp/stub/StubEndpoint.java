@@ -0,0 +1,180 @@
+package com.tradeshow.pulse24x7.mcp.stub;
+
+import java.util.Random;
+
+/**
+ * Behaviour of one stub MCP endpoint. Setters return {@code this} so profiles read as one expression.
+ */
+public class StubEndpoint {
+    public enum Latency {
+        FIXED,
+        UNIFORM,
+        LOG_NORMAL
+    }
+
+    private Latency latency = Latency.FIXED;
+    private long latencyMs;
+    private long latencyMaxMs;
+    private double latencySigma;
+    private double errorRate;
+    private double hangRate;
+    private long hangMs = 10 * 60 * 1000L;
+    private String requiredToken;
+    private boolean tokenExpired;
+    private int toolCount = 10;
+    private int schemaPaddingBytes;
+    private boolean eventStream;
+    private long eventStreamHoldMs;
+    private boolean sessions;
+    private boolean batching;
+    private boolean listChanged;
+
+    public static StubEndpoint healthy() {
+        return new StubEndpoint();
+    }
+
+    public StubEndpoint fixedLatency(long ms) {
+        this.latency = Latency.FIXED;
+        this.latencyMs = ms;
+        return this;
+    }
+
+    public StubEndpoint uniformLatency(long minMs, long maxMs) {
+        this.latency = Latency.UNIFORM;
+        this.latencyMs = minMs;
+        this.latencyMaxMs = maxMs;
+        return this;
+    }
+
+    // Long-tailed latency: median in ms and sigma of the underlying normal (0.5 gives p99 around 3.2x median).
+    public StubEndpoint logNormalLatency(long medianMs, double sigma) {
+        this.latency = Latency.LOG_NORMAL;
+        this.latencyMs = medianMs;
+        this.latencySigma = sigma;
+        return this;
+    }
+
+    public StubEndpoint errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public StubEndpoint hangRate(double hangRate) {
+        this.hangRate = hangRate;
+        return this;
+    }
+
+    public StubEndpoint hangMs(long hangMs) {
+        this.hangMs = hangMs;
+        return this;
+    }
+
+    // Requests must carry "Authorization: Bearer <token>", otherwise 401.
+    public StubEndpoint requireToken(String token) {
+        this.requiredToken = token;
+        return this;
+    }
+
+    // Every request is rejected with a Zoho-style INVALID_OAUTHTOKEN 401 until the token is refreshed.
+    public StubEndpoint expiredToken(String token) {
+        this.requiredToken = token;
+        this.tokenExpired = true;
+        return this;
+    }
+
+    public StubEndpoint toolCount(int toolCount) {
+        this.toolCount = toolCount;
+        return this;
+    }
+
+    // Pads every input schema so tools/list responses become oversized.
+    public StubEndpoint schemaPaddingBytes(int schemaPaddingBytes) {
+        this.schemaPaddingBytes = schemaPaddingBytes;
+        return this;
+    }
+
+    // Answers requests as text/event-stream, with a notification ahead of the response, then keeps the
+    // stream open for holdMs like servers that multiplex later messages onto it.
+    public StubEndpoint eventStream(long holdMs) {
+        this.eventStream = true;
+        this.eventStreamHoldMs = holdMs;
+        return this;
+    }
+
+    // initialize issues an Mcp-Session-Id; other requests need a live one (400 without, 404 when unknown).
+    public StubEndpoint sessions() {
+        this.sessions = true;
+        return this;
+    }
+
+    // Accepts JSON-RPC batches; without this a batch gets 400 Invalid Request, like servers on newer revisions.
+    public StubEndpoint batching() {
+        this.batching = true;
+        return this;
+    }
+
+    // Advertises tools.listChanged and serves a GET notification stream (see StubMcpServer#notifyToolsChanged).
+    public StubEndpoint listChanged() {
+        this.listChanged = true;
+        return this;
+    }
+
+    long sampleLatencyMs(Random random) {
+        switch (latency) {
+            case UNIFORM:
+                return latencyMs + (long) (random.nextDouble() * Math.max(0L, latencyMaxMs - latencyMs));
+            case LOG_NORMAL:
+                return (long) (latencyMs * Math.exp(latencySigma * random.nextGaussian()));
+            default:
+                return latencyMs;
+        }
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public double getHangRate() {
+        return hangRate;
+    }
+
+    public long getHangMs() {
+        return hangMs;
+    }
+
+    public String getRequiredToken() {
+        return requiredToken;
+    }
+
+    public boolean isTokenExpired() {
+        return tokenExpired;
+    }
+
+    public int getToolCount() {
+        return toolCount;
+    }
+
+    public int getSchemaPaddingBytes() {
+        return schemaPaddingBytes;
+    }
+
+    public boolean isEventStream() {
+        return eventStream;
+    }
+
+    public long getEventStreamHoldMs() {
+        return eventStreamHoldMs;
+    }
+
+    public boolean isSessions() {
+        return sessions;
+    }
+
+    public boolean isBatching() {
+        return batching;
+    }
+
+    public boolean isListChanged() {
+        return listChanged;
+    }
+}
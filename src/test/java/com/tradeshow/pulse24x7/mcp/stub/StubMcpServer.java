@@ -0,0 +1,425 @@
+package com.tradeshow.pulse24x7.mcp.stub;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-JVM MCP server speaking JSON-RPC over plain HTTP, for tests and load runs.
+ * Endpoints live at {@code /mcp/<profile>/<anything>}; {@code /oauth/token} hands out the token
+ * the profile expects so the monitor's refresh path can be exercised too.
+ */
+public class StubMcpServer implements AutoCloseable {
+    private final Map<String, StubEndpoint> profiles = new ConcurrentHashMap<>();
+    private final Map<String, String> toolsListCache = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Map<String, String> refreshedTokens = new ConcurrentHashMap<>();
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final List<OutputStream> notificationStreams = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public StubMcpServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        // unbounded so hanging endpoints never starve the healthy ones
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-mcp");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/mcp/", this::handleRpc);
+        server.createContext("/oauth/token", this::handleToken);
+    }
+
+    public StubMcpServer endpoint(String profile, StubEndpoint endpoint) {
+        profiles.put(profile, endpoint);
+        toolsListCache.remove(profile);
+        return this;
+    }
+
+    public StubMcpServer start() {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String urlFor(String profile, int instance) {
+        return "http://127.0.0.1:" + getPort() + "/mcp/" + profile + "/" + instance;
+    }
+
+    public String tokenEndpoint(String profile) {
+        return "http://127.0.0.1:" + getPort() + "/oauth/token?profile=" + profile;
+    }
+
+    public long count(String key) {
+        AtomicLong counter = counters.get(key);
+        return counter == null ? 0L : counter.get();
+    }
+
+    public Map<String, AtomicLong> getCounters() {
+        return counters;
+    }
+
+    // Pushes notifications/tools/list_changed down every open GET stream.
+    public void notifyToolsChanged() {
+        byte[] event = ("event: message\ndata: {\"jsonrpc\":\"2.0\",\"method\":\"notifications/tools/list_changed\"}\n\n")
+                .getBytes(StandardCharsets.UTF_8);
+        for (OutputStream out : notificationStreams) {
+            try {
+                out.write(event);
+                out.flush();
+            } catch (IOException e) {
+                notificationStreams.remove(out);
+            }
+        }
+    }
+
+    // Forgets every issued session, as a restarted or idle-reaping server would.
+    public void expireSessions() {
+        sessions.clear();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleRpc(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            String profileName = parts.length > 2 ? parts[2] : "";
+            StubEndpoint endpoint = profiles.get(profileName);
+            if (endpoint == null) {
+                respond(exchange, 404, error(null, -32601, "Unknown stub profile: " + profileName));
+                return;
+            }
+            if ("GET".equals(exchange.getRequestMethod())) {
+                openNotificationStream(exchange, endpoint);
+                return;
+            }
+            increment("requests");
+            increment(profileName + ".requests");
+
+            JsonElement payload;
+            try {
+                payload = JsonParser.parseString(readBody(exchange));
+            } catch (Exception e) {
+                respond(exchange, 400, error(null, -32700, "Parse error"));
+                return;
+            }
+            if (payload.isJsonArray()) {
+                increment("batches");
+                if (!endpoint.isBatching()) {
+                    respond(exchange, 400, error(null, -32600, "Batch requests are not supported"));
+                    return;
+                }
+            } else if (!payload.isJsonObject()) {
+                respond(exchange, 400, error(null, -32600, "Invalid Request"));
+                return;
+            }
+            JsonArray requests = new JsonArray();
+            if (payload.isJsonArray()) {
+                requests = payload.getAsJsonArray();
+            } else {
+                requests.add(payload);
+            }
+            for (JsonElement element : requests) {
+                JsonObject each = element.getAsJsonObject();
+                increment("method." + (each.has("method") ? each.get("method").getAsString() : ""));
+            }
+            JsonObject request = payload.isJsonObject() ? payload.getAsJsonObject() : null;
+            JsonElement id = request == null ? null : request.get("id");
+            String method = request != null && request.has("method") ? request.get("method").getAsString() : "";
+
+            Random random = ThreadLocalRandom.current();
+            if (endpoint.getHangRate() > 0 && random.nextDouble() < endpoint.getHangRate()) {
+                increment("hangs");
+                sleep(endpoint.getHangMs());
+                return;
+            }
+            sleep(endpoint.sampleLatencyMs(random));
+
+            if (!isAuthorized(exchange, profileName, endpoint)) {
+                increment("unauthorized");
+                JsonObject body = new JsonObject();
+                if (endpoint.isTokenExpired()) {
+                    body.addProperty("code", "INVALID_OAUTHTOKEN");
+                    body.addProperty("message", "invalid_oauthtoken");
+                } else {
+                    body.addProperty("error", "unauthorized");
+                }
+                respond(exchange, 401, body.toString());
+                return;
+            }
+            if (endpoint.getErrorRate() > 0 && random.nextDouble() < endpoint.getErrorRate()) {
+                increment("errors");
+                respond(exchange, 500, error(id, -32603, "Injected stub failure"));
+                return;
+            }
+
+            if (endpoint.isSessions() && !"initialize".equals(method)) {
+                String session = exchange.getRequestHeaders().getFirst("Mcp-Session-Id");
+                if (session == null) {
+                    respond(exchange, 400, error(id, -32600, "Missing Mcp-Session-Id"));
+                    return;
+                }
+                if (!sessions.contains(session)) {
+                    increment("expired_sessions");
+                    respond(exchange, 404, error(id, -32001, "Session not found"));
+                    return;
+                }
+            }
+            if (request == null) {
+                JsonArray responses = new JsonArray();
+                for (JsonElement element : requests) {
+                    String response = dispatch(exchange, profileName, endpoint, element.getAsJsonObject());
+                    if (response != null) {
+                        responses.add(JsonParser.parseString(response));
+                    }
+                }
+                reply(exchange, endpoint, responses.toString());
+                return;
+            }
+            String response = dispatch(exchange, profileName, endpoint, request);
+            if (response == null) {
+                exchange.sendResponseHeaders(202, -1);
+                return;
+            }
+            reply(exchange, endpoint, response);
+        }
+    }
+
+    // Returns the JSON-RPC response for one request, or null for notifications.
+    private String dispatch(HttpExchange exchange, String profileName, StubEndpoint endpoint, JsonObject request) {
+        JsonElement id = request.get("id");
+        String method = request.has("method") ? request.get("method").getAsString() : "";
+        if (method.startsWith("notifications/")) {
+            return null;
+        }
+        switch (method) {
+            case "initialize":
+                if (endpoint.isSessions()) {
+                    String session = UUID.randomUUID().toString();
+                    sessions.add(session);
+                    exchange.getResponseHeaders().set("Mcp-Session-Id", session);
+                }
+                return result(id, initializeResult(endpoint));
+            case "ping":
+                return result(id, new JsonObject());
+            case "tools/list":
+                return toolsList(profileName, endpoint, id);
+            case "tools/call":
+                return result(id, toolCallResult(request));
+            default:
+                return error(id, -32601, "Method not found: " + method);
+        }
+    }
+
+    private void openNotificationStream(HttpExchange exchange, StubEndpoint endpoint) throws IOException {
+        if (!endpoint.isListChanged()) {
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+        increment("streams");
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        out.write(": open\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        notificationStreams.add(out);
+        while (!closed && notificationStreams.contains(out)) {
+            sleep(50);
+        }
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String query = exchange.getRequestURI().getRawQuery();
+            String profile = query != null && query.startsWith("profile=")
+                    ? URLDecoder.decode(query.substring("profile=".length()), StandardCharsets.UTF_8) : "";
+            StubEndpoint endpoint = profiles.get(profile);
+            readBody(exchange);
+            increment("token_refreshes");
+            if (endpoint == null || endpoint.getRequiredToken() == null) {
+                respond(exchange, 400, "{\"error\":\"invalid_client\"}");
+                return;
+            }
+            String fresh = endpoint.getRequiredToken() + "-refreshed";
+            refreshedTokens.put(profile, fresh);
+            JsonObject body = new JsonObject();
+            body.addProperty("access_token", fresh);
+            body.addProperty("token_type", "Bearer");
+            body.addProperty("expires_in", 3600);
+            respond(exchange, 200, body.toString());
+        }
+    }
+
+    private boolean isAuthorized(HttpExchange exchange, String profile, StubEndpoint endpoint) {
+        if (endpoint.getRequiredToken() == null) {
+            return true;
+        }
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        String token = header == null ? null : header.replaceFirst("^(?i)(Bearer|Zoho-oauthtoken)\\s+", "");
+        if (endpoint.isTokenExpired()) {
+            return token != null && token.equals(refreshedTokens.get(profile));
+        }
+        return endpoint.getRequiredToken().equals(token);
+    }
+
+    private String toolsList(String profile, StubEndpoint endpoint, JsonElement id) {
+        String tools = toolsListCache.computeIfAbsent(profile, key -> buildTools(endpoint).toString());
+        String idJson = id == null ? "null" : id.toString();
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + idJson + ",\"result\":{\"tools\":" + tools + "}}";
+    }
+
+    private JsonArray buildTools(StubEndpoint endpoint) {
+        String padding = "x".repeat(Math.max(0, endpoint.getSchemaPaddingBytes()));
+        JsonArray tools = new JsonArray();
+        for (int i = 0; i < endpoint.getToolCount(); i++) {
+            JsonObject query = new JsonObject();
+            query.addProperty("type", "string");
+            query.addProperty("description", padding.isEmpty() ? "Query text" : padding);
+            JsonObject properties = new JsonObject();
+            properties.add("query", query);
+            JsonObject schema = new JsonObject();
+            schema.addProperty("type", "object");
+            schema.add("properties", properties);
+
+            JsonObject tool = new JsonObject();
+            tool.addProperty("name", "stub_tool_" + i);
+            tool.addProperty("description", "Synthetic tool " + i);
+            tool.add("inputSchema", schema);
+            tools.add(tool);
+        }
+        return tools;
+    }
+
+    private JsonObject initializeResult(StubEndpoint endpoint) {
+        JsonObject serverInfo = new JsonObject();
+        serverInfo.addProperty("name", "pulse24x7-stub");
+        serverInfo.addProperty("version", "1.0");
+        JsonObject capabilities = new JsonObject();
+        JsonObject tools = new JsonObject();
+        if (endpoint.isListChanged()) {
+            tools.addProperty("listChanged", true);
+        }
+        capabilities.add("tools", tools);
+        JsonObject result = new JsonObject();
+        result.addProperty("protocolVersion", "2025-03-26");
+        result.add("capabilities", capabilities);
+        result.add("serverInfo", serverInfo);
+        return result;
+    }
+
+    private JsonObject toolCallResult(JsonObject request) {
+        JsonObject text = new JsonObject();
+        text.addProperty("type", "text");
+        text.addProperty("text", "stub result for " + (request.has("params") ? request.get("params").toString() : "{}"));
+        JsonArray content = new JsonArray();
+        content.add(text);
+        JsonObject result = new JsonObject();
+        result.add("content", content);
+        result.addProperty("isError", false);
+        return result;
+    }
+
+    private String result(JsonElement id, JsonObject result) {
+        JsonObject body = new JsonObject();
+        body.addProperty("jsonrpc", "2.0");
+        body.add("id", id);
+        body.add("result", result);
+        return body.toString();
+    }
+
+    private String error(JsonElement id, int code, String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("code", code);
+        error.addProperty("message", message);
+        JsonObject body = new JsonObject();
+        body.addProperty("jsonrpc", "2.0");
+        body.add("id", id);
+        body.add("error", error);
+        return body.toString();
+    }
+
+    private String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void reply(HttpExchange exchange, StubEndpoint endpoint, String body) throws IOException {
+        if (!endpoint.isEventStream()) {
+            respond(exchange, 200, body);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        try {
+            String progress = "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/progress\","
+                    + "\"params\":{\"progressToken\":1,\"progress\":1}}";
+            out.write((": stub\nevent: message\ndata: " + progress + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            out.write(("id: 1\nevent: message\ndata: " + body + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            sleep(endpoint.getEventStreamHoldMs());
+            out.close();
+        } catch (IOException e) {
+            // the client hung up after reading its response
+        }
+    }
+
+    private void increment(String key) {
+        counters.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void sleep(long ms) {
+        if (ms <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
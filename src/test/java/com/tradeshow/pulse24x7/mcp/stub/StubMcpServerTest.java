@@ -0,0 +1,157 @@
+package com.tradeshow.pulse24x7.mcp.stub;
+
+import com.google.gson.JsonObject;
+import com.tradeshow.pulse24x7.mcp.model.HttpResult;
+import com.tradeshow.pulse24x7.mcp.model.HttpTimings;
+import com.tradeshow.pulse24x7.mcp.service.McpTransportService;
+import com.tradeshow.pulse24x7.mcp.utils.HttpClientUtil;
+import com.tradeshow.pulse24x7.mcp.utils.JsonUtil;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+public class StubMcpServerTest extends TestCase {
+    private StubMcpServer stub;
+
+    @Override
+    protected void setUp() throws Exception {
+        stub = new StubMcpServer(0)
+                .endpoint("healthy", StubEndpoint.healthy().toolCount(25))
+                .endpoint("secured", StubEndpoint.healthy().requireToken("valid-token"))
+                .endpoint("broken", StubEndpoint.healthy().errorRate(1.0))
+                .endpoint("hanging", StubEndpoint.healthy().hangRate(1.0).hangMs(3000))
+                .endpoint("expired", StubEndpoint.healthy().expiredToken("old-token"))
+                .endpoint("slow", StubEndpoint.healthy().fixedLatency(60))
+                .endpoint("streaming", StubEndpoint.healthy().eventStream(5000))
+                .endpoint("stateful", StubEndpoint.healthy().sessions().eventStream(0))
+                .endpoint("batching", StubEndpoint.healthy().batching().eventStream(0))
+                .endpoint("watched", StubEndpoint.healthy().sessions().listChanged())
+                .start();
+    }
+
+    @Override
+    protected void tearDown() {
+        // Not shutdown(): that also stops the notification stream pool for every later test in this JVM.
+        for (int serverId : new int[]{1, 2, 3, 5}) {
+            McpTransportService.invalidate(serverId);
+        }
+        stub.close();
+    }
+
+    public void testToolsListReturnsConfiguredToolCount() {
+        JsonObject response = HttpClientUtil.doPost(stub.urlFor("healthy", 1), headers(null),
+                JsonUtil.createMCPRequest("tools/list", Map.of()).toString());
+        assertEquals(25, response.getAsJsonObject("result").getAsJsonArray("tools").size());
+    }
+
+    public void testTokenIsEnforced() {
+        assertFalse(ping("secured", null, null).isSuccess());
+        assertTrue(ping("secured", "valid-token", null).isSuccess());
+        assertEquals(1L, stub.count("unauthorized"));
+    }
+
+    public void testErrorRateOneAlwaysFails() {
+        assertFalse(ping("broken", null, null).isSuccess());
+        assertEquals(1L, stub.count("errors"));
+    }
+
+    public void testHangSurfacesAsTimeout() {
+        HttpResult result = ping("hanging", null, 500);
+        assertFalse(result.isSuccess());
+        assertEquals(504, result.getStatusCode());
+    }
+
+    public void testExpiredTokenRecoversAfterRefresh() {
+        assertFalse(ping("expired", "old-token", null).isSuccess());
+        JsonObject refreshed = HttpClientUtil.doPostForm(stub.tokenEndpoint("expired"), Map.of(),
+                Map.of("grant_type", "refresh_token", "refresh_token", "r"));
+        assertTrue(ping("expired", refreshed.get("access_token").getAsString(), null).isSuccess());
+    }
+
+    public void testPhaseTimingsSeparateServerTimeFromConnect() {
+        HttpResult result = ping("slow", null, null);
+        assertTrue(result.isSuccess());
+        HttpTimings timings = result.getTimings();
+        assertNotNull(timings);
+        assertTrue(timings.getConnectUs() > 0);
+        assertEquals(0L, timings.getTlsUs());
+        assertTrue(timings.getTtfbUs() >= 50_000L);
+        assertTrue(timings.getTotalUs() >= timings.getTtfbUs() + timings.getConnectUs());
+    }
+
+    public void testEventStreamResponseIsReadWithoutWaitingForStreamEnd() {
+        long start = System.nanoTime();
+        JsonObject response = HttpClientUtil.doPost(stub.urlFor("streaming", 1), headers(null),
+                JsonUtil.createMCPRequest("tools/list", Map.of()).toString());
+        assertEquals(10, response.getAsJsonObject("result").getAsJsonArray("tools").size());
+        assertTrue((System.nanoTime() - start) / 1_000_000L < 3000L);
+    }
+
+    public void testSessionIsNegotiatedOnceAndRenewedAfterExpiry() {
+        McpTransportService transport = new McpTransportService();
+        String url = stub.urlFor("stateful", 1);
+        String ping = JsonUtil.createMCPRequest("ping", Map.of()).toString();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(transport.ping(1, url, headers(null), ping, null).isSuccess());
+        }
+        assertEquals(1L, stub.count("method.initialize"));
+        assertEquals(1L, stub.count("method.notifications/initialized"));
+        assertEquals(3L, stub.count("method.ping"));
+
+        stub.expireSessions();
+        JsonObject tools = transport.send(1, url, headers(null),
+                JsonUtil.createMCPRequest("tools/list", Map.of()).toString(), null);
+        assertEquals(10, tools.getAsJsonObject("result").getAsJsonArray("tools").size());
+        assertEquals(1L, stub.count("expired_sessions"));
+        assertEquals(2L, stub.count("method.initialize"));
+    }
+
+    public void testBatchIsMatchedByIdAndSkippedOnceRejected() {
+        McpTransportService transport = new McpTransportService();
+        JsonObject ping = JsonUtil.createMCPRequest("ping", Map.of());
+        JsonObject toolsList = JsonUtil.createMCPRequest("tools/list", Map.of());
+        assertFalse(ping.get("id").equals(toolsList.get("id")));
+
+        List<JsonObject> responses = transport.sendBatch(2, stub.urlFor("batching", 1), headers(null),
+                List.of(ping, toolsList), null);
+        assertEquals(ping.get("id"), responses.get(0).get("id"));
+        assertEquals(10, responses.get(1).getAsJsonObject("result").getAsJsonArray("tools").size());
+
+        assertNull(transport.sendBatch(3, stub.urlFor("healthy", 1), headers(null), List.of(ping, toolsList), null));
+        assertNull(transport.sendBatch(3, stub.urlFor("healthy", 1), headers(null), List.of(ping, toolsList), null));
+        assertEquals(2L, stub.count("batches"));
+    }
+
+    public void testListChangedNotificationMarksCatalogStale() throws InterruptedException {
+        McpTransportService transport = new McpTransportService();
+        assertTrue(transport.ping(5, stub.urlFor("watched", 1), headers(null),
+                JsonUtil.createMCPRequest("ping", Map.of()).toString(), null).isSuccess());
+        assertFalse(McpTransportService.isToolCatalogCurrent(5));
+        McpTransportService.markToolCatalogSynced(5, McpTransportService.toolsChangeVersion(5));
+        assertTrue(await(() -> McpTransportService.isToolCatalogCurrent(5)));
+
+        stub.notifyToolsChanged();
+        assertTrue(await(() -> !McpTransportService.isToolCatalogCurrent(5)));
+        assertEquals(1L, stub.count("streams"));
+    }
+
+    private boolean await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private HttpResult ping(String profile, String token, Integer timeoutMs) {
+        return HttpClientUtil.canPingServer(stub.urlFor(profile, 1), headers(token),
+                JsonUtil.createMCPRequest("ping", Map.of()).toString(), timeoutMs);
+    }
+
+    private Map<String, String> headers(String token) {
+        return token == null
+                ? Map.of("Content-Type", "application/json")
+                : Map.of("Content-Type", "application/json", "Authorization", "Bearer " + token);
+    }
+}
@@ -0,0 +1,48 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import com.google.gson.JsonObject;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ArchiveSegmentUtilTest extends TestCase {
+
+    public void testSegmentRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("archive-segment");
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 42L);
+        row.put("server_up", true);
+        row.put("error_message", null);
+        row.put("checked_at", Timestamp.valueOf("2024-01-02 03:04:05"));
+
+        Path segment = ArchiveSegmentUtil.writeSegment(dir, "server_history", 42L, 42L, List.of(row));
+        List<JsonObject> rows = ArchiveSegmentUtil.readSegment(segment);
+
+        assertEquals(1, rows.size());
+        assertEquals(42L, rows.get(0).get("id").getAsLong());
+        assertTrue(rows.get(0).get("server_up").getAsBoolean());
+        assertTrue(rows.get(0).get("error_message").isJsonNull());
+        assertEquals("2024-01-02 03:04:05.0", rows.get(0).get("checked_at").getAsString());
+    }
+
+    public void testCorruptSegmentIsRejected() throws IOException {
+        Path dir = Files.createTempDirectory("archive-segment");
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        Path segment = ArchiveSegmentUtil.writeSegment(dir, "notifications", 1L, 1L, List.of(row));
+        Files.write(segment, new byte[]{1, 2, 3});
+
+        try {
+            ArchiveSegmentUtil.readSegment(segment);
+            fail("Expected checksum mismatch");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("Checksum mismatch"));
+        }
+    }
+}
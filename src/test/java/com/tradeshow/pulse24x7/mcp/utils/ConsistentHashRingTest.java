@@ -0,0 +1,56 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ConsistentHashRingTest extends TestCase {
+    private static final int KEYS = 10_000;
+
+    public void testSameMembershipGivesSameOwnersRegardlessOfOrder() {
+        ConsistentHashRing a = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing b = new ConsistentHashRing(List.of("node-c", "node-a", "node-b"), 128);
+        for (int key = 0; key < 1_000; key++) {
+            assertEquals(a.nodeFor(String.valueOf(key)), b.nodeFor(String.valueOf(key)));
+        }
+        assertNull(new ConsistentHashRing(List.of(), 128).nodeFor("1"));
+    }
+
+    public void testKeysSpreadEvenlyAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a", "node-b", "node-c", "node-d"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int key = 0; key < KEYS; key++) {
+            counts.merge(ring.nodeFor(String.valueOf(key)), 1, Integer::sum);
+        }
+        assertEquals(4, counts.size());
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            assertTrue(entry.getKey() + " owns " + entry.getValue(),
+                    entry.getValue() > KEYS / 4 * 0.75 && entry.getValue() < KEYS / 4 * 1.25);
+        }
+    }
+
+    public void testJoinAndLeaveOnlyMoveKeysOfTheChangedNode() {
+        ConsistentHashRing three = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing four = new ConsistentHashRing(List.of("node-a", "node-b", "node-c", "node-d"), 128);
+        int moved = 0;
+        for (int key = 0; key < KEYS; key++) {
+            String before = three.nodeFor(String.valueOf(key));
+            String after = four.nodeFor(String.valueOf(key));
+            if (!before.equals(after)) {
+                assertEquals("keys only move to the joining node", "node-d", after);
+                moved++;
+            }
+        }
+        assertTrue("about a quarter should move, moved " + moved, moved > KEYS * 0.18 && moved < KEYS * 0.32);
+
+        ConsistentHashRing withoutB = new ConsistentHashRing(List.of("node-a", "node-c", "node-d"), 128);
+        for (int key = 0; key < KEYS; key++) {
+            String before = four.nodeFor(String.valueOf(key));
+            if (!"node-b".equals(before)) {
+                assertEquals("keys of surviving nodes stay put", before, withoutB.nodeFor(String.valueOf(key)));
+            }
+        }
+    }
+}
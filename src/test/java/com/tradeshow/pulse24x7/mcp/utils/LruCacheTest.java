@@ -0,0 +1,83 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LruCacheTest extends TestCase {
+    private final AtomicLong now = new AtomicLong();
+
+    public void testEvictsLeastRecentlyUsedBeyondMaxSize() {
+        LruCache<Integer, String> cache = new LruCache<>(2, 60_000, null, now::get);
+        cache.putIfUnchanged(1, "one", cache.stamp());
+        cache.putIfUnchanged(2, "two", cache.stamp());
+        assertEquals("one", cache.get(1));
+        cache.putIfUnchanged(3, "three", cache.stamp());
+
+        assertEquals(2, cache.size());
+        assertEquals("one", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("three", cache.get(3));
+    }
+
+    public void testEntriesExpireAfterTtl() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 1_000, null, now::get);
+        cache.putIfUnchanged(1, "one", cache.stamp());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertEquals("one", cache.get(1));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertNull(cache.get(1));
+        assertEquals(0, cache.size());
+    }
+
+    public void testLoadStartedBeforeInvalidationIsNotStored() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 60_000, null, now::get);
+        long stamp = cache.stamp();
+        cache.invalidate(1);
+
+        assertFalse(cache.putIfUnchanged(1, "stale", stamp));
+        assertNull(cache.get(1));
+        assertTrue(cache.putIfUnchanged(1, "fresh", cache.stamp()));
+        assertEquals("fresh", cache.get(1));
+    }
+
+    public void testInvalidatingOtherKeysDoesNotBlockALoad() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 60_000, null, now::get);
+        long stamp = cache.stamp();
+        for (int i = 2; i <= 10; i++) {
+            cache.invalidate(i);
+        }
+
+        assertTrue(cache.putIfUnchanged(1, "one", stamp));
+        assertEquals("one", cache.get(1));
+    }
+
+    public void testLoadIsRejectedOnceItsTombstoneWasDropped() {
+        LruCache<Integer, String> cache = new LruCache<>(2, 60_000, null, now::get);
+        long stamp = cache.stamp();
+        cache.invalidate(1);
+        cache.invalidate(2);
+        cache.invalidate(3);
+
+        assertFalse(cache.putIfUnchanged(1, "stale", stamp));
+        assertFalse("unknown staleness is treated as stale", cache.putIfUnchanged(4, "maybe", stamp));
+        assertTrue(cache.putIfUnchanged(4, "fresh", cache.stamp()));
+    }
+
+    public void testInvalidateGroupDropsItsEntriesAndInFlightLoads() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 60_000, value -> value.charAt(0), now::get);
+        for (int i = 1; i <= 4; i++) {
+            cache.putIfUnchanged(i, i % 2 == 0 ? "even" : "odd", cache.stamp());
+        }
+        long stamp = cache.stamp();
+
+        assertEquals(2, cache.invalidateGroup('e'));
+        assertEquals(2, cache.size());
+        assertEquals("odd", cache.get(1));
+        assertNull(cache.get(2));
+        assertFalse(cache.putIfUnchanged(6, "even", stamp));
+        assertTrue(cache.putIfUnchanged(5, "odd", stamp));
+        assertEquals(0, cache.invalidateGroup('x'));
+    }
+}
@@ -0,0 +1,47 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import junit.framework.TestCase;
+
+public class ProbeExpectationTest extends TestCase {
+    private static final JsonObject RESPONSE = JsonParser.parseString(
+            "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{\"content\":[{\"type\":\"text\",\"text\":\"status: ok (3 items)\"}],"
+                    + "\"structuredContent\":{\"count\":3,\"status\":\"ok\"}}}").getAsJsonObject();
+
+    public void testBlankExpectationOnlyRequiresASuccessfulCall() {
+        assertNull(ProbeExpectation.parse(null).firstFailure(RESPONSE));
+        JsonObject failed = JsonParser.parseString(
+                "{\"result\":{\"isError\":true,\"content\":[]}}").getAsJsonObject();
+        assertNotNull(ProbeExpectation.parse("").firstFailure(failed));
+        JsonObject rpcError = JsonParser.parseString("{\"error\":{\"code\":-32602}}").getAsJsonObject();
+        assertNotNull(ProbeExpectation.parse("").firstFailure(rpcError));
+    }
+
+    public void testRulesResolvePathsAndOperators() {
+        assertNull(ProbeExpectation.parse("{\"path\":\"result.content[0].text\",\"contains\":\"ok\"}")
+                .firstFailure(RESPONSE));
+        assertNull(ProbeExpectation.parse("[{\"path\":\"result.structuredContent.count\",\"equals\":3.0},"
+                + "{\"path\":\"result.content[0].text\",\"matches\":\"\\\\(\\\\d+ items\\\\)\"},"
+                + "{\"path\":\"result.structuredContent.error\",\"exists\":false}]").firstFailure(RESPONSE));
+
+        String failure = ProbeExpectation.parse("{\"path\":\"result.structuredContent.status\",\"equals\":\"green\"}")
+                .firstFailure(RESPONSE);
+        assertTrue(failure, failure.startsWith("result.structuredContent.status expected"));
+        assertNotNull(ProbeExpectation.parse("{\"path\":\"result.content[5].text\",\"exists\":true}")
+                .firstFailure(RESPONSE));
+    }
+
+    public void testMalformedExpectationsAreRejected() {
+        for (String invalid : new String[]{"not json", "[1]", "{\"path\":\"result\"}",
+                "{\"path\":\"result\",\"matches\":\"(\"}", "{\"path\":\"a..b\",\"exists\":true}",
+                "{\"path\":\"result\",\"equals\":1,\"contains\":\"1\"}"}) {
+            try {
+                ProbeExpectation.parse(invalid);
+                fail("accepted " + invalid);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+}
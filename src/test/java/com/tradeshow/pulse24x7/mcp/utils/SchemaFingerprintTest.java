@@ -0,0 +1,25 @@
+package com.tradeshow.pulse24x7.mcp.utils;
+
+import com.google.gson.JsonParser;
+import junit.framework.TestCase;
+
+public class SchemaFingerprintTest extends TestCase {
+
+    public void testKeyOrderAndNumberFormatDoNotMatter() {
+        String stored = "{\"type\":\"object\",\"properties\":{\"limit\":{\"type\":\"integer\",\"maximum\":100}}}";
+        String reordered = "{ \"properties\": { \"limit\": { \"maximum\": 1.00E2, \"type\": \"integer\" } }, \"type\": \"object\" }";
+
+        assertEquals(SchemaFingerprint.ofStored(stored, null), SchemaFingerprint.ofStored(reordered, null));
+        assertEquals(SchemaFingerprint.ofStored(stored, null),
+                SchemaFingerprint.of(JsonParser.parseString(reordered), null));
+    }
+
+    public void testChangedSchemaChangesFingerprint() {
+        String input = "{\"type\":\"object\",\"required\":[\"a\",\"b\"]}";
+
+        assertFalse(SchemaFingerprint.ofStored(input, null)
+                .equals(SchemaFingerprint.ofStored("{\"type\":\"object\",\"required\":[\"b\",\"a\"]}", null)));
+        assertFalse(SchemaFingerprint.ofStored(input, null).equals(SchemaFingerprint.ofStored(null, input)));
+        assertEquals(SchemaFingerprint.ofStored("not json "), SchemaFingerprint.ofStored("not json"));
+    }
+}